@@ -0,0 +1,90 @@
+package com.BlackJackStack.demo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.Hand;
+
+/**
+ * Benchmarks for the Card and Hand operations used on every request, over representative hands:
+ * a hard hand, a soft hand, a multi-Ace hand and a busted hand.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandBenchmark {
+
+    /** The ranks of the cards in the hand, separated by hyphens */
+    @Param({"10-6", "A-7", "A-A-9", "K-Q-5"})
+    private String cards;
+
+    private String[] ranks;
+    private Hand hand;
+
+    /**
+     * Method to build the hand for the current parameter.
+     */
+    @Setup
+    public void setUp() {
+        ranks = cards.split("-");
+        hand = new Hand();
+        for (String rank : ranks) {
+            hand.addCard(new Card(rank));
+        }
+    }
+
+    /**
+     * Benchmark of computing the hand's value.
+     * @return the hand value
+     */
+    @Benchmark
+    public int getValue() {
+        return hand.getValue();
+    }
+
+    /**
+     * Benchmark of copying the hand, as done for every split hand.
+     * @return the copy
+     */
+    @Benchmark
+    public Hand copyHand() {
+        return new Hand(hand);
+    }
+
+    /**
+     * Benchmark of parsing the first card of the hand from its rank string.
+     * @return the Card
+     */
+    @Benchmark
+    public Card parseCard() {
+        return new Card(ranks[0]);
+    }
+
+    /**
+     * Benchmark of building the whole hand from its rank strings.
+     * @return the Hand
+     */
+    @Benchmark
+    public Hand buildHand() {
+        Hand built = new Hand();
+        for (String rank : ranks) {
+            built.addCard(new Card(rank));
+        }
+        return built;
+    }
+}
@@ -0,0 +1,124 @@
+package com.BlackJackStack.demo.benchmark;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.DealerOutcome;
+import com.BlackJackStack.demo.model.Hand;
+import com.BlackJackStack.demo.model.Move;
+import com.BlackJackStack.demo.model.PackedHand;
+import com.BlackJackStack.demo.model.Shoe;
+import com.BlackJackStack.demo.model.StrategyRequest;
+import com.BlackJackStack.demo.model.StrategyResponse;
+import com.BlackJackStack.demo.model.TableRules;
+import com.BlackJackStack.demo.service.DealerOutcomeCalculator;
+import com.BlackJackStack.demo.service.ExpectedValueSolver;
+import com.BlackJackStack.demo.service.SimulationExecutor;
+import com.BlackJackStack.demo.service.StrategyService;
+import com.BlackJackStack.demo.service.Tally;
+
+/**
+ * Benchmarks for a full strategy request and for each estimator behind it, over representative hands:
+ * a stiff hand, a soft hand, a pair, a double down and a blackjack.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrategyServiceBenchmark {
+
+    /** Player card 1, player card 2 and dealer up card, separated by hyphens */
+    @Param({"10-6-10", "A-7-9", "8-8-10", "5-6-6", "A-K-6"})
+    private String hand;
+
+    private StrategyService strategyService;
+    private DealerOutcomeCalculator dealerOutcomes;
+    private ExpectedValueSolver solver;
+    private SimulationExecutor executor;
+    private StrategyRequest request;
+    private Card upCard;
+    private int packed;
+    private Shoe shoe;
+
+    /**
+     * Method to build the services and the shoe with the hand's cards removed.
+     */
+    @Setup
+    public void setUp() {
+        strategyService = new StrategyService();
+        dealerOutcomes = new DealerOutcomeCalculator();
+        solver = new ExpectedValueSolver(dealerOutcomes);
+        executor = new SimulationExecutor();
+
+        String[] cards = hand.split("-");
+        request = new StrategyRequest(cards[0], cards[1], cards[2]);
+        Hand player = new Hand();
+        player.addCard(new Card(cards[0]));
+        player.addCard(new Card(cards[1]));
+        packed = player.getPacked();
+        upCard = new Card(cards[2]);
+
+        shoe = TableRules.DEFAULT.newShoe();
+        for (Card card : player.getCards()) {
+            shoe.remove(card.getRankIndex());
+        }
+        shoe.remove(upCard.getRankIndex());
+    }
+
+    /**
+     * Benchmark of a complete, uncached strategy request.
+     * @return the StrategyResponse
+     */
+    @Benchmark
+    public StrategyResponse getStrategy() {
+        return strategyService.getStrategy(request);
+    }
+
+    /**
+     * Benchmark of the exact solver for every action's expected value.
+     * @return the action values
+     */
+    @Benchmark
+    public Map<Move, Double> solveExpectedValues() {
+        return solver.solve(packed, upCard, shoe, TableRules.DEFAULT);
+    }
+
+    /**
+     * Benchmark of the exact dealer distribution for a six-deck shoe.
+     * @return the DealerOutcome
+     */
+    @Benchmark
+    public DealerOutcome dealerOutcomeFiniteShoe() {
+        return dealerOutcomes.getOutcome(upCard, shoe, TableRules.DEFAULT.isHitSoft17());
+    }
+
+    /**
+     * Benchmark of the Monte Carlo bust estimate, one batch of 2000 rounds on the shared executor.
+     * @return the Tally of simulated busts
+     */
+    @Benchmark
+    public Tally simulateBustChance() {
+        Shoe base = shoe;
+        int start = packed;
+        return executor.run(new SplittableRandom(42), 2000, Tally::new, () -> (random, tally) ->
+                tally.add(PackedHand.isBusted(PackedHand.addRank(start, base.sample(random))) ? 1.0 : 0.0),
+                Tally::merge);
+    }
+}
@@ -0,0 +1,46 @@
+package com.BlackJackStack.demo.controller;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+/**
+ * Class that turns errors raised by the JSON API into RFC 7807 problem responses.
+ * Spring's own request errors, such as a missing parameter or an unreadable body, are handled by
+ * ResponseEntityExceptionHandler, invalid field values are listed under "errors".
+ */
+@RestControllerAdvice(assignableTypes = {StrategyApiController.class, CountApiController.class,
+        GameApiController.class})
+public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
+
+    /**
+     * Method to report the invalid fields of a strategy request.
+     * @param e the InvalidStrategyRequestException raised by the controller
+     * @return a 400 ProblemDetail with the error message of each invalid field
+     */
+    @ExceptionHandler(InvalidStrategyRequestException.class)
+    public ProblemDetail handleInvalidRequest(InvalidStrategyRequestException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "One or more fields are invalid.");
+        problem.setTitle("Invalid strategy request");
+        problem.setProperty("errors", e.getErrors());
+        return problem;
+    }
+
+    /**
+     * Method to turn away a request while too many simulations are queued.
+     * @param e the RejectedExecutionException raised when the simulation was not admitted
+     * @return a 503 ProblemDetail asking the client to retry after a second
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ProblemDetail> handleRejected(RejectedExecutionException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        problem.setTitle("Server busy");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(problem);
+    }
+}
@@ -0,0 +1,127 @@
+package com.BlackJackStack.demo.controller;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.ShoeCount;
+import com.BlackJackStack.demo.service.ShoeTracker;
+import com.BlackJackStack.demo.service.ShoeTrackerRegistry;
+
+/**
+ * Controller class for counting sessions. A client starts a session for a table, reports every card it sees
+ * and shuffles it with the shoe, and passes the session id as countSession on strategy lookups to get the
+ * play after count-indexed deviations.
+ */
+@RestController
+@RequestMapping("/api/v1/count-sessions")
+public class CountApiController {
+
+    private final ShoeTrackerRegistry trackers;
+
+    /**
+     * Constructs a CountApiController.
+     * @param trackers the registry holding the counting sessions
+     */
+    public CountApiController(ShoeTrackerRegistry trackers) {
+        this.trackers = trackers;
+    }
+
+    /**
+     * Method to start a counting session on a freshly shuffled shoe.
+     * @param rules an optional String naming the table-rules profile
+     * @return the ShoeCount of the new session, with its id
+     * @throws InvalidStrategyRequestException if the profile is unknown or deals from an infinite deck
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public ShoeCount createSession(@RequestParam(required = false) String rules) {
+        try {
+            return trackers.create(rules).getCount();
+        } catch (IllegalArgumentException e) {
+            throw new InvalidStrategyRequestException(Map.of("rules", e.getMessage()));
+        }
+    }
+
+    /**
+     * Method to get the count of a session.
+     * @param id the session id
+     * @return the ShoeCount
+     */
+    @GetMapping("/{id}")
+    public ShoeCount getCount(@PathVariable String id) {
+        return tracker(id).getCount();
+    }
+
+    /**
+     * Method to count the cards seen at the table since the last report.
+     * @param id the session id
+     * @param cards the cards seen, as a JSON array of card strings
+     * @return the ShoeCount including the cards
+     * @throws InvalidStrategyRequestException if any card is invalid, in which case none are counted
+     */
+    @PostMapping("/{id}/cards")
+    public ShoeCount seeCards(@PathVariable String id, @RequestBody List<String> cards) {
+        ShoeTracker tracker = tracker(id);
+        Map<String, String> errors = new LinkedHashMap<>();
+        int[] ranks = new int[cards.size()];
+        for (int i = 0; i < ranks.length; i++) {
+            try {
+                ranks[i] = Card.parseRank(cards.get(i));
+            } catch (IllegalArgumentException e) {
+                errors.put("cards[" + i + "]", e.getMessage() + " (expected 2-10, J, Q, K or A)");
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new InvalidStrategyRequestException(errors);
+        }
+        return tracker.see(ranks);
+    }
+
+    /**
+     * Method to start counting again after the shoe is shuffled.
+     * @param id the session id
+     * @return the ShoeCount of the fresh shoe
+     */
+    @PostMapping("/{id}/shuffle")
+    public ShoeCount shuffle(@PathVariable String id) {
+        return tracker(id).shuffle();
+    }
+
+    /**
+     * Method to end a counting session.
+     * @param id the session id
+     */
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void endSession(@PathVariable String id) {
+        trackers.remove(id);
+    }
+
+    /**
+     * Method to get the tracker of a session.
+     * @param id the session id
+     * @return the ShoeTracker
+     * @throws ResponseStatusException with 404 if the session does not exist or has expired
+     */
+    private ShoeTracker tracker(String id) {
+        ShoeTracker tracker = trackers.get(id);
+        if (tracker == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown or expired count session: " + id);
+        }
+        return tracker;
+    }
+}
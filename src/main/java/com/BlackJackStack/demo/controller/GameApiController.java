@@ -0,0 +1,213 @@
+package com.BlackJackStack.demo.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.GameState;
+import com.BlackJackStack.demo.model.Move;
+import com.BlackJackStack.demo.service.GameEngine;
+import com.BlackJackStack.demo.service.GameSession;
+
+/**
+ * Controller class for playing hands against the server-side GameEngine. A client opens a game session for a
+ * table, deals rounds and posts each move, and receives the GameState of the table after every request.
+ * Moves that are not allowed at that point of the round are answered with 409.
+ */
+@RestController
+@RequestMapping("/api/v1/games")
+public class GameApiController {
+
+    private final GameEngine engine;
+
+    /**
+     * Constructs a GameApiController.
+     * @param engine the engine holding the game sessions
+     */
+    public GameApiController(GameEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Method to open a game session at a new table.
+     * @param rules an optional String naming the table-rules profile
+     * @return the GameState of the new session, with its id
+     * @throws InvalidStrategyRequestException if the profile is unknown
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public GameState createSession(@RequestParam(required = false) String rules) {
+        try {
+            return engine.create(rules).getState();
+        } catch (IllegalArgumentException e) {
+            throw new InvalidStrategyRequestException(Map.of("rules", e.getMessage()));
+        }
+    }
+
+    /**
+     * Method to get the state of a game session.
+     * @param id the session id
+     * @return the GameState
+     */
+    @GetMapping("/{id}")
+    public GameState getState(@PathVariable String id) {
+        return session(id).getState();
+    }
+
+    /**
+     * Method to deal a new round. The player's two cards and the dealer's up card may be chosen, any card
+     * not chosen is dealt from the shoe.
+     * @param id the session id
+     * @param bet the chips bet on the round
+     * @param card1 an optional String representing the first player card, given together with card2
+     * @param card2 an optional String representing the second player card, given together with card1
+     * @param dealer an optional String representing the dealer's up card
+     * @return the GameState after the deal
+     * @throws InvalidStrategyRequestException if a card or the bet is invalid
+     */
+    @PostMapping("/{id}/deal")
+    public GameState deal(@PathVariable String id,
+                          @RequestParam(defaultValue = "10") int bet,
+                          @RequestParam(required = false) String card1,
+                          @RequestParam(required = false) String card2,
+                          @RequestParam(required = false) String dealer) {
+        GameSession session = session(id);
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (bet <= 0) {
+            errors.put("bet", "Bet must be positive");
+        }
+        if ((card1 == null) != (card2 == null)) {
+            errors.put(card1 == null ? "card1" : "card2", "Choose both player cards or neither");
+        }
+        int first = parseCard("card1", card1, errors);
+        int second = parseCard("card2", card2, errors);
+        int up = parseCard("dealer", dealer, errors);
+        if (!errors.isEmpty()) {
+            throw new InvalidStrategyRequestException(errors);
+        }
+        try {
+            return session.deal(bet, card1 != null ? new int[] { first, second } : null, up);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    /**
+     * Method to hit the active hand.
+     * @param id the session id
+     * @return the GameState after the move
+     */
+    @PostMapping("/{id}/hit")
+    public GameState hit(@PathVariable String id) {
+        return play(id, Move.HIT);
+    }
+
+    /**
+     * Method to stand on the active hand.
+     * @param id the session id
+     * @return the GameState after the move
+     */
+    @PostMapping("/{id}/stand")
+    public GameState stand(@PathVariable String id) {
+        return play(id, Move.STAND);
+    }
+
+    /**
+     * Method to double down on the active hand.
+     * @param id the session id
+     * @return the GameState after the move
+     */
+    @PostMapping("/{id}/double")
+    public GameState doubleDown(@PathVariable String id) {
+        return play(id, Move.DOUBLE_DOWN);
+    }
+
+    /**
+     * Method to split the active hand.
+     * @param id the session id
+     * @return the GameState after the move
+     */
+    @PostMapping("/{id}/split")
+    public GameState split(@PathVariable String id) {
+        return play(id, Move.SPLIT);
+    }
+
+    /**
+     * Method to surrender the active hand.
+     * @param id the session id
+     * @return the GameState after the move
+     */
+    @PostMapping("/{id}/surrender")
+    public GameState surrender(@PathVariable String id) {
+        return play(id, Move.SURRENDER);
+    }
+
+    /**
+     * Method to close a game session.
+     * @param id the session id
+     */
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void endSession(@PathVariable String id) {
+        engine.remove(id);
+    }
+
+    /**
+     * Method to make a move in a game session.
+     * @param id the session id
+     * @param move the Move to make
+     * @return the GameState after the move
+     * @throws ResponseStatusException with 409 if the move is not allowed at this point of the round
+     */
+    private GameState play(String id, Move move) {
+        try {
+            return session(id).play(move);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    /**
+     * Method to get a game session.
+     * @param id the session id
+     * @return the GameSession
+     * @throws ResponseStatusException with 404 if the session does not exist or has expired
+     */
+    private GameSession session(String id) {
+        GameSession session = engine.get(id);
+        if (session == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown or expired game session: " + id);
+        }
+        return session;
+    }
+
+    /**
+     * Method to parse an optional card parameter, recording an error if it is invalid.
+     * @param field the name of the parameter
+     * @param card the card String, or null if it was not given
+     * @param errors the map the error is recorded in
+     * @return the rank index of the card, or -1 if it was not given or is invalid
+     */
+    private static int parseCard(String field, String card, Map<String, String> errors) {
+        if (card == null) {
+            return -1;
+        }
+        try {
+            return Card.parseRank(card);
+        } catch (IllegalArgumentException e) {
+            errors.put(field, e.getMessage() + " (expected 2-10, J, Q, K or A)");
+            return -1;
+        }
+    }
+}
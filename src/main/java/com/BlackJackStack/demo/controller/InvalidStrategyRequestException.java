@@ -0,0 +1,33 @@
+package com.BlackJackStack.demo.controller;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exception thrown when a strategy API request has invalid fields, reported as a 400 response
+ * listing the message for each invalid field.
+ */
+class InvalidStrategyRequestException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Map<String, String> errors;
+
+    /**
+     * Constructs an InvalidStrategyRequestException.
+     * @param errors the error message of each invalid field, keyed by field name
+     */
+    InvalidStrategyRequestException(Map<String, String> errors) {
+        super("Invalid strategy request: " + errors);
+        this.errors = Collections.unmodifiableMap(new LinkedHashMap<>(errors));
+    }
+
+    /**
+     * Method to get the error message of each invalid field.
+     * @return the error messages keyed by field name
+     */
+    Map<String, String> getErrors() {
+        return errors;
+    }
+}
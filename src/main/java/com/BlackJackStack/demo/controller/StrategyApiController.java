@@ -0,0 +1,348 @@
+package com.BlackJackStack.demo.controller;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.BlackJackStack.demo.model.StrategyBatchResult;
+import com.BlackJackStack.demo.model.StrategyRequest;
+import com.BlackJackStack.demo.model.StrategyResponse;
+import com.BlackJackStack.demo.service.EventLog;
+import com.BlackJackStack.demo.service.ShoeTrackerRegistry;
+import com.BlackJackStack.demo.service.StrategyBatchService;
+import com.BlackJackStack.demo.service.StrategyRequestValidator;
+import com.BlackJackStack.demo.service.StrategyTable;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Controller class for the JSON strategy API used by machine clients.
+ * It serves the same lookups as the form on the index page without rendering HTML.
+ * Invalid requests are answered with a 400 problem response listing each invalid field.
+ */
+@RestController
+@RequestMapping("/api/v1")
+public class StrategyApiController {
+
+    /** Marks the end of a streamed lookup's snapshots, it is never written */
+    private static final StrategyResponse END_OF_SNAPSHOTS = new StrategyResponse();
+
+    private final StrategyTable strategyTable;
+    private final StrategyRequestValidator validator;
+    private final StrategyBatchService batchService;
+    private final ObjectMapper objectMapper;
+    private final ShoeTrackerRegistry trackers;
+    private final EventLog events;
+    private final ExecutorService lookups =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("strategy-stream-", 1).factory());
+
+    /**
+     * Constructs a StrategyApiController.
+     * @param strategyTable the table used to look up strategies
+     * @param validator the validator used to check each request
+     * @param batchService the service used to evaluate batches
+     * @param objectMapper the mapper used to read and write streamed JSON
+     * @param trackers the registry whose counting sessions adjust the advice of requests that name one
+     * @param events the EventLog every recommendation is recorded in
+     */
+    public StrategyApiController(StrategyTable strategyTable, StrategyRequestValidator validator,
+            StrategyBatchService batchService, ObjectMapper objectMapper, ShoeTrackerRegistry trackers,
+            EventLog events) {
+        this.strategyTable = strategyTable;
+        this.validator = validator;
+        this.batchService = batchService;
+        this.objectMapper = objectMapper;
+        this.trackers = trackers;
+        this.events = events;
+    }
+
+    /**
+     * Method to look up the strategy for a hand given as query parameters.
+     * @param card1 a String representing the first player card, unless cards is given
+     * @param card2 a String representing the second player card, unless cards is given
+     * @param cards the player's cards for a hand of any length, instead of card1 and card2
+     * @param dealer a String representing the dealer's up card
+     * @param rules an optional String naming the table-rules profile
+     * @param afterSplit true if the hand is one of the hands of a split pair
+     * @param splitHands the number of hands the pair has been split into, omitted for two
+     * @param canDouble true or false to say whether the hand may be doubled, omitted to follow the rules
+     * @param countSession an optional counting session whose true count adjusts the advice
+     * @return the StrategyResponse as JSON
+     */
+    @GetMapping("/strategy")
+    public StrategyResponse getStrategy(@RequestParam(required = false) String card1,
+                                        @RequestParam(required = false) String card2,
+                                        @RequestParam(required = false) List<String> cards,
+                                        @RequestParam String dealer,
+                                        @RequestParam(required = false) String rules,
+                                        @RequestParam(defaultValue = "false") boolean afterSplit,
+                                        @RequestParam(required = false) Integer splitHands,
+                                        @RequestParam(required = false) Boolean canDouble,
+                                        @RequestParam(required = false) String countSession) {
+        return lookup(request(card1, card2, cards, dealer, rules, afterSplit, splitHands, canDouble,
+                countSession));
+    }
+
+    /**
+     * Method to look up the strategy for a hand given as a JSON StrategyRequest.
+     * @param request the StrategyRequest with the player's cards, dealer's up card and optional rules profile
+     * @return the StrategyResponse as JSON
+     */
+    @PostMapping("/strategy")
+    public StrategyResponse postStrategy(@RequestBody StrategyRequest request) {
+        return lookup(request);
+    }
+
+    /**
+     * Method to look up the strategy for a hand as Server-Sent Events. A "snapshot" event with the exact
+     * statistics and the basic strategy move is sent before the expected values are solved, another as each
+     * action's expected value is solved, then a "result" event with the final response.
+     * A precomputed response is sent as a single "result" event.
+     * @param card1 a String representing the first player card, unless cards is given
+     * @param card2 a String representing the second player card, unless cards is given
+     * @param cards the player's cards for a hand of any length, instead of card1 and card2
+     * @param dealer a String representing the dealer's up card
+     * @param rules an optional String naming the table-rules profile
+     * @param afterSplit true if the hand is one of the hands of a split pair
+     * @param splitHands the number of hands the pair has been split into, omitted for two
+     * @param canDouble true or false to say whether the hand may be doubled, omitted to follow the rules
+     * @param countSession an optional counting session whose true count adjusts the advice
+     * @return a streamed text/event-stream body of StrategyResponses
+     */
+    @GetMapping(path = "/strategy/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamStrategyEvents(
+            @RequestParam(required = false) String card1,
+            @RequestParam(required = false) String card2,
+            @RequestParam(required = false) List<String> cards,
+            @RequestParam String dealer,
+            @RequestParam(required = false) String rules,
+            @RequestParam(defaultValue = "false") boolean afterSplit,
+            @RequestParam(required = false) Integer splitHands,
+            @RequestParam(required = false) Boolean canDouble,
+            @RequestParam(required = false) String countSession) {
+        StrategyRequest request = request(card1, card2, cards, dealer, rules, afterSplit, splitHands, canDouble,
+                countSession);
+        return stream(request, MediaType.TEXT_EVENT_STREAM, (out, event, response) -> {
+            out.write(("event: " + event + "\ndata: ").getBytes(StandardCharsets.UTF_8));
+            out.write(objectMapper.writeValueAsBytes(response));
+            out.write("\n\n".getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    /**
+     * Method to look up the strategy for a hand as NDJSON: a snapshot line before the expected values
+     * are solved and another as each action is solved, the final response on the last line.
+     * @param card1 a String representing the first player card, unless cards is given
+     * @param card2 a String representing the second player card, unless cards is given
+     * @param cards the player's cards for a hand of any length, instead of card1 and card2
+     * @param dealer a String representing the dealer's up card
+     * @param rules an optional String naming the table-rules profile
+     * @param afterSplit true if the hand is one of the hands of a split pair
+     * @param splitHands the number of hands the pair has been split into, omitted for two
+     * @param canDouble true or false to say whether the hand may be doubled, omitted to follow the rules
+     * @param countSession an optional counting session whose true count adjusts the advice
+     * @return a streamed NDJSON body of StrategyResponses
+     */
+    @GetMapping(path = "/strategy/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamStrategyLines(
+            @RequestParam(required = false) String card1,
+            @RequestParam(required = false) String card2,
+            @RequestParam(required = false) List<String> cards,
+            @RequestParam String dealer,
+            @RequestParam(required = false) String rules,
+            @RequestParam(defaultValue = "false") boolean afterSplit,
+            @RequestParam(required = false) Integer splitHands,
+            @RequestParam(required = false) Boolean canDouble,
+            @RequestParam(required = false) String countSession) {
+        StrategyRequest request = request(card1, card2, cards, dealer, rules, afterSplit, splitHands, canDouble,
+                countSession);
+        return stream(request, MediaType.APPLICATION_NDJSON, (out, event, response) -> {
+            out.write(objectMapper.writeValueAsBytes(response));
+            out.write('\n');
+        });
+    }
+
+    /**
+     * Method to validate a streamed lookup and build the body that writes its snapshots. The lookup runs on a
+     * virtual thread of its own and only queues its snapshots, which the body writes on the request's thread,
+     * so a slow or disconnected client never holds up or fails the computation that produced them.
+     * @param request the StrategyRequest to look up
+     * @param contentType the media type of the streamed body
+     * @param writer writes one snapshot or the final response in the stream's format
+     * @return the streamed response
+     * @throws InvalidStrategyRequestException if any field is invalid
+     */
+    private ResponseEntity<StreamingResponseBody> stream(StrategyRequest request, MediaType contentType,
+            SnapshotWriter writer) {
+        Map<String, String> errors = validator.validate(request);
+        if (!errors.isEmpty()) {
+            throw new InvalidStrategyRequestException(errors);
+        }
+
+        StreamingResponseBody body = out -> {
+            BlockingQueue<StrategyResponse> snapshots = new LinkedBlockingQueue<>();
+            CompletableFuture<StrategyResponse> lookup =
+                    CompletableFuture.supplyAsync(() -> strategyTable.lookup(request, snapshots::add), lookups);
+            lookup.whenComplete((response, error) -> snapshots.add(END_OF_SNAPSHOTS));
+            try {
+                for (StrategyResponse snapshot = snapshots.take(); snapshot != END_OF_SNAPSHOTS;
+                        snapshot = snapshots.take()) {
+                    writer.write(out, "snapshot", snapshot);
+                    out.flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Lookup interrupted");
+            }
+
+            StrategyResponse result;
+            try {
+                result = lookup.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+            events.recordRecommendation(request, result);
+            writer.write(out, "result", advise(request, result));
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    /**
+     * Method to look up the strategies for a batch of hands, given as a JSON array of StrategyRequests or as
+     * NDJSON (one StrategyRequest per line). Requests are read and evaluated in parallel while the body is
+     * still arriving, and each result is written as an NDJSON line as soon as it finishes, so lines may be
+     * out of order. Each line carries the index of its request and either its response or its field errors.
+     * @param request the HTTP request to read the batch from
+     * @return a streamed NDJSON body of StrategyBatchResults
+     */
+    @PostMapping(path = "/strategy/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> batchStrategy(HttpServletRequest request) {
+        StreamingResponseBody body = out -> {
+            try (MappingIterator<StrategyRequest> requests =
+                    objectMapper.readerFor(StrategyRequest.class).readValues(request.getInputStream())) {
+                batchService.evaluate(requests, result -> writeLine(out, result));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Batch interrupted");
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Method to write one batch result as an NDJSON line and flush it to the client.
+     * @param out the response stream
+     * @param result the StrategyBatchResult to write
+     */
+    private void writeLine(OutputStream out, StrategyBatchResult result) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Method to build a StrategyRequest from query parameters.
+     * @param card1 a String representing the first player card, unless cards is given
+     * @param card2 a String representing the second player card, unless cards is given
+     * @param cards the player's cards for a hand of any length, instead of card1 and card2
+     * @param dealer a String representing the dealer's up card
+     * @param rules an optional String naming the table-rules profile
+     * @param afterSplit true if the hand is one of the hands of a split pair
+     * @param splitHands the number of hands the pair has been split into, omitted for two
+     * @param canDouble true or false to say whether the hand may be doubled, omitted to follow the rules
+     * @param countSession an optional counting session whose true count adjusts the advice
+     * @return the StrategyRequest
+     */
+    private static StrategyRequest request(String card1, String card2, List<String> cards, String dealer,
+            String rules, boolean afterSplit, Integer splitHands, Boolean canDouble, String countSession) {
+        StrategyRequest request = new StrategyRequest(card1, card2, dealer);
+        request.setCards(cards);
+        request.setRules(rules);
+        request.setAfterSplit(afterSplit);
+        request.setSplitHands(splitHands);
+        request.setCanDouble(canDouble);
+        request.setCountSession(countSession);
+        return request;
+    }
+
+    /**
+     * Method to validate a request and look up its strategy.
+     * @param request the StrategyRequest to look up
+     * @return the StrategyResponse
+     * @throws InvalidStrategyRequestException if any field is invalid
+     */
+    private StrategyResponse lookup(StrategyRequest request) {
+        Map<String, String> errors = validator.validate(request);
+        if (!errors.isEmpty()) {
+            throw new InvalidStrategyRequestException(errors);
+        }
+        StrategyResponse response = strategyTable.lookup(request);
+        events.recordRecommendation(request, response);
+        return advise(request, response);
+    }
+
+    /**
+     * Method to add the count advice of the request's counting session to a response.
+     * @param request the StrategyRequest that was looked up
+     * @param response the StrategyResponse for the request
+     * @return the response with the count advice, or the response itself if the request has no session
+     */
+    private StrategyResponse advise(StrategyRequest request, StrategyResponse response) {
+        return request.getCountSession() == null ? response : trackers.advise(request, response);
+    }
+
+    /**
+     * Method to stop the threads of streamed lookups when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        lookups.shutdownNow();
+    }
+
+    /**
+     * Interface for writing one streamed response in the format of the stream.
+     */
+    @FunctionalInterface
+    private interface SnapshotWriter {
+        /**
+         * Method to write one response to the stream.
+         * @param out the response stream
+         * @param event "snapshot" for an intermediate response, "result" for the final one
+         * @param response the StrategyResponse to write
+         * @throws IOException if the client has gone away
+         */
+        void write(OutputStream out, String event, StrategyResponse response) throws IOException;
+    }
+}
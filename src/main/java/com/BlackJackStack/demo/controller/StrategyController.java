@@ -1,14 +1,23 @@
 package com.BlackJackStack.demo.controller;
 
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
 import com.BlackJackStack.demo.model.StrategyRequest;
 import com.BlackJackStack.demo.model.StrategyResponse;
-import com.BlackJackStack.demo.service.StrategyService;
+import com.BlackJackStack.demo.service.EventLog;
+import com.BlackJackStack.demo.service.StrategyRequestValidator;
+import com.BlackJackStack.demo.service.StrategyTable;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.ModelAndView;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 @Controller
 /**
@@ -20,7 +29,13 @@ public class StrategyController {
     private String appName;
 
     @Autowired
-    private StrategyService strategyService;
+    private StrategyTable strategyTable;
+
+    @Autowired
+    private EventLog events;
+
+    @Autowired
+    private StrategyRequestValidator validator;
 
     /**
      * Method to handle the root URL and display the index page.
@@ -40,19 +55,33 @@ public class StrategyController {
      * @param card1 a String representing the first player card
      * @param card2 a String representing the second player card
      * @param dealer a String representing the dealer's up card
+     * @param rules an optional String naming the table-rules profile
      * @param model a Model to pass data to the view
-     * @return the index view with strategy recommendation
+     * @param servletResponse the HttpServletResponse, set to status 400 when the form has invalid fields
+     * @return the index view with strategy recommendation, or with the form's errors if a field is invalid
      */
     public String recommendStrategy(@RequestParam String card1,
                                     @RequestParam String card2,
                                     @RequestParam String dealer,
-                                    Model model) {
+                                    @RequestParam(required = false) String rules,
+                                    Model model,
+                                    HttpServletResponse servletResponse) {
 
         StrategyRequest request = new StrategyRequest(card1, card2, dealer);
         request.setCard1(card1);
         request.setCard2(card2);
         request.setDealerCard(dealer);
-        StrategyResponse response = strategyService.getStrategy(request);
+        request.setRules(rules);
+        Map<String, String> errors = validator.validate(request);
+        if (!errors.isEmpty()) {
+            // Re-render the form with what was wrong rather than failing the lookup with a server error
+            servletResponse.setStatus(HttpStatus.BAD_REQUEST.value());
+            model.addAttribute("appName", appName);
+            model.addAttribute("errors", errors.values());
+            return "index";
+        }
+        StrategyResponse response = strategyTable.lookup(request);
+        events.recordRecommendation(request, response);
         model.addAttribute("card1", card1.toUpperCase());
         model.addAttribute("card2", card2.toUpperCase());
         model.addAttribute("dealer", dealer.toUpperCase());
@@ -61,7 +90,25 @@ public class StrategyController {
         model.addAttribute("dealerBustChance", String.format("%.1f%%", response.getDealerBustPercentage() * 100));
         model.addAttribute("dealerMakesHandChance", String.format("%.1f%%", response.getDealerMakesHandPercentage() * 100));
         model.addAttribute("expectedValue", response.getExpectedValue());
+        model.addAttribute("precision", response.isApproximate()
+                ? "approximate (infinite deck, the server is busy)" : "exact");
+        model.addAttribute("actionValues", response.getActionExpectedValues());
         model.addAttribute("explanation", response.getExplanation());
+        model.addAttribute("rules", response.getRulesProfile());
         return "index";
     }
+
+    /**
+     * Method to show the index page with a message while too many simulations are queued.
+     * @param e the RejectedExecutionException raised when the simulation was not admitted
+     * @return the index view with the busy message, sent with status 503
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ModelAndView busy(RejectedExecutionException e) {
+        ModelAndView view = new ModelAndView("index");
+        view.addObject("appName", appName);
+        view.addObject("busy", "The server is busy working out other hands, please try again in a moment.");
+        return view;
+    }
 }
@@ -0,0 +1,100 @@
+package com.BlackJackStack.demo.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.BlackJackStack.demo.model.TableRules;
+import com.BlackJackStack.demo.service.TableRulesRegistry;
+
+/**
+ * Actuator endpoint for the table-rules profiles, at /actuator/rules once it is exposed. It lists the rules of
+ * every profile and changes the values of a profile while the application runs, which rebuilds the strategy
+ * table of that profile in the background.
+ */
+@Component
+@Endpoint(id = "rules")
+public class TableRulesEndpoint {
+
+    private final TableRulesRegistry rulesRegistry;
+
+    /**
+     * Constructs a TableRulesEndpoint.
+     * @param rulesRegistry the registry holding the rules profiles
+     */
+    public TableRulesEndpoint(TableRulesRegistry rulesRegistry) {
+        this.rulesRegistry = rulesRegistry;
+    }
+
+    /**
+     * Method to get the rules of the default profile and every configured profile.
+     * @return the TableRules by profile name
+     */
+    @ReadOperation
+    public Map<String, TableRules> profiles() {
+        Map<String, TableRules> profiles = new LinkedHashMap<>();
+        profiles.put(rulesRegistry.getDefaultProfile(), rulesRegistry.getDefaultRules());
+        for (String name : rulesRegistry.getProfileNames()) {
+            profiles.put(name, rulesRegistry.resolve(name));
+        }
+        return profiles;
+    }
+
+    /**
+     * Method to change values of a profile, or add a profile with the default values for those not given.
+     * @param name the profile name
+     * @param decks the number of decks, 0 for an infinite deck
+     * @param penetration the fraction of the shoe dealt before reshuffling
+     * @param hitSoft17 true if the dealer hits soft 17
+     * @param doubleAfterSplit true if doubling down is allowed after a split
+     * @param maxSplitHands the largest number of hands a player may split into
+     * @param lateSurrender true if late surrender is offered
+     * @param blackjackPayout the amount a blackjack wins per unit bet
+     * @return the new TableRules of the profile
+     * @throws InvalidEndpointRequestException if a value is out of range
+     */
+    @WriteOperation
+    public TableRules update(@Selector String name, @Nullable Integer decks, @Nullable Double penetration,
+            @Nullable Boolean hitSoft17, @Nullable Boolean doubleAfterSplit, @Nullable Integer maxSplitHands,
+            @Nullable Boolean lateSurrender, @Nullable Double blackjackPayout) {
+        TableRulesRegistry.Profile profile;
+        try {
+            profile = TableRulesRegistry.Profile.of(rulesRegistry.resolve(name));
+        } catch (IllegalArgumentException e) {
+            profile = new TableRulesRegistry.Profile();
+        }
+        if (decks != null) {
+            profile.setDecks(decks);
+        }
+        if (penetration != null) {
+            profile.setPenetration(penetration);
+        }
+        if (hitSoft17 != null) {
+            profile.setHitSoft17(hitSoft17);
+        }
+        if (doubleAfterSplit != null) {
+            profile.setDoubleAfterSplit(doubleAfterSplit);
+        }
+        if (maxSplitHands != null) {
+            profile.setMaxSplitHands(maxSplitHands);
+        }
+        if (lateSurrender != null) {
+            profile.setLateSurrender(lateSurrender);
+        }
+        if (blackjackPayout != null) {
+            profile.setBlackjackPayout(blackjackPayout);
+        }
+        try {
+            return rulesRegistry.update(name, profile);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+}
@@ -2,9 +2,26 @@ package com.BlackJackStack.demo.model;
 
 /**
  * Class that represents a playing card in a standard deck.
+ * The rank is stored as a byte index (0-12 for "2"–"10", "J", "Q", "K", "A") so that
+ * value lookups are plain array reads. Cards are immutable and one shared instance exists per rank.
  */
 public class Card {
-    private String rank;
+    /** Number of distinct ranks */
+    public static final int RANKS = 13;
+    /** Rank index of the Ace */
+    public static final int ACE = 12;
+
+    private static final String[] RANK_NAMES = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"};
+    private static final int[] RANK_VALUES = {2, 3, 4, 5, 6, 7, 8, 9, 10, 10, 10, 10, 11};
+    private static final Card[] CARDS = new Card[RANKS];
+
+    static {
+        for (int rank = 0; rank < RANKS; rank++) {
+            CARDS[rank] = new Card((byte) rank);
+        }
+    }
+
+    private final byte rank;
 
     /**
      * Constructs a Card object from a string representation.
@@ -14,6 +31,30 @@ public class Card {
      * @throws IllegalArgumentException if the input is invalid
      */
     public Card(String cardString) {
+        this.rank = (byte) parseRank(cardString);
+    }
+
+    private Card(byte rank) {
+        this.rank = rank;
+    }
+
+    /**
+     * Method to get the shared Card instance for a rank index without allocating.
+     * @param rank the rank index (0-12)
+     * @return the Card for the rank
+     */
+    public static Card of(int rank) {
+        return CARDS[rank];
+    }
+
+    /**
+     * Method to parse a card string into its rank index.
+     * Acceptable values are "2"–"10", "J", "Q", "K", "A" (case-insensitive, surrounding spaces ignored).
+     * @param cardString the string representation of the card
+     * @return the rank index (0-12)
+     * @throws IllegalArgumentException if the input is invalid
+     */
+    public static int parseRank(String cardString) {
         if (cardString == null || cardString.trim().isEmpty()) {
             throw new IllegalArgumentException("Invalid card input: " + cardString);
         }
@@ -21,20 +62,48 @@ public class Card {
         cardString = cardString.trim().toUpperCase();
 
         // Acceptable values: "2"–"10", "J", "Q", "K", "A"
-        if (cardString.equals("A") || cardString.equals("J") || cardString.equals("Q") || cardString.equals("K") || cardString.equals("10")
-                || cardString.matches("[2-9]")) {
-            this.rank = cardString;
-        } else {
-            throw new IllegalArgumentException("Invalid card rank: " + cardString);
+        switch (cardString) {
+            case "J":
+                return 9;
+            case "Q":
+                return 10;
+            case "K":
+                return 11;
+            case "A":
+                return ACE;
+            case "10":
+                return 8;
+            default:
+                char c = cardString.charAt(0);
+                if (cardString.length() == 1 && c >= '2' && c <= '9') {
+                    return c - '2';
+                }
+                throw new IllegalArgumentException("Invalid card rank: " + cardString);
         }
     }
 
+    /**
+     * Method to get the Blackjack value of a rank index.
+     * @param rank the rank index (0-12)
+     * @return the value of the rank (11 for Ace, 10 for face cards, numeric value for others)
+     */
+    public static int valueOf(int rank) {
+        return RANK_VALUES[rank];
+    }
 
     /**
      * Method to get the rank of the card.
      * @return the rank of the card as a string (e.g., "A", "K", "10", "2", etc.)
      */
     public String getRank() {
+        return RANK_NAMES[rank];
+    }
+
+    /**
+     * Method to get the rank index of the card.
+     * @return the rank index (0-12, where 12 is the Ace)
+     */
+    public int getRankIndex() {
         return rank;
     }
 
@@ -43,20 +112,7 @@ public class Card {
      * @return the value of the card as an integer (e.g., 11 for Ace, 10 for face cards, numeric value for others)
      */
     public int getValue() {
-        switch (rank) {
-            case "A":
-                return 11; // default to 11, adjust later in hand logic
-            case "K":
-            case "Q":
-            case "J":
-                return 10;
-            default:
-                try {
-                    return Integer.parseInt(rank);
-                } catch (NumberFormatException e) {
-                    throw new IllegalArgumentException("Invalid rank: " + rank);
-                }
-        }
+        return RANK_VALUES[rank];
     }
 
     /**
@@ -64,7 +120,7 @@ public class Card {
      * @return true if the card is an Ace, false otherwise
      */
     public boolean isAce() {
-        return "A".equals(rank);
+        return rank == ACE;
     }
 
     /**
@@ -73,7 +129,6 @@ public class Card {
      */
     @Override
     public String toString() {
-        return rank;
+        return RANK_NAMES[rank];
     }
 }
-
@@ -0,0 +1,85 @@
+package com.BlackJackStack.demo.model;
+
+import java.util.Arrays;
+
+/**
+ * Class representing the probability distribution of the dealer's final hand for one up card.
+ * Outcomes are a final total of 17, 18, 19, 20 or 21, a bust, or a natural (two-card 21).
+ */
+public class DealerOutcome {
+    /** Index of the first standing total (17) in the probability array */
+    public static final int SEVENTEEN = 0;
+    /** Index of the bust probability in the probability array */
+    public static final int BUST = 5;
+    /** Index of the natural (two-card 21) probability in the probability array */
+    public static final int NATURAL = 6;
+    /** Number of distinct outcomes */
+    public static final int OUTCOMES = 7;
+
+    private final double[] probabilities;
+
+    /**
+     * Constructs a DealerOutcome from an array of outcome probabilities.
+     * @param probabilities the probabilities indexed by SEVENTEEN..SEVENTEEN+4, BUST and NATURAL
+     */
+    public DealerOutcome(double[] probabilities) {
+        if (probabilities.length != OUTCOMES) {
+            throw new IllegalArgumentException("Expected " + OUTCOMES + " outcome probabilities");
+        }
+        this.probabilities = probabilities.clone();
+    }
+
+    /**
+     * Method to get the probability that the dealer finishes on the given total.
+     * A natural is not counted as a 21 here, see getNaturalProbability().
+     * @param total a final total from 17 to 21
+     * @return the probability as a double (0.0 to 1.0)
+     */
+    public double getTotalProbability(int total) {
+        if (total < 17 || total > 21) {
+            throw new IllegalArgumentException("Invalid dealer total: " + total);
+        }
+        return probabilities[SEVENTEEN + total - 17];
+    }
+
+    /**
+     * Method to get the probability that the dealer busts.
+     * @return the bust probability as a double (0.0 to 1.0)
+     */
+    public double getBustProbability() {
+        return probabilities[BUST];
+    }
+
+    /**
+     * Method to get the probability that the dealer has a natural (two-card 21).
+     * @return the natural probability as a double (0.0 to 1.0)
+     */
+    public double getNaturalProbability() {
+        return probabilities[NATURAL];
+    }
+
+    /**
+     * Method to get the probability that the dealer makes a hand (17-21, including a natural).
+     * @return the makes hand probability as a double (0.0 to 1.0)
+     */
+    public double getMakesHandProbability() {
+        return 1.0 - probabilities[BUST];
+    }
+
+    /**
+     * Method to get a copy of all outcome probabilities.
+     * @return the probabilities indexed by SEVENTEEN..SEVENTEEN+4, BUST and NATURAL
+     */
+    public double[] getProbabilities() {
+        return probabilities.clone();
+    }
+
+    /**
+     * Method to get a string representation of the distribution.
+     * @return the outcome probabilities as a string
+     */
+    @Override
+    public String toString() {
+        return "DealerOutcome" + Arrays.toString(probabilities);
+    }
+}
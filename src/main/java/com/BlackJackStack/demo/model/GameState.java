@@ -0,0 +1,223 @@
+package com.BlackJackStack.demo.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Class representing the state of a game session as sent to clients: the dealer's cards, every player hand
+ * of the current round, the hand being played and the moves allowed on it. Only the dealer's up card is
+ * shown until the player's hands are finished.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GameState {
+
+    /**
+     * Enum of the phases of a round.
+     */
+    public enum Phase {
+        /** No round has been dealt yet, or the last one has been cleared */
+        READY,
+        /** The player is acting on a hand */
+        PLAYER_TURN,
+        /** The dealer has played and every hand has been paid */
+        SETTLED
+    }
+
+    private final String session;
+    private final String rulesProfile;
+    private final Phase phase;
+    private final long round;
+    private final List<String> dealerCards;
+    private final int dealerTotal;
+    private final List<HandState> hands;
+    private final Integer activeHand;
+    private final List<String> moves;
+    private final Double net;
+
+    /**
+     * Constructs a GameState.
+     * @param session the id of the game session
+     * @param rulesProfile the name of the rules profile the table plays by
+     * @param phase the Phase of the current round
+     * @param round the number of rounds dealt in the session
+     * @param dealerCards the dealer's visible cards
+     * @param dealerTotal the total of the dealer's visible cards
+     * @param hands the player's hands, in the order they are played
+     * @param activeHand the index of the hand being played, or null outside the player's turn
+     * @param moves the labels of the moves allowed on the active hand
+     * @param net the player's result for the round in chips, or null until the round is settled
+     */
+    public GameState(String session, String rulesProfile, Phase phase, long round, List<String> dealerCards,
+            int dealerTotal, List<HandState> hands, Integer activeHand, List<String> moves, Double net) {
+        this.session = session;
+        this.rulesProfile = rulesProfile;
+        this.phase = phase;
+        this.round = round;
+        this.dealerCards = dealerCards;
+        this.dealerTotal = dealerTotal;
+        this.hands = hands;
+        this.activeHand = activeHand;
+        this.moves = moves;
+        this.net = net;
+    }
+
+    /**
+     * Method to get the id of the game session.
+     * @return the session id
+     */
+    public String getSession() {
+        return session;
+    }
+
+    /**
+     * Method to get the rules profile the table plays by.
+     * @return the rules profile name
+     */
+    public String getRulesProfile() {
+        return rulesProfile;
+    }
+
+    /**
+     * Method to get the phase of the current round.
+     * @return the Phase
+     */
+    public Phase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Method to get the number of rounds dealt in the session.
+     * @return the round number, 0 before the first deal
+     */
+    public long getRound() {
+        return round;
+    }
+
+    /**
+     * Method to get the dealer's visible cards.
+     * @return the dealer's cards (e.g. ["10", "6"])
+     */
+    public List<String> getDealerCards() {
+        return dealerCards;
+    }
+
+    /**
+     * Method to get the total of the dealer's visible cards.
+     * @return the dealer total
+     */
+    public int getDealerTotal() {
+        return dealerTotal;
+    }
+
+    /**
+     * Method to get the player's hands.
+     * @return the hands, in the order they are played
+     */
+    public List<HandState> getHands() {
+        return hands;
+    }
+
+    /**
+     * Method to get the index of the hand being played.
+     * @return the active hand index, or null outside the player's turn
+     */
+    public Integer getActiveHand() {
+        return activeHand;
+    }
+
+    /**
+     * Method to get the moves allowed on the active hand.
+     * @return the move labels (e.g. "hit", "double down"), empty outside the player's turn
+     */
+    public List<String> getMoves() {
+        return moves;
+    }
+
+    /**
+     * Method to get the player's result for the round.
+     * @return the net chips won (negative when lost), or null until the round is settled
+     */
+    public Double getNet() {
+        return net;
+    }
+
+    /**
+     * Class representing one player hand of a round.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class HandState {
+        private final List<String> cards;
+        private final int total;
+        private final boolean soft;
+        private final int bet;
+        private final String status;
+        private final Double net;
+
+        /**
+         * Constructs a HandState.
+         * @param cards the cards of the hand
+         * @param total the best total of the hand
+         * @param soft true if an Ace is counted as 11
+         * @param bet the chips bet on the hand, including a double
+         * @param status "playing", "stood", "busted", "blackjack", "surrendered" or "waiting"
+         * @param net the result of the hand in chips, or null until the round is settled
+         */
+        public HandState(List<String> cards, int total, boolean soft, int bet, String status, Double net) {
+            this.cards = cards;
+            this.total = total;
+            this.soft = soft;
+            this.bet = bet;
+            this.status = status;
+            this.net = net;
+        }
+
+        /**
+         * Method to get the cards of the hand.
+         * @return the cards, in the order they were dealt
+         */
+        public List<String> getCards() {
+            return cards;
+        }
+
+        /**
+         * Method to get the best total of the hand.
+         * @return the total
+         */
+        public int getTotal() {
+            return total;
+        }
+
+        /**
+         * Method to check if an Ace in the hand is counted as 11.
+         * @return true for a soft total
+         */
+        public boolean isSoft() {
+            return soft;
+        }
+
+        /**
+         * Method to get the chips bet on the hand.
+         * @return the bet, doubled after a double down
+         */
+        public int getBet() {
+            return bet;
+        }
+
+        /**
+         * Method to get the status of the hand.
+         * @return "playing", "stood", "busted", "blackjack", "surrendered" or "waiting"
+         */
+        public String getStatus() {
+            return status;
+        }
+
+        /**
+         * Method to get the result of the hand.
+         * @return the net chips won on the hand, or null until the round is settled
+         */
+        public Double getNet() {
+            return net;
+        }
+    }
+}
@@ -2,20 +2,22 @@ package com.BlackJackStack.demo.model;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collections;
 
 /**
  * Class that represents a hand of cards in a Blackjack game.
+ * The totals are kept in a PackedHand int alongside the card list, so value checks do not iterate the cards.
  */
 public class Hand {
     private List<Card> cards;
-    private boolean isBlackjack;
+    private int packed;
 
     /**
      * Constructs an empty Hand object.
      */
     public Hand() {
         this.cards = new ArrayList<>();
-        this.isBlackjack = false;
+        this.packed = PackedHand.EMPTY;
     }
     
     /**
@@ -23,21 +25,17 @@ public class Hand {
      * @param other the Hand object to copy
      */
     public Hand(Hand other) {
-        this.cards = new ArrayList<>();
-        for (Card card : other.cards) {
-            this.cards.add(new Card(card.getRank()));
-        }
+        this.cards = new ArrayList<>(other.cards); // Cards are immutable and can be shared
+        this.packed = other.packed;
     }
 
     /**
-     * Adds a card to the hand and checks for blackjack.
+     * Adds a card to the hand.
      * @param card the Card object to add to the hand
      */
     public void addCard(Card card) {
         cards.add(card);
-        if (cards.size() == 2 && getValue() == 21) {
-            isBlackjack = true;
-        }
+        packed = PackedHand.addRank(packed, card.getRankIndex());
     }
 
     /**
@@ -45,22 +43,7 @@ public class Hand {
      * @return the total value of the hand as an integer
      */
     public int getValue() {
-        int value = 0;
-        int acesCount = 0;
-
-        for (Card card : cards) {
-            value += card.getValue();
-            if (card.isAce()) {
-                acesCount++;
-            }
-        }
-
-        while (value > 21 && acesCount > 0) {
-            value -= 10; // Convert an Ace from 11 to 1
-            acesCount--;
-        }
-
-        return value;
+        return PackedHand.total(packed);
     }
 
     /**
@@ -68,15 +51,24 @@ public class Hand {
      * @return true if the hand is a blackjack, false otherwise
      */
     public boolean isBlackjack() {
-        return cards.size() == 2 && getValue() == 21;
+        return PackedHand.isBlackjack(packed);
     }
     
     /**
-     * Gets the list of cards in the hand.
-     * @return the list of Card objects in the hand
+     * Gets the list of cards in the hand. The list is a read-only view, so cards must be added with addCard to keep
+     * the packed totals in step; it throws UnsupportedOperationException if modified.
+     * @return an unmodifiable list of the Card objects in the hand
      */
     public List<Card> getCards() {
-        return cards;
+        return Collections.unmodifiableList(cards);
+    }
+    
+    /**
+     * Gets the packed representation of the hand, see PackedHand.
+     * @return the hand packed into an int
+     */
+    public int getPacked() {
+        return packed;
     }
     
     /**
@@ -84,7 +76,7 @@ public class Hand {
      * @return true if the hand is busted, false otherwise
      */
     public boolean isBusted() {
-        return getValue() > 21;
+        return PackedHand.isBusted(packed);
     }
     
     /**
@@ -92,19 +84,11 @@ public class Hand {
      * @return true if the hand is soft, false otherwise
      */
     public boolean isSoft() {
-        int total = 0;
-        boolean hasAce = false;
-        for (Card card : cards) {
-            total += card.getValue();
-            if (card.isAce()) {
-                hasAce = true;
-            }
-        }
-        return hasAce && total <= 21 && total >= 12;
+        return PackedHand.isSoft(packed);
     }
     
     /**
-     * Checks if the hand can be split (exactly two cards of the same rank).
+     * Checks if the hand can be split (exactly two cards of the same rank, so K-Q is not a pair).
      * @return true if the hand can be split, false otherwise
      */
     public boolean canSplit() {
@@ -117,7 +101,7 @@ public class Hand {
      */
     @Override
     public String toString() {
-        return cards.toString() + " (Value: " + getValue() + ", Blackjack: " + isBlackjack + ")";
+        return cards.toString() + " (Value: " + getValue() + ", Blackjack: " + isBlackjack() + ")";
     }
 
 }
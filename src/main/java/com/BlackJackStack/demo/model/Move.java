@@ -0,0 +1,51 @@
+package com.BlackJackStack.demo.model;
+
+/**
+ * Enum of the actions a player can take on a hand. Each move keeps the label used in responses and
+ * explanations, e.g. "double down".
+ */
+public enum Move {
+    STAND("stand"),
+    HIT("hit"),
+    DOUBLE_DOWN("double down"),
+    SPLIT("split"),
+    SURRENDER("surrender");
+
+    private final String label;
+
+    Move(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Method to get the label of the move as shown to users.
+     * @return the label (e.g. "double down")
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Method to get the move for a label.
+     * @param label the label of the move (e.g. "double down"), case-insensitive
+     * @return the Move
+     * @throws IllegalArgumentException if no move has that label
+     */
+    public static Move fromLabel(String label) {
+        for (Move move : values()) {
+            if (move.label.equalsIgnoreCase(label == null ? "" : label.trim())) {
+                return move;
+            }
+        }
+        throw new IllegalArgumentException("Invalid move: " + label);
+    }
+
+    /**
+     * Method to get a string representation of the move.
+     * @return the label of the move
+     */
+    @Override
+    public String toString() {
+        return label;
+    }
+}
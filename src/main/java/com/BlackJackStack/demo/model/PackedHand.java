@@ -0,0 +1,149 @@
+package com.BlackJackStack.demo.model;
+
+/**
+ * Class of static helpers for a Blackjack hand packed into a single int, for allocation-free simulation.
+ * <pre>
+ * bits  0-5   hard total (every Ace counted as 1)
+ * bits  6-10  number of Aces
+ * bits 11-15  number of cards
+ * bits 16-19  pair value: the value of the first card while the hand has one card,
+ *             the shared value of a two-card pair, 0 otherwise (Ace = 1)
+ * </pre>
+ * The value 0 is the empty hand. Totals and card counts saturate instead of overflowing.
+ */
+public final class PackedHand {
+    /** The empty hand */
+    public static final int EMPTY = 0;
+
+    private static final int TOTAL_MASK = 0x3F;
+    private static final int ACES_SHIFT = 6;
+    private static final int COUNT_SHIFT = 11;
+    private static final int PAIR_SHIFT = 16;
+    private static final int FIELD_MASK = 0x1F;
+    private static final int PAIR_MASK = 0xF;
+
+    /** Hard value (Ace = 1) of each rank index */
+    private static final int[] HARD_VALUES = {2, 3, 4, 5, 6, 7, 8, 9, 10, 10, 10, 10, 1};
+
+    private PackedHand() {
+    }
+
+    /**
+     * Method to add a card to a packed hand.
+     * @param hand the packed hand
+     * @param rank the rank index of the card (0-12)
+     * @return the packed hand with the card added
+     */
+    public static int addRank(int hand, int rank) {
+        return addValue(hand, HARD_VALUES[rank]);
+    }
+
+    /**
+     * Method to add a card to a packed hand by its hard value.
+     * @param hand the packed hand
+     * @param value the hard value of the card (1 for Ace, 2-10 otherwise)
+     * @return the packed hand with the card added
+     */
+    public static int addValue(int hand, int value) {
+        int count = cardCount(hand);
+        int pair = count == 0 || (count == 1 && ((hand >>> PAIR_SHIFT) & PAIR_MASK) == value) ? value : 0;
+        int hard = Math.min(hardTotal(hand) + value, TOTAL_MASK);
+        int aces = Math.min(aceCount(hand) + (value == 1 ? 1 : 0), FIELD_MASK);
+        return hard
+                | aces << ACES_SHIFT
+                | Math.min(count + 1, FIELD_MASK) << COUNT_SHIFT
+                | pair << PAIR_SHIFT;
+    }
+
+    /**
+     * Method to get the hard total of a packed hand, counting every Ace as 1.
+     * @param hand the packed hand
+     * @return the hard total
+     */
+    public static int hardTotal(int hand) {
+        return hand & TOTAL_MASK;
+    }
+
+    /**
+     * Method to get the number of Aces in a packed hand.
+     * @param hand the packed hand
+     * @return the number of Aces
+     */
+    public static int aceCount(int hand) {
+        return (hand >>> ACES_SHIFT) & FIELD_MASK;
+    }
+
+    /**
+     * Method to get the number of cards in a packed hand.
+     * @param hand the packed hand
+     * @return the number of cards
+     */
+    public static int cardCount(int hand) {
+        return (hand >>> COUNT_SHIFT) & FIELD_MASK;
+    }
+
+    /**
+     * Method to get the value of the paired cards in a packed hand.
+     * @param hand the packed hand
+     * @return the hard value of the pair (1 for Aces), or 0 if the hand is not a two-card pair
+     */
+    public static int pairValue(int hand) {
+        return cardCount(hand) == 2 ? (hand >>> PAIR_SHIFT) & PAIR_MASK : 0;
+    }
+
+    /**
+     * Method to check if a packed hand is soft (contains an Ace counted as 11).
+     * @param hand the packed hand
+     * @return true if the hand is soft
+     */
+    public static boolean isSoft(int hand) {
+        return aceCount(hand) > 0 && hardTotal(hand) <= 11;
+    }
+
+    /**
+     * Method to get the best total of a packed hand, counting one Ace as 11 when it does not bust.
+     * @param hand the packed hand
+     * @return the total value of the hand
+     */
+    public static int total(int hand) {
+        return isSoft(hand) ? hardTotal(hand) + 10 : hardTotal(hand);
+    }
+
+    /**
+     * Method to check if a packed hand is busted.
+     * @param hand the packed hand
+     * @return true if the total exceeds 21
+     */
+    public static boolean isBusted(int hand) {
+        return hardTotal(hand) > 21;
+    }
+
+    /**
+     * Method to check if a packed hand is a blackjack (exactly two cards totaling 21).
+     * @param hand the packed hand
+     * @return true if the hand is a blackjack
+     */
+    public static boolean isBlackjack(int hand) {
+        return cardCount(hand) == 2 && total(hand) == 21;
+    }
+
+    /**
+     * Method to check if a packed hand is a pair that can be split.
+     * @param hand the packed hand
+     * @return true if the hand has exactly two cards of the same value
+     */
+    public static boolean canSplit(int hand) {
+        return pairValue(hand) != 0;
+    }
+
+    /**
+     * Method to check if the dealer must draw another card to a packed hand.
+     * @param hand the dealer's packed hand
+     * @param hitSoft17 true if the dealer hits soft 17
+     * @return true if the dealer hits
+     */
+    public static boolean dealerHits(int hand, boolean hitSoft17) {
+        int total = total(hand);
+        return total < 17 || (total == 17 && hitSoft17 && isSoft(hand));
+    }
+}
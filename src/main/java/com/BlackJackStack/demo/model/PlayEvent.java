@@ -0,0 +1,378 @@
+package com.BlackJackStack.demo.model;
+
+/**
+ * Class representing one event of the play log: a strategy recommendation, a decision made on a hand in a game
+ * session, or a settled round. Events are stored as fixed-width records by EventLog and read back by
+ * EventLogReader, to compare what players did with what was recommended and what they won with what was expected.
+ */
+public class PlayEvent {
+
+    /**
+     * Enum of the kinds of events.
+     */
+    public enum Type {
+        /** A strategy lookup answered with a recommended move */
+        RECOMMENDATION,
+        /** A move the player made on a hand of a game session */
+        DECISION,
+        /** A round of a game session that has been settled */
+        ROUND
+    }
+
+    private Type type;
+    private long time;
+    private String rulesProfile;
+    private long session;
+    private long round;
+    private int hand;
+    private int firstCard;
+    private int secondCard;
+    private int playerTotal;
+    private boolean soft;
+    private int cardCount;
+    private int dealerCard;
+    private int dealerTotal;
+    private Move move;
+    private Move recommendedMove;
+    private Move basicStrategyMove;
+    private double expectedValue = Double.NaN;
+    private int bet;
+    private double net;
+    private boolean approximate;
+
+    /**
+     * Default constructor for an empty event.
+     */
+    public PlayEvent() {
+    }
+
+    /**
+     * Method to check whether the player made a different move than recommended.
+     * @return true if this is a decision and the move differs from the recommended move, or from the basic
+     *         strategy move when no recommendation was known
+     */
+    public boolean isDeviation() {
+        Move expected = recommendedMove != null ? recommendedMove : basicStrategyMove;
+        return type == Type.DECISION && move != null && expected != null && move != expected;
+    }
+
+    /**
+     * Method to get the Type of the event.
+     * @return the Type of the event
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Method to set the Type of the event.
+     * @param type the Type of the event
+     */
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    /**
+     * Method to get the time the event was recorded, in milliseconds since the epoch.
+     * @return the time the event was recorded, in milliseconds since the epoch
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Method to set the time the event was recorded, in milliseconds since the epoch.
+     * @param time the time the event was recorded, in milliseconds since the epoch
+     */
+    public void setTime(long time) {
+        this.time = time;
+    }
+
+    /**
+     * Method to get the name of the rules profile.
+     * @return the name of the rules profile
+     */
+    public String getRulesProfile() {
+        return rulesProfile;
+    }
+
+    /**
+     * Method to set the name of the rules profile.
+     * @param rulesProfile the name of the rules profile
+     */
+    public void setRulesProfile(String rulesProfile) {
+        this.rulesProfile = rulesProfile;
+    }
+
+    /**
+     * Method to get the key of the game session, or 0 for a strategy lookup.
+     * @return the key of the game session, or 0 for a strategy lookup
+     */
+    public long getSession() {
+        return session;
+    }
+
+    /**
+     * Method to set the key of the game session, or 0 for a strategy lookup.
+     * @param session the key of the game session, or 0 for a strategy lookup
+     */
+    public void setSession(long session) {
+        this.session = session;
+    }
+
+    /**
+     * Method to get the round of the game session, or 0 for a strategy lookup.
+     * @return the round of the game session, or 0 for a strategy lookup
+     */
+    public long getRound() {
+        return round;
+    }
+
+    /**
+     * Method to set the round of the game session, or 0 for a strategy lookup.
+     * @param round the round of the game session, or 0 for a strategy lookup
+     */
+    public void setRound(long round) {
+        this.round = round;
+    }
+
+    /**
+     * Method to get the index of the hand a decision was made on, or the number of hands of a round.
+     * @return the index of the hand a decision was made on, or the number of hands of a round
+     */
+    public int getHand() {
+        return hand;
+    }
+
+    /**
+     * Method to set the index of the hand a decision was made on, or the number of hands of a round.
+     * @param hand the index of the hand a decision was made on, or the number of hands of a round
+     */
+    public void setHand(int hand) {
+        this.hand = hand;
+    }
+
+    /**
+     * Method to get the value (2-11) of the player's first card.
+     * @return the value (2-11) of the player's first card
+     */
+    public int getFirstCard() {
+        return firstCard;
+    }
+
+    /**
+     * Method to set the value (2-11) of the player's first card.
+     * @param firstCard the value (2-11) of the player's first card
+     */
+    public void setFirstCard(int firstCard) {
+        this.firstCard = firstCard;
+    }
+
+    /**
+     * Method to get the value (2-11) of the player's second card.
+     * @return the value (2-11) of the player's second card
+     */
+    public int getSecondCard() {
+        return secondCard;
+    }
+
+    /**
+     * Method to set the value (2-11) of the player's second card.
+     * @param secondCard the value (2-11) of the player's second card
+     */
+    public void setSecondCard(int secondCard) {
+        this.secondCard = secondCard;
+    }
+
+    /**
+     * Method to get the total of the player's hand when the decision was made.
+     * @return the total of the player's hand when the decision was made
+     */
+    public int getPlayerTotal() {
+        return playerTotal;
+    }
+
+    /**
+     * Method to set the total of the player's hand when the decision was made.
+     * @param playerTotal the total of the player's hand when the decision was made
+     */
+    public void setPlayerTotal(int playerTotal) {
+        this.playerTotal = playerTotal;
+    }
+
+    /**
+     * Method to check whether the player's hand was soft.
+     * @return true if the player's hand was soft
+     */
+    public boolean isSoft() {
+        return soft;
+    }
+
+    /**
+     * Method to set whether the player's hand was soft.
+     * @param soft true if the player's hand was soft
+     */
+    public void setSoft(boolean soft) {
+        this.soft = soft;
+    }
+
+    /**
+     * Method to get the number of cards in the player's hand.
+     * @return the number of cards in the player's hand
+     */
+    public int getCardCount() {
+        return cardCount;
+    }
+
+    /**
+     * Method to set the number of cards in the player's hand.
+     * @param cardCount the number of cards in the player's hand
+     */
+    public void setCardCount(int cardCount) {
+        this.cardCount = cardCount;
+    }
+
+    /**
+     * Method to get the value (2-11) of the dealer's up card.
+     * @return the value (2-11) of the dealer's up card
+     */
+    public int getDealerCard() {
+        return dealerCard;
+    }
+
+    /**
+     * Method to set the value (2-11) of the dealer's up card.
+     * @param dealerCard the value (2-11) of the dealer's up card
+     */
+    public void setDealerCard(int dealerCard) {
+        this.dealerCard = dealerCard;
+    }
+
+    /**
+     * Method to get the dealer's final total of a round, 0 if the dealer busted.
+     * @return the dealer's final total of a round, 0 if the dealer busted
+     */
+    public int getDealerTotal() {
+        return dealerTotal;
+    }
+
+    /**
+     * Method to set the dealer's final total of a round, 0 if the dealer busted.
+     * @param dealerTotal the dealer's final total of a round, 0 if the dealer busted
+     */
+    public void setDealerTotal(int dealerTotal) {
+        this.dealerTotal = dealerTotal;
+    }
+
+    /**
+     * Method to get the Move the player made, or null for a recommendation or a round.
+     * @return the Move the player made, or null for a recommendation or a round
+     */
+    public Move getMove() {
+        return move;
+    }
+
+    /**
+     * Method to set the Move the player made, or null for a recommendation or a round.
+     * @param move the Move the player made, or null for a recommendation or a round
+     */
+    public void setMove(Move move) {
+        this.move = move;
+    }
+
+    /**
+     * Method to get the recommended Move, or null if none was known.
+     * @return the recommended Move, or null if none was known
+     */
+    public Move getRecommendedMove() {
+        return recommendedMove;
+    }
+
+    /**
+     * Method to set the recommended Move, or null if none was known.
+     * @param recommendedMove the recommended Move, or null if none was known
+     */
+    public void setRecommendedMove(Move recommendedMove) {
+        this.recommendedMove = recommendedMove;
+    }
+
+    /**
+     * Method to get the basic strategy Move, or null if none was known.
+     * @return the basic strategy Move, or null if none was known
+     */
+    public Move getBasicStrategyMove() {
+        return basicStrategyMove;
+    }
+
+    /**
+     * Method to set the basic strategy Move, or null if none was known.
+     * @param basicStrategyMove the basic strategy Move, or null if none was known
+     */
+    public void setBasicStrategyMove(Move basicStrategyMove) {
+        this.basicStrategyMove = basicStrategyMove;
+    }
+
+    /**
+     * Method to get the expected value per unit bet of the recommended play, or NaN if it was not known.
+     * @return the expected value per unit bet of the recommended play, or NaN if it was not known
+     */
+    public double getExpectedValue() {
+        return expectedValue;
+    }
+
+    /**
+     * Method to set the expected value per unit bet of the recommended play, or NaN if it was not known.
+     * @param expectedValue the expected value per unit bet of the recommended play, or NaN if it was not known
+     */
+    public void setExpectedValue(double expectedValue) {
+        this.expectedValue = expectedValue;
+    }
+
+    /**
+     * Method to get the chips bet on a round.
+     * @return the chips bet on a round
+     */
+    public int getBet() {
+        return bet;
+    }
+
+    /**
+     * Method to set the chips bet on a round.
+     * @param bet the chips bet on a round
+     */
+    public void setBet(int bet) {
+        this.bet = bet;
+    }
+
+    /**
+     * Method to get the player's result for a round in chips.
+     * @return the player's result for a round in chips
+     */
+    public double getNet() {
+        return net;
+    }
+
+    /**
+     * Method to set the player's result for a round in chips.
+     * @param net the player's result for a round in chips
+     */
+    public void setNet(double net) {
+        this.net = net;
+    }
+
+    /**
+     * Method to check whether the recommendation was served approximately under load.
+     * @return true if the recommendation was served approximately under load
+     */
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    /**
+     * Method to set whether the recommendation was served approximately under load.
+     * @param approximate true if the recommendation was served approximately under load
+     */
+    public void setApproximate(boolean approximate) {
+        this.approximate = approximate;
+    }
+}
@@ -0,0 +1,190 @@
+package com.BlackJackStack.demo.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Class that represents a dealing shoe of one or more standard decks.
+ * The shoe is a count per rank rather than a list of cards, so drawing is a scan over 13 counters and
+ * allocates nothing. A shoe with zero decks is infinite: every rank is always equally likely and
+ * drawing or removing cards does not change it.
+ * A Shoe is not thread-safe; simulation workers each use their own copy.
+ */
+public final class Shoe {
+    /** Cards of each rank in a single deck */
+    private static final int SUITS = 4;
+
+    private final int decks;
+    private final double penetration;
+    private final int[] counts = new int[Card.RANKS];
+    private final int[] marked = new int[Card.RANKS];
+    private int remaining;
+    private int markedRemaining;
+
+    /**
+     * Constructs a full, freshly shuffled shoe.
+     * @param decks the number of decks, or 0 for an infinite deck
+     * @param penetration the fraction of the shoe dealt before it is reshuffled (0.0 to 1.0)
+     * @throws IllegalArgumentException if the deck count or penetration is out of range
+     */
+    public Shoe(int decks, double penetration) {
+        if (decks < 0) {
+            throw new IllegalArgumentException("Invalid deck count: " + decks);
+        }
+        if (penetration <= 0.0 || penetration > 1.0) {
+            throw new IllegalArgumentException("Invalid penetration: " + penetration);
+        }
+        this.decks = decks;
+        this.penetration = penetration;
+        shuffle();
+    }
+
+    /**
+     * Copy constructor to create an independent shoe with the same composition.
+     * @param other the Shoe to copy
+     */
+    public Shoe(Shoe other) {
+        this.decks = other.decks;
+        this.penetration = other.penetration;
+        System.arraycopy(other.counts, 0, this.counts, 0, Card.RANKS);
+        System.arraycopy(other.marked, 0, this.marked, 0, Card.RANKS);
+        this.remaining = other.remaining;
+        this.markedRemaining = other.markedRemaining;
+    }
+
+    /**
+     * Method to return every card to the shoe.
+     */
+    public void shuffle() {
+        for (int rank = 0; rank < Card.RANKS; rank++) {
+            counts[rank] = decks * SUITS;
+        }
+        remaining = decks * SUITS * Card.RANKS;
+        mark();
+    }
+
+    /**
+     * Method to remove a known card, such as one already dealt face up, from the shoe.
+     * @param rank the rank index of the card (0-12)
+     * @throws IllegalStateException if no card of that rank is left
+     */
+    public void remove(int rank) {
+        if (isInfinite()) {
+            return;
+        }
+        if (counts[rank] == 0) {
+            throw new IllegalStateException("No " + Card.of(rank) + " left in the shoe");
+        }
+        counts[rank]--;
+        remaining--;
+    }
+
+    /**
+     * Method to draw a random card and remove it from the shoe.
+     * @param random the generator to draw with
+     * @return the rank index of the drawn card (0-12)
+     * @throws IllegalStateException if the shoe is empty
+     */
+    public int draw(SplittableRandom random) {
+        int rank = sample(random);
+        if (!isInfinite()) {
+            counts[rank]--;
+            remaining--;
+        }
+        return rank;
+    }
+
+    /**
+     * Method to pick a random card with the shoe's current odds without removing it.
+     * @param random the generator to draw with
+     * @return the rank index of the picked card (0-12)
+     * @throws IllegalStateException if the shoe is empty
+     */
+    public int sample(SplittableRandom random) {
+        if (isInfinite()) {
+            return random.nextInt(Card.RANKS);
+        }
+        if (remaining == 0) {
+            throw new IllegalStateException("The shoe is empty");
+        }
+        int pick = random.nextInt(remaining);
+        int rank = 0;
+        while (pick >= counts[rank]) {
+            pick -= counts[rank];
+            rank++;
+        }
+        return rank;
+    }
+
+    /**
+     * Method to remember the current composition so it can be restored with reset().
+     */
+    public void mark() {
+        System.arraycopy(counts, 0, marked, 0, Card.RANKS);
+        markedRemaining = remaining;
+    }
+
+    /**
+     * Method to restore the composition saved by the last call to mark() or shuffle().
+     */
+    public void reset() {
+        System.arraycopy(marked, 0, counts, 0, Card.RANKS);
+        remaining = markedRemaining;
+    }
+
+    /**
+     * Method to check if the dealt fraction of the shoe has reached the penetration.
+     * @return true if the shoe should be reshuffled before the next round
+     */
+    public boolean needsShuffle() {
+        return !isInfinite() && remaining <= size() * (1.0 - penetration);
+    }
+
+    /**
+     * Method to check if the shoe models an infinite deck.
+     * @return true if the shoe has zero decks
+     */
+    public boolean isInfinite() {
+        return decks == 0;
+    }
+
+    /**
+     * Method to get the number of cards of a rank left in the shoe.
+     * @param rank the rank index (0-12)
+     * @return the number of cards of the rank
+     */
+    public int count(int rank) {
+        return counts[rank];
+    }
+
+    /**
+     * Method to get the number of cards left in the shoe.
+     * @return the number of cards left
+     */
+    public int remaining() {
+        return remaining;
+    }
+
+    /**
+     * Method to get the number of cards in the full shoe.
+     * @return the full shoe size
+     */
+    public int size() {
+        return decks * SUITS * Card.RANKS;
+    }
+
+    /**
+     * Method to get the number of decks in the shoe.
+     * @return the deck count, 0 for an infinite deck
+     */
+    public int getDecks() {
+        return decks;
+    }
+
+    /**
+     * Method to get the fraction of the shoe dealt before it is reshuffled.
+     * @return the penetration (0.0 to 1.0)
+     */
+    public double getPenetration() {
+        return penetration;
+    }
+}
@@ -0,0 +1,81 @@
+package com.BlackJackStack.demo.model;
+
+/**
+ * Class representing the Hi-Lo count of a counting session at one moment: the running count, the cards seen
+ * since the last shuffle and the true count (running count per deck remaining).
+ */
+public class ShoeCount {
+    private final String session;
+    private final String rulesProfile;
+    private final int runningCount;
+    private final int cardsSeen;
+    private final double decksRemaining;
+    private final double trueCount;
+
+    /**
+     * Constructs a ShoeCount.
+     * @param session the id of the counting session
+     * @param rulesProfile the name of the rules profile the session's shoe is dealt by
+     * @param runningCount the Hi-Lo running count
+     * @param cardsSeen the number of cards seen since the last shuffle
+     * @param decksRemaining the number of decks the true count is divided by
+     * @param trueCount the running count per deck remaining
+     */
+    public ShoeCount(String session, String rulesProfile, int runningCount, int cardsSeen, double decksRemaining,
+            double trueCount) {
+        this.session = session;
+        this.rulesProfile = rulesProfile;
+        this.runningCount = runningCount;
+        this.cardsSeen = cardsSeen;
+        this.decksRemaining = decksRemaining;
+        this.trueCount = trueCount;
+    }
+
+    /**
+     * Method to get the id of the counting session.
+     * @return the session id
+     */
+    public String getSession() {
+        return session;
+    }
+
+    /**
+     * Method to get the rules profile the session's shoe is dealt by.
+     * @return the rules profile name
+     */
+    public String getRulesProfile() {
+        return rulesProfile;
+    }
+
+    /**
+     * Method to get the Hi-Lo running count.
+     * @return the running count
+     */
+    public int getRunningCount() {
+        return runningCount;
+    }
+
+    /**
+     * Method to get the number of cards seen since the last shuffle.
+     * @return the cards seen
+     */
+    public int getCardsSeen() {
+        return cardsSeen;
+    }
+
+    /**
+     * Method to get the number of decks the true count is divided by.
+     * @return the decks remaining, never less than half a deck
+     */
+    public double getDecksRemaining() {
+        return decksRemaining;
+    }
+
+    /**
+     * Method to get the true count, the running count per deck remaining.
+     * @return the true count
+     */
+    public double getTrueCount() {
+        return trueCount;
+    }
+}
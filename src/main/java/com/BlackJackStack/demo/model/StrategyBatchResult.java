@@ -0,0 +1,66 @@
+package com.BlackJackStack.demo.model;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Class representing one line of a batch strategy response: the position of the request in the batch
+ * and either its StrategyResponse or the error message of each invalid field.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StrategyBatchResult {
+    private final int index;
+    private final StrategyResponse response;
+    private final Map<String, String> errors;
+
+    private StrategyBatchResult(int index, StrategyResponse response, Map<String, String> errors) {
+        this.index = index;
+        this.response = response;
+        this.errors = errors;
+    }
+
+    /**
+     * Method to create the result of a request that was looked up.
+     * @param index the position of the request in the batch
+     * @param response the StrategyResponse for the request
+     * @return the StrategyBatchResult
+     */
+    public static StrategyBatchResult of(int index, StrategyResponse response) {
+        return new StrategyBatchResult(index, response, null);
+    }
+
+    /**
+     * Method to create the result of a request that could not be looked up.
+     * @param index the position of the request in the batch
+     * @param errors the error message of each invalid field, keyed by field name
+     * @return the StrategyBatchResult
+     */
+    public static StrategyBatchResult invalid(int index, Map<String, String> errors) {
+        return new StrategyBatchResult(index, null, errors);
+    }
+
+    /**
+     * Method to get the position of the request in the batch, starting at 0.
+     * @return the request index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Method to get the StrategyResponse of the request.
+     * @return the StrategyResponse, or null if the request was invalid
+     */
+    public StrategyResponse getResponse() {
+        return response;
+    }
+
+    /**
+     * Method to get the error message of each invalid field.
+     * @return the errors keyed by field name, or null if the request was looked up
+     */
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+}
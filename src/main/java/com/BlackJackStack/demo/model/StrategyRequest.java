@@ -1,13 +1,31 @@
 package com.BlackJackStack.demo.model;
 
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
- * Class representing a request for blackjack strategy advice.
+ * Class representing a request for blackjack strategy advice. The player's hand is either the two opening
+ * cards card1 and card2, or any number of cards in the cards list for a decision later in the hand.
  */
 public class StrategyRequest {
     private String card1;
     private String card2;
+    private List<String> cards;
     private String dealerCard;    
+    private String rules;
+    private boolean afterSplit;
+    private Integer splitHands;
+    private Boolean canDouble;
+    private String countSession;
     
+    /**
+     * Default constructor for binding a request from JSON.
+     */
+    public StrategyRequest() {
+    }
+
     /** 
      * Constructor for testing purposes.
      * @param card1 the first player card
@@ -68,4 +86,147 @@ public class StrategyRequest {
         this.dealerCard = dealerCard;
     }
     
+    /**
+     * Method to get the name of the table-rules profile to use.
+     * @return the rules profile name, or null for the default profile
+     */
+    public String getRules() {
+        return rules;
+    }
+    
+    /**
+     * Method to set the name of the table-rules profile to use.
+     * @param rules the rules profile name, or null for the default profile
+     */
+    public void setRules(String rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Method to get the player's cards when the hand is given as a list.
+     * @return the player's cards, or null if the hand is given as card1 and card2
+     */
+    public List<String> getCards() {
+        return cards;
+    }
+
+    /**
+     * Method to set the player's cards as a list, for a hand of any number of cards.
+     * @param cards the player's cards, in the order they were dealt
+     */
+    public void setCards(List<String> cards) {
+        this.cards = cards;
+    }
+
+    /**
+     * Method to get the player's cards, from the cards list if it is given and from card1 and card2 otherwise.
+     * @return the player's cards, in the order they were dealt
+     */
+    @JsonIgnore
+    public List<String> getPlayerCards() {
+        if (cards != null && !cards.isEmpty()) {
+            return cards;
+        }
+        return Arrays.asList(card1, card2);
+    }
+
+    /**
+     * Method to check if the hand is one of the hands of a split pair.
+     * @return true if the hand was split
+     */
+    public boolean isAfterSplit() {
+        return afterSplit;
+    }
+
+    /**
+     * Method to set whether the hand is one of the hands of a split pair.
+     * @param afterSplit true if the hand was split
+     */
+    public void setAfterSplit(boolean afterSplit) {
+        this.afterSplit = afterSplit;
+    }
+
+    /**
+     * Method to get the number of hands the pair has been split into, as given in the request.
+     * @return the number of split hands, or null for two
+     */
+    public Integer getSplitHands() {
+        return splitHands;
+    }
+
+    /**
+     * Method to set the number of hands the pair has been split into.
+     * @param splitHands the number of split hands, or null for two
+     */
+    public void setSplitHands(Integer splitHands) {
+        this.splitHands = splitHands;
+    }
+
+    /**
+     * Method to get the number of hands the player has in play, which share a dealer natural's claim on
+     * the original bet.
+     * @return 1 for a hand that was not split, otherwise the number of split hands
+     */
+    @JsonIgnore
+    public int getHandsInPlay() {
+        if (!afterSplit) {
+            return 1;
+        }
+        return splitHands != null ? splitHands : 2;
+    }
+
+    /**
+     * Method to get whether the player may still double down, as given in the request.
+     * @return true or false if the request says so, null to follow the rules
+     */
+    public Boolean getCanDouble() {
+        return canDouble;
+    }
+
+    /**
+     * Method to set whether the player may still double down.
+     * @param canDouble true or false, or null to follow the rules
+     */
+    public void setCanDouble(Boolean canDouble) {
+        this.canDouble = canDouble;
+    }
+
+    /**
+     * Method to get the counting session whose true count adjusts the advice.
+     * @return the session id, or null for advice without a count
+     */
+    public String getCountSession() {
+        return countSession;
+    }
+
+    /**
+     * Method to set the counting session whose true count adjusts the advice.
+     * @param countSession the session id, or null for advice without a count
+     */
+    public void setCountSession(String countSession) {
+        this.countSession = countSession;
+    }
+
+    /**
+     * Method to check if the player may double down. Unless the request says otherwise, a hand may be
+     * doubled on its first two cards, and after a split only if the rules allow doubling after a split.
+     * @param rules the TableRules to play by
+     * @return true if the hand may be doubled
+     */
+    public boolean isDoubleAllowed(TableRules rules) {
+        if (canDouble != null) {
+            return canDouble;
+        }
+        return getPlayerCards().size() == 2 && (!afterSplit || rules.isDoubleAfterSplit());
+    }
+
+    /**
+     * Method to check if the request is the opening decision on the first two cards dealt, where a pair may be
+     * split, a blackjack is paid and surrender is offered.
+     * @return true for the opening two-card decision
+     */
+    @JsonIgnore
+    public boolean isOpeningHand() {
+        return getPlayerCards().size() == 2 && !afterSplit;
+    }
 }
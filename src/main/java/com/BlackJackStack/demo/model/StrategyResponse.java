@@ -1,5 +1,9 @@
 package com.BlackJackStack.demo.model;
 
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * Class representing a response containing blackjack strategy advice.
  */
@@ -10,6 +14,41 @@ public class StrategyResponse {
     private String explanation;
     private double dealerBustPercentage;
     private double dealerMakesHandPercentage;
+    private String rulesProfile;
+    private String basicStrategyMove;
+    private Map<String, Double> actionExpectedValues;
+    private boolean approximate;
+    private Integer runningCount;
+    private Double trueCount;
+    private String countedMove;
+    private Boolean takeInsurance;
+
+    /**
+     * Default constructor for an empty response.
+     */
+    public StrategyResponse() {
+    }
+
+    /**
+     * Copy constructor to snapshot a response while it is still being refined.
+     * @param other the StrategyResponse to copy
+     */
+    public StrategyResponse(StrategyResponse other) {
+        this.recommendedMove = other.recommendedMove;
+        this.bustPercentage = other.bustPercentage;
+        this.expectedValue = other.expectedValue;
+        this.explanation = other.explanation;
+        this.dealerBustPercentage = other.dealerBustPercentage;
+        this.dealerMakesHandPercentage = other.dealerMakesHandPercentage;
+        this.rulesProfile = other.rulesProfile;
+        this.basicStrategyMove = other.basicStrategyMove;
+        this.actionExpectedValues = other.actionExpectedValues;
+        this.approximate = other.approximate;
+        this.runningCount = other.runningCount;
+        this.trueCount = other.trueCount;
+        this.countedMove = other.countedMove;
+        this.takeInsurance = other.takeInsurance;
+    }
     
     /**
      * Method to get the recommended move.
@@ -107,4 +146,138 @@ public class StrategyResponse {
         this.dealerMakesHandPercentage = dealerMakesHandPercentage;
     }
 
+    /**
+     * Method to get the name of the table-rules profile the statistics were computed for.
+     * @return the rules profile name
+     */
+    public String getRulesProfile() {
+        return rulesProfile;
+    }
+
+    /**
+     * Method to set the name of the table-rules profile the statistics were computed for.
+     * @param rulesProfile the rules profile name
+     */
+    public void setRulesProfile(String rulesProfile) {
+        this.rulesProfile = rulesProfile;
+    }
+
+    /**
+     * Method to get the move the basic strategy chart recommends, which may differ from the
+     * composition-dependent recommended move.
+     * @return the basic strategy move as a String
+     */
+    public String getBasicStrategyMove() {
+        return basicStrategyMove;
+    }
+
+    /**
+     * Method to set the move the basic strategy chart recommends.
+     * @param basicStrategyMove the basic strategy move as a String
+     */
+    public void setBasicStrategyMove(String basicStrategyMove) {
+        this.basicStrategyMove = basicStrategyMove;
+    }
+
+    /**
+     * Method to get the expected value of every legal action.
+     * @return the expected values keyed by move name
+     */
+    public Map<String, Double> getActionExpectedValues() {
+        return actionExpectedValues;
+    }
+
+    /**
+     * Method to set the expected value of every legal action.
+     * @param actionExpectedValues the expected values keyed by move name
+     */
+    public void setActionExpectedValues(Map<String, Double> actionExpectedValues) {
+        this.actionExpectedValues = actionExpectedValues;
+    }
+
+    /**
+     * Method to check whether the statistics are a quick approximation, served instead of the exact values
+     * while the server is under load.
+     * @return true if the move is the basic strategy move and the statistics are for an infinite deck, in which
+     *         case the expected values are only known for opening hands and are NaN otherwise
+     */
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    /**
+     * Method to flag the statistics as a quick approximation.
+     * @param approximate true if the statistics are approximate
+     */
+    public void setApproximate(boolean approximate) {
+        this.approximate = approximate;
+    }
+
+    /**
+     * Method to get the running count of the request's counting session.
+     * @return the Hi-Lo running count, or null if the request has no counting session
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Integer getRunningCount() {
+        return runningCount;
+    }
+
+    /**
+     * Method to set the running count of the request's counting session.
+     * @param runningCount the Hi-Lo running count
+     */
+    public void setRunningCount(Integer runningCount) {
+        this.runningCount = runningCount;
+    }
+
+    /**
+     * Method to get the true count of the request's counting session.
+     * @return the true count, or null if the request has no counting session
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Double getTrueCount() {
+        return trueCount;
+    }
+
+    /**
+     * Method to set the true count of the request's counting session.
+     * @param trueCount the true count
+     */
+    public void setTrueCount(Double trueCount) {
+        this.trueCount = trueCount;
+    }
+
+    /**
+     * Method to get the basic strategy move after count-indexed deviations at the session's true count.
+     * @return the counted move as a String, or null if the request has no counting session
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getCountedMove() {
+        return countedMove;
+    }
+
+    /**
+     * Method to set the basic strategy move after count-indexed deviations.
+     * @param countedMove the counted move as a String
+     */
+    public void setCountedMove(String countedMove) {
+        this.countedMove = countedMove;
+    }
+
+    /**
+     * Method to get whether insurance should be taken at the session's true count.
+     * @return true if insurance should be taken, or null if the request has no counting session
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Boolean getTakeInsurance() {
+        return takeInsurance;
+    }
+
+    /**
+     * Method to set whether insurance should be taken at the session's true count.
+     * @param takeInsurance true if insurance should be taken
+     */
+    public void setTakeInsurance(Boolean takeInsurance) {
+        this.takeInsurance = takeInsurance;
+    }
 }
@@ -0,0 +1,193 @@
+package com.BlackJackStack.demo.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Class representing the rules of a blackjack table, such as the number of decks and how the dealer plays.
+ * TableRules are immutable and compare by their profile name and rule values, so they can key tables per profile;
+ * hasSameRulesAs and getRuleValues compare the rule values alone, for caches that such profiles share.
+ */
+public final class TableRules {
+    /** Name of the built-in rules profile */
+    public static final String DEFAULT_PROFILE = "default";
+    /** Largest number of hands a table may let a player split into */
+    public static final int MAX_SPLIT_HANDS = 8;
+
+    /** Six decks, dealer hits soft 17, no double after split, no resplit, no surrender, blackjack pays 3:2 */
+    public static final TableRules DEFAULT = new TableRules(DEFAULT_PROFILE, 6, 0.75, true, false, 2, false, 1.5);
+
+    private final String name;
+    private final int decks;
+    private final double penetration;
+    private final boolean hitSoft17;
+    private final boolean doubleAfterSplit;
+    private final int maxSplitHands;
+    private final boolean lateSurrender;
+    private final double blackjackPayout;
+
+    /**
+     * Constructs a TableRules object.
+     * @param name the name of the rules profile
+     * @param decks the number of decks in the shoe, or 0 for an infinite deck
+     * @param penetration the fraction of the shoe dealt before reshuffling (0.0 to 1.0)
+     * @param hitSoft17 true if the dealer hits soft 17 (H17), false if the dealer stands (S17)
+     * @param doubleAfterSplit true if doubling down is allowed after a split (DAS)
+     * @param maxSplitHands the largest number of hands a player may split into (2 means no resplit, at most 8)
+     * @param lateSurrender true if the player may surrender the first two cards for half the bet
+     * @param blackjackPayout the amount a blackjack wins per unit bet (e.g. 1.5 for 3:2, 1.2 for 6:5)
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public TableRules(String name, int decks, double penetration, boolean hitSoft17, boolean doubleAfterSplit,
+            int maxSplitHands, boolean lateSurrender, double blackjackPayout) {
+        if (decks < 0) {
+            throw new IllegalArgumentException("Invalid deck count: " + decks);
+        }
+        if (penetration <= 0.0 || penetration > 1.0) {
+            throw new IllegalArgumentException("Invalid penetration: " + penetration);
+        }
+        if (maxSplitHands < 1 || maxSplitHands > MAX_SPLIT_HANDS) {
+            throw new IllegalArgumentException("Invalid maximum split hands: " + maxSplitHands);
+        }
+        if (blackjackPayout <= 0.0) {
+            throw new IllegalArgumentException("Invalid blackjack payout: " + blackjackPayout);
+        }
+        this.name = name;
+        this.decks = decks;
+        this.penetration = penetration;
+        this.hitSoft17 = hitSoft17;
+        this.doubleAfterSplit = doubleAfterSplit;
+        this.maxSplitHands = maxSplitHands;
+        this.lateSurrender = lateSurrender;
+        this.blackjackPayout = blackjackPayout;
+    }
+
+    /**
+     * Method to create a new full shoe for these rules.
+     * @return a new Shoe with this table's deck count and penetration
+     */
+    public Shoe newShoe() {
+        return new Shoe(decks, penetration);
+    }
+
+    /**
+     * Method to get the name of the rules profile.
+     * @return the profile name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Method to get the number of decks in the shoe.
+     * @return the deck count, 0 for an infinite deck
+     */
+    public int getDecks() {
+        return decks;
+    }
+
+    /**
+     * Method to get the fraction of the shoe dealt before reshuffling.
+     * @return the penetration (0.0 to 1.0)
+     */
+    public double getPenetration() {
+        return penetration;
+    }
+
+    /**
+     * Method to check if the dealer hits soft 17.
+     * @return true for H17, false for S17
+     */
+    public boolean isHitSoft17() {
+        return hitSoft17;
+    }
+
+    /**
+     * Method to check if doubling down is allowed after a split.
+     * @return true if DAS is allowed
+     */
+    public boolean isDoubleAfterSplit() {
+        return doubleAfterSplit;
+    }
+
+    /**
+     * Method to get the largest number of hands a player may split into.
+     * @return the maximum split hands (2 means no resplit)
+     */
+    public int getMaxSplitHands() {
+        return maxSplitHands;
+    }
+
+    /**
+     * Method to check if late surrender is offered.
+     * @return true if the player may surrender for half the bet
+     */
+    public boolean isLateSurrender() {
+        return lateSurrender;
+    }
+
+    /**
+     * Method to get the amount a blackjack wins per unit bet.
+     * @return the blackjack payout (e.g. 1.5 for 3:2)
+     */
+    public double getBlackjackPayout() {
+        return blackjackPayout;
+    }
+
+    /**
+     * Method to get the rule values without the profile name, to key what profiles with the same rules share.
+     * @return the rule values, equal to those of another TableRules exactly when hasSameRulesAs is true
+     */
+    public List<Object> getRuleValues() {
+        return List.of(decks, penetration, hitSoft17, doubleAfterSplit, maxSplitHands, lateSurrender,
+                blackjackPayout);
+    }
+
+    /**
+     * Method to compare the rule values of two TableRules, ignoring the profile name.
+     * @param other the TableRules to compare with
+     * @return true if both tables play by the same rules
+     */
+    public boolean hasSameRulesAs(TableRules other) {
+        return getRuleValues().equals(other.getRuleValues());
+    }
+
+    /**
+     * Method to compare two TableRules by profile name and rule values. Profiles with the same values are
+     * still different keys, so tables always carry the profile they were built for.
+     * @param o the object to compare with
+     * @return true if both are the same profile with the same rules
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TableRules)) {
+            return false;
+        }
+        TableRules other = (TableRules) o;
+        return Objects.equals(name, other.name) && hasSameRulesAs(other);
+    }
+
+    /**
+     * Method to get a hash code consistent with equals().
+     * @return the hash code of the profile name and rule values
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, decks, penetration, hitSoft17, doubleAfterSplit, maxSplitHands, lateSurrender,
+                blackjackPayout);
+    }
+
+    /**
+     * Method to get a string representation of the rules.
+     * @return the profile name and rule values as a string
+     */
+    @Override
+    public String toString() {
+        return name + " (" + decks + " decks, " + (hitSoft17 ? "H17" : "S17")
+                + (doubleAfterSplit ? ", DAS" : "") + ", split to " + maxSplitHands
+                + (lateSurrender ? ", late surrender" : "") + ", blackjack pays " + blackjackPayout + ")";
+    }
+}
@@ -0,0 +1,154 @@
+package com.BlackJackStack.demo.service;
+
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.DealerOutcome;
+import com.BlackJackStack.demo.model.Shoe;
+
+/**
+ * Class that computes the exact distribution of the dealer's final hand for each up card.
+ * Instead of sampling dealer hands, every draw sequence is walked once with its probability.
+ * Infinite-deck results are precomputed, so those lookups are a constant-time array read.
+ * Finite shoes are walked on demand with cards removed as they are drawn.
+ */
+public class DealerOutcomeCalculator {
+
+    /** Probability of drawing each card value (1 = Ace, 10 = any ten-valued card) from an infinite deck */
+    private static final double[] DRAW_PROBABILITY = new double[11];
+
+    /** Precomputed distributions indexed by [hitSoft17 ? 1 : 0][up card value 2-11] */
+    private static final DealerOutcome[][] OUTCOMES = new DealerOutcome[2][12];
+
+    static {
+        for (int value = 1; value <= 9; value++) {
+            DRAW_PROBABILITY[value] = 1.0 / 13;
+        }
+        DRAW_PROBABILITY[10] = 4.0 / 13; // 10, J, Q, K
+
+        for (int rule = 0; rule < 2; rule++) {
+            for (int upValue = 2; upValue <= 11; upValue++) {
+                double[] probabilities = new double[DealerOutcome.OUTCOMES];
+                int hard = upValue == 11 ? 1 : upValue;
+                play(hard, upValue == 11, 1, 1.0, rule == 1, probabilities);
+                OUTCOMES[rule][upValue] = new DealerOutcome(probabilities);
+            }
+        }
+    }
+
+    /**
+     * Method to get the dealer's outcome distribution for an up card.
+     * @param upCard the dealer's up Card
+     * @param hitSoft17 true if the dealer hits soft 17 (H17), false if the dealer stands (S17)
+     * @return the exact DealerOutcome for the up card
+     */
+    public DealerOutcome getOutcome(Card upCard, boolean hitSoft17) {
+        return OUTCOMES[hitSoft17 ? 1 : 0][upCard.getValue()];
+    }
+
+    /**
+     * Method to get the dealer's outcome distribution for an up card drawing from a finite shoe.
+     * @param upCard the dealer's up Card
+     * @param shoe the cards left in the shoe, with the up card and any other known cards already removed
+     * @param hitSoft17 true if the dealer hits soft 17 (H17), false if the dealer stands (S17)
+     * @return the exact DealerOutcome for the up card and shoe composition
+     */
+    public DealerOutcome getOutcome(Card upCard, Shoe shoe, boolean hitSoft17) {
+        if (shoe.isInfinite()) {
+            return getOutcome(upCard, hitSoft17);
+        }
+        int[] counts = new int[11]; // by hard value, 1 = Ace
+        for (int rank = 0; rank < Card.RANKS; rank++) {
+            int value = Card.valueOf(rank);
+            counts[value == 11 ? 1 : value] += shoe.count(rank);
+        }
+        return getOutcome(upCard.getValue(), counts, shoe.remaining(), hitSoft17);
+    }
+
+    /**
+     * Method to get the dealer's outcome distribution for an up card drawing from a shoe given by value counts.
+     * @param upValue the value of the dealer's up card (2-10, 11 for an Ace)
+     * @param counts the cards left by hard value (1 = Ace, 10 = any ten-valued card), restored before returning
+     * @param remaining the total number of cards left
+     * @param hitSoft17 true if the dealer hits soft 17 (H17), false if the dealer stands (S17)
+     * @return the exact DealerOutcome for the up card and shoe composition
+     */
+    public DealerOutcome getOutcome(int upValue, int[] counts, int remaining, boolean hitSoft17) {
+        double[] probabilities = new double[DealerOutcome.OUTCOMES];
+        boolean ace = upValue == 11;
+        play(ace ? 1 : upValue, ace, 1, 1.0, hitSoft17, counts, remaining, probabilities);
+        return new DealerOutcome(probabilities);
+    }
+
+    /**
+     * Method to recursively walk every dealer draw sequence and accumulate its probability.
+     * @param hard the dealer's total counting every Ace as 1
+     * @param hasAce true if the dealer holds at least one Ace
+     * @param cards the number of cards in the dealer's hand
+     * @param probability the probability of reaching this state
+     * @param hitSoft17 true if the dealer hits soft 17
+     * @param out the outcome probabilities to add to
+     */
+    private static void play(int hard, boolean hasAce, int cards, double probability, boolean hitSoft17, double[] out) {
+        int outcome = finalOutcome(hard, hasAce, cards, hitSoft17);
+        if (outcome >= 0) {
+            out[outcome] += probability;
+            return;
+        }
+        for (int value = 1; value <= 10; value++) {
+            play(hard + value, hasAce || value == 1, cards + 1, probability * DRAW_PROBABILITY[value], hitSoft17, out);
+        }
+    }
+
+    /**
+     * Method to recursively walk every dealer draw sequence from a finite shoe and accumulate its probability.
+     * @param hard the dealer's total counting every Ace as 1
+     * @param hasAce true if the dealer holds at least one Ace
+     * @param cards the number of cards in the dealer's hand
+     * @param probability the probability of reaching this state
+     * @param hitSoft17 true if the dealer hits soft 17
+     * @param counts the cards left by hard value (1 = Ace), restored before returning
+     * @param remaining the total number of cards left
+     * @param out the outcome probabilities to add to
+     */
+    private static void play(int hard, boolean hasAce, int cards, double probability, boolean hitSoft17,
+            int[] counts, int remaining, double[] out) {
+        int outcome = finalOutcome(hard, hasAce, cards, hitSoft17);
+        if (outcome >= 0) {
+            out[outcome] += probability;
+            return;
+        }
+        for (int value = 1; value <= 10; value++) {
+            int count = counts[value];
+            if (count == 0) {
+                continue;
+            }
+            counts[value]--;
+            play(hard + value, hasAce || value == 1, cards + 1, probability * count / remaining, hitSoft17,
+                    counts, remaining - 1, out);
+            counts[value]++;
+        }
+    }
+
+    /**
+     * Method to get the dealer's final outcome if the dealer stops drawing at this state.
+     * @param hard the dealer's total counting every Ace as 1
+     * @param hasAce true if the dealer holds at least one Ace
+     * @param cards the number of cards in the dealer's hand
+     * @param hitSoft17 true if the dealer hits soft 17
+     * @return the outcome index in DealerOutcome, or -1 if the dealer must draw
+     */
+    private static int finalOutcome(int hard, boolean hasAce, int cards, boolean hitSoft17) {
+        boolean soft = hasAce && hard + 10 <= 21;
+        int total = soft ? hard + 10 : hard;
+
+        if (cards == 2 && total == 21) {
+            return DealerOutcome.NATURAL;
+        }
+        if (total > 21) {
+            return DealerOutcome.BUST;
+        }
+        if (total > 17 || (total == 17 && !(soft && hitSoft17))) {
+            return DealerOutcome.SEVENTEEN + total - 17;
+        }
+        return -1;
+    }
+}
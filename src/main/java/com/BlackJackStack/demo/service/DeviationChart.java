@@ -0,0 +1,299 @@
+package com.BlackJackStack.demo.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.BlackJackStack.demo.model.Move;
+import com.BlackJackStack.demo.model.PackedHand;
+
+/**
+ * Class holding count-indexed deviations from basic strategy, such as the Hi-Lo Illustrious 18 and Fab 4.
+ * Deviations are loaded from a text resource such as charts/hilo-h17.deviations:
+ * <pre>
+ * insurance   A    +3
+ * hard 15     10    0   R
+ * hard 16     10    0   S   H
+ * pair 10     6    +4   P   S
+ * </pre>
+ * Each row names a hand (hard or soft total, or pair value with A for Aces), the dealer's up card (2-10 or A),
+ * the index, the play made at a true count at or above the index and the play made below it. The codes are
+ * H (hit), S (stand), D (double), P (split) and R (surrender). Surrender rows have no play below the index,
+ * the hand is then played on as if surrender were not offered. A row only applies when its play is allowed.
+ * Rows are kept in a flat array indexed like StrategyChart, so a decision reads one array entry.
+ * Lines starting with # are comments. A DeviationChart is immutable and thread-safe.
+ */
+public final class DeviationChart {
+
+    private static final int HARD = 0;
+    private static final int SOFT = 1;
+    private static final int PAIR = 2;
+    /** Columns per row, indexed directly by the dealer's up card value (2-10, 11 for an Ace) */
+    private static final int COLUMNS = 12;
+    private static final int LAST_TOTAL = 21;
+    private static final Row[] NONE = new Row[0];
+
+    private final String name;
+    /** Rows of each hand kind, total (or pair value, 1 for Aces) and dealer value, in chart order */
+    private final Row[][] rows = new Row[3 * (LAST_TOTAL + 1) * COLUMNS][];
+    private double insuranceIndex = Double.POSITIVE_INFINITY;
+
+    private DeviationChart(String name) {
+        this.name = name;
+        Arrays.fill(rows, NONE);
+    }
+
+    /**
+     * Method to load deviations from a classpath resource.
+     * @param resource the classpath location of the deviations (e.g. "charts/hilo-h17.deviations")
+     * @return the DeviationChart
+     * @throws IllegalArgumentException if the resource does not exist or is malformed
+     */
+    public static DeviationChart load(String resource) {
+        InputStream in = DeviationChart.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalArgumentException("Deviation chart not found: " + resource);
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return parse(resource, reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read deviation chart " + resource, e);
+        }
+    }
+
+    /**
+     * Method to parse deviations in the format described above.
+     * @param name the name of the chart, used in error messages
+     * @param reader the chart text
+     * @return the DeviationChart
+     * @throws IOException if the chart cannot be read
+     * @throws IllegalArgumentException if a row is malformed
+     */
+    public static DeviationChart parse(String name, Reader reader) throws IOException {
+        DeviationChart chart = new DeviationChart(name);
+        BufferedReader lines = new BufferedReader(reader);
+        int lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            if (fields[0].equals("insurance")) {
+                if (fields.length != 3 || chart.dealerValueOf(fields[1], lineNumber) != 11) {
+                    throw chart.invalid(lineNumber, "expected insurance A and an index");
+                }
+                chart.insuranceIndex = chart.indexOf(fields[2], lineNumber);
+                continue;
+            }
+            if (fields.length < 5 || fields.length > 6) {
+                throw chart.invalid(lineNumber, "expected a hand, a dealer card, an index and one or two plays");
+            }
+            int kind = kindOf(fields[0]);
+            if (kind < 0) {
+                throw chart.invalid(lineNumber, "unknown hand kind " + fields[0]);
+            }
+            int row = chart.rowOf(kind, fields[1], lineNumber);
+            int dealerValue = chart.dealerValueOf(fields[2], lineNumber);
+            double index = chart.indexOf(fields[3], lineNumber);
+            Move play = chart.moveOf(fields[4], lineNumber);
+            Move otherwise = fields.length == 6 ? chart.moveOf(fields[5], lineNumber) : null;
+            if ((play == Move.SURRENDER) != (otherwise == null)) {
+                throw chart.invalid(lineNumber, "a surrender row has no otherwise play, every other row needs one");
+            }
+            if ((kind == PAIR) != (play == Move.SPLIT)) {
+                throw chart.invalid(lineNumber, "only pair rows may split");
+            }
+            int position = position(kind, row, dealerValue);
+            Row[] existing = chart.rows[position];
+            Row[] extended = Arrays.copyOf(existing, existing.length + 1);
+            extended[existing.length] = new Row(index, play, otherwise);
+            chart.rows[position] = extended;
+        }
+        return chart;
+    }
+
+    /**
+     * Method to get the play for a hand at a true count: the index play that applies, or the chart's basic
+     * strategy play when none does. A hand the basic chart surrenders is only played on when one of its
+     * surrender rows is below its index.
+     * @param chart the basic StrategyChart the deviations are made from
+     * @param hand the player's hand, packed as described in PackedHand
+     * @param dealerValue the value of the dealer's up card (2-10, 11 for an Ace)
+     * @param canSplit true if a pair may be split
+     * @param canDouble true if the hand may be doubled
+     * @param canSurrender true if the hand may be surrendered
+     * @param trueCount the true count of the shoe
+     * @return the Move to make
+     */
+    public Move move(StrategyChart chart, int hand, int dealerValue, boolean canSplit, boolean canDouble,
+            boolean canSurrender, double trueCount) {
+        Move basic = chart.move(hand, dealerValue, canSplit, canDouble, canSurrender);
+        int pairValue = PackedHand.pairValue(hand);
+        if (canSplit && pairValue != 0) {
+            Row[] pairRows = rows[position(PAIR, pairValue, dealerValue)];
+            if (pairRows.length > 0) {
+                return trueCount >= pairRows[0].index ? pairRows[0].play : pairRows[0].otherwise;
+            }
+            if (basic == Move.SPLIT) {
+                return basic;
+            }
+        }
+
+        int total = PackedHand.total(hand);
+        if (total > LAST_TOTAL) {
+            return basic;
+        }
+        Row[] totalRows = rows[position(PackedHand.isSoft(hand) ? SOFT : HARD, total, dealerValue)];
+        if (canSurrender) {
+            boolean indexed = false;
+            for (Row row : totalRows) {
+                if (row.play == Move.SURRENDER) {
+                    if (trueCount >= row.index) {
+                        return Move.SURRENDER;
+                    }
+                    indexed = true;
+                }
+            }
+            if (basic == Move.SURRENDER) {
+                if (!indexed) {
+                    return basic;
+                }
+                basic = chart.move(hand, dealerValue, canSplit, canDouble, false);
+            }
+        }
+        for (Row row : totalRows) {
+            if (row.play == Move.SURRENDER || (row.play == Move.DOUBLE_DOWN && !canDouble)) {
+                continue;
+            }
+            return trueCount >= row.index ? row.play : row.otherwise;
+        }
+        return basic;
+    }
+
+    /**
+     * Method to check whether insurance should be taken at a true count.
+     * @param dealerValue the value of the dealer's up card (2-10, 11 for an Ace)
+     * @param trueCount the true count of the shoe
+     * @return true if the dealer shows an Ace and the count is at or above the insurance index
+     */
+    public boolean takeInsurance(int dealerValue, double trueCount) {
+        return dealerValue == 11 && trueCount >= insuranceIndex;
+    }
+
+    /**
+     * Method to get the name the chart was loaded from.
+     * @return the chart name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Method to get the flat array position of a hand and dealer value.
+     * @param kind HARD, SOFT or PAIR
+     * @param row the total, or the pair value for pairs
+     * @param dealerValue the value of the dealer's up card
+     * @return the position in the rows array
+     */
+    private static int position(int kind, int row, int dealerValue) {
+        return (kind * (LAST_TOTAL + 1) + row) * COLUMNS + dealerValue;
+    }
+
+    private static int kindOf(String label) {
+        switch (label) {
+            case "hard":
+                return HARD;
+            case "soft":
+                return SOFT;
+            case "pair":
+                return PAIR;
+            default:
+                return -1;
+        }
+    }
+
+    private int rowOf(int kind, String label, int lineNumber) {
+        if (kind == PAIR && label.equalsIgnoreCase("A")) {
+            return 1;
+        }
+        int row;
+        try {
+            row = Integer.parseInt(label);
+        } catch (NumberFormatException e) {
+            throw invalid(lineNumber, "invalid hand " + label);
+        }
+        int first = kind == PAIR ? 2 : kind == SOFT ? 12 : 4;
+        int last = kind == PAIR ? 10 : LAST_TOTAL;
+        if (row < first || row > last) {
+            throw invalid(lineNumber, "invalid hand " + label);
+        }
+        return row;
+    }
+
+    private int dealerValueOf(String label, int lineNumber) {
+        if (label.equalsIgnoreCase("A")) {
+            return 11;
+        }
+        try {
+            int value = Integer.parseInt(label);
+            if (value >= 2 && value <= 10) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw invalid(lineNumber, "invalid dealer card " + label);
+    }
+
+    private double indexOf(String label, int lineNumber) {
+        try {
+            return Integer.parseInt(label);
+        } catch (NumberFormatException e) {
+            throw invalid(lineNumber, "invalid index " + label);
+        }
+    }
+
+    private Move moveOf(String code, int lineNumber) {
+        switch (code) {
+            case "H":
+                return Move.HIT;
+            case "S":
+                return Move.STAND;
+            case "D":
+                return Move.DOUBLE_DOWN;
+            case "P":
+                return Move.SPLIT;
+            case "R":
+                return Move.SURRENDER;
+            default:
+                throw invalid(lineNumber, "invalid play " + code);
+        }
+    }
+
+    private IllegalArgumentException invalid(int lineNumber, String reason) {
+        return new IllegalArgumentException("Invalid deviation chart " + name + " at line " + lineNumber + ": " + reason);
+    }
+
+    /**
+     * Class holding one index play.
+     */
+    private static final class Row {
+        private final double index;
+        private final Move play;
+        private final Move otherwise;
+
+        Row(double index, Move play, Move otherwise) {
+            this.index = index;
+            this.play = play;
+            this.otherwise = otherwise;
+        }
+    }
+}
@@ -0,0 +1,454 @@
+package com.BlackJackStack.demo.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.Move;
+import com.BlackJackStack.demo.model.PackedHand;
+import com.BlackJackStack.demo.model.PlayEvent;
+import com.BlackJackStack.demo.model.StrategyRequest;
+import com.BlackJackStack.demo.model.StrategyResponse;
+
+import io.micrometer.core.instrument.Counter;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Component that appends every PlayEvent to an on-disk log: each strategy recommendation, each decision made
+ * in a game session and each settled round. Recording an event only offers it to a bounded in-memory buffer,
+ * so the request path never waits for the disk; a background thread collects events for up to
+ * events.flush-interval, or until a batch is full, and appends the batch to the current segment with one write.
+ * Events that arrive while the buffer is full are dropped and counted in the events.dropped counter rather than
+ * slowing requests down.
+ * <p>
+ * The log is a directory of segments named after the sequence number of their first event, each a 16-byte
+ * header (int magic "BJEV", short version, short record size, long first sequence) followed by fixed-width
+ * little-endian records. A segment is closed once it reaches events.segment-size and a new one is started, and
+ * a restarted log appends to its last segment. A log has a single writer, so instances must not share a
+ * directory. Segments are read back with EventLogReader.
+ */
+@Component
+public class EventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(EventLog.class);
+
+    /** "BJEV" */
+    static final int MAGIC = 0x424A4556;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 80;
+    /** Longest rules profile name kept in a record, in UTF-8 bytes */
+    private static final int MAX_PROFILE_BYTES = RECORD_SIZE - 57;
+    private static final PlayEvent.Type[] TYPES = PlayEvent.Type.values();
+    private static final Move[] MOVES = Move.values();
+
+    /** Default number of events the buffer holds before new events are dropped */
+    private static final int DEFAULT_BUFFER_SIZE = 65_536;
+    /** Default size at which a segment is closed and the next one started */
+    private static final String DEFAULT_SEGMENT_SIZE = "64MB";
+    /** Default longest time an event waits in the buffer */
+    private static final String DEFAULT_FLUSH_INTERVAL = "1s";
+    /** Largest number of events written with one call */
+    private static final int BATCH_SIZE = 1024;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long segmentRecords;
+    private final Duration flushInterval;
+    private final BlockingQueue<PlayEvent> buffer;
+    private final Thread writer;
+    private final Counter writtenEvents;
+    private final Counter droppedEvents;
+
+    private volatile boolean closed;
+    /** Events accepted into the buffer */
+    private final AtomicLong accepted = new AtomicLong();
+    /** Events written or given up on, guarded by this */
+    private long finished;
+
+    /** The segment being appended to, only used by the writer thread */
+    private FileChannel segment;
+    private long segmentFirst;
+    private long sequence;
+
+    /**
+     * Constructs an EventLog that records nothing, for services created outside of Spring.
+     */
+    public EventLog() {
+        this(false, null, DEFAULT_BUFFER_SIZE, DataSize.parse(DEFAULT_SEGMENT_SIZE), Duration.ofSeconds(1),
+                new StrategyMetrics());
+    }
+
+    /**
+     * Constructs an EventLog.
+     * @param enabled true to record events, false to ignore them
+     * @param directory the directory the segments are written to
+     * @param bufferSize the number of events the buffer holds before new events are dropped
+     * @param segmentSize the size at which a segment is closed and the next one started
+     * @param flushInterval the longest time an event waits in the buffer before it is written
+     * @param metrics the StrategyMetrics whose registry the event counters are published to
+     */
+    @Autowired
+    public EventLog(@Value("${events.enabled:false}") boolean enabled,
+            @Value("${events.directory:events}") Path directory,
+            @Value("${events.buffer-size:" + DEFAULT_BUFFER_SIZE + "}") int bufferSize,
+            @Value("${events.segment-size:" + DEFAULT_SEGMENT_SIZE + "}") DataSize segmentSize,
+            @Value("${events.flush-interval:" + DEFAULT_FLUSH_INTERVAL + "}") Duration flushInterval,
+            StrategyMetrics metrics) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentRecords = Math.max(1, (segmentSize.toBytes() - HEADER_SIZE) / RECORD_SIZE);
+        this.flushInterval = flushInterval;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.writtenEvents = Counter.builder("events.written")
+                .description("Play events appended to the event log")
+                .register(metrics.getRegistry());
+        this.droppedEvents = Counter.builder("events.dropped")
+                .description("Play events dropped because the event log buffer was full or could not be written")
+                .register(metrics.getRegistry());
+        if (enabled) {
+            writer = new Thread(this::drain, "event-log-writer");
+            writer.setDaemon(true);
+            writer.start();
+        } else {
+            writer = null;
+        }
+    }
+
+    /**
+     * Method to check whether events are recorded.
+     * @return true if the log is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Method to get the directory the segments are written to.
+     * @return the log directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Method to record a strategy recommendation.
+     * @param request the StrategyRequest that was looked up
+     * @param response the StrategyResponse it was answered with
+     */
+    public void recordRecommendation(StrategyRequest request, StrategyResponse response) {
+        if (!enabled) {
+            return;
+        }
+        List<String> cards = request.getPlayerCards();
+        int hand = PackedHand.EMPTY;
+        for (String card : cards) {
+            hand = PackedHand.addRank(hand, Card.parseRank(card));
+        }
+        PlayEvent event = new PlayEvent();
+        event.setType(PlayEvent.Type.RECOMMENDATION);
+        event.setRulesProfile(response.getRulesProfile());
+        event.setFirstCard(new Card(cards.get(0)).getValue());
+        event.setSecondCard(new Card(cards.get(1)).getValue());
+        event.setPlayerTotal(PackedHand.total(hand));
+        event.setSoft(PackedHand.isSoft(hand));
+        event.setCardCount(cards.size());
+        event.setDealerCard(new Card(request.getDealerCard()).getValue());
+        event.setRecommendedMove(Move.fromLabel(response.getRecommendedMove()));
+        if (response.getBasicStrategyMove() != null) {
+            event.setBasicStrategyMove(Move.fromLabel(response.getBasicStrategyMove()));
+        }
+        event.setExpectedValue(response.getExpectedValue());
+        event.setApproximate(response.isApproximate());
+        record(event);
+    }
+
+    /**
+     * Method to record an event. The event is only buffered, it is written by the background thread.
+     * @param event the PlayEvent to record, its time is set if it is 0
+     */
+    public void record(PlayEvent event) {
+        if (!enabled || closed) {
+            return;
+        }
+        if (event.getTime() == 0) {
+            event.setTime(System.currentTimeMillis());
+        }
+        if (buffer.offer(event)) {
+            accepted.incrementAndGet();
+        } else {
+            droppedEvents.increment();
+        }
+    }
+
+    /**
+     * Method to wait until every event recorded so far has been written (for testing and shutdown).
+     * @param timeout the longest time to wait
+     * @return true if every event was written in time
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public synchronized boolean flush(Duration timeout) throws InterruptedException {
+        long target = accepted.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (finished < target && writer != null && writer.isAlive()) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, left);
+        }
+        return finished >= target;
+    }
+
+    /**
+     * Method to write the buffered events and close the current segment when the application shuts down.
+     */
+    @PreDestroy
+    public void close() {
+        if (writer == null || closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writer.join(flushInterval.toMillis() + 5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Method run by the writer thread: collects events into batches and appends them, until the log is closed
+     * and the buffer is drained.
+     */
+    private void drain() {
+        List<PlayEvent> batch = new ArrayList<>(BATCH_SIZE);
+        ByteBuffer records = ByteBuffer.allocateDirect(BATCH_SIZE * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            while (!closed || !buffer.isEmpty()) {
+                PlayEvent first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Wait for more events until the batch is full or the oldest one has waited flush-interval
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < BATCH_SIZE && !closed) {
+                    buffer.drainTo(batch, BATCH_SIZE - batch.size());
+                    long left = deadline - System.nanoTime();
+                    if (batch.size() == BATCH_SIZE || left <= 0) {
+                        break;
+                    }
+                    PlayEvent next = buffer.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                buffer.drainTo(batch, BATCH_SIZE - batch.size());
+                write(batch, records);
+                synchronized (this) {
+                    finished += batch.size();
+                    notifyAll();
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeSegment();
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Method to append a batch of events, starting a new segment whenever the current one is full.
+     * Events that cannot be written are dropped and counted, and the next batch reopens the log.
+     * @param batch the events to append
+     * @param records the buffer to encode the records in, large enough for a full batch
+     */
+    private void write(List<PlayEvent> batch, ByteBuffer records) {
+        int written = 0;
+        try {
+            while (written < batch.size()) {
+                if (segment == null || sequence - segmentFirst >= segmentRecords) {
+                    openSegment();
+                }
+                int count = (int) Math.min(batch.size() - written, segmentFirst + segmentRecords - sequence);
+                records.clear();
+                for (int i = written; i < written + count; i++) {
+                    encode(batch.get(i), records);
+                }
+                records.flip();
+                while (records.hasRemaining()) {
+                    segment.write(records);
+                }
+                written += count;
+                sequence += count;
+                writtenEvents.increment(count);
+            }
+        } catch (IOException e) {
+            log.error("Could not write " + (batch.size() - written) + " events to " + directory, e);
+            droppedEvents.increment(batch.size() - written);
+            closeSegment();
+            segment = null;
+        }
+    }
+
+    /**
+     * Method to open the segment the next event is appended to: the last segment of the log if it has room,
+     * otherwise a new one. A partly written record at the end of the last segment is cut off.
+     * @throws IOException if the segment cannot be opened or created
+     */
+    private void openSegment() throws IOException {
+        if (segment != null) {
+            closeSegment();
+        } else {
+            Files.createDirectories(directory);
+            List<Path> segments = EventLogReader.segments(directory);
+            if (!segments.isEmpty()) {
+                Path last = segments.get(segments.size() - 1);
+                long first = EventLogReader.firstSequence(last);
+                long records = Math.max(0, (Files.size(last) - HEADER_SIZE) / RECORD_SIZE);
+                if (records < segmentRecords) {
+                    segment = FileChannel.open(last, StandardOpenOption.WRITE);
+                    segment.truncate(HEADER_SIZE + records * RECORD_SIZE);
+                    segment.position(HEADER_SIZE + records * RECORD_SIZE);
+                    segmentFirst = first;
+                    sequence = first + records;
+                    return;
+                }
+                sequence = first + records;
+            }
+        }
+        segmentFirst = sequence;
+        Path file = directory.resolve(EventLogReader.segmentName(segmentFirst));
+        segment = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) RECORD_SIZE)
+                .putLong(segmentFirst)
+                .flip();
+        while (header.hasRemaining()) {
+            segment.write(header);
+        }
+    }
+
+    /**
+     * Method to sync and close the current segment, if one is open.
+     */
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.force(false);
+            segment.close();
+        } catch (IOException e) {
+            log.warn("Could not close event log segment: {}", e.getMessage());
+        }
+        segment = null;
+    }
+
+    /**
+     * Method to encode an event as one record at the buffer's position.
+     * @param event the PlayEvent to encode
+     * @param out the buffer to write the record to
+     */
+    static void encode(PlayEvent event, ByteBuffer out) {
+        int start = out.position();
+        byte[] profile = event.getRulesProfile() == null ? new byte[0]
+                : event.getRulesProfile().getBytes(StandardCharsets.UTF_8);
+        int profileLength = Math.min(profile.length, MAX_PROFILE_BYTES);
+        // Cut a long name before a character, not inside one: back off over UTF-8 continuation bytes
+        while (profileLength < profile.length && profileLength > 0 && (profile[profileLength] & 0xC0) == 0x80) {
+            profileLength--;
+        }
+        out.putLong(event.getTime())
+                .putLong(event.getSession())
+                .putLong(event.getRound())
+                .putDouble(event.getExpectedValue())
+                .putDouble(event.getNet())
+                .putInt(event.getBet())
+                .put((byte) event.getType().ordinal())
+                .put((byte) event.getHand())
+                .put((byte) event.getFirstCard())
+                .put((byte) event.getSecondCard())
+                .put((byte) event.getPlayerTotal())
+                .put((byte) event.getCardCount())
+                .put((byte) event.getDealerCard())
+                .put((byte) event.getDealerTotal())
+                .put((byte) ((event.isSoft() ? 1 : 0) | (event.isApproximate() ? 2 : 0)))
+                .put(ordinal(event.getMove()))
+                .put(ordinal(event.getRecommendedMove()))
+                .put(ordinal(event.getBasicStrategyMove()))
+                .put((byte) profileLength)
+                .put(profile, 0, profileLength);
+        out.position(start + RECORD_SIZE);
+    }
+
+    /**
+     * Method to decode the record at a position.
+     * @param in the buffer holding the record
+     * @param at the position of the record
+     * @return the PlayEvent
+     */
+    static PlayEvent decode(ByteBuffer in, int at) {
+        PlayEvent event = new PlayEvent();
+        event.setTime(in.getLong(at));
+        event.setSession(in.getLong(at + 8));
+        event.setRound(in.getLong(at + 16));
+        event.setExpectedValue(in.getDouble(at + 24));
+        event.setNet(in.getDouble(at + 32));
+        event.setBet(in.getInt(at + 40));
+        event.setType(TYPES[in.get(at + 44)]);
+        event.setHand(in.get(at + 45));
+        event.setFirstCard(in.get(at + 46));
+        event.setSecondCard(in.get(at + 47));
+        event.setPlayerTotal(in.get(at + 48));
+        event.setCardCount(in.get(at + 49));
+        event.setDealerCard(in.get(at + 50));
+        event.setDealerTotal(in.get(at + 51));
+        int flags = in.get(at + 52);
+        event.setSoft((flags & 1) != 0);
+        event.setApproximate((flags & 2) != 0);
+        event.setMove(move(in.get(at + 53)));
+        event.setRecommendedMove(move(in.get(at + 54)));
+        event.setBasicStrategyMove(move(in.get(at + 55)));
+        byte[] profile = new byte[in.get(at + 56)];
+        in.get(at + 57, profile);
+        event.setRulesProfile(new String(profile, StandardCharsets.UTF_8));
+        return event;
+    }
+
+    private static byte ordinal(Move move) {
+        return (byte) (move == null ? -1 : move.ordinal());
+    }
+
+    private static Move move(byte ordinal) {
+        return ordinal < 0 ? null : MOVES[ordinal];
+    }
+}
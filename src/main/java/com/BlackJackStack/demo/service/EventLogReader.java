@@ -0,0 +1,285 @@
+package com.BlackJackStack.demo.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.BlackJackStack.demo.model.PlayEvent;
+
+/**
+ * Class that replays the events written by EventLog, for offline analysis of play volumes, of how often players
+ * deviate from the recommended move and of realised against expected value. Each segment is memory-mapped and
+ * its records are decoded in order; a record still being written at the end of the last segment is skipped.
+ * A reader can be used while the log is being written, and replay from a sequence number picks up where an
+ * earlier replay stopped.
+ */
+public class EventLogReader {
+
+    private static final String SEGMENT_PREFIX = "events-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+
+    /**
+     * Constructs an EventLogReader.
+     * @param directory the directory of the event log
+     */
+    public EventLogReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Method to replay every event of the log.
+     * @param consumer called with each PlayEvent in the order it was recorded
+     * @return the sequence number following the last event replayed
+     * @throws UncheckedIOException if a segment cannot be read
+     * @throws IllegalStateException if a file in the log is not a segment of this version
+     */
+    public long replay(Consumer<PlayEvent> consumer) {
+        return replay(0, consumer);
+    }
+
+    /**
+     * Method to replay the events of the log from a sequence number on.
+     * @param from the sequence number of the first event to replay, as returned by an earlier replay
+     * @param consumer called with each PlayEvent in the order it was recorded
+     * @return the sequence number following the last event replayed
+     * @throws UncheckedIOException if a segment cannot be read
+     * @throws IllegalStateException if a file in the log is not a segment of this version
+     */
+    public long replay(long from, Consumer<PlayEvent> consumer) {
+        long next = from;
+        List<Path> segments;
+        try {
+            segments = segments(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list event log " + directory, e);
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            // Skip segments that end before the first event asked for
+            if (i + 1 < segments.size() && firstSequence(segments.get(i + 1)) <= from) {
+                continue;
+            }
+            next = Math.max(next, replaySegment(segments.get(i), from, consumer));
+        }
+        return next;
+    }
+
+    /**
+     * Method to replay the log and add up its events.
+     * @return the Summary of every event in the log
+     * @throws UncheckedIOException if a segment cannot be read
+     */
+    public Summary summarize() {
+        Summary summary = new Summary();
+        replay(summary::add);
+        return summary;
+    }
+
+    /**
+     * Method to replay the events of one segment.
+     * @param file the segment
+     * @param from the sequence number of the first event to replay
+     * @param consumer called with each PlayEvent
+     * @return the sequence number following the last record of the segment
+     */
+    private static long replaySegment(Path file, long from, Consumer<PlayEvent> consumer) {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read event log segment " + file, e);
+        }
+        if (buffer.capacity() < EventLog.HEADER_SIZE || buffer.getInt(0) != EventLog.MAGIC
+                || buffer.getShort(4) != EventLog.VERSION || buffer.getShort(6) != EventLog.RECORD_SIZE) {
+            throw new IllegalStateException("Not a version " + EventLog.VERSION + " event log segment: " + file);
+        }
+        long first = buffer.getLong(8);
+        long records = (buffer.capacity() - EventLog.HEADER_SIZE) / EventLog.RECORD_SIZE;
+        for (long record = Math.max(0, from - first); record < records; record++) {
+            consumer.accept(EventLog.decode(buffer, (int) (EventLog.HEADER_SIZE + record * EventLog.RECORD_SIZE)));
+        }
+        return first + records;
+    }
+
+    /**
+     * Method to list the segments of an event log in order.
+     * @param directory the directory of the event log
+     * @return the segment files, oldest first, or an empty list if the directory does not exist
+     * @throws IOException if the directory cannot be listed
+     */
+    static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            files.forEach(segments::add);
+        } catch (NoSuchFileException e) {
+            return segments;
+        }
+        // Sequence numbers are zero-padded, so names sort in sequence order
+        segments.sort(null);
+        return segments;
+    }
+
+    /**
+     * Method to get the file name of the segment starting at a sequence number.
+     * @param first the sequence number of the segment's first event
+     * @return the file name
+     */
+    static String segmentName(long first) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, first, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Method to get the sequence number of a segment's first event from its file name.
+     * @param segment the segment file
+     * @return the sequence number
+     * @throws IllegalStateException if the file is not named like a segment
+     */
+    static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Not an event log segment: " + segment, e);
+        }
+    }
+
+    /**
+     * Class adding up the events of a log: how many recommendations were served, how often players deviated
+     * from the recommended move in their decisions, and what the settled rounds won against what they were
+     * expected to win.
+     */
+    public static final class Summary {
+        private long recommendations;
+        private long decisions;
+        private long deviations;
+        private long rounds;
+        private long totalBet;
+        private double totalNet;
+        private long expectedRounds;
+        private long expectedBet;
+        private double expectedNet;
+        private double realisedNet;
+
+        /**
+         * Method to add an event to the summary.
+         * @param event the PlayEvent to add
+         */
+        public void add(PlayEvent event) {
+            switch (event.getType()) {
+                case RECOMMENDATION:
+                    recommendations++;
+                    break;
+                case DECISION:
+                    decisions++;
+                    if (event.isDeviation()) {
+                        deviations++;
+                    }
+                    break;
+                case ROUND:
+                    rounds++;
+                    totalBet += event.getBet();
+                    totalNet += event.getNet();
+                    if (!Double.isNaN(event.getExpectedValue())) {
+                        expectedRounds++;
+                        expectedBet += event.getBet();
+                        expectedNet += event.getExpectedValue() * event.getBet();
+                        realisedNet += event.getNet();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * Method to get the number of recommendations served.
+         * @return the number of RECOMMENDATION events
+         */
+        public long getRecommendations() {
+            return recommendations;
+        }
+
+        /**
+         * Method to get the number of decisions made in game sessions.
+         * @return the number of DECISION events
+         */
+        public long getDecisions() {
+            return decisions;
+        }
+
+        /**
+         * Method to get the number of decisions where the player did not make the recommended move.
+         * @return the number of deviations
+         */
+        public long getDeviations() {
+            return deviations;
+        }
+
+        /**
+         * Method to get the share of decisions that deviated from the recommended move.
+         * @return the deviation rate (0.0 to 1.0), or 0.0 if there were no decisions
+         */
+        public double getDeviationRate() {
+            return decisions == 0 ? 0.0 : (double) deviations / decisions;
+        }
+
+        /**
+         * Method to get the number of settled rounds.
+         * @return the number of ROUND events
+         */
+        public long getRounds() {
+            return rounds;
+        }
+
+        /**
+         * Method to get the chips bet on every settled round, before doubles and splits.
+         * @return the total bet
+         */
+        public long getTotalBet() {
+            return totalBet;
+        }
+
+        /**
+         * Method to get the player's result over every settled round.
+         * @return the total net result in chips
+         */
+        public double getTotalNet() {
+            return totalNet;
+        }
+
+        /**
+         * Method to get the number of settled rounds whose expected value was known from the strategy table.
+         * @return the number of rounds with an expected value
+         */
+        public long getExpectedRounds() {
+            return expectedRounds;
+        }
+
+        /**
+         * Method to get the result per unit bet of the rounds whose expected value was known.
+         * @return the realised value per unit bet, or 0.0 if no round had an expected value
+         */
+        public double getRealisedValue() {
+            return expectedBet == 0 ? 0.0 : realisedNet / expectedBet;
+        }
+
+        /**
+         * Method to get the expected value per unit bet of the same rounds, had every hand been played as recommended.
+         * @return the expected value per unit bet, or 0.0 if no round had an expected value
+         */
+        public double getExpectedValue() {
+            return expectedBet == 0 ? 0.0 : expectedNet / expectedBet;
+        }
+    }
+}
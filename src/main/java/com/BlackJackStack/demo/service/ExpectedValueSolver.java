@@ -0,0 +1,439 @@
+package com.BlackJackStack.demo.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.DealerOutcome;
+import com.BlackJackStack.demo.model.Move;
+import com.BlackJackStack.demo.model.PackedHand;
+import com.BlackJackStack.demo.model.Shoe;
+import com.BlackJackStack.demo.model.TableRules;
+
+/**
+ * Class that computes the exact expected value of every legal action for a starting hand.
+ * Every player draw is walked with its probability, removing the card from the shoe, and the dealer's
+ * distribution is computed exactly for the composition left when the player stands. Results are memoized
+ * on the packed hand and the cards the player has drawn, so each distinct state is solved once.
+ * <p>
+ * The dealer has no hole card and draws after the player. A dealer natural beats every player hand except
+ * a blackjack but takes only the original bet, doubles and splits are returned. Surrender is late: half the
+ * bet is returned only when the dealer has no natural. The hands of a split
+ * are valued from the same composition against one dealer distribution, each may be hit or stood (and doubled
+ * if the rules allow it), pairs are resplit up to the table's maximum number of hands, and split Aces receive
+ * one card each and are not resplit.
+ */
+public class ExpectedValueSolver {
+
+    /** Version of the solver's results, increased whenever a change alters the values it computes */
+    public static final int VERSION = 1;
+
+    /** Bit offset of each card value (1 = Ace, 10 = ten-valued) in the drawn-cards key: 5 bits for Aces, 4 for the rest */
+    private static final int[] KEY_SHIFT = {0, 0, 5, 9, 13, 17, 21, 25, 29, 33, 37};
+    /** Bits taken by a packed hand in a memo key */
+    private static final int HAND_BITS = 20;
+
+    private final DealerOutcomeCalculator dealerOutcomes;
+
+    /**
+     * Constructs an ExpectedValueSolver.
+     * @param dealerOutcomes the calculator used for the dealer's distribution at each composition
+     */
+    public ExpectedValueSolver(DealerOutcomeCalculator dealerOutcomes) {
+        this.dealerOutcomes = dealerOutcomes;
+    }
+
+    /**
+     * Method to compute the expected value of every legal action for a two-card hand.
+     * @param hand the player's hand, packed as described in PackedHand
+     * @param upCard the dealer's up Card
+     * @param shoe the cards left in the shoe, with the player's cards and the up card already removed
+     * @param rules the TableRules to play by
+     * @return the expected value per unit bet of each legal action, in Move order
+     */
+    public Map<Move, Double> solve(int hand, Card upCard, Shoe shoe, TableRules rules) {
+        return solve(hand, upCard, shoe, rules, null);
+    }
+
+    /**
+     * Method to compute the expected value of every legal action for a two-card hand, reusing a dealer
+     * distribution the caller has already computed for the same shoe.
+     * @param hand the player's hand, packed as described in PackedHand
+     * @param upCard the dealer's up Card
+     * @param shoe the cards left in the shoe, with the player's cards and the up card already removed
+     * @param rules the TableRules to play by
+     * @param dealerOutcome the dealer's distribution for this shoe and rules, or null to compute it
+     * @return the expected value per unit bet of each legal action, in Move order
+     */
+    public Map<Move, Double> solve(int hand, Card upCard, Shoe shoe, TableRules rules, DealerOutcome dealerOutcome) {
+        return solve(hand, upCard, shoe, rules, dealerOutcome, 1, true);
+    }
+
+    /**
+     * Method to compute the expected value of every legal action at any decision point of a hand. The opening
+     * decision on two cards that were not split may also split a pair, surrender, or stand on a blackjack. The
+     * values of the hands of a split each carry an even share of the original bet lost to a dealer natural,
+     * so they add up to the value of the round as GameSession settles it.
+     * @param hand the player's hand, packed as described in PackedHand
+     * @param upCard the dealer's up Card
+     * @param shoe the cards left in the shoe, with the player's cards and the up card already removed
+     * @param rules the TableRules to play by
+     * @param dealerOutcome the dealer's distribution for this shoe and rules, or null to compute it
+     * @param hands the number of hands the player has in play, 1 unless the pair was split
+     * @param canDouble true if the hand may still be doubled
+     * @return the expected value per unit bet of each legal action, in Move order
+     */
+    public Map<Move, Double> solve(int hand, Card upCard, Shoe shoe, TableRules rules, DealerOutcome dealerOutcome,
+            int hands, boolean canDouble) {
+        return solve(hand, upCard, shoe, rules, dealerOutcome, hands, canDouble, solved -> { });
+    }
+
+    /**
+     * Method to compute the expected value of every legal action like solve(hand, upCard, shoe, rules,
+     * dealerOutcome, hands, canDouble), reporting the values solved so far each time an action is solved.
+     * The actions share one search, so reporting them one by one costs nothing extra.
+     * @param hand the player's hand, packed as described in PackedHand
+     * @param upCard the dealer's up Card
+     * @param shoe the cards left in the shoe, with the player's cards and the up card already removed
+     * @param rules the TableRules to play by
+     * @param dealerOutcome the dealer's distribution for this shoe and rules, or null to compute it
+     * @param hands the number of hands the player has in play, 1 unless the pair was split
+     * @param canDouble true if the hand may still be doubled
+     * @param progress called on the calling thread with a read-only view of the values solved so far
+     * @return the expected value per unit bet of each legal action, in Move order
+     */
+    public Map<Move, Double> solve(int hand, Card upCard, Shoe shoe, TableRules rules, DealerOutcome dealerOutcome,
+            int hands, boolean canDouble, Consumer<Map<Move, Double>> progress) {
+        Search search = new Search(upCard, shoe, rules);
+        if (dealerOutcome != null) {
+            search.dealer.put(0L, dealerOutcome);
+        }
+        Map<Move, Double> values = new EnumMap<>(Move.class);
+        Map<Move, Double> solved = Collections.unmodifiableMap(values);
+        boolean opening = PackedHand.cardCount(hand) == 2 && hands == 1;
+
+        if (opening && PackedHand.isBlackjack(hand)) {
+            double natural = search.dealer(0L).getNaturalProbability();
+            values.put(Move.STAND, rules.getBlackjackPayout() * (1.0 - natural));
+            progress.accept(solved);
+            return values;
+        }
+
+        // A dealer natural takes the original bet once, so each split hand loses an even share of it
+        double naturalShare = 1.0 / hands;
+        values.put(Move.STAND, search.stand(hand, 0L, 1.0, naturalShare));
+        progress.accept(solved);
+        if (PackedHand.total(hand) < 21) {
+            values.put(Move.HIT, search.hit(hand, 0L, naturalShare));
+            progress.accept(solved);
+        }
+        if (canDouble) {
+            values.put(Move.DOUBLE_DOWN, search.doubleDown(hand, 0L, naturalShare));
+            progress.accept(solved);
+        }
+        if (opening && PackedHand.pairValue(hand) != 0 && rules.getMaxSplitHands() >= 2) {
+            values.put(Move.SPLIT, search.split(PackedHand.pairValue(hand)));
+            progress.accept(solved);
+        }
+        if (opening && rules.isLateSurrender()) {
+            // Late surrender is only offered once the dealer has checked for a natural, which takes the whole bet
+            double natural = search.dealer(0L).getNaturalProbability();
+            values.put(Move.SURRENDER, -0.5 * (1.0 - natural) - natural);
+            progress.accept(solved);
+        }
+        return values;
+    }
+
+    /**
+     * Class holding the shoe and memo tables of a single solve. The shoe counts are changed while a
+     * draw is explored and restored before returning, so a Search is not thread-safe.
+     */
+    private final class Search {
+        private final Card upCard;
+        private final TableRules rules;
+        private final boolean infinite;
+        /** Cards left by hard value (1 = Ace, 10 = ten-valued) */
+        private final int[] counts = new int[11];
+        private int remaining;
+
+        /** Dealer distributions keyed by the cards the player has drawn */
+        private final Map<Long, DealerOutcome> dealer = new HashMap<>();
+        /** Best of hit and stand keyed by hand and drawn cards, for the unsplit hand and for split hands */
+        private final Map<Long, Double> best = new HashMap<>();
+        private final Map<Long, Double> bestSplit = new HashMap<>();
+
+        Search(Card upCard, Shoe shoe, TableRules rules) {
+            this.upCard = upCard;
+            this.rules = rules;
+            this.infinite = shoe.isInfinite();
+            for (int rank = 0; rank < Card.RANKS; rank++) {
+                int value = Card.valueOf(rank);
+                counts[value == 11 ? 1 : value] += shoe.count(rank);
+            }
+            this.remaining = shoe.remaining();
+        }
+
+        /**
+         * Method to get the dealer's distribution for the composition reached by the player's draws.
+         * @param drawn the key of the cards the player has drawn
+         * @return the exact DealerOutcome
+         */
+        DealerOutcome dealer(long drawn) {
+            DealerOutcome outcome = dealer.get(drawn);
+            if (outcome == null) {
+                outcome = infinite
+                        ? dealerOutcomes.getOutcome(upCard, rules.isHitSoft17())
+                        : dealerOutcomes.getOutcome(upCard.getValue(), counts, remaining, rules.isHitSoft17());
+                dealer.put(drawn, outcome);
+            }
+            return outcome;
+        }
+
+        /**
+         * Method to value standing on a hand.
+         * @param hand the player's hand
+         * @param drawn the key of the cards the player has drawn
+         * @param bet the amount at risk on this hand
+         * @param naturalShare the part of the original bet this hand loses to a dealer natural
+         * @return the expected value of standing
+         */
+        double stand(int hand, long drawn, double bet, double naturalShare) {
+            DealerOutcome outcome = dealer(drawn);
+            int total = PackedHand.total(hand);
+            double ev = bet * outcome.getBustProbability() - naturalShare * outcome.getNaturalProbability();
+            for (int dealerTotal = 17; dealerTotal <= 21; dealerTotal++) {
+                if (total > dealerTotal) {
+                    ev += bet * outcome.getTotalProbability(dealerTotal);
+                } else if (total < dealerTotal) {
+                    ev -= bet * outcome.getTotalProbability(dealerTotal);
+                }
+            }
+            return ev;
+        }
+
+        /**
+         * Method to value a hand that busts on a drawn card. The dealer still turns over the hole card, and a
+         * dealer natural takes only the hand's share of the original bet instead of the whole amount at risk.
+         * @param value the hard value of the card the hand busts on
+         * @param drawn the key of the cards the player had drawn before it
+         * @param bet the amount at risk on this hand
+         * @param naturalShare the part of the original bet this hand loses to a dealer natural
+         * @return the expected value of the busted hand
+         */
+        double bust(int value, long drawn, double bet, double naturalShare) {
+            take(value, drawn);
+            double natural = natural();
+            put(value);
+            return -bet * (1.0 - natural) - naturalShare * natural;
+        }
+
+        /**
+         * Method to value taking one card and then playing on optimally by hitting or standing.
+         * @param hand the player's hand
+         * @param drawn the key of the cards the player has drawn
+         * @param naturalShare the part of the original bet this hand loses to a dealer natural
+         * @return the expected value of hitting
+         */
+        double hit(int hand, long drawn, double naturalShare) {
+            double ev = 0.0;
+            for (int value = 1; value <= 10; value++) {
+                double p = probability(value);
+                if (p == 0.0) {
+                    continue;
+                }
+                int next = PackedHand.addValue(hand, value);
+                if (PackedHand.isBusted(next)) {
+                    ev += p * bust(value, drawn, 1.0, naturalShare);
+                    continue;
+                }
+                long nextDrawn = take(value, drawn);
+                ev += p * best(next, nextDrawn, naturalShare);
+                put(value);
+            }
+            return ev;
+        }
+
+        /**
+         * Method to value doubling the bet and taking exactly one card.
+         * @param hand the player's hand
+         * @param drawn the key of the cards the player has drawn
+         * @param naturalShare the part of the original bet this hand loses to a dealer natural
+         * @return the expected value of doubling down, per unit of the original bet
+         */
+        double doubleDown(int hand, long drawn, double naturalShare) {
+            double ev = 0.0;
+            for (int value = 1; value <= 10; value++) {
+                double p = probability(value);
+                if (p == 0.0) {
+                    continue;
+                }
+                int next = PackedHand.addValue(hand, value);
+                if (PackedHand.isBusted(next)) {
+                    ev += p * bust(value, drawn, 2.0, naturalShare);
+                    continue;
+                }
+                long nextDrawn = take(value, drawn);
+                ev += p * stand(next, nextDrawn, 2.0, naturalShare);
+                put(value);
+            }
+            return ev;
+        }
+
+        /**
+         * Method to value splitting a pair, resplitting while the table allows more hands. Every hand is played
+         * from the same composition against the same dealer distribution, so the value is the expected number
+         * of final hands of each kind times its value. Split Aces receive one card each and are not resplit.
+         * @param pairValue the value of the paired cards (1 = Ace)
+         * @return the expected value of splitting, per unit of the original bet
+         */
+        double split(int pairValue) {
+            int start = PackedHand.addValue(PackedHand.EMPTY, pairValue);
+            boolean aces = pairValue == 1;
+            // Each hand's value leaves out the dealer natural, busted or not, which takes the original bet once below
+            double unpaired = 0.0;
+            double paired = 0.0;
+            for (int value = 1; value <= 10; value++) {
+                double p = probability(value);
+                if (p == 0.0) {
+                    continue;
+                }
+                int hand = PackedHand.addValue(start, value);
+                long drawn = take(value, 0L);
+                double handEv;
+                if (aces) {
+                    handEv = stand(hand, drawn, 1.0, 0.0);
+                } else {
+                    handEv = Math.max(stand(hand, drawn, 1.0, 0.0), hit(hand, drawn, 0.0));
+                    if (rules.isDoubleAfterSplit()) {
+                        handEv = Math.max(handEv, doubleDown(hand, drawn, 0.0));
+                    }
+                }
+                if (value == pairValue) {
+                    paired = handEv;
+                } else {
+                    unpaired += p * handEv;
+                }
+                put(value);
+            }
+            int maxHands = aces ? 2 : Math.max(2, rules.getMaxSplitHands());
+            double[][] memo = new double[maxHands + 1][maxHands + 1];
+            for (double[] row : memo) {
+                Arrays.fill(row, Double.NaN);
+            }
+            return resplit(2, 2, maxHands, probability(pairValue), unpaired, paired, memo)
+                    - dealer(0L).getNaturalProbability();
+        }
+
+        /**
+         * Method to value the hands of a split that are still waiting for their second card. A hand that draws
+         * another pair card is split again while fewer than maxHands hands are in play, otherwise it is played
+         * as it is. The value depends only on the waiting hands and the hands in play, so it is memoized on
+         * those two, which keeps the recursion quadratic in maxHands instead of exponential.
+         * @param waiting the number of hands still waiting for their second card
+         * @param hands the number of hands in play
+         * @param maxHands the most hands the table allows
+         * @param pairProbability the probability of drawing another pair card
+         * @param unpaired the value of a hand's other second cards, weighted by their probabilities
+         * @param paired the value of a hand whose second card pairs it again and is not resplit
+         * @param memo values already computed, indexed by waiting and hands, NaN where not yet computed
+         * @return the expected value of the waiting hands
+         */
+        private double resplit(int waiting, int hands, int maxHands, double pairProbability, double unpaired,
+                double paired, double[][] memo) {
+            if (waiting == 0) {
+                return 0.0;
+            }
+            if (!Double.isNaN(memo[waiting][hands])) {
+                return memo[waiting][hands];
+            }
+            double rest = resplit(waiting - 1, hands, maxHands, pairProbability, unpaired, paired, memo);
+            double ev = unpaired + (1.0 - pairProbability) * rest;
+            if (hands < maxHands) {
+                ev += pairProbability * resplit(waiting + 1, hands + 1, maxHands, pairProbability, unpaired, paired,
+                        memo);
+            } else {
+                ev += pairProbability * (paired + rest);
+            }
+            memo[waiting][hands] = ev;
+            return ev;
+        }
+
+        /**
+         * Method to get the better of hitting and standing, memoized on the hand and drawn cards.
+         * @param hand the player's hand
+         * @param drawn the key of the cards the player has drawn
+         * @param naturalShare the part of the original bet this hand loses to a dealer natural
+         * @return the expected value of the best play
+         */
+        private double best(int hand, long drawn, double naturalShare) {
+            Map<Long, Double> memo = naturalShare == 1.0 ? best : bestSplit;
+            long key = drawn << HAND_BITS | hand;
+            Double cached = memo.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            double ev = stand(hand, drawn, 1.0, naturalShare);
+            if (PackedHand.total(hand) < 21) {
+                ev = Math.max(ev, hit(hand, drawn, naturalShare));
+            }
+            memo.put(key, ev);
+            return ev;
+        }
+
+        /**
+         * Method to get the probability of a dealer natural for the current composition. It is the chance of the
+         * hole card completing the up card, the same value the dealer's distribution gives, without walking the
+         * dealer's draws for a hand that has already busted.
+         * @return the probability as a double (0.0 to 1.0)
+         */
+        private double natural() {
+            if (infinite) {
+                return dealer(0L).getNaturalProbability();
+            }
+            int upValue = upCard.getValue();
+            return upValue == 11 ? probability(10) : upValue == 10 ? probability(1) : 0.0;
+        }
+
+        /**
+         * Method to get the probability of drawing a card value from the current composition.
+         * @param value the hard card value (1 = Ace, 10 = ten-valued)
+         * @return the probability as a double (0.0 to 1.0)
+         */
+        private double probability(int value) {
+            if (infinite) {
+                return value == 10 ? 4.0 / 13 : 1.0 / 13;
+            }
+            return remaining == 0 ? 0.0 : (double) counts[value] / remaining;
+        }
+
+        /**
+         * Method to remove a drawn card from the composition.
+         * @param value the hard card value
+         * @param drawn the key of the cards drawn so far
+         * @return the key including the new card
+         */
+        private long take(int value, long drawn) {
+            if (infinite) {
+                return drawn;
+            }
+            counts[value]--;
+            remaining--;
+            return drawn + (1L << KEY_SHIFT[value]);
+        }
+
+        /**
+         * Method to return a card removed by take() to the composition.
+         * @param value the hard card value
+         */
+        private void put(int value) {
+            if (!infinite) {
+                counts[value]++;
+                remaining++;
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.BlackJackStack.demo.service;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.BlackJackStack.demo.model.TableRules;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+
+/**
+ * Service class that runs the game sessions of every table. Each session is a GameSession with its own shoe
+ * and round state, kept in memory and dropped once it has been idle for a configurable time, so thousands of
+ * tables fit in one instance. The number of live sessions is published as the game.sessions gauge, and the
+ * decisions and rounds of every session are recorded in the EventLog.
+ */
+@Service
+public class GameEngine {
+
+    /** Default largest number of live game sessions */
+    private static final long DEFAULT_MAXIMUM_SESSIONS = 100_000;
+    /** Default time a game session is kept after it was last used */
+    private static final String DEFAULT_EXPIRE_AFTER_ACCESS = "30m";
+
+    private final TableRulesRegistry rulesRegistry;
+    private final StrategyService strategyService;
+    private final StrategyTable strategyTable;
+    private final EventLog events;
+    private final Cache<String, GameSession> sessions;
+    /** Root generator that every session splits its own generator from, guarded by itself */
+    private final SplittableRandom seeds;
+
+    /**
+     * Constructs a GameEngine with the default limits and unseeded shoes, for services created outside of Spring.
+     * @param rulesRegistry the registry used to resolve the rules profile of a new session
+     * @param metrics the StrategyMetrics whose registry the session gauge is published to
+     */
+    public GameEngine(TableRulesRegistry rulesRegistry, StrategyMetrics metrics) {
+        this(rulesRegistry, metrics, null, null, new EventLog(), DEFAULT_MAXIMUM_SESSIONS, Duration.ofMinutes(30),
+                new SplittableRandom());
+    }
+
+    /**
+     * Constructs a GameEngine.
+     * @param rulesRegistry the registry used to resolve the rules profile of a new session
+     * @param metrics the StrategyMetrics whose registry the session gauge is published to
+     * @param strategyService the service whose basic strategy charts recorded decisions are compared with
+     * @param strategyTable the table whose loaded entries give the expected value of recorded rounds
+     * @param events the EventLog the sessions record their decisions and rounds in
+     * @param maximumSessions the largest number of live game sessions
+     * @param expireAfterAccess the time a session is kept after it was last used
+     */
+    @Autowired
+    public GameEngine(TableRulesRegistry rulesRegistry, StrategyMetrics metrics, StrategyService strategyService,
+            StrategyTable strategyTable, EventLog events,
+            @Value("${game.sessions.maximum-size:" + DEFAULT_MAXIMUM_SESSIONS + "}") long maximumSessions,
+            @Value("${game.sessions.expire-after-access:" + DEFAULT_EXPIRE_AFTER_ACCESS + "}") Duration expireAfterAccess) {
+        this(rulesRegistry, metrics, strategyService, strategyTable, events, maximumSessions, expireAfterAccess,
+                new SplittableRandom());
+    }
+
+    /**
+     * Constructs a GameEngine whose shoes are dealt from a seeded generator (for testing).
+     * @param rulesRegistry the registry used to resolve the rules profile of a new session
+     * @param metrics the StrategyMetrics whose registry the session gauge is published to
+     * @param strategyService the service whose basic strategy charts recorded decisions are compared with, or null
+     * @param strategyTable the table whose loaded entries give the expected value of recorded rounds, or null
+     * @param events the EventLog the sessions record their decisions and rounds in
+     * @param maximumSessions the largest number of live game sessions
+     * @param expireAfterAccess the time a session is kept after it was last used
+     * @param seeds the root generator each session's generator is split from
+     */
+    public GameEngine(TableRulesRegistry rulesRegistry, StrategyMetrics metrics, StrategyService strategyService,
+            StrategyTable strategyTable, EventLog events, long maximumSessions, Duration expireAfterAccess,
+            SplittableRandom seeds) {
+        this.rulesRegistry = rulesRegistry;
+        this.strategyService = strategyService;
+        this.strategyTable = strategyTable;
+        this.events = events;
+        this.seeds = seeds;
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maximumSessions)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+        Gauge.builder("game.sessions", sessions, Cache::estimatedSize)
+                .description("Live game sessions")
+                .register(metrics.getRegistry());
+    }
+
+    /**
+     * Method to open a game session at a new table with a freshly shuffled shoe.
+     * @param rulesProfile the name of the rules profile the table plays by, or null for the default profile
+     * @return the GameSession, ready to deal
+     * @throws IllegalArgumentException if the profile is unknown
+     */
+    public GameSession create(String rulesProfile) {
+        TableRules rules = rulesRegistry.resolve(rulesProfile);
+        SplittableRandom random;
+        synchronized (seeds) {
+            random = seeds.split();
+        }
+        GameSession session = new GameSession(UUID.randomUUID().toString(), rules, random,
+                strategyService == null ? null : strategyService.getChart(rules), strategyTable, events);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    /**
+     * Method to get a game session.
+     * @param id the session id
+     * @return the GameSession, or null if the session does not exist or has expired
+     */
+    public GameSession get(String id) {
+        return id == null ? null : sessions.getIfPresent(id);
+    }
+
+    /**
+     * Method to close a game session.
+     * @param id the session id
+     */
+    public void remove(String id) {
+        sessions.invalidate(id);
+    }
+}
@@ -0,0 +1,478 @@
+package com.BlackJackStack.demo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.GameState;
+import com.BlackJackStack.demo.model.Move;
+import com.BlackJackStack.demo.model.PackedHand;
+import com.BlackJackStack.demo.model.PlayEvent;
+import com.BlackJackStack.demo.model.Shoe;
+import com.BlackJackStack.demo.model.StrategyResponse;
+import com.BlackJackStack.demo.model.TableRules;
+
+/**
+ * Class holding one table's game: its shoe and the state machine of the current round. A round is dealt,
+ * the player hits, stands, doubles, splits or surrenders each hand in turn, and once every hand is finished
+ * the dealer draws and the round is settled. The rules match ExpectedValueSolver: the dealer takes a second
+ * card only after the player has acted and a dealer natural takes only the original bet, even from hands
+ * that were doubled, split, busted or surrendered, shared evenly by the hands of a split. Pairs may be split
+ * up to the table's maximum number of hands, split Aces receive one card each and are not split again, and
+ * doubling after a split follows the rules. Every method is synchronized, so requests for the same table are
+ * applied one at a time.
+ * <p>
+ * With an EventLog, every move is recorded as a decision next to the basic strategy move (and, for the
+ * opening decision, the strategy table's move when the table is loaded), and every settled round with its
+ * result and the table's expected value.
+ */
+public class GameSession {
+
+    private final String id;
+    private final TableRules rules;
+    private final Shoe shoe;
+    private final SplittableRandom random;
+    private final StrategyChart chart;
+    private final StrategyTable table;
+    private final EventLog events;
+    /** The id as a number, the key of the session's events */
+    private final long key;
+
+    private GameState.Phase phase = GameState.Phase.READY;
+    private long round;
+    private final List<Integer> dealerCards = new ArrayList<>();
+    private int dealer;
+    private final List<PlayerHand> hands = new ArrayList<>();
+    private int active;
+    private int bet;
+    private double net;
+    /** The table's entry for the round's opening hand, or null if it was not known */
+    private StrategyResponse opening;
+    private int openingCard1;
+    private int openingCard2;
+
+    /**
+     * Constructs a GameSession with a freshly shuffled shoe.
+     * @param id the id of the game session
+     * @param rules the TableRules the table plays by
+     * @param random the generator the shoe is dealt with
+     */
+    public GameSession(String id, TableRules rules, SplittableRandom random) {
+        this(id, rules, random, null, null, null);
+    }
+
+    /**
+     * Constructs a GameSession with a freshly shuffled shoe, recording its decisions and rounds.
+     * @param id the id of the game session
+     * @param rules the TableRules the table plays by
+     * @param random the generator the shoe is dealt with
+     * @param chart the basic strategy chart decisions are compared with
+     * @param table the StrategyTable whose loaded entries give the opening move and expected value, or null
+     * @param events the EventLog to record in, or null to record nothing
+     */
+    public GameSession(String id, TableRules rules, SplittableRandom random, StrategyChart chart, StrategyTable table,
+            EventLog events) {
+        this.id = id;
+        this.rules = rules;
+        this.shoe = rules.newShoe();
+        this.random = random;
+        this.chart = chart;
+        this.table = table;
+        this.events = events != null && events.isEnabled() ? events : null;
+        this.key = key(id);
+    }
+
+    /**
+     * Method to deal a new round, reshuffling first if the shoe has reached its penetration. The player's
+     * cards and the dealer's up card may be chosen, for example to play out a recommended spot, and are then
+     * taken out of the shoe; any card not chosen is dealt from it.
+     * @param bet the chips bet on the round
+     * @param playerCards the rank indexes of the player's two cards, or null to deal them
+     * @param dealerCard the rank index of the dealer's up card, or -1 to deal it
+     * @return the GameState after the deal
+     * @throws IllegalStateException if a round is still being played or a chosen card is not in the shoe
+     * @throws IllegalArgumentException if the bet is not positive or not exactly two player cards are chosen
+     */
+    public synchronized GameState deal(int bet, int[] playerCards, int dealerCard) {
+        if (phase == GameState.Phase.PLAYER_TURN) {
+            throw new IllegalStateException("The current round is not finished");
+        }
+        if (bet <= 0) {
+            throw new IllegalArgumentException("Invalid bet: " + bet);
+        }
+        if (playerCards != null && playerCards.length != 2) {
+            throw new IllegalArgumentException("Choose both player cards or neither");
+        }
+        if (shoe.needsShuffle()) {
+            shoe.shuffle();
+        }
+        int[] chosen = new int[Card.RANKS];
+        if (playerCards != null) {
+            chosen[playerCards[0]]++;
+            chosen[playerCards[1]]++;
+        }
+        if (dealerCard >= 0) {
+            chosen[dealerCard]++;
+        }
+        // Check every chosen rank before removing any, so a short rank leaves the shoe as it was
+        for (int rank = 0; rank < Card.RANKS; rank++) {
+            if (!shoe.isInfinite() && shoe.count(rank) < chosen[rank]) {
+                throw new IllegalStateException("Not enough " + Card.of(rank) + " left in the shoe");
+            }
+        }
+        for (int rank = 0; rank < Card.RANKS; rank++) {
+            for (int i = 0; i < chosen[rank]; i++) {
+                shoe.remove(rank);
+            }
+        }
+
+        round++;
+        this.bet = bet;
+        hands.clear();
+        dealerCards.clear();
+        PlayerHand hand = new PlayerHand(bet);
+        hand.add(playerCards != null ? playerCards[0] : draw());
+        addDealerCard(dealerCard >= 0 ? dealerCard : draw());
+        hand.add(playerCards != null ? playerCards[1] : draw());
+        hands.add(hand);
+        active = 0;
+        net = 0.0;
+        openingCard1 = hand.cards.get(0);
+        openingCard2 = hand.cards.get(1);
+        opening = events != null && table != null
+                ? table.find(rules, openingCard1, openingCard2, dealerCards.get(0)) : null;
+        phase = GameState.Phase.PLAYER_TURN;
+        if (PackedHand.isBlackjack(hand.packed)) {
+            hand.done = true;
+        }
+        advance();
+        return getState();
+    }
+
+    /**
+     * Method to make a move on the active hand.
+     * @param move the Move to make
+     * @return the GameState after the move
+     * @throws IllegalStateException if no hand is being played or the move is not allowed on the active hand
+     */
+    public synchronized GameState play(Move move) {
+        if (phase != GameState.Phase.PLAYER_TURN) {
+            throw new IllegalStateException("No hand is being played, deal a new round");
+        }
+        if (!isAllowed(move)) {
+            throw new IllegalStateException("Cannot " + move.getLabel() + " on this hand");
+        }
+        PlayerHand hand = hands.get(active);
+        if (events != null) {
+            recordDecision(hand, move);
+        }
+        switch (move) {
+            case HIT:
+                hand.add(draw());
+                hand.done = PackedHand.total(hand.packed) >= 21;
+                break;
+            case DOUBLE_DOWN:
+                hand.bet *= 2;
+                hand.add(draw());
+                hand.done = true;
+                break;
+            case SPLIT:
+                PlayerHand second = new PlayerHand(hand.bet);
+                int pairRank = hand.cards.get(1);
+                hand.reset(hand.cards.get(0));
+                second.add(pairRank);
+                hand.add(draw());
+                second.add(draw());
+                hands.add(active + 1, second);
+                // Split Aces get one card each and cannot be split again
+                boolean aces = Card.of(pairRank).isAce();
+                hand.done = aces || PackedHand.total(hand.packed) == 21;
+                second.done = aces;
+                break;
+            case SURRENDER:
+                hand.surrendered = true;
+                hand.done = true;
+                break;
+            default:
+                hand.done = true;
+                break;
+        }
+        advance();
+        return getState();
+    }
+
+    /**
+     * Method to get the current state of the table.
+     * @return the GameState
+     */
+    public synchronized GameState getState() {
+        List<GameState.HandState> handStates = new ArrayList<>(hands.size());
+        for (int i = 0; i < hands.size(); i++) {
+            PlayerHand hand = hands.get(i);
+            handStates.add(new GameState.HandState(names(hand.cards), PackedHand.total(hand.packed),
+                    PackedHand.isSoft(hand.packed), hand.bet, status(i),
+                    phase == GameState.Phase.SETTLED ? hand.net : null));
+        }
+        List<String> moves = new ArrayList<>();
+        if (phase == GameState.Phase.PLAYER_TURN) {
+            for (Move move : Move.values()) {
+                if (isAllowed(move)) {
+                    moves.add(move.getLabel());
+                }
+            }
+        }
+        return new GameState(id, rules.getName(), phase, round, names(dealerCards),
+                dealerCards.isEmpty() ? 0 : PackedHand.total(dealer), handStates,
+                phase == GameState.Phase.PLAYER_TURN ? active : null, moves,
+                phase == GameState.Phase.SETTLED ? net : null);
+    }
+
+    /**
+     * Method to get the id of the game session.
+     * @return the session id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Method to get the rules the table plays by.
+     * @return the TableRules
+     */
+    public TableRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Method to check whether a move is allowed on the active hand.
+     * @param move the Move to check
+     * @return true if the move may be made
+     */
+    private boolean isAllowed(Move move) {
+        PlayerHand hand = hands.get(active);
+        boolean twoCards = PackedHand.cardCount(hand.packed) == 2;
+        boolean split = hands.size() > 1;
+        switch (move) {
+            case HIT:
+            case STAND:
+                return true;
+            case DOUBLE_DOWN:
+                return twoCards && (!split || rules.isDoubleAfterSplit());
+            case SPLIT:
+                return twoCards && PackedHand.pairValue(hand.packed) != 0 && hands.size() < rules.getMaxSplitHands();
+            case SURRENDER:
+                return twoCards && !split && rules.isLateSurrender();
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Method to move on to the next unfinished hand, settling the round once every hand is finished.
+     */
+    private void advance() {
+        while (active < hands.size() && hands.get(active).done) {
+            active++;
+            // A split hand dealt to 21 has nothing left to decide
+            if (active < hands.size() && PackedHand.total(hands.get(active).packed) == 21) {
+                hands.get(active).done = true;
+            }
+        }
+        if (active == hands.size()) {
+            settle();
+        }
+    }
+
+    /**
+     * Method to play the dealer's hand and pay every player hand.
+     */
+    private void settle() {
+        addDealerCard(draw());
+        boolean dealerNatural = PackedHand.isBlackjack(dealer);
+        boolean live = false;
+        for (PlayerHand hand : hands) {
+            live |= !hand.surrendered && !PackedHand.isBusted(hand.packed);
+        }
+        boolean playerNatural = hands.size() == 1 && PackedHand.isBlackjack(hands.get(0).packed);
+        while (live && !dealerNatural && !playerNatural && PackedHand.dealerHits(dealer, rules.isHitSoft17())) {
+            addDealerCard(draw());
+        }
+
+        int dealerTotal = PackedHand.isBusted(dealer) ? 0 : PackedHand.total(dealer);
+        net = 0.0;
+        for (PlayerHand hand : hands) {
+            int total = PackedHand.total(hand.packed);
+            if (playerNatural) {
+                hand.net = dealerNatural ? 0.0 : rules.getBlackjackPayout() * hand.bet;
+            } else if (dealerNatural) {
+                // Only the original bet is lost to a dealer natural, doubles and splits are returned, and each
+                // split hand carries an even share of it. Surrender is late, so a surrendered hand loses the
+                // whole original bet as well.
+                hand.net = -(double) bet / hands.size();
+            } else if (hand.surrendered) {
+                hand.net = -hand.bet / 2.0;
+            } else if (PackedHand.isBusted(hand.packed) || total < dealerTotal) {
+                hand.net = -hand.bet;
+            } else if (total > dealerTotal) {
+                hand.net = hand.bet;
+            } else {
+                hand.net = 0.0;
+            }
+            net += hand.net;
+        }
+        if (dealerNatural && !playerNatural) {
+            // The shares add up to the original bet, without the rounding of summing them
+            net = -bet;
+        }
+        phase = GameState.Phase.SETTLED;
+        if (events != null) {
+            recordRound();
+        }
+    }
+
+    /**
+     * Method to record a move on the active hand, with the moves it is compared with.
+     * @param hand the PlayerHand the move is made on
+     * @param move the Move the player made
+     */
+    private void recordDecision(PlayerHand hand, Move move) {
+        PlayEvent event = event(PlayEvent.Type.DECISION);
+        event.setHand(active);
+        event.setFirstCard(Card.valueOf(hand.cards.get(0)));
+        event.setSecondCard(Card.valueOf(hand.cards.get(1)));
+        event.setPlayerTotal(PackedHand.total(hand.packed));
+        event.setSoft(PackedHand.isSoft(hand.packed));
+        event.setCardCount(PackedHand.cardCount(hand.packed));
+        event.setMove(move);
+        if (chart != null) {
+            event.setBasicStrategyMove(chart.move(hand.packed, Card.valueOf(dealerCards.get(0)),
+                    isAllowed(Move.SPLIT), isAllowed(Move.DOUBLE_DOWN), isAllowed(Move.SURRENDER)));
+        }
+        if (opening != null && hands.size() == 1 && PackedHand.cardCount(hand.packed) == 2) {
+            event.setRecommendedMove(Move.fromLabel(opening.getRecommendedMove()));
+            event.setExpectedValue(opening.getExpectedValue());
+        }
+        events.record(event);
+    }
+
+    /**
+     * Method to record the settled round with its result and the expected value of its opening hand.
+     */
+    private void recordRound() {
+        PlayEvent event = event(PlayEvent.Type.ROUND);
+        event.setHand(hands.size());
+        event.setFirstCard(Card.valueOf(openingCard1));
+        event.setSecondCard(Card.valueOf(openingCard2));
+        event.setDealerTotal(PackedHand.isBusted(dealer) ? 0 : PackedHand.total(dealer));
+        event.setBet(bet);
+        event.setNet(net);
+        if (opening != null) {
+            event.setExpectedValue(opening.getExpectedValue());
+        }
+        events.record(event);
+    }
+
+    /**
+     * Method to start an event of the current round.
+     * @param type the Type of the event
+     * @return the PlayEvent with the session, round, rules and dealer's up card set
+     */
+    private PlayEvent event(PlayEvent.Type type) {
+        PlayEvent event = new PlayEvent();
+        event.setType(type);
+        event.setRulesProfile(rules.getName());
+        event.setSession(key);
+        event.setRound(round);
+        event.setDealerCard(Card.valueOf(dealerCards.get(0)));
+        return event;
+    }
+
+    /**
+     * Method to turn a session id into the key its events are recorded under.
+     * @param id the session id, normally a UUID
+     * @return the two halves of the UUID folded together, or the hash code of an id that is not a UUID
+     */
+    private static long key(String id) {
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits();
+        } catch (IllegalArgumentException e) {
+            return id.hashCode();
+        }
+    }
+
+    /**
+     * Method to get the status of a hand as shown to clients.
+     * @param index the index of the hand
+     * @return the status label
+     */
+    private String status(int index) {
+        PlayerHand hand = hands.get(index);
+        if (hand.surrendered) {
+            return "surrendered";
+        }
+        if (PackedHand.isBusted(hand.packed)) {
+            return "busted";
+        }
+        if (hands.size() == 1 && PackedHand.isBlackjack(hand.packed)) {
+            return "blackjack";
+        }
+        if (phase == GameState.Phase.PLAYER_TURN && index == active) {
+            return "playing";
+        }
+        return phase == GameState.Phase.PLAYER_TURN && index > active ? "waiting" : "stood";
+    }
+
+    private void addDealerCard(int rank) {
+        dealerCards.add(rank);
+        dealer = PackedHand.addRank(dealerCards.size() == 1 ? PackedHand.EMPTY : dealer, rank);
+    }
+
+    /**
+     * Method to draw a card, reshuffling first in the rare round that empties the shoe.
+     * @return the rank index of the drawn card
+     */
+    private int draw() {
+        if (!shoe.isInfinite() && shoe.remaining() == 0) {
+            shoe.shuffle();
+        }
+        return shoe.draw(random);
+    }
+
+    private static List<String> names(List<Integer> ranks) {
+        List<String> names = new ArrayList<>(ranks.size());
+        for (int rank : ranks) {
+            names.add(Card.of(rank).getRank());
+        }
+        return names;
+    }
+
+    /**
+     * Class holding one player hand of the round.
+     */
+    private static final class PlayerHand {
+        private final List<Integer> cards = new ArrayList<>(4);
+        private int packed;
+        private int bet;
+        private boolean done;
+        private boolean surrendered;
+        private double net;
+
+        PlayerHand(int bet) {
+            this.bet = bet;
+        }
+
+        void add(int rank) {
+            cards.add(rank);
+            packed = PackedHand.addRank(packed, rank);
+        }
+
+        void reset(int rank) {
+            cards.clear();
+            packed = PackedHand.EMPTY;
+            add(rank);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.BlackJackStack.demo.service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sun.management.OperatingSystemMXBean;
+
+/**
+ * Component that decides when strategy requests are served approximately instead of waiting for the exact
+ * statistics: once a request has used up its latency budget, or while the system CPU load is above a
+ * threshold. The CPU load is sampled at most a few times a second, so checking it on every request is a
+ * read of a volatile field.
+ */
+@Component
+public class LoadMonitor {
+
+    /** Default time a request may wait for exact statistics */
+    private static final String DEFAULT_LATENCY_BUDGET = "500ms";
+    /** Default system CPU load (0.0 to 1.0) above which exact statistics are not computed */
+    private static final double DEFAULT_CPU_THRESHOLD = 0.95;
+    /** Shortest time between two samples of the CPU load */
+    private static final long SAMPLE_INTERVAL_NANOS = 250_000_000L;
+
+    private final boolean enabled;
+    private final Duration latencyBudget;
+    private final double cpuThreshold;
+    /** The platform's CPU load source, or null if the JVM does not provide one */
+    private final OperatingSystemMXBean os;
+
+    private volatile double cpuLoad;
+    private volatile long nextSample = System.nanoTime();
+
+    /**
+     * Constructs a LoadMonitor that never degrades, for services created outside of Spring.
+     */
+    public LoadMonitor() {
+        this(false, Duration.ofMillis(500), DEFAULT_CPU_THRESHOLD);
+    }
+
+    /**
+     * Constructs a LoadMonitor.
+     * @param enabled true to serve approximate responses under load, false to always wait for exact ones
+     * @param latencyBudget the time a request may wait for exact statistics
+     * @param cpuThreshold the system CPU load (0.0 to 1.0) above which exact statistics are not computed
+     */
+    @Autowired
+    public LoadMonitor(@Value("${strategy.degrade.enabled:true}") boolean enabled,
+            @Value("${strategy.degrade.latency-budget:" + DEFAULT_LATENCY_BUDGET + "}") Duration latencyBudget,
+            @Value("${strategy.degrade.cpu-threshold:" + DEFAULT_CPU_THRESHOLD + "}") double cpuThreshold) {
+        this.enabled = enabled;
+        this.latencyBudget = latencyBudget;
+        this.cpuThreshold = cpuThreshold;
+        this.os = ManagementFactory.getOperatingSystemMXBean() instanceof OperatingSystemMXBean bean ? bean : null;
+    }
+
+    /**
+     * Method to check whether requests may be served approximately.
+     * @return true if degradation is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Method to get the time a request may wait for exact statistics.
+     * @return the latency budget
+     */
+    public Duration getLatencyBudget() {
+        return latencyBudget;
+    }
+
+    /**
+     * Method to check whether the system CPU is too busy to compute exact statistics.
+     * @return true if degradation is enabled and the last sampled CPU load is at or above the threshold
+     */
+    public boolean isCpuUnderPressure() {
+        if (!enabled || os == null) {
+            return false;
+        }
+        long now = System.nanoTime();
+        if (now - nextSample >= 0) {
+            nextSample = now + SAMPLE_INTERVAL_NANOS;
+            // Negative when the load is not available yet
+            cpuLoad = os.getCpuLoad();
+        }
+        return cpuLoad >= cpuThreshold;
+    }
+}
@@ -0,0 +1,277 @@
+package com.BlackJackStack.demo.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.BlackJackStack.demo.model.Shoe;
+import com.BlackJackStack.demo.model.TableRules;
+
+/**
+ * Command-line runner for long offline studies, such as the house edge of a rules profile or the effect of
+ * penetration. It is only active with the "simulate" profile, which also turns off the web server:
+ * <pre>
+ * java -jar demo.jar --spring.profiles.active=simulate --simulate.rounds=1000000000 --simulate.rules=vegas-s17
+ * </pre>
+ * Full rounds are played with RoundPlayer across every core, in batches of simulate.batch-rounds. After each
+ * batch the running totals are written to the simulate.checkpoint file, and a run started with the same
+ * settings resumes from it. Batch b always uses the generator seeded from simulate.seed and b, so a resumed
+ * run gives exactly the result of an uninterrupted one.
+ */
+@Component
+@Profile("simulate")
+public class OfflineSimulator implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(OfflineSimulator.class);
+
+    /** Odd constant that spreads batch indexes across the seed space */
+    private static final long BATCH_SEED_STRIDE = 0x9E3779B97F4A7C15L;
+
+    private final StrategyService strategyService;
+    private final TableRulesRegistry rulesRegistry;
+
+    @Value("${simulate.rounds:1000000000}")
+    private long rounds;
+    @Value("${simulate.rules:}")
+    private String rules;
+    @Value("${simulate.seed:1}")
+    private long seed;
+    @Value("${simulate.batch-rounds:10000000}")
+    private int batchRounds;
+    @Value("${simulate.threads:0}")
+    private int threads;
+    @Value("${simulate.checkpoint:simulation.checkpoint}")
+    private String checkpoint;
+
+    /**
+     * Constructs an OfflineSimulator.
+     * @param strategyService the service whose basic strategy charts the player follows
+     * @param rulesRegistry the registry used to resolve the rules profile to simulate
+     */
+    public OfflineSimulator(StrategyService strategyService, TableRulesRegistry rulesRegistry) {
+        this.strategyService = strategyService;
+        this.rulesRegistry = rulesRegistry;
+    }
+
+    /**
+     * Method to run the configured simulation and log its report.
+     * @param args the command-line arguments, unused beyond the Spring properties they set
+     */
+    @Override
+    public void run(String... args) {
+        TableRules tableRules = rulesRegistry.resolve(rules);
+        int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long start = System.nanoTime();
+            Result result = simulate(tableRules, rounds, seed, batchRounds, Paths.get(checkpoint), pool);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            log.info("Simulation finished{}{}", System.lineSeparator(),
+                    report(tableRules, result, seconds, parallelism));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Method to play rounds in batches until the budget is reached, resuming from and updating a checkpoint.
+     * @param tableRules the TableRules to play by
+     * @param totalRounds the number of rounds to play in total, including those already checkpointed
+     * @param seed the seed the batch generators are derived from
+     * @param batchRounds the number of rounds between checkpoints
+     * @param checkpointFile the file the running totals are kept in, or null for no checkpoints
+     * @param pool the ForkJoinPool to play on
+     * @return the Result of every round played, in this run and before it
+     * @throws IllegalStateException if the checkpoint was written for different settings
+     */
+    public Result simulate(TableRules tableRules, long totalRounds, long seed, int batchRounds, Path checkpointFile,
+            ForkJoinPool pool) {
+        SimulationExecutor executor = new SimulationExecutor(pool);
+        StrategyChart chart = strategyService.getChart(tableRules);
+        Properties settings = settings(tableRules, chart, seed, batchRounds);
+        Result result = checkpointFile == null ? new Result(new Tally(), 0, 0) : resume(checkpointFile, settings);
+        long resumed = result.getTally().getCount();
+        if (resumed > 0) {
+            log.info("Resuming from {} with {} rounds played", checkpointFile, resumed);
+        }
+
+        long runStart = System.nanoTime();
+        Tally tally = result.getTally();
+        long batch = result.getBatches();
+        while (tally.getCount() < totalRounds) {
+            int size = (int) Math.min(batchRounds, totalRounds - tally.getCount());
+            SplittableRandom random = new SplittableRandom(seed + batch * BATCH_SEED_STRIDE);
+            tally.merge(executor.run(random, size, Tally::new, () -> {
+                Shoe shoe = tableRules.newShoe();
+                RoundPlayer player = new RoundPlayer(tableRules, chart);
+                return (rng, t) -> t.add(player.play(shoe, rng));
+            }, Tally::merge));
+            batch++;
+            result = new Result(tally, batch, resumed);
+            if (checkpointFile != null) {
+                save(checkpointFile, settings, result);
+            }
+            double seconds = (System.nanoTime() - runStart) / 1e9;
+            log.info("{} of {} rounds, player edge {} +/- {}, {} rounds/s", tally.getCount(), totalRounds,
+                    String.format("%.5f", tally.getMean()), String.format("%.5f", tally.getMarginOfError()),
+                    String.format("%.0f", (tally.getCount() - resumed) / seconds));
+        }
+        return result;
+    }
+
+    /**
+     * Method to format the final report of a run.
+     * @param tableRules the TableRules that were played
+     * @param result the Result of the run
+     * @param seconds the wall-clock time of this run, over which the rounds not resumed were played
+     * @param parallelism the number of worker threads
+     * @return the report as a String
+     */
+    static String report(TableRules tableRules, Result result, double seconds, int parallelism) {
+        Tally tally = result.getTally();
+        double perSecond = seconds > 0 ? (tally.getCount() - result.getResumedRounds()) / seconds : 0.0;
+        return String.format("Rules:              %s%n"
+                + "Rounds:             %d%n"
+                + "Player edge:        %.5f +/- %.5f (95%%)%n"
+                + "House edge:         %.3f%%%n"
+                + "Standard deviation: %.4f per round%n"
+                + "Elapsed:            %.1f s%n"
+                + "Worker threads:     %d%n"
+                + "Throughput:         %.0f rounds/s, %.0f rounds/s per core",
+                tableRules, tally.getCount(), tally.getMean(), tally.getMarginOfError(), -100.0 * tally.getMean(),
+                tally.getStandardError() * Math.sqrt(tally.getCount()), seconds, parallelism,
+                perSecond, perSecond / parallelism);
+    }
+
+    /**
+     * Method to describe the settings a checkpoint is only valid for.
+     * @param tableRules the TableRules being played
+     * @param chart the StrategyChart the player follows
+     * @param seed the seed of the run
+     * @param batchRounds the number of rounds per batch
+     * @return the settings as Properties
+     */
+    private static Properties settings(TableRules tableRules, StrategyChart chart, long seed, int batchRounds) {
+        Properties settings = new Properties();
+        settings.setProperty("rules", tableRules.toString());
+        settings.setProperty("penetration", Double.toString(tableRules.getPenetration()));
+        settings.setProperty("chart", Long.toHexString(chart.getFingerprint()));
+        settings.setProperty("seed", Long.toString(seed));
+        settings.setProperty("batch-rounds", Integer.toString(batchRounds));
+        return settings;
+    }
+
+    /**
+     * Method to read the totals saved in a checkpoint.
+     * @param file the checkpoint file
+     * @param settings the settings of the current run
+     * @return the saved Result, or an empty one if the file does not exist
+     * @throws IllegalStateException if the checkpoint was written for different settings
+     */
+    private static Result resume(Path file, Properties settings) {
+        if (!Files.exists(file)) {
+            return new Result(new Tally(), 0, 0);
+        }
+        Properties saved = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            saved.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read checkpoint " + file, e);
+        }
+        for (String key : settings.stringPropertyNames()) {
+            if (!settings.getProperty(key).equals(saved.getProperty(key))) {
+                throw new IllegalStateException("Checkpoint " + file + " was written with " + key + "="
+                        + saved.getProperty(key) + ", delete it or choose another simulate.checkpoint");
+            }
+        }
+        Tally tally = new Tally(Long.parseLong(saved.getProperty("rounds")),
+                Double.parseDouble(saved.getProperty("sum")),
+                Double.parseDouble(saved.getProperty("sum-of-squares")));
+        return new Result(tally, Long.parseLong(saved.getProperty("batches")), tally.getCount());
+    }
+
+    /**
+     * Method to write the running totals to a checkpoint, replacing the previous one atomically so an
+     * interrupted write never leaves a partial file.
+     * @param file the checkpoint file
+     * @param settings the settings of the current run
+     * @param result the Result so far
+     */
+    private static void save(Path file, Properties settings, Result result) {
+        Properties saved = new Properties();
+        saved.putAll(settings);
+        saved.setProperty("rounds", Long.toString(result.getTally().getCount()));
+        saved.setProperty("sum", Double.toString(result.getTally().getSum()));
+        saved.setProperty("sum-of-squares", Double.toString(result.getTally().getSumOfSquares()));
+        saved.setProperty("batches", Long.toString(result.getBatches()));
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp)) {
+                saved.store(writer, "Offline simulation checkpoint");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write checkpoint " + file, e);
+        }
+    }
+
+    /**
+     * Class holding the totals of a simulation and the number of batches they cover.
+     */
+    public static final class Result {
+        private final Tally tally;
+        private final long batches;
+        private final long resumedRounds;
+
+        /**
+         * Constructs a Result.
+         * @param tally the Tally of every round played
+         * @param batches the number of batches played
+         * @param resumedRounds the number of rounds restored from a checkpoint rather than played in this run
+         */
+        public Result(Tally tally, long batches, long resumedRounds) {
+            this.tally = tally;
+            this.batches = batches;
+            this.resumedRounds = resumedRounds;
+        }
+
+        /**
+         * Method to get the totals of every round played, with the player's mean result per round as its mean.
+         * @return the Tally
+         */
+        public Tally getTally() {
+            return tally;
+        }
+
+        /**
+         * Method to get the number of batches played.
+         * @return the batch count
+         */
+        public long getBatches() {
+            return batches;
+        }
+
+        /**
+         * Method to get the number of rounds restored from a checkpoint rather than played in this run.
+         * @return the resumed round count
+         */
+        public long getResumedRounds() {
+            return resumedRounds;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.BlackJackStack.demo.service;
+
+import java.util.SplittableRandom;
+
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.Move;
+import com.BlackJackStack.demo.model.PackedHand;
+import com.BlackJackStack.demo.model.Shoe;
+import com.BlackJackStack.demo.model.TableRules;
+
+/**
+ * Class that plays complete rounds of blackjack from a shoe, with the player following a basic strategy chart.
+ * It plays the game ExpectedValueSolver values: the dealer has no hole card and draws the second card only
+ * after the player has acted, and a dealer natural then takes only the original bet, doubles and splits are
+ * returned. Surrender is late, so a surrendered hand loses the whole bet to a natural. Pairs are split up to the
+ * table's maximum number of hands, split Aces receive one card each and are not split again, and doubling
+ * after a split follows the rules. Hands are packed ints, so playing a round allocates nothing.
+ * A RoundPlayer is not thread-safe; simulation workers each use their own.
+ */
+public class RoundPlayer {
+
+    private final TableRules rules;
+    private final StrategyChart chart;
+    private final int[] hands;
+    private final int[] bets;
+    private final boolean[] done;
+
+    /**
+     * Constructs a RoundPlayer.
+     * @param rules the TableRules to play by
+     * @param chart the StrategyChart the player follows
+     */
+    public RoundPlayer(TableRules rules, StrategyChart chart) {
+        this.rules = rules;
+        this.chart = chart;
+        this.hands = new int[rules.getMaxSplitHands()];
+        this.bets = new int[rules.getMaxSplitHands()];
+        this.done = new boolean[rules.getMaxSplitHands()];
+    }
+
+    /**
+     * Method to play one round, reshuffling the shoe first if it has reached its penetration.
+     * @param shoe the Shoe to deal from
+     * @param random the generator to draw with
+     * @return the player's net result in units of the original bet (e.g. 1.5 for a 3:2 blackjack, -2.0 for a
+     *         lost double down, -0.5 for a surrender)
+     */
+    public double play(Shoe shoe, SplittableRandom random) {
+        if (shoe.needsShuffle()) {
+            shoe.shuffle();
+        }
+        int player = PackedHand.addRank(PackedHand.EMPTY, draw(shoe, random));
+        int up = draw(shoe, random);
+        player = PackedHand.addRank(player, draw(shoe, random));
+        int upValue = Card.valueOf(up);
+        boolean natural = PackedHand.isBlackjack(player);
+        boolean surrendered = false;
+
+        int count = 1;
+        hands[0] = player;
+        bets[0] = 1;
+        done[0] = natural;
+        for (int i = 0; i < count; i++) {
+            while (!done[i]) {
+                int hand = hands[i];
+                boolean split = count > 1;
+                boolean canSplit = PackedHand.pairValue(hand) != 0 && count < hands.length;
+                boolean canDouble = PackedHand.cardCount(hand) == 2 && (!split || rules.isDoubleAfterSplit());
+                boolean canSurrender = !split && PackedHand.cardCount(hand) == 2 && rules.isLateSurrender();
+                Move move = chart.move(hand, upValue, canSplit, canDouble, canSurrender);
+                switch (move) {
+                    case SURRENDER:
+                        surrendered = true;
+                        done[i] = true;
+                        break;
+                    case SPLIT:
+                        int pairValue = PackedHand.pairValue(hand);
+                        int single = PackedHand.addValue(PackedHand.EMPTY, pairValue);
+                        hands[i] = PackedHand.addRank(single, draw(shoe, random));
+                        hands[count] = PackedHand.addRank(single, draw(shoe, random));
+                        bets[count] = 1;
+                        done[count] = false;
+                        count++;
+                        // Split Aces get one card each and cannot be split again
+                        done[i] = pairValue == 1;
+                        done[count - 1] = pairValue == 1;
+                        break;
+                    case DOUBLE_DOWN:
+                        bets[i] = 2;
+                        hands[i] = PackedHand.addRank(hand, draw(shoe, random));
+                        done[i] = true;
+                        break;
+                    case HIT:
+                        hands[i] = PackedHand.addRank(hand, draw(shoe, random));
+                        done[i] = PackedHand.isBusted(hands[i]);
+                        break;
+                    default:
+                        done[i] = true;
+                        break;
+                }
+            }
+        }
+
+        // The dealer takes the second card only now, and a natural takes only the original bet
+        int dealer = PackedHand.addRank(PackedHand.addRank(PackedHand.EMPTY, up), draw(shoe, random));
+        if (PackedHand.isBlackjack(dealer)) {
+            return natural ? 0.0 : -1.0;
+        }
+        if (natural) {
+            return rules.getBlackjackPayout();
+        }
+        if (surrendered) {
+            return -0.5;
+        }
+
+        boolean live = false;
+        for (int i = 0; i < count; i++) {
+            live |= !PackedHand.isBusted(hands[i]);
+        }
+        while (live && PackedHand.dealerHits(dealer, rules.isHitSoft17())) {
+            dealer = PackedHand.addRank(dealer, draw(shoe, random));
+        }
+
+        int dealerTotal = PackedHand.isBusted(dealer) ? 0 : PackedHand.total(dealer);
+        double net = 0.0;
+        for (int i = 0; i < count; i++) {
+            if (PackedHand.isBusted(hands[i])) {
+                net -= bets[i];
+            } else if (PackedHand.total(hands[i]) > dealerTotal) {
+                net += bets[i];
+            } else if (PackedHand.total(hands[i]) < dealerTotal) {
+                net -= bets[i];
+            }
+        }
+        return net;
+    }
+
+    /**
+     * Method to draw a card, reshuffling first in the rare round that empties the shoe.
+     * @param shoe the Shoe to deal from
+     * @param random the generator to draw with
+     * @return the rank index of the drawn card (0-12)
+     */
+    private static int draw(Shoe shoe, SplittableRandom random) {
+        if (!shoe.isInfinite() && shoe.remaining() == 0) {
+            shoe.shuffle();
+        }
+        return shoe.draw(random);
+    }
+}
@@ -0,0 +1,114 @@
+package com.BlackJackStack.demo.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.BlackJackStack.demo.model.ShoeCount;
+import com.BlackJackStack.demo.model.TableRules;
+
+/**
+ * Class that keeps the Hi-Lo count of one table's shoe as its cards are seen. Cards 2-6 count +1, 7-9 count 0,
+ * and ten-valued cards and Aces count -1. The true count divides the running count by the decks left in the shoe.
+ * <p>
+ * The running count and the number of cards seen are packed into a single AtomicLong, so seeing a card is one
+ * atomic add and every ShoeCount is read from a single consistent state. A ShoeTracker is lock-free and may
+ * be updated from any number of threads.
+ */
+public class ShoeTracker {
+
+    /** Hi-Lo tag of each rank index, "2" through "A" */
+    private static final int[] HI_LO = {1, 1, 1, 1, 1, 0, 0, 0, -1, -1, -1, -1, -1};
+    /** Added to the packed state for each card seen: the card count lives in the high 32 bits */
+    private static final long CARD = 1L << 32;
+    private static final int CARDS_PER_DECK = 52;
+    /** Fewest decks the true count is divided by, so an overdealt shoe does not blow the count up */
+    private static final double MIN_DECKS_REMAINING = 0.5;
+
+    private final String id;
+    private final TableRules rules;
+    /** Cards seen in the high 32 bits, the running count as a signed int in the low 32 bits */
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * Constructs a ShoeTracker for a freshly shuffled shoe.
+     * @param id the id of the counting session
+     * @param rules the TableRules whose shoe is counted
+     * @throws IllegalArgumentException if the rules deal from an infinite deck, which cannot be counted
+     */
+    public ShoeTracker(String id, TableRules rules) {
+        if (rules.getDecks() == 0) {
+            throw new IllegalArgumentException("Rules profile " + rules.getName()
+                    + " deals from an infinite deck, which cannot be counted");
+        }
+        this.id = id;
+        this.rules = rules;
+    }
+
+    /**
+     * Method to count one card seen at the table.
+     * @param rank the rank index of the card (0-12)
+     * @return the ShoeCount including the card
+     */
+    public ShoeCount see(int rank) {
+        return snapshot(state.addAndGet(CARD + HI_LO[rank]));
+    }
+
+    /**
+     * Method to count several cards seen at the table, such as a finished round, in one atomic update.
+     * @param ranks the rank index of each card (0-12)
+     * @return the ShoeCount including the cards
+     */
+    public ShoeCount see(int[] ranks) {
+        long delta = 0;
+        for (int rank : ranks) {
+            delta += CARD + HI_LO[rank];
+        }
+        return snapshot(state.addAndGet(delta));
+    }
+
+    /**
+     * Method to start counting again after the shoe is shuffled.
+     * @return the ShoeCount of the fresh shoe
+     */
+    public ShoeCount shuffle() {
+        state.set(0);
+        return snapshot(0);
+    }
+
+    /**
+     * Method to get the current count.
+     * @return the ShoeCount
+     */
+    public ShoeCount getCount() {
+        return snapshot(state.get());
+    }
+
+    /**
+     * Method to get the id of the counting session.
+     * @return the session id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Method to get the rules whose shoe is counted.
+     * @return the TableRules
+     */
+    public TableRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Method to unpack a state into a ShoeCount.
+     * @param packed the packed state
+     * @return the ShoeCount
+     */
+    private ShoeCount snapshot(long packed) {
+        int runningCount = (int) packed;
+        int cardsSeen = (int) ((packed - runningCount) >>> 32);
+        double decksRemaining = Math.max(MIN_DECKS_REMAINING,
+                (double) (rules.getDecks() * CARDS_PER_DECK - cardsSeen) / CARDS_PER_DECK);
+        return new ShoeCount(id, rules.getName(), runningCount, cardsSeen, decksRemaining,
+                runningCount / decksRemaining);
+    }
+}
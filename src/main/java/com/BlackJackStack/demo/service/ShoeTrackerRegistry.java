@@ -0,0 +1,117 @@
+package com.BlackJackStack.demo.service;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.Move;
+import com.BlackJackStack.demo.model.ShoeCount;
+import com.BlackJackStack.demo.model.StrategyRequest;
+import com.BlackJackStack.demo.model.StrategyResponse;
+import com.BlackJackStack.demo.model.TableRules;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Service class that holds the ShoeTracker of every counting session, so one instance can follow the shoes
+ * of many tables at once. Sessions are looked up by id without locking and are dropped once they have been
+ * idle for a configurable time. Strategy responses for a session are adjusted with the count-indexed
+ * deviations of StrategyService.
+ */
+@Service
+public class ShoeTrackerRegistry {
+
+    /** Default largest number of live counting sessions */
+    private static final long DEFAULT_MAXIMUM_SESSIONS = 10_000;
+    /** Default time a counting session is kept after it was last used */
+    private static final String DEFAULT_EXPIRE_AFTER_ACCESS = "2h";
+
+    private final TableRulesRegistry rulesRegistry;
+    private final StrategyService strategyService;
+    private final Cache<String, ShoeTracker> trackers;
+
+    /**
+     * Constructs a ShoeTrackerRegistry with the default limits, for services created outside of Spring.
+     * @param rulesRegistry the registry used to resolve the rules profile of a new session
+     * @param strategyService the service whose charts and deviations advise a counted hand
+     */
+    public ShoeTrackerRegistry(TableRulesRegistry rulesRegistry, StrategyService strategyService) {
+        this(rulesRegistry, strategyService, DEFAULT_MAXIMUM_SESSIONS, Duration.ofHours(2));
+    }
+
+    /**
+     * Constructs a ShoeTrackerRegistry.
+     * @param rulesRegistry the registry used to resolve the rules profile of a new session
+     * @param strategyService the service whose charts and deviations advise a counted hand
+     * @param maximumSessions the largest number of live counting sessions
+     * @param expireAfterAccess the time a session is kept after it was last used
+     */
+    @Autowired
+    public ShoeTrackerRegistry(TableRulesRegistry rulesRegistry, StrategyService strategyService,
+            @Value("${strategy.count.maximum-sessions:" + DEFAULT_MAXIMUM_SESSIONS + "}") long maximumSessions,
+            @Value("${strategy.count.expire-after-access:" + DEFAULT_EXPIRE_AFTER_ACCESS + "}") Duration expireAfterAccess) {
+        this.rulesRegistry = rulesRegistry;
+        this.strategyService = strategyService;
+        this.trackers = Caffeine.newBuilder()
+                .maximumSize(maximumSessions)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    /**
+     * Method to start a counting session on a freshly shuffled shoe.
+     * @param rulesProfile the name of the rules profile the shoe is dealt by, or null for the default profile
+     * @return the ShoeTracker of the new session
+     * @throws IllegalArgumentException if the profile is unknown or deals from an infinite deck
+     */
+    public ShoeTracker create(String rulesProfile) {
+        ShoeTracker tracker = new ShoeTracker(UUID.randomUUID().toString(), rulesRegistry.resolve(rulesProfile));
+        trackers.put(tracker.getId(), tracker);
+        return tracker;
+    }
+
+    /**
+     * Method to get the tracker of a counting session.
+     * @param id the session id
+     * @return the ShoeTracker, or null if the session does not exist or has expired
+     */
+    public ShoeTracker get(String id) {
+        return id == null ? null : trackers.getIfPresent(id);
+    }
+
+    /**
+     * Method to end a counting session.
+     * @param id the session id
+     */
+    public void remove(String id) {
+        trackers.invalidate(id);
+    }
+
+    /**
+     * Method to add the count of a request's session to its response: the running and true counts, the play
+     * after count-indexed deviations, and whether to take insurance.
+     * @param request a valid StrategyRequest naming a counting session
+     * @param response the StrategyResponse for the request, which is shared and left unchanged
+     * @return a copy of the response with the count advice, or the response itself if the session is gone
+     */
+    public StrategyResponse advise(StrategyRequest request, StrategyResponse response) {
+        ShoeTracker tracker = get(request.getCountSession());
+        if (tracker == null) {
+            return response;
+        }
+        TableRules rules = tracker.getRules();
+        ShoeCount count = tracker.getCount();
+        Move move = strategyService.getCountedMove(request, rules, count.getTrueCount());
+        StrategyResponse advised = new StrategyResponse(response);
+        advised.setRunningCount(count.getRunningCount());
+        advised.setTrueCount(count.getTrueCount());
+        advised.setCountedMove(move.getLabel());
+        advised.setTakeInsurance(strategyService.getDeviations(rules)
+                .takeInsurance(new Card(request.getDealerCard()).getValue(), count.getTrueCount()));
+        return advised;
+    }
+}
@@ -0,0 +1,228 @@
+package com.BlackJackStack.demo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Class that runs strategy computations and Monte Carlo simulation budgets on a ForkJoinPool.
+ * In the application the executor owns a dedicated pool with one worker per core. A strategy computation is
+ * submitted to it as a single task, so the CPU-bound work never runs on request threads, which only wait for
+ * the result, and a bounded number of submitted computations, queued or running, is admitted at a time:
+ * submissions beyond that are rejected at once instead of queueing without limit.
+ * <p>
+ * Simulation budgets are only run offline: every strategy served to requests is computed exactly, and
+ * run is called by OfflineSimulator on an executor of its own. A budget is split into a number of chunks
+ * that depends only on the number of rounds, never on the number of cores. Each chunk gets its own
+ * SplittableRandom, split in order from the caller's generator, and chunk results are merged in order, so a
+ * seeded run gives the same answer on any machine. Kernels are created once per chunk, so a kernel can own
+ * scratch state such as a Shoe without locking.
+ */
+@Component
+public class SimulationExecutor {
+
+    /** Smallest number of rounds worth handing to a separate task */
+    private static final int MIN_CHUNK_ROUNDS = 1000;
+    /** Largest number of chunks a budget is split into */
+    private static final int MAX_CHUNKS = 32;
+
+    /**
+     * Interface for the body of a simulation: plays one round and records it in the accumulator.
+     * @param <A> the accumulator type
+     */
+    @FunctionalInterface
+    public interface Kernel<A> {
+        /**
+         * Method to play one simulated round.
+         * @param random the generator owned by the current worker
+         * @param accumulator the accumulator owned by the current worker
+         */
+        void play(SplittableRandom random, A accumulator);
+    }
+
+    /** Default number of computations admitted at once, running or waiting for a worker */
+    private static final int DEFAULT_MAX_QUEUED = 64;
+
+    private final ForkJoinPool pool;
+    /** Permits for submitted computations that have not finished, or null to admit every computation */
+    private final Semaphore admission;
+    private final boolean ownsPool;
+
+    /**
+     * Constructs a SimulationExecutor that runs on the common ForkJoinPool and admits every computation.
+     */
+    public SimulationExecutor() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a SimulationExecutor that runs on the given pool and admits every computation.
+     * @param pool the ForkJoinPool to run simulation chunks on
+     */
+    public SimulationExecutor(ForkJoinPool pool) {
+        this(pool, null, false);
+    }
+
+    /**
+     * Constructs a SimulationExecutor with its own pool of workers.
+     * @param parallelism the number of worker threads, or 0 for one per available processor
+     * @param maxQueued the largest number of computations admitted at once, running or waiting for a worker
+     */
+    @Autowired
+    public SimulationExecutor(@Value("${strategy.simulation.parallelism:0}") int parallelism,
+            @Value("${strategy.simulation.max-queued:" + DEFAULT_MAX_QUEUED + "}") int maxQueued) {
+        this(new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                SimulationExecutor::newWorker, null, false), new Semaphore(maxQueued), true);
+    }
+
+    private SimulationExecutor(ForkJoinPool pool, Semaphore admission, boolean ownsPool) {
+        this.pool = pool;
+        this.admission = admission;
+        this.ownsPool = ownsPool;
+    }
+
+    /**
+     * Method to submit a computation to the pool, if there is room for another. The computation holds its
+     * admission from submission until it finishes, so waiting for a worker counts against the limit. Cancelling
+     * the returned future before the computation has started gives its admission back at once.
+     * @param work the computation to run on a pool worker
+     * @param <T> the result type
+     * @return a CompletableFuture completed with the result of the work, or with the exception it threw
+     * @throws RejectedExecutionException if the largest number of computations are already admitted
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        if (admission == null) {
+            return CompletableFuture.supplyAsync(work, pool);
+        }
+        if (!admission.tryAcquire()) {
+            throw new RejectedExecutionException("Too many computations are queued, try again shortly");
+        }
+        // 0 while waiting for a worker, 1 while running, 2 once the admission is given back
+        AtomicInteger state = new AtomicInteger();
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> {
+                if (!state.compareAndSet(0, 1)) {
+                    return null;
+                }
+                try {
+                    return work.get();
+                } finally {
+                    state.set(2);
+                    admission.release();
+                }
+            }, pool);
+        } catch (RejectedExecutionException e) {
+            admission.release();
+            throw e;
+        }
+        // A computation cancelled before a worker picks it up never runs, so it gives its admission back here
+        future.whenComplete((result, failure) -> {
+            if (state.compareAndSet(0, 2)) {
+                admission.release();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Method to get how many more computations would be admitted now.
+     * @return the number of free admissions, or Integer.MAX_VALUE if every computation is admitted
+     */
+    public int getAvailableAdmissions() {
+        return admission == null ? Integer.MAX_VALUE : admission.availablePermits();
+    }
+
+    /**
+     * Method to play a number of rounds, split across the pool's workers. It is meant for offline simulations
+     * such as OfflineSimulator's, it is not admission-controlled like submit.
+     * @param random the generator to split per-chunk generators from
+     * @param rounds the number of rounds to play
+     * @param accumulator a factory for an empty accumulator, called once per chunk
+     * @param kernels a factory for the simulation body, called once per chunk
+     * @param combiner merges the second accumulator into the first and returns the result
+     * @param <A> the accumulator type
+     * @return the merged accumulator of all rounds
+     */
+    public <A> A run(SplittableRandom random, int rounds, Supplier<A> accumulator,
+            Supplier<? extends Kernel<A>> kernels, BinaryOperator<A> combiner) {
+        int chunks = Math.max(1, Math.min(MAX_CHUNKS, rounds / MIN_CHUNK_ROUNDS));
+        if (chunks == 1) {
+            SplittableRandom chunkRandom = random.split();
+            if (ForkJoinTask.getPool() == pool) {
+                return runChunk(chunkRandom, rounds, accumulator, kernels);
+            }
+            // Even a single chunk runs on the pool, so request threads only wait for simulations
+            return pool.submit(() -> runChunk(chunkRandom, rounds, accumulator, kernels)).join();
+        }
+
+        // Split every generator before forking so the assignment of streams to chunks is fixed
+        List<ForkJoinTask<A>> tasks = new ArrayList<>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            SplittableRandom chunkRandom = random.split();
+            int chunkRounds = rounds / chunks + (chunk < rounds % chunks ? 1 : 0);
+            tasks.add(pool.submit(() -> runChunk(chunkRandom, chunkRounds, accumulator, kernels)));
+        }
+
+        A result = tasks.get(0).join();
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            result = combiner.apply(result, tasks.get(chunk).join());
+        }
+        return result;
+    }
+
+    /**
+     * Method to play one chunk of rounds on the current thread.
+     * @param random the generator owned by this chunk
+     * @param rounds the number of rounds to play
+     * @param accumulator a factory for an empty accumulator
+     * @param kernels a factory for the simulation body
+     * @param <A> the accumulator type
+     * @return the accumulator for this chunk
+     */
+    private static <A> A runChunk(SplittableRandom random, int rounds, Supplier<A> accumulator,
+            Supplier<? extends Kernel<A>> kernels) {
+        A result = accumulator.get();
+        Kernel<A> kernel = kernels.get();
+        for (int i = 0; i < rounds; i++) {
+            kernel.play(random, result);
+        }
+        return result;
+    }
+
+    /**
+     * Method to stop the workers when the application shuts down, unless the pool is shared.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (ownsPool) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Method to create a named simulation worker thread.
+     * @param pool the ForkJoinPool the worker belongs to
+     * @return the ForkJoinWorkerThread
+     */
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        worker.setName("simulation-" + worker.getPoolIndex());
+        return worker;
+    }
+}
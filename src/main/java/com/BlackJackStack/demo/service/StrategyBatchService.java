@@ -0,0 +1,155 @@
+package com.BlackJackStack.demo.service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.BlackJackStack.demo.model.StrategyBatchResult;
+import com.BlackJackStack.demo.model.StrategyRequest;
+import com.BlackJackStack.demo.model.StrategyResponse;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service class that evaluates a stream of strategy requests in parallel and hands back each result as it
+ * finishes. Requests that are equivalent (the same card values in either order, the same up card value and
+ * the same rules) are looked up once per batch and share the result.
+ */
+@Service
+public class StrategyBatchService {
+
+    /** Default number of requests that may be in flight before reading waits for results */
+    private static final int DEFAULT_MAX_PENDING = 256;
+
+    private final StrategyTable strategyTable;
+    private final StrategyRequestValidator validator;
+    private final TableRulesRegistry rulesRegistry;
+    private final ShoeTrackerRegistry trackers;
+    private final ExecutorService workers;
+    private EventLog events = new EventLog();
+
+    @Value("${strategy.batch.max-pending:" + DEFAULT_MAX_PENDING + "}")
+    private int maxPending = DEFAULT_MAX_PENDING;
+
+    /**
+     * Constructs a StrategyBatchService with a virtual thread per lookup. Lookups mostly wait
+     * for computations on the SimulationExecutor's pool, so the number in flight is bounded by max-pending
+     * rather than by the number of threads.
+     * @param strategyTable the table used to look up each request
+     * @param validator the validator used to check each request
+     * @param rulesRegistry the registry used to resolve each request's rules profile
+     * @param trackers the registry whose counting sessions adjust the advice of requests that name one
+     */
+    public StrategyBatchService(StrategyTable strategyTable, StrategyRequestValidator validator,
+            TableRulesRegistry rulesRegistry, ShoeTrackerRegistry trackers) {
+        this.strategyTable = strategyTable;
+        this.validator = validator;
+        this.rulesRegistry = rulesRegistry;
+        this.trackers = trackers;
+        this.workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("strategy-batch-", 1).factory());
+    }
+
+    /**
+     * Method to set the EventLog each answered request is recorded in.
+     * @param events the EventLog
+     */
+    @Autowired
+    public void setEventLog(EventLog events) {
+        this.events = events;
+    }
+
+    /**
+     * Method to evaluate a batch of requests. Requests are read lazily, so a streamed batch starts
+     * evaluating before it has been fully received. Results are passed to the consumer on the calling
+     * thread in the order they finish, each tagged with the index of its request.
+     * @param requests the requests of the batch, in order
+     * @param results the consumer to hand each result to
+     * @throws InterruptedException if the calling thread is interrupted while waiting for results
+     */
+    public void evaluate(Iterator<StrategyRequest> requests, Consumer<StrategyBatchResult> results)
+            throws InterruptedException {
+        BlockingQueue<StrategyBatchResult> finished = new LinkedBlockingQueue<>();
+        Map<List<Object>, CompletableFuture<StrategyResponse>> shared = new HashMap<>();
+        int pending = 0;
+        int index = 0;
+
+        while (true) {
+            StrategyRequest request;
+            try {
+                if (!requests.hasNext()) {
+                    break;
+                }
+                request = requests.next();
+            } catch (RuntimeException e) {
+                // The rest of the batch cannot be read, report it and finish what was already submitted
+                results.accept(StrategyBatchResult.invalid(index, Map.of("request", e.getMessage())));
+                break;
+            }
+            int position = index++;
+
+            Map<String, String> errors = validator.validate(request);
+            if (!errors.isEmpty()) {
+                results.accept(StrategyBatchResult.invalid(position, errors));
+                continue;
+            }
+
+            shared.computeIfAbsent(StrategyCache.key(rulesRegistry.resolve(request.getRules()), request),
+                    key -> CompletableFuture.supplyAsync(() -> strategyTable.lookup(request), workers))
+                    .whenComplete((response, error) -> {
+                        if (error == null) {
+                            events.recordRecommendation(request, response);
+                        }
+                        finished.add(error == null
+                                ? StrategyBatchResult.of(position, request.getCountSession() == null
+                                        ? response : trackers.advise(request, response))
+                                : StrategyBatchResult.invalid(position, Map.of("request", describe(error))));
+                    });
+            pending++;
+
+            // Pass on whatever has finished, and wait once too many requests are in flight
+            for (StrategyBatchResult result = finished.poll(); result != null; result = finished.poll()) {
+                results.accept(result);
+                pending--;
+            }
+            while (pending >= maxPending) {
+                results.accept(finished.take());
+                pending--;
+            }
+        }
+
+        while (pending > 0) {
+            results.accept(finished.take());
+            pending--;
+        }
+    }
+
+    /**
+     * Method to get the message of a failed lookup, unwrapping the CompletionException around it.
+     * @param error the exception the lookup completed with
+     * @return the error message
+     */
+    private static String describe(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return String.valueOf(cause.getMessage());
+    }
+
+    /**
+     * Method to stop the worker threads when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,298 @@
+package com.BlackJackStack.demo.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.StrategyRequest;
+import com.BlackJackStack.demo.model.StrategyResponse;
+import com.BlackJackStack.demo.model.TableRules;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Service class that caches computed StrategyResponses in front of StrategyService. Requests are keyed on
+ * their normalized spot: the rule values (so profiles with the same rules share responses, each returned with
+ * the profile it was requested for), the player's card values in ascending order (so 10, J, Q and K are the
+ * same card and the order of the cards does not matter), the dealer's up card value, and whether the hand
+ * was split and may be doubled. The cache is bounded in size, expires entries after a configurable time,
+ * and publishes its hit and miss counts as cache.* metrics tagged cache=strategy.responses.
+ * <p>
+ * A miss is computed as one task on the StrategyService's SimulationExecutor, and the request thread only
+ * waits for it. Under load, as judged by the LoadMonitor, a miss is answered with StrategyService's approximate
+ * response instead: at once while the CPU is too busy or the computation is not admitted, or when the exact
+ * response is not ready within the latency budget. Approximate responses are never cached, and an exact computation
+ * that overruns the budget carries on in the background and is cached for later requests.
+ */
+@Service
+public class StrategyCache {
+
+    private static final Logger log = LoggerFactory.getLogger(StrategyCache.class);
+
+    /** Default largest number of cached responses */
+    private static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+    /** Default time a response stays cached after it was computed */
+    private static final String DEFAULT_EXPIRE_AFTER_WRITE = "1h";
+
+    private final StrategyService strategyService;
+    private final StrategyMetrics metrics;
+    private final LoadMonitor load;
+    /** Cached responses, or the computation in flight. Entries are shared and must not be modified. */
+    private final AsyncCache<List<Object>, StrategyResponse> responses;
+
+    /**
+     * Constructs a StrategyCache with the default size and expiry, for services created outside of Spring.
+     * @param strategyService the service used to compute responses that are not cached
+     * @param metrics the StrategyMetrics whose registry the cache statistics are published to
+     */
+    public StrategyCache(StrategyService strategyService, StrategyMetrics metrics) {
+        this(strategyService, metrics, DEFAULT_MAXIMUM_SIZE, Duration.ofHours(1));
+    }
+
+    /**
+     * Constructs a StrategyCache that always waits for exact responses.
+     * @param strategyService the service used to compute responses that are not cached
+     * @param metrics the StrategyMetrics whose registry the cache statistics are published to
+     * @param maximumSize the largest number of cached responses
+     * @param expireAfterWrite the time a response stays cached after it was computed
+     */
+    public StrategyCache(StrategyService strategyService, StrategyMetrics metrics, long maximumSize,
+            Duration expireAfterWrite) {
+        this(strategyService, metrics, new LoadMonitor(), maximumSize, expireAfterWrite);
+    }
+
+    /**
+     * Constructs a StrategyCache.
+     * @param strategyService the service used to compute responses that are not cached
+     * @param metrics the StrategyMetrics whose registry the cache statistics are published to
+     * @param load the LoadMonitor that decides when misses are answered approximately
+     * @param maximumSize the largest number of cached responses
+     * @param expireAfterWrite the time a response stays cached after it was computed
+     */
+    @Autowired
+    public StrategyCache(StrategyService strategyService, StrategyMetrics metrics, LoadMonitor load,
+            @Value("${strategy.cache.maximum-size:" + DEFAULT_MAXIMUM_SIZE + "}") long maximumSize,
+            @Value("${strategy.cache.expire-after-write:" + DEFAULT_EXPIRE_AFTER_WRITE + "}") Duration expireAfterWrite) {
+        this.strategyService = strategyService;
+        this.metrics = metrics;
+        this.load = load;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(metrics.getRegistry(), responses, "strategy.responses");
+    }
+
+    /**
+     * Method to get the strategy for a request from the cache, computing and caching it on a miss.
+     * Concurrent misses on the same spot wait for a single computation. The computation runs on the executor's
+     * pool, outside of the cache's locks, so a request thread that is virtual gives up its carrier while it
+     * waits. Under load the request gets an approximate response instead, as described above.
+     * @param request a StrategyRequest containing the player's cards and dealer's up card
+     * @param rules the TableRules to play by
+     * @param progress called from the pool with each intermediate snapshot of the computation the request started,
+     *                 never called for a cached response or after an approximate one has been returned. It should
+     *                 return quickly, and if it throws it is not called again while the computation carries on
+     * @return the StrategyResponse
+     * @throws RejectedExecutionException if too many computations are queued and degradation is disabled
+     */
+    public StrategyResponse get(StrategyRequest request, TableRules rules, Consumer<StrategyResponse> progress) {
+        long deadline = System.nanoTime() + load.getLatencyBudget().toNanos();
+        List<Object> key = key(rules, request);
+        CompletableFuture<StrategyResponse> computation = new CompletableFuture<>();
+        Snapshots snapshots = new Snapshots(progress);
+        if (!load.isEnabled()) {
+            CompletableFuture<StrategyResponse> cached = responses.get(key, (k, executor) -> computation);
+            if (cached == computation) {
+                compute(computation, request, rules, snapshots);
+            }
+            return forProfile(join(cached), rules);
+        }
+
+        CompletableFuture<StrategyResponse> cached;
+        if (load.isCpuUnderPressure()) {
+            cached = responses.getIfPresent(key);
+            if (cached == null) {
+                // Nothing is started or cached for the spot, it is computed once a request finds the CPU free
+                return degrade(request, rules, StrategyMetrics.DEGRADED_CPU);
+            }
+        } else {
+            cached = responses.get(key, (k, executor) -> computation);
+            if (cached == computation) {
+                compute(computation, request, rules, snapshots);
+            }
+        }
+        try {
+            return forProfile(cached.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS), rules);
+        } catch (TimeoutException e) {
+            snapshots.close();
+            return degrade(request, rules, StrategyMetrics.DEGRADED_LATENCY_BUDGET);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            snapshots.close();
+            return degrade(request, rules, StrategyMetrics.DEGRADED_LATENCY_BUDGET);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                return degrade(request, rules, StrategyMetrics.DEGRADED_QUEUE);
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * Method to submit the exact computation for a miss to the executor's pool, if it is admitted. The dealer
+     * distribution and the solver all run in that one task, the calling thread returns at once.
+     * @param computation the future that the cache and any waiting requests hold for the response
+     * @param request the StrategyRequest to compute
+     * @param rules the TableRules to play by
+     * @param progress called with each intermediate snapshot
+     */
+    private void compute(CompletableFuture<StrategyResponse> computation, StrategyRequest request, TableRules rules,
+            Consumer<StrategyResponse> progress) {
+        try {
+            strategyService.getExecutor().submit(() -> strategyService.getStrategy(request, rules, progress))
+                    .whenComplete((response, failure) -> {
+                        if (failure == null) {
+                            computation.complete(response);
+                        } else {
+                            // A failed computation is dropped from the cache, so the next request tries again
+                            computation.completeExceptionally(
+                                    failure instanceof CompletionException && failure.getCause() != null
+                                            ? failure.getCause() : failure);
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            computation.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Method to label a cached response with the profile it was requested for. A response computed for another
+     * profile with the same rule values is copied, the shared entry is never modified.
+     * @param response the cached StrategyResponse
+     * @param rules the TableRules of the request
+     * @return the response, or a copy of it carrying the request's profile name
+     */
+    private static StrategyResponse forProfile(StrategyResponse response, TableRules rules) {
+        if (rules.getName().equals(response.getRulesProfile())) {
+            return response;
+        }
+        StrategyResponse copy = new StrategyResponse(response);
+        copy.setRulesProfile(rules.getName());
+        return copy;
+    }
+
+    /**
+     * Method to wait for a computation, unwrapping the exception it failed with.
+     * @param computation the future holding the response
+     * @return the StrategyResponse
+     */
+    private StrategyResponse join(CompletableFuture<StrategyResponse> computation) {
+        try {
+            return computation.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                metrics.recordRejection();
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Method to answer a request approximately under load. The response is never put in the cache.
+     * @param request the StrategyRequest to answer
+     * @param rules the TableRules to play by
+     * @param reason the degrade reason, as defined in StrategyMetrics
+     * @return a copy of the approximate StrategyResponse for this request alone, flagged as approximate
+     */
+    private StrategyResponse degrade(StrategyRequest request, TableRules rules, int reason) {
+        metrics.recordDegraded(reason);
+        StrategyResponse response = new StrategyResponse(strategyService.getApproximateStrategy(request, rules));
+        response.setApproximate(true);
+        return response;
+    }
+
+    /**
+     * Class that passes snapshots from a background computation to the request that started it, until the
+     * request has returned. Snapshots are written under a lock, so none is written once close() returns.
+     * A consumer that throws is closed instead of failing the computation, which other requests may share.
+     */
+    private static final class Snapshots implements Consumer<StrategyResponse> {
+        private final Consumer<StrategyResponse> progress;
+        private final ReentrantLock lock = new ReentrantLock();
+        private boolean open = true;
+
+        Snapshots(Consumer<StrategyResponse> progress) {
+            this.progress = progress;
+        }
+
+        @Override
+        public void accept(StrategyResponse snapshot) {
+            lock.lock();
+            try {
+                if (open) {
+                    progress.accept(snapshot);
+                }
+            } catch (RuntimeException e) {
+                open = false;
+                log.debug("Dropping snapshots of a computation: {}", e.toString());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                open = false;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Method to get the hit and miss statistics of the cache.
+     * @return the CacheStats so far
+     */
+    public CacheStats getStats() {
+        return responses.synchronous().stats();
+    }
+
+    /**
+     * Method to build the key under which equivalent requests share one response.
+     * @param rules the TableRules the request is played by
+     * @param request a valid StrategyRequest
+     * @return the rule values, the player's card values in ascending order, the dealer's up card value and the
+     *         number of hands in play and the double flag of the request
+     */
+    public static List<Object> key(TableRules rules, StrategyRequest request) {
+        List<String> cards = request.getPlayerCards();
+        Integer[] values = new Integer[cards.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new Card(cards.get(i)).getValue();
+        }
+        Arrays.sort(values);
+        return List.of(rules.getRuleValues(), List.of(values), new Card(request.getDealerCard()).getValue(),
+                request.getHandsInPlay(), request.isDoubleAllowed(rules));
+    }
+}
@@ -0,0 +1,252 @@
+package com.BlackJackStack.demo.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import com.BlackJackStack.demo.model.Move;
+import com.BlackJackStack.demo.model.PackedHand;
+
+/**
+ * Class holding a basic strategy chart as three flat lookup arrays (hard totals, soft totals and pairs),
+ * each indexed by the player's row and the dealer's up card value, so a decision is a single array read.
+ * Charts are loaded from a text resource such as charts/basic-h17.chart:
+ * <pre>
+ * [hard]
+ * 16   S  S  S  S  S  H  H  R  R  R
+ * [soft]
+ * 18   S  Ds Ds Ds Ds S  S  H  H  H
+ * [pairs]
+ * A    P  P  P  P  P  P  P  P  P  P
+ * </pre>
+ * Each row lists the play against a dealer 2 through 10 and then an Ace. The codes are H (hit), S (stand),
+ * D (double, otherwise hit), Ds (double, otherwise stand), R (surrender, otherwise hit), Rs (surrender,
+ * otherwise stand), and for pairs P (split) or - (play the pair as a hard or soft total).
+ * Lines starting with # are comments. A StrategyChart is immutable and thread-safe.
+ */
+public final class StrategyChart {
+
+    private static final byte HIT = 0;
+    private static final byte STAND = 1;
+    private static final byte DOUBLE_OR_HIT = 2;
+    private static final byte DOUBLE_OR_STAND = 3;
+    private static final byte SURRENDER_OR_HIT = 4;
+    private static final byte SURRENDER_OR_STAND = 5;
+    private static final byte SPLIT = 6;
+    private static final byte NO_SPLIT = 7;
+    /** Chart code of each entry above, indexed by its byte value */
+    private static final String[] CODES = {"H", "S", "D", "Ds", "R", "Rs", "P", "-"};
+
+    /** Columns per row, indexed directly by the dealer's up card value (2-10, 11 for an Ace) */
+    private static final int COLUMNS = 12;
+    private static final int FIRST_HARD = 4;
+    private static final int FIRST_SOFT = 12;
+    private static final int LAST_TOTAL = 21;
+
+    private final String name;
+    private final byte[] hard = new byte[(LAST_TOTAL + 1) * COLUMNS];
+    private final byte[] soft = new byte[(LAST_TOTAL + 1) * COLUMNS];
+    /** Rows indexed by pair value, 1 for Aces */
+    private final byte[] pairs = new byte[11 * COLUMNS];
+
+    private StrategyChart(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Method to load a chart from a classpath resource.
+     * @param resource the classpath location of the chart (e.g. "charts/basic-h17.chart")
+     * @return the StrategyChart
+     * @throws IllegalArgumentException if the resource does not exist or is not a complete, valid chart
+     */
+    public static StrategyChart load(String resource) {
+        InputStream in = StrategyChart.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalArgumentException("Strategy chart not found: " + resource);
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return parse(resource, reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read strategy chart " + resource, e);
+        }
+    }
+
+    /**
+     * Method to parse a chart in the format described above.
+     * @param name the name of the chart, used in error messages
+     * @param reader the chart text
+     * @return the StrategyChart
+     * @throws IOException if the chart cannot be read
+     * @throws IllegalArgumentException if the chart is malformed or a row is missing
+     */
+    public static StrategyChart parse(String name, Reader reader) throws IOException {
+        StrategyChart chart = new StrategyChart(name);
+        boolean[] seen = new boolean[3 * (LAST_TOTAL + 1)];
+        BufferedReader lines = new BufferedReader(reader);
+        String section = null;
+        int lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (line.startsWith("[")) {
+                section = line;
+                if (!section.equals("[hard]") && !section.equals("[soft]") && !section.equals("[pairs]")) {
+                    throw chart.invalid(lineNumber, "unknown section " + section);
+                }
+                continue;
+            }
+            if (section == null) {
+                throw chart.invalid(lineNumber, "row outside of a section");
+            }
+
+            String[] fields = line.split("\\s+");
+            if (fields.length != 11) {
+                throw chart.invalid(lineNumber, "expected a row label and 10 entries");
+            }
+            boolean pairRow = section.equals("[pairs]");
+            int row = chart.rowOf(fields[0], section, lineNumber);
+            byte[] table = pairRow ? chart.pairs : section.equals("[soft]") ? chart.soft : chart.hard;
+            int seenIndex = (pairRow ? 2 : section.equals("[soft]") ? 1 : 0) * (LAST_TOTAL + 1) + row;
+            if (seen[seenIndex]) {
+                throw chart.invalid(lineNumber, "duplicate row " + fields[0]);
+            }
+            seen[seenIndex] = true;
+
+            for (int column = 1; column <= 10; column++) {
+                byte code = codeOf(fields[column]);
+                if (code < 0 || (code >= SPLIT) != pairRow) {
+                    throw chart.invalid(lineNumber, "invalid entry " + fields[column]);
+                }
+                table[row * COLUMNS + column + 1] = code;
+            }
+        }
+
+        for (int total = FIRST_HARD; total <= LAST_TOTAL; total++) {
+            chart.require(seen[total], "hard " + total);
+        }
+        for (int total = FIRST_SOFT; total <= LAST_TOTAL; total++) {
+            chart.require(seen[LAST_TOTAL + 1 + total], "soft " + total);
+        }
+        for (int value = 1; value <= 10; value++) {
+            chart.require(seen[2 * (LAST_TOTAL + 1) + value], "pair " + (value == 1 ? "A" : String.valueOf(value)));
+        }
+        return chart;
+    }
+
+    /**
+     * Method to get the chart's play for a hand.
+     * @param hand the player's hand, packed as described in PackedHand
+     * @param dealerValue the value of the dealer's up card (2-10, 11 for an Ace)
+     * @param canSplit true if a pair may be split
+     * @param canDouble true if the hand may be doubled
+     * @param canSurrender true if the hand may be surrendered
+     * @return the Move to make
+     */
+    public Move move(int hand, int dealerValue, boolean canSplit, boolean canDouble, boolean canSurrender) {
+        if (canSplit && pairs[PackedHand.pairValue(hand) * COLUMNS + dealerValue] == SPLIT) {
+            return Move.SPLIT;
+        }
+        int total = PackedHand.total(hand);
+        if (total > LAST_TOTAL) {
+            return Move.STAND;
+        }
+        boolean isSoft = PackedHand.isSoft(hand);
+        if (total < (isSoft ? FIRST_SOFT : FIRST_HARD)) {
+            return Move.HIT;
+        }
+        switch ((isSoft ? soft : hard)[total * COLUMNS + dealerValue]) {
+            case STAND:
+                return Move.STAND;
+            case DOUBLE_OR_HIT:
+                return canDouble ? Move.DOUBLE_DOWN : Move.HIT;
+            case DOUBLE_OR_STAND:
+                return canDouble ? Move.DOUBLE_DOWN : Move.STAND;
+            case SURRENDER_OR_HIT:
+                return canSurrender ? Move.SURRENDER : Move.HIT;
+            case SURRENDER_OR_STAND:
+                return canSurrender ? Move.SURRENDER : Move.STAND;
+            default:
+                return Move.HIT;
+        }
+    }
+
+    /**
+     * Method to get the name the chart was loaded from.
+     * @return the chart name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Method to get a checksum of the chart's plays, so that results derived from the chart can tell whether
+     * it has changed. Comments, spacing and row order do not affect it.
+     * @return the CRC-32 of the hard, soft and pair entries
+     */
+    public long getFingerprint() {
+        CRC32 crc = new CRC32();
+        crc.update(hard);
+        crc.update(soft);
+        crc.update(pairs);
+        return crc.getValue();
+    }
+
+    /**
+     * Method to get the row index of a row label.
+     * @param label the row label (a total, or a pair value with A for Aces)
+     * @param section the section the row is in
+     * @param lineNumber the line of the row, for error messages
+     * @return the row index
+     */
+    private int rowOf(String label, String section, int lineNumber) {
+        boolean pairRow = section.equals("[pairs]");
+        if (pairRow && label.equalsIgnoreCase("A")) {
+            return 1;
+        }
+        int row;
+        try {
+            row = Integer.parseInt(label);
+        } catch (NumberFormatException e) {
+            throw invalid(lineNumber, "invalid row " + label);
+        }
+        int first = pairRow ? 2 : section.equals("[soft]") ? FIRST_SOFT : FIRST_HARD;
+        int last = pairRow ? 10 : LAST_TOTAL;
+        if (row < first || row > last) {
+            throw invalid(lineNumber, "invalid row " + label);
+        }
+        return row;
+    }
+
+    /**
+     * Method to get the entry for a chart code.
+     * @param code the chart code (e.g. "Ds")
+     * @return the entry, or -1 if the code is unknown
+     */
+    private static byte codeOf(String code) {
+        for (byte i = 0; i < CODES.length; i++) {
+            if (CODES[i].equals(code)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void require(boolean present, String row) {
+        if (!present) {
+            throw new IllegalArgumentException("Invalid strategy chart " + name + ": missing row " + row);
+        }
+    }
+
+    private IllegalArgumentException invalid(int lineNumber, String reason) {
+        return new IllegalArgumentException("Invalid strategy chart " + name + " at line " + lineNumber + ": " + reason);
+    }
+}
@@ -0,0 +1,199 @@
+package com.BlackJackStack.demo.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.TableRules;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Component that records the strategy metrics exported through Actuator (and /actuator/prometheus):
+ * <pre>
+ * strategy.request             timer, per dealer card and rules profile, with a latency histogram
+ * strategy.estimator           timer, per estimator (dealer-outcome, expected-value) and dealer card
+ * strategy.simulation.rejected counter of requests turned away because too many computations were queued
+ * strategy.degraded            counter of approximate responses, per reason (latency-budget, cpu, queue)
+ * strategy.table.lookups       counter of table lookups, tagged result=hit or result=miss
+ * strategy.table.hit.ratio     gauge of the fraction of table lookups served from a precomputed table
+ * </pre>
+ * Meters are created up front or once per rules profile, so recording is a lookup and an add.
+ */
+@Component
+public class StrategyMetrics {
+
+    /** Dealer card tag of each card value, indexed by value (2-10, 11 for an Ace) */
+    private static final String[] DEALER_TAGS = {null, null, "2", "3", "4", "5", "6", "7", "8", "9", "10", "A"};
+    private static final String[] ESTIMATORS = {"dealer-outcome", "expected-value"};
+    private static final String[] DEGRADE_REASONS = {"latency-budget", "cpu", "queue"};
+
+    /** Estimator index of the exact dealer distribution */
+    public static final int DEALER_OUTCOME = 0;
+    /** Estimator index of the exact expected value solver */
+    public static final int EXPECTED_VALUE = 1;
+
+    /** Degrade reason of a request that used up its latency budget */
+    public static final int DEGRADED_LATENCY_BUDGET = 0;
+    /** Degrade reason of a request that arrived while the system CPU was too busy */
+    public static final int DEGRADED_CPU = 1;
+    /** Degrade reason of a request whose computation was not admitted */
+    public static final int DEGRADED_QUEUE = 2;
+
+    private final MeterRegistry registry;
+    /** Estimator timers indexed by estimator and dealer card value */
+    private final Timer[][] estimatorTimers = new Timer[ESTIMATORS.length][DEALER_TAGS.length];
+    /** Request timers of each rules profile, indexed by dealer card value */
+    private final Map<String, Timer[]> requestTimers = new ConcurrentHashMap<>();
+    private final Counter rejectedSimulations;
+    private final Counter[] degraded = new Counter[DEGRADE_REASONS.length];
+    private final Counter tableHits;
+    private final Counter tableMisses;
+
+    /**
+     * Constructs a StrategyMetrics object that keeps its meters in a private registry, for services
+     * created outside of Spring.
+     */
+    public StrategyMetrics() {
+        this(new SimpleMeterRegistry());
+    }
+
+    /**
+     * Constructs a StrategyMetrics object that registers its meters with the given registry.
+     * @param registry the MeterRegistry to register the meters with
+     */
+    @Autowired
+    public StrategyMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (int estimator = 0; estimator < ESTIMATORS.length; estimator++) {
+            for (int value = 2; value < DEALER_TAGS.length; value++) {
+                estimatorTimers[estimator][value] = Timer.builder("strategy.estimator")
+                        .description("Time taken by one estimator for one strategy request")
+                        .tag("estimator", ESTIMATORS[estimator])
+                        .tag("dealer", DEALER_TAGS[value])
+                        .publishPercentileHistogram()
+                        .register(registry);
+            }
+        }
+        rejectedSimulations = Counter.builder("strategy.simulation.rejected")
+                .description("Strategy requests rejected because too many computations were queued")
+                .register(registry);
+        for (int reason = 0; reason < DEGRADE_REASONS.length; reason++) {
+            degraded[reason] = Counter.builder("strategy.degraded")
+                    .description("Strategy requests served approximately under load")
+                    .tag("reason", DEGRADE_REASONS[reason])
+                    .register(registry);
+        }
+        Counter hits = Counter.builder("strategy.table.lookups")
+                .description("Strategy lookups, by whether a precomputed table served them")
+                .tag("result", "hit")
+                .register(registry);
+        Counter misses = Counter.builder("strategy.table.lookups")
+                .description("Strategy lookups, by whether a precomputed table served them")
+                .tag("result", "miss")
+                .register(registry);
+        tableHits = hits;
+        tableMisses = misses;
+        // The gauge reads the counters rather than this object, which is not fully constructed yet
+        Gauge.builder("strategy.table.hit.ratio", hits, h -> hitRatio(h, misses))
+                .description("Fraction of strategy lookups served from a precomputed table")
+                .register(registry);
+    }
+
+    /**
+     * Method to record the time taken by a complete strategy request.
+     * @param dealerCard the dealer's up Card
+     * @param rules the TableRules the request was played by
+     * @param nanos the elapsed time in nanoseconds
+     */
+    public void recordRequest(Card dealerCard, TableRules rules, long nanos) {
+        requestTimers.computeIfAbsent(String.valueOf(rules.getName()), this::newRequestTimers)[dealerCard.getValue()]
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Method to record the time taken by one estimator.
+     * @param estimator the estimator index (DEALER_OUTCOME or EXPECTED_VALUE)
+     * @param dealerCard the dealer's up Card
+     * @param nanos the elapsed time in nanoseconds
+     */
+    public void recordEstimator(int estimator, Card dealerCard, long nanos) {
+        estimatorTimers[estimator][dealerCard.getValue()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Method to count a request rejected because too many computations were queued.
+     */
+    public void recordRejection() {
+        rejectedSimulations.increment();
+    }
+
+    /**
+     * Method to count a request served approximately under load.
+     * @param reason the degrade reason (DEGRADED_LATENCY_BUDGET, DEGRADED_CPU or DEGRADED_QUEUE)
+     */
+    public void recordDegraded(int reason) {
+        degraded[reason].increment();
+    }
+
+    /**
+     * Method to count a table lookup.
+     * @param hit true if a precomputed table served the lookup
+     */
+    public void recordTableLookup(boolean hit) {
+        (hit ? tableHits : tableMisses).increment();
+    }
+
+    /**
+     * Method to get the fraction of table lookups served from a precomputed table.
+     * @return the hit ratio (0.0 to 1.0), 0.0 before the first lookup
+     */
+    public double getTableHitRatio() {
+        return hitRatio(tableHits, tableMisses);
+    }
+
+    /**
+     * Method to get the registry the meters are registered with.
+     * @return the MeterRegistry
+     */
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Method to get the fraction of lookups counted as hits.
+     * @param hits the Counter of lookups served from a table
+     * @param misses the Counter of lookups that were not
+     * @return the hit ratio (0.0 to 1.0), 0.0 before the first lookup
+     */
+    private static double hitRatio(Counter hits, Counter misses) {
+        double total = hits.count() + misses.count();
+        return total == 0.0 ? 0.0 : hits.count() / total;
+    }
+
+    /**
+     * Method to create the request timers of a rules profile.
+     * @param profile the rules profile name
+     * @return the timers indexed by dealer card value
+     */
+    private Timer[] newRequestTimers(String profile) {
+        Timer[] timers = new Timer[DEALER_TAGS.length];
+        for (int value = 2; value < DEALER_TAGS.length; value++) {
+            timers[value] = Timer.builder("strategy.request")
+                    .description("Time taken to compute a strategy response")
+                    .tag("dealer", DEALER_TAGS[value])
+                    .tag("rules", profile)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+        return timers;
+    }
+}
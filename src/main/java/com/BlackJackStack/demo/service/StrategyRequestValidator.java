@@ -0,0 +1,130 @@
+package com.BlackJackStack.demo.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.PackedHand;
+import com.BlackJackStack.demo.model.StrategyRequest;
+import com.BlackJackStack.demo.model.TableRules;
+
+/**
+ * Component that checks the fields of a StrategyRequest before it is looked up,
+ * so API clients get a message per invalid field instead of an exception from Card.
+ */
+@Component
+public class StrategyRequestValidator {
+
+    private final TableRulesRegistry rulesRegistry;
+    private final ShoeTrackerRegistry trackers;
+
+    /**
+     * Constructs a StrategyRequestValidator.
+     * @param rulesRegistry the registry used to check rules profile names
+     * @param trackers the registry used to check counting session ids
+     */
+    public StrategyRequestValidator(TableRulesRegistry rulesRegistry, ShoeTrackerRegistry trackers) {
+        this.rulesRegistry = rulesRegistry;
+        this.trackers = trackers;
+    }
+
+    /**
+     * Method to check every field of a request.
+     * @param request the StrategyRequest to check
+     * @return the error message of each invalid field keyed by field name, empty if the request is valid
+     */
+    public Map<String, String> validate(StrategyRequest request) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        List<String> cards = request.getCards();
+        if (cards != null && !cards.isEmpty()) {
+            for (int i = 0; i < cards.size(); i++) {
+                validateCard("cards[" + i + "]", cards.get(i), errors);
+            }
+            if (cards.size() < 2) {
+                errors.put("cards", "A hand needs at least two cards");
+            }
+        } else {
+            validateCard("card1", request.getCard1(), errors);
+            validateCard("card2", request.getCard2(), errors);
+        }
+        validateCard("dealerCard", request.getDealerCard(), errors);
+        TableRules rules = null;
+        try {
+            rules = rulesRegistry.resolve(request.getRules());
+        } catch (IllegalArgumentException e) {
+            errors.put("rules", e.getMessage());
+        }
+        if (rules != null && request.getSplitHands() != null) {
+            int splitHands = request.getSplitHands();
+            if (!request.isAfterSplit()) {
+                errors.put("splitHands", "The number of split hands is only given with afterSplit");
+            } else if (splitHands < 2 || splitHands > rules.getMaxSplitHands()) {
+                errors.put("splitHands", "The rules profile " + rules.getName() + " allows 2 to "
+                        + rules.getMaxSplitHands() + " split hands, not " + splitHands);
+            }
+        }
+        if (rules != null && request.getCountSession() != null) {
+            ShoeTracker tracker = trackers.get(request.getCountSession());
+            if (tracker == null) {
+                errors.put("countSession", "Unknown or expired count session: " + request.getCountSession());
+            } else if (!tracker.getRules().hasSameRulesAs(rules)) {
+                errors.put("countSession", "The count session plays by rules profile "
+                        + tracker.getRules().getName() + ", not " + rules.getName());
+            }
+        }
+        if (errors.isEmpty()) {
+            validateHand(request, rules, errors);
+        }
+        return errors;
+    }
+
+    /**
+     * Method to check that the player's cards form a live hand that the rules' shoe could have dealt,
+     * recording an error if they do not.
+     * @param request a StrategyRequest whose cards are all valid
+     * @param rules the TableRules of the request
+     * @param errors the error messages to add to, keyed by field name
+     */
+    private static void validateHand(StrategyRequest request, TableRules rules, Map<String, String> errors) {
+        String field = request.getCards() != null && !request.getCards().isEmpty() ? "cards" : "card2";
+        int[] dealt = new int[Card.RANKS];
+        int hand = PackedHand.EMPTY;
+        for (String card : request.getPlayerCards()) {
+            int rank = Card.parseRank(card);
+            dealt[rank]++;
+            hand = PackedHand.addRank(hand, rank);
+        }
+        dealt[Card.parseRank(request.getDealerCard())]++;
+
+        if (PackedHand.isBusted(hand)) {
+            errors.put(field, "The hand is already busted (" + PackedHand.hardTotal(hand) + ")");
+            return;
+        }
+        if (rules.getDecks() > 0) {
+            for (int rank = 0; rank < Card.RANKS; rank++) {
+                if (dealt[rank] > 4 * rules.getDecks()) {
+                    errors.put(field, "A " + rules.getDecks() + "-deck shoe has only " + 4 * rules.getDecks()
+                            + " cards of rank " + Card.of(rank));
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to check that a card string is a valid rank, recording an error if it is not.
+     * @param field the name of the request field
+     * @param card the card string to check
+     * @param errors the error messages to add to, keyed by field name
+     */
+    private static void validateCard(String field, String card, Map<String, String> errors) {
+        try {
+            Card.parseRank(card);
+        } catch (IllegalArgumentException e) {
+            errors.put(field, e.getMessage() + " (expected 2-10, J, Q, K or A)");
+        }
+    }
+}
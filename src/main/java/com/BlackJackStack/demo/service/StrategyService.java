@@ -1,11 +1,22 @@
 package com.BlackJackStack.demo.service;
 
-import java.util.Random;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import com.BlackJackStack.demo.model.Hand;
 import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.DealerOutcome;
+import com.BlackJackStack.demo.model.Move;
+import com.BlackJackStack.demo.model.PackedHand;
+import com.BlackJackStack.demo.model.Shoe;
 import com.BlackJackStack.demo.model.StrategyRequest;
 import com.BlackJackStack.demo.model.StrategyResponse;
+import com.BlackJackStack.demo.model.TableRules;
 
 /**
  * Service class that provides blackjack strategy recommendations and statistics.
@@ -13,381 +24,463 @@ import com.BlackJackStack.demo.model.StrategyResponse;
 @Service
 public class StrategyService {
     
-    /** Number of simulations to run for statistical estimates, Monte Carlo*/
-    private static final int SIMULATIONS = 10000;
-    private final Random random;
-    
-    /** 
-     * Default constructor to initialize the StrategyService with a Random instance.
+    /** Default basic strategy charts for dealers that hit and stand on soft 17 */
+    private static final String DEFAULT_H17_CHART = "charts/basic-h17.chart";
+    private static final String DEFAULT_S17_CHART = "charts/basic-s17.chart";
+    /** Default Hi-Lo index plays for dealers that hit and stand on soft 17 */
+    private static final String DEFAULT_H17_DEVIATIONS = "charts/hilo-h17.deviations";
+    private static final String DEFAULT_S17_DEVIATIONS = "charts/hilo-s17.deviations";
+
+    private StrategyChart hitSoft17Chart = StrategyChart.load(DEFAULT_H17_CHART);
+    private StrategyChart standSoft17Chart = StrategyChart.load(DEFAULT_S17_CHART);
+    private DeviationChart hitSoft17Deviations = DeviationChart.load(DEFAULT_H17_DEVIATIONS);
+    private DeviationChart standSoft17Deviations = DeviationChart.load(DEFAULT_S17_DEVIATIONS);
+    private SimulationExecutor executor = new SimulationExecutor();
+    private final DealerOutcomeCalculator dealerOutcomes = new DealerOutcomeCalculator();
+    private final ExpectedValueSolver solver = new ExpectedValueSolver(dealerOutcomes);
+    private StrategyMetrics metrics = new StrategyMetrics();
+    /** Infinite-deck responses of every opening hand, per rules, for serving under load */
+    private final Map<TableRules, StrategyResponse[]> approximateTables = new ConcurrentHashMap<>();
+
+    /**
+     * Method to set the metrics that request and estimator timings are recorded in.
+     * @param metrics the StrategyMetrics to record in
      */
-    public StrategyService() {
-        this.random = new Random();
+    @Autowired
+    public void setMetrics(StrategyMetrics metrics) {
+        this.metrics = metrics;
     }
-    
-    /** 
-     * Constructor to initialize the StrategyService with a provided Random instance (for testing).
-     * Injecting Random allows for deterministic testing cleanly.
-     * @param random a Random instance to use for simulations
+
+    /**
+     * Method to set the executor that strategy computations are submitted to.
+     * @param executor the SimulationExecutor to run computations on
      */
-    public StrategyService(Random random) {
-        this.random = random;
+    @Autowired
+    public void setExecutor(SimulationExecutor executor) {
+        this.executor = executor;
     }
 
     /**
-     * Method to get the recommended strategy and statistics based on the player's hand and dealer's up card.
+     * Method to get the executor that strategy computations are submitted to, which also admits them.
+     * @return the SimulationExecutor
+     */
+    public SimulationExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Method to set the basic strategy chart used when the dealer hits soft 17.
+     * @param resource the classpath location of the chart
+     * @throws IllegalArgumentException if the chart is missing or malformed
+     */
+    @Value("${strategy.chart.h17:" + DEFAULT_H17_CHART + "}")
+    public void setHitSoft17Chart(String resource) {
+        this.hitSoft17Chart = StrategyChart.load(resource);
+    }
+
+    /**
+     * Method to set the basic strategy chart used when the dealer stands on soft 17.
+     * @param resource the classpath location of the chart
+     * @throws IllegalArgumentException if the chart is missing or malformed
+     */
+    @Value("${strategy.chart.s17:" + DEFAULT_S17_CHART + "}")
+    public void setStandSoft17Chart(String resource) {
+        this.standSoft17Chart = StrategyChart.load(resource);
+    }
+
+    /**
+     * Method to set the count-indexed deviations used when the dealer hits soft 17.
+     * @param resource the classpath location of the deviations
+     * @throws IllegalArgumentException if the deviations are missing or malformed
+     */
+    @Value("${strategy.deviations.h17:" + DEFAULT_H17_DEVIATIONS + "}")
+    public void setHitSoft17Deviations(String resource) {
+        this.hitSoft17Deviations = DeviationChart.load(resource);
+    }
+
+    /**
+     * Method to set the count-indexed deviations used when the dealer stands on soft 17.
+     * @param resource the classpath location of the deviations
+     * @throws IllegalArgumentException if the deviations are missing or malformed
+     */
+    @Value("${strategy.deviations.s17:" + DEFAULT_S17_DEVIATIONS + "}")
+    public void setStandSoft17Deviations(String resource) {
+        this.standSoft17Deviations = DeviationChart.load(resource);
+    }
+
+    /**
+     * Method to get the recommended strategy and statistics based on the player's hand and dealer's up card,
+     * using the default table rules.
      * @param request a StrategyRequest containing the player's cards and dealer's up card
      * @return a StrategyResponse containing the recommended move and statistics
      */
     public StrategyResponse getStrategy(StrategyRequest request) {
+        return getStrategy(request, TableRules.DEFAULT);
+    }
+
+    /**
+     * Method to get the recommended strategy and statistics based on the player's hand and dealer's up card.
+     * @param request a StrategyRequest containing the player's cards and dealer's up card
+     * @param rules the TableRules to play by
+     * @return a StrategyResponse containing the recommended move and statistics
+     */
+    public StrategyResponse getStrategy(StrategyRequest request, TableRules rules) {
+        return getStrategy(request, rules, snapshot -> { });
+    }
+
+    /**
+     * Method to get the recommended strategy and statistics, reporting snapshots of the response while the
+     * expected values are solved. The first snapshot carries the exact dealer statistics and bust chance with the
+     * basic strategy move as its recommendation, and one more follows as each legal action (stand, hit, double,
+     * split, surrender) is solved, adding the expected values solved so far. The final response replaces the
+     * recommendation with the move of highest expected value for this shoe.
+     * @param request a StrategyRequest containing the player's cards and dealer's up card
+     * @param rules the TableRules to play by
+     * @param progress called on the calling thread with a copy of the response before the solver runs and after
+     *                 each action is solved
+     * @return the final StrategyResponse
+     */
+    public StrategyResponse getStrategy(StrategyRequest request, TableRules rules, Consumer<StrategyResponse> progress) {
+        long start = System.nanoTime();
         Hand playerHand = new Hand();
-        playerHand.addCard(new Card(request.getCard1()));
-        playerHand.addCard(new Card(request.getCard2()));
+        for (String card : request.getPlayerCards()) {
+            playerHand.addCard(new Card(card));
+        }
+        int hands = request.getHandsInPlay();
+        boolean canDouble = request.isDoubleAllowed(rules);
 
         Card dealerCard = new Card(request.getDealerCard());
 
-        StrategyResponse response = new StrategyResponse();
+        // Remove the visible cards so every estimate draws from what is actually left in the shoe
+        Shoe shoe = rules.newShoe();
+        for (Card card : playerHand.getCards()) {
+            shoe.remove(card.getRankIndex());
+        }
+        shoe.remove(dealerCard.getRankIndex());
+        shoe.mark();
 
-        // Get recommended move using real basic strategy
-        String move = getBasicStrategyMove(playerHand, dealerCard);
-        response.setRecommendedMove(move);
+        StrategyResponse response = new StrategyResponse();
+        response.setRulesProfile(rules.getName());
+        response.setBustPercentage(getBustChance(playerHand.getPacked(), shoe));
+
+        // One exact dealer distribution for this shoe feeds the dealer statistics and the solver
+        long phase = System.nanoTime();
+        DealerOutcome dealerOutcome = dealerOutcomes.getOutcome(dealerCard, shoe, rules.isHitSoft17());
+        record(StrategyMetrics.DEALER_OUTCOME, dealerCard, phase);
+        response.setDealerBustPercentage(dealerOutcome.getBustProbability());
+        response.setDealerMakesHandPercentage(dealerOutcome.getMakesHandProbability());
+
+        // Until the solver has run, the chart's move is the best recommendation there is
+        Move basicMove = getBasicStrategyMove(playerHand.getPacked(), dealerCard.getValue(), request.isOpeningHand(),
+                canDouble, rules);
+        response.setBasicStrategyMove(basicMove.getLabel());
+        response.setRecommendedMove(basicMove.getLabel());
+        response.setExplanation(explainMove(basicMove, playerHand, playerHand.getValue(), playerHand.isSoft()));
+        progress.accept(new StrategyResponse(response));
+
+        // Solve every legal action exactly and recommend the one with the highest expected value
+        phase = System.nanoTime();
+        Map<Move, Double> actionValues = solver.solve(playerHand.getPacked(), dealerCard, shoe, rules, dealerOutcome,
+                hands, canDouble, solved -> {
+                    StrategyResponse snapshot = new StrategyResponse(response);
+                    snapshot.setActionExpectedValues(labelled(solved));
+                    progress.accept(snapshot);
+                });
+        record(StrategyMetrics.EXPECTED_VALUE, dealerCard, phase);
+        Move move = bestMove(actionValues);
+        response.setRecommendedMove(move.getLabel());
+        response.setActionExpectedValues(labelled(actionValues));
+        response.setExpectedValue(actionValues.get(move));
 
-        // Example placeholder values for bust chance and EV
-        response.setBustPercentage(estimatePlayerBustChance(playerHand));
-        response.setDealerBustPercentage(estimateDealerBustChance(dealerCard));
-        response.setExpectedValue(estimateExpectedValue(playerHand, dealerCard));
-        response.setDealerMakesHandPercentage(estimateDealerMakesHandChance(dealerCard));
         response.setExplanation(explainMove(move, playerHand, playerHand.getValue(), playerHand.isSoft()));
+
+        metrics.recordRequest(dealerCard, rules, System.nanoTime() - start);
         return response;
     }
 
     /**
-     * Method to determine the basic strategy move based on player's hand and dealer's up card.
-     * @param hand the player's Hand
-     * @param dealerCard the dealer's up Card
-     * @return the recommended move as a String ("hit", "stand", "double down", "split")
+     * Method to get a quick approximation of the strategy, for use while the server is under load: the basic
+     * strategy move with the dealer statistics and bust chance for an infinite deck rather than for the shoe left
+     * after the visible cards. Opening hands are read from the infinite-deck table built by
+     * prepareApproximateStrategy, which also holds their expected values. Other hands, or opening hands before
+     * the table is prepared, skip the expected values: the solver never runs here, so the response takes
+     * microseconds. The response is flagged as approximate.
+     * @param request a StrategyRequest containing the player's cards and dealer's up card
+     * @param rules the TableRules to play by
+     * @return the approximate StrategyResponse, shared and not to be modified if it was read from the table
      */
-    private String getBasicStrategyMove(Hand hand, Card dealerCard) {
-        int playerTotal = hand.getValue();
-        boolean isSoft = hand.isSoft();
-        int dealerValue = dealerCard.getValue();
-        if (dealerValue > 10) dealerValue = 10; // Face cards normalize to 10
-        
-        // Check for pairs first and handle splits
-        if (hand.getCards().size() == 2 && hand.getCards().get(0).getRank().equals(hand.getCards().get(1).getRank())) {
-            if (playerTotal == 20) 
-                return "stand"; // Pair of 10s
-            else if (playerTotal == 22) 
-                return "split"; // Pair of Aces
-            else if (playerTotal == 18)
-                if (dealerValue == 7 || dealerValue == 10 || dealerValue == 11) // Ace
-                    return "stand";
-                else 
-                    return "split"; // Pair of 9s
-            else if (playerTotal == 16)
-                return "split";
-            else if (playerTotal == 14)
-                if (dealerValue >= 2 && dealerValue <= 7)
-                    return "split";
-                else 
-                    return "hit";
-            else if (playerTotal == 12)
-                if (dealerValue >= 2 && dealerValue <= 6)
-                    return "split";
-                else 
-                    return "hit";
-            else if (playerTotal == 10)
-                if (dealerValue >= 2 && dealerValue <= 9)
-                    return "double down";
-                else 
-                    return "hit";
-            else if (playerTotal == 8)
-                return "hit";
-            else if (playerTotal == 4)
-                if (dealerValue >= 4 && dealerValue <= 6)
-                    return "split";
-                else 
-                    return "hit";
-            else if (playerTotal == 6)
-                if (dealerValue >= 4 && dealerValue <= 6)
-                    return "split";
-                else 
-                    return "hit";
-            return "split"; // Otherwise, split pairs
-        }
-
-        // Hard hands (first, non-soft hands)
-        if (!isSoft) {
-            if (playerTotal <= 8)
-                return "hit";
-            else if (playerTotal == 9) 
-                return (dealerValue >= 3 && dealerValue <= 6) ? "double down" : "hit";
-            else if (playerTotal == 10) 
-                return (dealerValue <= 9) ? "double down" : "hit";
-            else if (playerTotal == 11) 
-                return "double down";
-            else if (playerTotal == 12) 
-                return (dealerValue >= 4 && dealerValue <= 6) ? "stand" : "hit";
-            else if (playerTotal >= 13 && playerTotal <= 16) 
-                return (dealerValue >= 2 && dealerValue <= 6) ? "stand" : "hit";
-            return "stand"; // 17+
+    public StrategyResponse getApproximateStrategy(StrategyRequest request, TableRules rules) {
+        StrategyResponse[] table = approximateTables.get(rules);
+        if (table != null && request.isOpeningHand() && request.isDoubleAllowed(rules)) {
+            List<String> cards = request.getPlayerCards();
+            return table[approximateIndex(new Card(cards.get(0)), new Card(cards.get(1)),
+                    new Card(request.getDealerCard()))];
         }
+        StrategyResponse response = approximate(request, rules);
+        // Not known without the solver
+        response.setExpectedValue(Double.NaN);
+        return response;
+    }
 
-        // Soft hands (contains an Ace counted as 11)
-        if (isSoft) {
-            if (playerTotal <= 17) 
-                return (dealerValue >= 4 && dealerValue <= 6) ? "double down" : "hit";
-            else if (playerTotal == 18) {
-                if (dealerValue >= 9 || dealerValue == 10 || dealerValue == 11) // Ace
-                    return "hit";
-                else if (dealerValue >= 3 && dealerValue <= 6) // dealer 3–6
-                    return "double down";
-                else
-                    return "stand";
-            }
-            return "stand"; // 19+
-        }
-        return "stand"; 
+    /**
+     * Method to build the infinite-deck table that getApproximateStrategy serves opening hands from, with the
+     * expected values of every legal action, unless it is already built for these rules. Building takes tens
+     * of milliseconds, so it is done ahead of time rather than while the server is under load.
+     * @param rules the TableRules to build the table for
+     */
+    public void prepareApproximateStrategy(TableRules rules) {
+        approximateTables.computeIfAbsent(rules, this::buildApproximateTable);
     }
 
     /**
-     * Method to estimate the player's bust chance using Monte Carlo simulation.
-     * @param playerHand the player's Hand
-     * @return the estimated bust chance as a double (0.0 to 1.0)
+     * Method to compute the infinite-deck response of every opening hand and dealer up card.
+     * @param rules the TableRules to play by
+     * @return the responses, indexed as described in approximateIndex
      */
-    private double estimatePlayerBustChance(Hand playerHand) {
-        int busts = 0;
-        for (int i = 0; i < SIMULATIONS; i++) {
-            Hand copy = new Hand(playerHand);
-            Card nextCard = drawRandomCard(); // Simulate drawing a random card
-            copy.addCard(nextCard);
-            if (copy.getValue() > 21) {
-                busts++;
+    private StrategyResponse[] buildApproximateTable(TableRules rules) {
+        String[] ranks = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "A"};
+        Shoe infinite = new Shoe(0, rules.getPenetration());
+        StrategyResponse[] table = new StrategyResponse[ranks.length * ranks.length * ranks.length];
+        for (String card1 : ranks) {
+            for (String card2 : ranks) {
+                for (String dealer : ranks) {
+                    StrategyRequest request = new StrategyRequest(card1, card2, dealer);
+                    StrategyResponse response = approximate(request, rules);
+                    Hand hand = new Hand();
+                    hand.addCard(new Card(card1));
+                    hand.addCard(new Card(card2));
+                    Card dealerCard = new Card(dealer);
+                    Map<Move, Double> actionValues = solver.solve(hand.getPacked(), dealerCard, infinite, rules,
+                            dealerOutcomes.getOutcome(dealerCard, rules.isHitSoft17()), 1,
+                            request.isDoubleAllowed(rules));
+                    response.setActionExpectedValues(labelled(actionValues));
+
+                    // The chart and the solver agree on what is legal, fall back to the best action if they do not
+                    Move move = Move.fromLabel(response.getRecommendedMove());
+                    double ev = actionValues.getOrDefault(move, actionValues.get(bestMove(actionValues)));
+                    response.setExpectedValue(ev);
+                    table[approximateIndex(new Card(card1), new Card(card2), dealerCard)] = response;
+                }
             }
         }
-        return (double) busts / SIMULATIONS;
+        return table;
     }
 
-    /** 
-     * Method to estimate the dealer's bust chance using Monte Carlo simulation.
-     * @param dealerCard the dealer's up Card
-     * @return the estimated bust chance as a double (0.0 to 1.0)
+    /**
+     * Method to get the approximate response of a request without any expected value: the basic strategy move,
+     * the infinite-deck dealer statistics and the infinite-deck bust chance.
+     * @param request a StrategyRequest containing the player's cards and dealer's up card
+     * @param rules the TableRules to play by
+     * @return a new approximate StrategyResponse
      */
-    private double estimateDealerBustChance(Card dealerCard) {
-        int busts = 0;
-        for (int i = 0; i < SIMULATIONS; i++) {
-            Hand dealerHand = new Hand();
-            dealerHand.addCard(dealerCard);
-            // Simulate drawing cards until the dealer stands or busts
-            while (dealerHand.getValue() < 17 || (dealerHand.getValue() == 17 && dealerHand.isSoft())) {
-                dealerHand.addCard(drawRandomCard());
-            }
-
-            if (dealerHand.getValue() > 21) busts++;
+    private StrategyResponse approximate(StrategyRequest request, TableRules rules) {
+        Hand playerHand = new Hand();
+        for (String card : request.getPlayerCards()) {
+            playerHand.addCard(new Card(card));
         }
-        return (double) busts / SIMULATIONS;
+        int hand = playerHand.getPacked();
+        Card dealerCard = new Card(request.getDealerCard());
+
+        StrategyResponse response = new StrategyResponse();
+        DealerOutcome dealerOutcome = dealerOutcomes.getOutcome(dealerCard, rules.isHitSoft17());
+        response.setDealerBustPercentage(dealerOutcome.getBustProbability());
+        response.setDealerMakesHandPercentage(dealerOutcome.getMakesHandProbability());
+
+        response.setBustPercentage(getBustChance(hand, new Shoe(0, rules.getPenetration())));
+
+        Move move = getBasicStrategyMove(hand, dealerCard.getValue(), request.isOpeningHand(),
+                request.isDoubleAllowed(rules), rules);
+        response.setRecommendedMove(move.getLabel());
+        response.setBasicStrategyMove(move.getLabel());
+        response.setRulesProfile(rules.getName());
+        response.setExplanation(explainMove(move, playerHand, playerHand.getValue(), playerHand.isSoft()));
+        response.setApproximate(true);
+        return response;
     }
-    
+
     /**
-     * Method to draw a random card (for simulation purposes).
-     * @return a randomly drawn Card
+     * Method to get the position of an opening hand in an approximate table. Ten-valued cards share a slot.
+     * @param card1 the first player Card
+     * @param card2 the second player Card
+     * @param dealerCard the dealer's up Card
+     * @return the position in the table
      */
-    public Card drawRandomCard() {
-        String[] ranks = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"};
-        return new Card(ranks[random.nextInt(ranks.length)]);
+    private static int approximateIndex(Card card1, Card card2, Card dealerCard) {
+        return ((card1.getValue() - 2) * 10 + card2.getValue() - 2) * 10 + dealerCard.getValue() - 2;
     }
 
-    /** 
-     * Method to estimate the expected value of the player's hand against the dealer's up card using Monte Carlo simulation.
-     * @param originalHand the player's original Hand
+    /**
+     * Method to record the time an estimator took since it started.
+     * @param estimator the estimator index, as defined in StrategyMetrics
      * @param dealerCard the dealer's up Card
-     * @return the estimated expected value as a double
+     * @param started the System.nanoTime() at which the estimator started
      */
-    private double estimateExpectedValue(Hand originalHand, Card dealerCard) {
-        double totalEV = 0;
-        for (int i = 0; i < SIMULATIONS; i++) {
-            Hand player = new Hand(originalHand); // Clone
-            Hand dealer = new Hand();
-            dealer.addCard(dealerCard);
-            dealer.addCard(drawRandomCard());
-
-            double bet = 1.0;
-
-            boolean playerBJ = player.isBlackjack();
-            boolean dealerBJ = (dealer.getValue() == 21 && dealer.getCards().size() == 2);
-
-            // Handle blackjacks
-            if (playerBJ && !dealerBJ) {
-                totalEV += 1.5 * bet;
-                continue;
-            } else if (playerBJ && dealerBJ) {
-                totalEV += 0.0; // Push
-                continue;
-            }
-
-            // Handle splits (assume no resplit, and 1 simulation per split hand)
-            if (player.canSplit()) {
-                String move = getBasicStrategyMove(player, dealerCard);
-                if (move.equals("split")) {
-                    Card newCard1 = drawRandomCard();
-                    Card newCard2 = drawRandomCard();
-
-                    Hand split1 = new Hand();
-                    split1.addCard(player.getCards().get(0));
-                    split1.addCard(newCard1);
-
-                    Hand split2 = new Hand();
-                    split2.addCard(player.getCards().get(1));
-                    split2.addCard(newCard2);
-
-                    totalEV += simulateHandEV(split1, dealerCard, bet);
-                    totalEV += simulateHandEV(split2, dealerCard, bet);
-                    continue;
-                }
-            }
-
-            // Handle double down
-            String firstMove = getBasicStrategyMove(player, dealerCard);
-            if (firstMove.equals("double down")) {
-                player.addCard(drawRandomCard());
-                bet *= 2;
-            } else {
-                while (getBasicStrategyMove(player, dealerCard).equals("hit") && player.getValue() < 21) {
-                    player.addCard(drawRandomCard());
-                }
-            }
+    private void record(int estimator, Card dealerCard, long started) {
+        metrics.recordEstimator(estimator, dealerCard, System.nanoTime() - started);
+    }
 
-            // Bust
-            if (player.getValue() > 21) {
-                totalEV -= bet;
-                continue;
-            }
+    /**
+     * Method to key expected values by the label of their action, keeping the solver's order.
+     * @param actionValues the expected value of each solved action
+     * @return the expected values keyed by action label
+     */
+    private static Map<String, Double> labelled(Map<Move, Double> actionValues) {
+        Map<String, Double> labelledValues = new LinkedHashMap<>();
+        actionValues.forEach((action, value) -> labelledValues.put(action.getLabel(), value));
+        return labelledValues;
+    }
 
-            // Dealer plays
-            while (dealer.getValue() < 17 || (dealer.getValue() == 17 && dealer.isSoft())) {
-                dealer.addCard(drawRandomCard());
+    /**
+     * Method to pick the action with the highest expected value. Ties go to the action listed first.
+     * @param actionValues the expected value of each legal action
+     * @return the recommended Move
+     */
+    private static Move bestMove(Map<Move, Double> actionValues) {
+        Move best = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (Map.Entry<Move, Double> entry : actionValues.entrySet()) {
+            if (entry.getValue() > bestValue) {
+                best = entry.getKey();
+                bestValue = entry.getValue();
             }
-
-            int playerVal = player.getValue();
-            int dealerVal = dealer.getValue();
-
-            if (dealerVal > 21) totalEV += bet;
-            else if (playerVal > dealerVal) totalEV += bet;
-            else if (playerVal < dealerVal) totalEV -= bet;
-            else totalEV += 0.0;
         }
-        return totalEV / SIMULATIONS;
+        return best;
     }
-    
+
     /**
-     * Method to simulate a single hand's expected value against the dealer's up card.
-     * @param hand the player's Hand
-     * @param dealerCard the dealer's up Card
-     * @param bet the bet amount
-     * @return the expected value of the hand as a double
+     * Method to get the basic strategy chart for a set of rules.
+     * @param rules the TableRules to play by
+     * @return the StrategyChart for the table's soft 17 rule
      */
-    private double simulateHandEV(Hand hand, Card dealerCard, double bet) {
-        Hand player = new Hand(hand);
-        Hand dealer = new Hand();
-        dealer.addCard(dealerCard);
-        dealer.addCard(drawRandomCard());
-
-        // Simulate player moves
-        while (getBasicStrategyMove(player, dealerCard).equals("hit") && player.getValue() < 21) {
-            player.addCard(drawRandomCard());
-        }
+    public StrategyChart getChart(TableRules rules) {
+        return rules.isHitSoft17() ? hitSoft17Chart : standSoft17Chart;
+    }
 
-        if (player.getValue() > 21) return -bet;
+    /**
+     * Method to get the count-indexed deviations for a set of rules.
+     * @param rules the TableRules to play by
+     * @return the DeviationChart for the table's soft 17 rule
+     */
+    public DeviationChart getDeviations(TableRules rules) {
+        return rules.isHitSoft17() ? hitSoft17Deviations : standSoft17Deviations;
+    }
 
-        while (dealer.getValue() < 17 || (dealer.getValue() == 17 && dealer.isSoft())) {
-            dealer.addCard(drawRandomCard());
+    /**
+     * Method to determine the move for a request at a true count: the basic strategy move, changed by any
+     * count-indexed deviation that applies.
+     * @param request a valid StrategyRequest containing the player's cards and dealer's up card
+     * @param rules the TableRules to play by
+     * @param trueCount the true count of the shoe
+     * @return the recommended Move
+     */
+    public Move getCountedMove(StrategyRequest request, TableRules rules, double trueCount) {
+        int hand = PackedHand.EMPTY;
+        for (String card : request.getPlayerCards()) {
+            hand = PackedHand.addRank(hand, Card.parseRank(card));
         }
-
-        int p = player.getValue(), d = dealer.getValue();
-        if (d > 21) return bet;
-        if (p > d) return bet;
-        if (p < d) return -bet;
-        return 0.0;
+        boolean firstDecision = request.isOpeningHand();
+        return getDeviations(rules).move(getChart(rules), hand, new Card(request.getDealerCard()).getValue(),
+                firstDecision && rules.getMaxSplitHands() >= 2, request.isDoubleAllowed(rules),
+                firstDecision && rules.isLateSurrender(), trueCount);
     }
-    
+
     /**
-     * Method to estimate the chance that the dealer makes a hand (17-21) using Monte Carlo simulation.
-     * @param dealerCard the dealer's up Card
-     * @return the estimated chance as a double (0.0 to 1.0)
+     * Method to determine the basic strategy move based on player's hand and dealer's up card, read from the
+     * chart for the table's soft 17 rule.
+     * @param hand the player's hand, packed as described in PackedHand
+     * @param dealerValue the value of the dealer's up card (2-10, 11 for an Ace)
+     * @param firstDecision true for the opening decision on the first two cards, where a pair may be split
+     *                      and surrender is offered, false to play the hand as a regular total
+     * @param canDouble true if the hand may be doubled
+     * @param rules the TableRules to play by
+     * @return the recommended Move
      */
-    private double estimateDealerMakesHandChance(Card dealerCard) {
-        int makesHand = 0;
-
-        for (int i = 0; i < SIMULATIONS; i++) {
-            Hand dealer = new Hand();
-            dealer.addCard(dealerCard);
-            dealer.addCard(drawRandomCard());
-
-            while (dealer.getValue() < 17 || (dealer.getValue() == 17 && dealer.isSoft())) {
-                dealer.addCard(drawRandomCard());
-            }
+    private Move getBasicStrategyMove(int hand, int dealerValue, boolean firstDecision, boolean canDouble,
+            TableRules rules) {
+        return getChart(rules).move(hand, dealerValue, firstDecision && rules.getMaxSplitHands() >= 2, canDouble,
+                firstDecision && rules.isLateSurrender());
+    }
 
-            int total = dealer.getValue();
-            if (total >= 17 && total <= 21) {
-                makesHand++;
+    /**
+     * Method to calculate the chance that the player's hand busts on the next card. The chance is exact:
+     * the share of the cards left in the shoe that take the hand over 21.
+     * @param playerHand the player's hand, packed as described in PackedHand
+     * @param shoe the cards left in the shoe, every rank equally likely if it is infinite
+     * @return the bust chance (0.0 to 1.0)
+     */
+    private static double getBustChance(int playerHand, Shoe shoe) {
+        int busting = 0;
+        int cards = 0;
+        for (int rank = 0; rank < Card.RANKS; rank++) {
+            int count = shoe.isInfinite() ? 1 : shoe.count(rank);
+            cards += count;
+            if (PackedHand.isBusted(PackedHand.addRank(playerHand, rank))) {
+                busting += count;
             }
         }
-        return (double) makesHand / SIMULATIONS;
+        return cards == 0 ? 0.0 : (double) busting / cards;
     }
-    
+
     /**
      * Method to provide an explanation for the recommended move.
-     * @param move the recommended move as a String
+     * @param move the recommended Move
+     * @param playerHand the player's Hand
      * @param playerTotal the player's total hand value
      * @param isSoft boolean indicating if the hand is soft
      * @return an explanation as a String
      */
-    private String explainMove(String move, Hand playerHand, int playerTotal, boolean isSoft) {
-        if ("hit".equals(move) && isSoft) {
+    private String explainMove(Move move, Hand playerHand, int playerTotal, boolean isSoft) {
+        if (move == Move.HIT && isSoft) {
             return "You have a soft hand (an Ace counted as 11). You should take another card to try to improve your hand without the risk of busting.";
-        } else if ("double down".equals(move) && isSoft) {
+        } else if (move == Move.DOUBLE_DOWN && isSoft) {
             return "You have a soft hand (an Ace counted as 11). Doubling down allows you to take advantage of your flexible "
                     + "hand to potentially make a strong total with one more card. The dealer has a high chance of busting or making a weaker hand.";
-        } else if (("stand".equals(move) && isSoft && (playerTotal == 19 || playerTotal == 20))) {
+        } else if ((move == Move.STAND && isSoft && (playerTotal == 19 || playerTotal == 20))) {
             return "You have a strong soft hand with an Ace counted as 11. You should keep your current hand and not take any more cards. "
                     + "You are unlikely to make your hand better by hitting. The dealer has a high chance of busting or making a weaker hand.";
-        } else if ("hit".equals(move) && playerTotal <= 10) {
+        } else if (move == Move.HIT && playerTotal <= 10) {
             return "You should take another card to try to improve your hand. You will not bust with one more card.";
-        } else if ("hit".equals(move) && (playerTotal == 12 || playerTotal == 13)) {
+        } else if (move == Move.HIT && (playerTotal == 12 || playerTotal == 13)) {
             return "You should take another card to try to improve your hand as your bust probability is low and"
                     + "the dealer has over a 60% probability of making a hand. However, the expected value of hitting is negative.";
-        } else if ("hit".equals(move) && playerTotal >= 13) {
+        } else if (move == Move.HIT && playerTotal >= 13) {
             return "Even though your chance of busting is higher, you should take another card to "
                     + "try to improve your hand as the dealer has a very high probability of making a hand.";
-        } else if ("stand".equals(move) && playerTotal == 21) {
+        } else if (move == Move.STAND && playerTotal == 21 && !playerHand.isBlackjack()) {
+            return "You have 21. You should keep your current hand and not take any more cards, any card would lower your total.";
+        } else if (move == Move.STAND && playerTotal == 21) {
             return "You have a Blackjack! You should keep your current hand and not take any more cards. "
                     + " You will win unless the dealer also has a Blackjack, which is a push.";
-        } else if ("stand".equals(move) && playerTotal == 20 && !isSoft) {
+        } else if (move == Move.STAND && playerTotal == 20 && !isSoft) {
             return "You should keep your current hand and not take any more cards. 20 is a very strong hand, "
                     + "and the dealer has a high chance of busting or making a weaker hand. Do not split 10s as it reduces your expected value.";
-        } else if ("stand".equals(move)) {
+        } else if (move == Move.STAND) {
             return "You should keep your current hand and not take any more cards. You are at risk of busting if you take another card."
                     + " The dealer may make their hand, but your expected value is higher by standing and not risking a bust.";
-        } else if ("double down".equals(move) && playerTotal == 11) {
+        } else if (move == Move.DOUBLE_DOWN && playerTotal == 11) {
             return "You should always double down on 11. You have a high chance of making a strong hand with one more card, "
                     + "and the dealer has a high chance of busting or making a weaker hand.";
-        } else if ("double down".equals(move) && playerTotal == 10) {
+        } else if (move == Move.DOUBLE_DOWN && playerTotal == 10) {
             return "You should double down on 10 unless the dealer has a 10 or Ace showing. "
                     + "You have a good chance of making a strong hand with one more card, "
                     + "and the dealer has a high chance of busting or making a weaker hand.";
-        } else if ("double down".equals(move) && playerTotal == 9) {
+        } else if (move == Move.DOUBLE_DOWN && playerTotal == 9) {
             return "You should double down on 9 if the dealer has a 3, 4, 5, or 6 showing. "
                     + "You have a decent chance of making a strong hand with a max range of 19 or 20 with one more card, "
                     + "and the dealer has a high chance of busting or making a weaker hand.";
-        } else if ("double down".equals(move)) {
+        } else if (move == Move.DOUBLE_DOWN) {
             return "You should double your bet and take exactly one more card.";
-        } else if ("split".equals(move) && playerHand.getCards().size() == 2 &&
+        } else if (move == Move.SPLIT && playerHand.getCards().size() == 2 &&
                 playerHand.getCards().get(0).getRank().equals("A") &&
                 playerHand.getCards().get(1).getRank().equals("A")) {
            return "You have a pair of aces. Always split aces to maximize your chances of making a strong hand as you're likely"
                    + " to get a 10-value card on one or both hands. Each ace can then count as 11.";
-        } else if ("split".equals(move) && playerTotal == 16) {
+        } else if (move == Move.SPLIT && playerTotal == 16) {
             return "Always split 8s. 16 is the worst hand in blackjack, and splitting gives you a chance to improve both hands.";
-        } else if ("split".equals(move)){
+        } else if (move == Move.SURRENDER) {
+            return "You should surrender, giving up half your bet to end the hand now. Against this dealer card "
+                    + "you lose more than half your bet on average by playing the hand out.";
+        } else if (move == Move.SPLIT){
             return "Splitting gives you a chance to improve both hands. Dealer has a chance of busting or making a weaker hand.";
         } else {
             return "No specific recommendation available.";
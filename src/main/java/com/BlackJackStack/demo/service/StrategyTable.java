@@ -0,0 +1,371 @@
+package com.BlackJackStack.demo.service;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.StrategyRequest;
+import com.BlackJackStack.demo.model.StrategyResponse;
+import com.BlackJackStack.demo.model.TableRules;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service class that holds a precomputed StrategyResponse for every two-card starting hand and dealer up card.
+ * The table is a flat array indexed by (card1, card2, dealer) card values, so a lookup is a single array read.
+ * Decisions later in a hand, after a split or without the option to double are served from StrategyCache.
+ * There is one table per set of table rules: the default profile is loaded in the background at startup,
+ * other profiles the first time they are requested. Requests fall back to StrategyCache (and so to
+ * StrategyService) while no table is available for their rules. When the rule values of a profile change while
+ * the application runs, its table is dropped and, if it was loaded, rebuilt in the background; requests are
+ * served from StrategyCache for the new rules meanwhile. A change to the charts takes effect on restart.
+ * <p>
+ * Tables are held as StrategyTableFile. When strategy.table.directory is set, a table is memory-mapped from
+ * its file in that directory if one was written for the same rules, solver version and basic strategy chart,
+ * and otherwise built and then written there,
+ * so only the first start on a host pays for the build. The files can also be written ahead of time with the
+ * "generate-tables" profile (see StrategyTableGenerator).
+ */
+@Service
+public class StrategyTable {
+
+    private static final Logger log = LoggerFactory.getLogger(StrategyTable.class);
+
+    /** Number of distinct card values: 2-9, ten-valued cards and Ace */
+    private static final int VALUES = 10;
+    /** One representative rank per card value, in index order */
+    private static final String[] RANKS = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "A"};
+
+    private final StrategyService strategyService;
+    private final TableRulesRegistry rulesRegistry;
+    private final StrategyMetrics metrics;
+    private final StrategyCache cache;
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "strategy-table-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${strategy.table.precompute:true}")
+    private boolean precompute;
+    /** Directory of the table files, or empty to keep tables in memory only */
+    @Value("${strategy.table.directory:}")
+    private String directory = "";
+
+    /** The current table of each rules profile loaded so far. Entries are shared and must not be modified. */
+    private final Map<TableRules, StrategyTableFile> tables = new ConcurrentHashMap<>();
+    /** Rules whose table is queued or being built, so each one is only scheduled once */
+    private final Set<TableRules> building = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs a StrategyTable backed by the given StrategyService.
+     * @param strategyService the service used to compute each table entry
+     * @param rulesRegistry the registry used to resolve the rules profile of each request
+     */
+    public StrategyTable(StrategyService strategyService, TableRulesRegistry rulesRegistry) {
+        this(strategyService, rulesRegistry, new StrategyMetrics());
+    }
+
+    /**
+     * Constructs a StrategyTable backed by the given StrategyService, counting table hits and misses.
+     * @param strategyService the service used to compute each table entry
+     * @param rulesRegistry the registry used to resolve the rules profile of each request
+     * @param metrics the StrategyMetrics that table lookups are counted in
+     */
+    public StrategyTable(StrategyService strategyService, TableRulesRegistry rulesRegistry, StrategyMetrics metrics) {
+        this(strategyService, rulesRegistry, metrics, new StrategyCache(strategyService, metrics));
+    }
+
+    /**
+     * Constructs a StrategyTable backed by the given StrategyService, serving requests without a table from
+     * the given cache.
+     * @param strategyService the service used to compute each table entry
+     * @param rulesRegistry the registry used to resolve the rules profile of each request
+     * @param metrics the StrategyMetrics that table lookups are counted in
+     * @param cache the StrategyCache used while no table is available for a request's rules
+     */
+    @Autowired
+    public StrategyTable(StrategyService strategyService, TableRulesRegistry rulesRegistry, StrategyMetrics metrics,
+            StrategyCache cache) {
+        this.strategyService = strategyService;
+        this.rulesRegistry = rulesRegistry;
+        this.metrics = metrics;
+        this.cache = cache;
+    }
+
+    /**
+     * Method to start loading the table once the application is ready to serve requests.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (precompute) {
+            load(rulesRegistry.getDefaultRules());
+        }
+    }
+
+    /**
+     * Method to rebuild the table of a profile in the background after its rule values changed. The table
+     * of the previous rules is dropped; a new one is loaded if the previous one was loaded or queued, or if
+     * the profile is the default one and tables are precomputed.
+     * @param event the TableRulesChangedEvent published by TableRulesRegistry
+     */
+    @EventListener
+    public void onRulesChanged(TableRulesChangedEvent event) {
+        boolean loaded = tables.remove(event.getPrevious()) != null || building.contains(event.getPrevious());
+        if (loaded || (precompute && event.getRules().equals(rulesRegistry.getDefaultRules()))) {
+            log.info("Rules profile {} changed from {}, rebuilding its strategy table", event.getRules().getName(),
+                    event.getPrevious());
+            load(event.getRules());
+        }
+    }
+
+    /**
+     * Method to set the directory of the table files (for testing).
+     * @param directory the directory, or null or empty to keep tables in memory only
+     */
+    public void setDirectory(String directory) {
+        this.directory = directory == null ? "" : directory;
+    }
+
+    /**
+     * Method to load the table for one set of rules in the background, from its file if one was written for
+     * these rules with the current solver and chart, and by building it otherwise, unless it is already queued.
+     * @param rules the TableRules to load the table for
+     */
+    public void load(TableRules rules) {
+        schedule(rules);
+    }
+
+    /**
+     * Method to build the table for one set of rules and write its file, waiting for the build to complete.
+     * @param rules the TableRules to build the table for
+     * @return the file written, or null if no table directory is configured
+     */
+    public Path generate(TableRules rules) {
+        StrategyTableFile table = StrategyTableFile.encode(rules, chartFingerprint(rules), build(rules));
+        Path file = tableFile(rules);
+        if (file != null) {
+            table.writeTo(file);
+        }
+        tables.put(rules, table);
+        return file;
+    }
+
+    /**
+     * Method to queue loading or building the table for one set of rules on the loader thread.
+     * @param rules the TableRules to get the table for
+     */
+    private void schedule(TableRules rules) {
+        if (!building.add(rules)) {
+            return;
+        }
+        loader.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                // The infinite-deck table served under load is quick to build, so it is ready first
+                strategyService.prepareApproximateStrategy(rules);
+                StrategyTableFile mapped = open(rules);
+                if (mapped != null) {
+                    tables.put(rules, mapped);
+                    log.info("Strategy table for {} mapped from {} in {} ms", rules, tableFile(rules),
+                            (System.nanoTime() - start) / 1_000_000);
+                    return;
+                }
+                StrategyTableFile built = StrategyTableFile.encode(rules, chartFingerprint(rules), build(rules));
+                tables.put(rules, built);
+                log.info("Strategy table for {} built in {} ms", rules, (System.nanoTime() - start) / 1_000_000);
+                Path file = tableFile(rules);
+                if (file != null) {
+                    built.writeTo(file);
+                    log.info("Strategy table for {} written to {} ({} bytes)", rules, file, built.byteSize());
+                }
+            } catch (RuntimeException e) {
+                log.error("Strategy table build failed for " + rules, e);
+            } finally {
+                building.remove(rules);
+            }
+        });
+    }
+
+    /**
+     * Method to map the table file of a set of rules, if a valid one exists.
+     * @param rules the TableRules to map the table for
+     * @return the mapped table, or null if there is no table directory, no file, or the file cannot be used
+     */
+    private StrategyTableFile open(TableRules rules) {
+        Path file = tableFile(rules);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return StrategyTableFile.open(file, rules, chartFingerprint(rules));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Rebuilding strategy table for {}: {}", rules, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Method to get the fingerprint of the basic strategy chart a table's moves and explanations come from.
+     * @param rules the TableRules of the table
+     * @return the StrategyChart fingerprint of the chart for the table's soft 17 rule
+     */
+    private long chartFingerprint(TableRules rules) {
+        return strategyService.getChart(rules).getFingerprint();
+    }
+
+    /**
+     * Method to get the file a table is stored in, named after its rules profile and deck count.
+     * @param rules the TableRules of the table
+     * @return the path of the table file, or null if no table directory is configured
+     */
+    private Path tableFile(TableRules rules) {
+        if (directory.isBlank()) {
+            return null;
+        }
+        return Path.of(directory).resolve(rules.getName() + "-" + rules.getDecks() + "d.table");
+    }
+
+    /**
+     * Method to get the strategy for a request, from the table of its rules profile if it is available.
+     * @param request a StrategyRequest containing the player's cards, dealer's up card and optional rules profile
+     * @return the precomputed StrategyResponse, or a cached or freshly computed one if the table is not built yet
+     * @throws IllegalArgumentException if the request names an unknown rules profile
+     */
+    public StrategyResponse lookup(StrategyRequest request) {
+        return lookup(request, snapshot -> { });
+    }
+
+    /**
+     * Method to get the strategy for a request like lookup(request), reporting a snapshot with the basic
+     * strategy move while the expected values of a response that is not in the table are being solved.
+     * @param request a StrategyRequest containing the player's cards, dealer's up card and optional rules profile
+     * @param progress called with each intermediate snapshot, never called for a precomputed or cached response
+     * @return the final StrategyResponse
+     * @throws IllegalArgumentException if the request names an unknown rules profile
+     */
+    public StrategyResponse lookup(StrategyRequest request, Consumer<StrategyResponse> progress) {
+        TableRules rules = rulesRegistry.resolve(request.getRules());
+        if (!request.isOpeningHand() || !request.isDoubleAllowed(rules)) {
+            // Only opening two-card decisions are precomputed, later decisions depend on every card
+            return cache.get(request, rules, progress);
+        }
+        StrategyTableFile current = tables.get(rules);
+        metrics.recordTableLookup(current != null);
+        if (current == null) {
+            if (precompute) {
+                load(rules);
+            }
+            return cache.get(request, rules, progress);
+        }
+        List<String> cards = request.getPlayerCards();
+        int card1 = indexOf(new Card(cards.get(0)));
+        int card2 = indexOf(new Card(cards.get(1)));
+        // Both card orders hold the same entry, reading one of them shares a single decoded response
+        return current.get(index(Math.min(card1, card2), Math.max(card1, card2),
+                indexOf(new Card(request.getDealerCard()))));
+    }
+
+    /**
+     * Method to get the table entry of an opening hand without computing anything, for callers that only
+     * want the strategy when it is already at hand. Lookups through find are not counted in the table metrics.
+     * @param rules the TableRules of the hand
+     * @param card1 the rank index (0-12) of the first player card
+     * @param card2 the rank index (0-12) of the second player card
+     * @param dealer the rank index (0-12) of the dealer's up card
+     * @return the precomputed StrategyResponse, or null if the table for these rules is not loaded
+     */
+    public StrategyResponse find(TableRules rules, int card1, int card2, int dealer) {
+        StrategyTableFile current = tables.get(rules);
+        if (current == null) {
+            return null;
+        }
+        int first = Card.valueOf(card1) - 2;
+        int second = Card.valueOf(card2) - 2;
+        return current.get(index(Math.min(first, second), Math.max(first, second), Card.valueOf(dealer) - 2));
+    }
+
+    /**
+     * Method to check whether the table of the default rules profile has been loaded.
+     * @return true if default-profile lookups are served from the table
+     */
+    public boolean isReady() {
+        return isReady(rulesRegistry.getDefaultRules());
+    }
+
+    /**
+     * Method to check whether the table for a set of rules has been loaded.
+     * @param rules the TableRules to check
+     * @return true if lookups with these rules are served from the table
+     */
+    public boolean isReady(TableRules rules) {
+        return tables.containsKey(rules);
+    }
+
+    /**
+     * Method to compute every table entry for a set of rules. Each unordered player hand is computed once
+     * and stored under both card orders.
+     * @param rules the TableRules to compute the entries with
+     * @return the completed table
+     */
+    private StrategyResponse[] build(TableRules rules) {
+        StrategyResponse[] built = new StrategyResponse[VALUES * VALUES * VALUES];
+        for (int card1 = 0; card1 < VALUES; card1++) {
+            for (int card2 = card1; card2 < VALUES; card2++) {
+                for (int dealer = 0; dealer < VALUES; dealer++) {
+                    StrategyResponse response = strategyService.getStrategy(
+                            new StrategyRequest(RANKS[card1], RANKS[card2], RANKS[dealer]), rules);
+                    built[index(card1, card2, dealer)] = response;
+                    built[index(card2, card1, dealer)] = response;
+                }
+            }
+        }
+        return built;
+    }
+
+    /**
+     * Method to map a card to its table index (2-9 to 0-7, ten-valued cards to 8, Ace to 9).
+     * @param card the Card to map
+     * @return the table index of the card's value
+     */
+    private static int indexOf(Card card) {
+        return card.getValue() - 2;
+    }
+
+    /**
+     * Method to get the flat array position of a (card1, card2, dealer) combination.
+     * @param card1 the index of the first player card
+     * @param card2 the index of the second player card
+     * @param dealer the index of the dealer's up card
+     * @return the position in the table
+     */
+    private static int index(int card1, int card2, int dealer) {
+        return (card1 * VALUES + card2) * VALUES + dealer;
+    }
+
+    /**
+     * Method to stop the background loader thread when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+}
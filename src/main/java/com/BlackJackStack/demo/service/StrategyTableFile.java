@@ -0,0 +1,272 @@
+package com.BlackJackStack.demo.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.BlackJackStack.demo.model.Move;
+import com.BlackJackStack.demo.model.StrategyResponse;
+import com.BlackJackStack.demo.model.TableRules;
+
+/**
+ * Class holding a StrategyTable for one set of rules in a compact binary layout, either built in memory or
+ * memory-mapped read-only from a file written by an earlier build. Mapping a file reads nothing onto the heap:
+ * the operating system pages records in as they are looked up, and every instance on a host shares the same
+ * page cache. Each record is turned into a StrategyResponse the first time it is read, and the same response
+ * is returned afterwards.
+ * <p>
+ * The layout is little-endian: a header with the rules, solver version and basic strategy chart the table was
+ * computed with, the distinct explanation texts, then one fixed-width record per (card1, card2, dealer) slot in
+ * StrategyTable order:
+ * <pre>
+ * header   int magic "BJST", short version, short record size, int entries, int records offset,
+ *          int decks, double penetration, double blackjack payout, byte hit soft 17, byte double after split,
+ *          byte max split hands, byte late surrender, int solver version, long chart fingerprint,
+ *          short name length, name (UTF-8)
+ * strings  per text: short length, UTF-8 bytes
+ * records  byte recommended move, byte basic strategy move, short reserved, int explanation offset,
+ *          double bust, double dealer bust, double dealer makes hand,
+ *          double expected value of each Move in declaration order (NaN when the action is not allowed)
+ * </pre>
+ */
+public final class StrategyTableFile {
+
+    /** "BJST" */
+    private static final int MAGIC = 0x424A5354;
+    /** Layout version, increased whenever the layout changes */
+    private static final short VERSION = 3;
+    private static final Move[] MOVES = Move.values();
+    private static final int RECORD_SIZE = 32 + 8 * MOVES.length;
+    /** Size of the header before the profile name */
+    private static final int HEADER_SIZE = 54;
+
+    private final TableRules rules;
+    private final ByteBuffer buffer;
+    private final int entries;
+    private final int recordsOffset;
+    /** Records read so far, so each slot is decoded once and shared */
+    private final AtomicReferenceArray<StrategyResponse> decoded;
+
+    private StrategyTableFile(TableRules rules, ByteBuffer buffer) {
+        this.rules = rules;
+        this.buffer = buffer;
+        this.entries = buffer.getInt(8);
+        this.recordsOffset = buffer.getInt(12);
+        this.decoded = new AtomicReferenceArray<>(entries);
+    }
+
+    /**
+     * Method to lay out a computed table in memory.
+     * @param rules the TableRules the table was computed with
+     * @param chartFingerprint the StrategyChart fingerprint of the basic strategy chart the table was computed with
+     * @param table the StrategyResponse of every slot, none of them null
+     * @return the StrategyTableFile holding the table
+     * @throws IllegalArgumentException if a response names a move that does not exist
+     */
+    public static StrategyTableFile encode(TableRules rules, long chartFingerprint, StrategyResponse[] table) {
+        Map<String, Integer> texts = new LinkedHashMap<>();
+        byte[] name = rules.getName().getBytes(StandardCharsets.UTF_8);
+        int position = HEADER_SIZE + name.length;
+        for (StrategyResponse response : table) {
+            String text = response.getExplanation() == null ? "" : response.getExplanation();
+            if (!texts.containsKey(text)) {
+                texts.put(text, position);
+                position += 2 + text.getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+        // Records start on an 8-byte boundary so their doubles are aligned in the mapping
+        int recordsOffset = (position + 7) & ~7;
+
+        ByteBuffer buffer = ByteBuffer.allocate(recordsOffset + table.length * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) RECORD_SIZE)
+                .putInt(table.length)
+                .putInt(recordsOffset)
+                .putInt(rules.getDecks())
+                .putDouble(rules.getPenetration())
+                .putDouble(rules.getBlackjackPayout())
+                .put((byte) (rules.isHitSoft17() ? 1 : 0))
+                .put((byte) (rules.isDoubleAfterSplit() ? 1 : 0))
+                .put((byte) rules.getMaxSplitHands())
+                .put((byte) (rules.isLateSurrender() ? 1 : 0))
+                .putInt(ExpectedValueSolver.VERSION)
+                .putLong(chartFingerprint)
+                .putShort((short) name.length)
+                .put(name);
+        for (String text : texts.keySet()) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            buffer.putShort((short) bytes.length).put(bytes);
+        }
+
+        buffer.position(recordsOffset);
+        for (StrategyResponse response : table) {
+            buffer.put((byte) Move.fromLabel(response.getRecommendedMove()).ordinal())
+                    .put((byte) Move.fromLabel(response.getBasicStrategyMove()).ordinal())
+                    .putShort((short) 0)
+                    .putInt(texts.get(response.getExplanation() == null ? "" : response.getExplanation()))
+                    .putDouble(response.getBustPercentage())
+                    .putDouble(response.getDealerBustPercentage())
+                    .putDouble(response.getDealerMakesHandPercentage());
+            Map<String, Double> values = response.getActionExpectedValues();
+            for (Move move : MOVES) {
+                Double value = values == null ? null : values.get(move.getLabel());
+                buffer.putDouble(value == null ? Double.NaN : value);
+            }
+        }
+        return new StrategyTableFile(rules, buffer.clear());
+    }
+
+    /**
+     * Method to map a table file written by writeTo, checking it was computed for the expected rules by this
+     * version of the solver and with the expected basic strategy chart.
+     * @param file the table file
+     * @param rules the TableRules the table must have been computed with
+     * @param chartFingerprint the StrategyChart fingerprint of the chart the table must have been computed with
+     * @return the mapped StrategyTableFile
+     * @throws IOException if the file cannot be read
+     * @throws IllegalStateException if the file is not a table file of this version, or was computed for other
+     *         rules, by another solver version or with another chart
+     */
+    public static StrategyTableFile open(Path file, TableRules rules, long chartFingerprint) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getShort(4) != VERSION
+                || buffer.getShort(6) != RECORD_SIZE) {
+            throw new IllegalStateException("Not a version " + VERSION + " strategy table: " + file);
+        }
+        TableRules stored = new TableRules(rules.getName(), buffer.getInt(16), buffer.getDouble(20), buffer.get(36) != 0,
+                buffer.get(37) != 0, buffer.get(38), buffer.get(39) != 0, buffer.getDouble(28));
+        if (!stored.hasSameRulesAs(rules)) {
+            throw new IllegalStateException("Strategy table " + file + " was computed for " + stored + ", expected " + rules);
+        }
+        if (buffer.getInt(40) != ExpectedValueSolver.VERSION) {
+            throw new IllegalStateException("Strategy table " + file + " was computed by solver version "
+                    + buffer.getInt(40) + ", expected " + ExpectedValueSolver.VERSION);
+        }
+        if (buffer.getLong(44) != chartFingerprint) {
+            throw new IllegalStateException("Strategy table " + file + " was computed with another basic strategy chart");
+        }
+        if ((long) buffer.getInt(12) + (long) buffer.getInt(8) * RECORD_SIZE != buffer.capacity()) {
+            throw new IllegalStateException("Strategy table " + file + " is truncated");
+        }
+        return new StrategyTableFile(rules, buffer.clear());
+    }
+
+    /**
+     * Method to write the table to a file, replacing any previous file atomically so a reader never maps
+     * a partial table.
+     * @param file the table file
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public void writeTo(Path file) {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer contents = buffer.duplicate().clear();
+                while (contents.hasRemaining()) {
+                    channel.write(contents);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write strategy table " + file, e);
+        }
+    }
+
+    /**
+     * Method to get the rules the table was computed with.
+     * @return the TableRules
+     */
+    public TableRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Method to get the number of slots in the table.
+     * @return the number of records
+     */
+    public int size() {
+        return entries;
+    }
+
+    /**
+     * Method to get the size of the table in bytes.
+     * @return the size of the header, the explanations and the records
+     */
+    public int byteSize() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Method to get the strategy stored in a slot. The record is decoded on the first read of the slot,
+     * later reads return the same response, which must not be modified.
+     * @param index the slot, as computed by StrategyTable
+     * @return the StrategyResponse of the slot
+     */
+    public StrategyResponse get(int index) {
+        StrategyResponse response = decoded.get(index);
+        if (response == null) {
+            decoded.compareAndSet(index, null, read(index));
+            response = decoded.get(index);
+        }
+        return response;
+    }
+
+    /**
+     * Method to decode one record. Reads use absolute positions so the buffer is safe to share between threads.
+     * @param index the slot
+     * @return a new StrategyResponse with the values of the record
+     */
+    private StrategyResponse read(int index) {
+        int at = recordsOffset + index * RECORD_SIZE;
+        Move recommended = MOVES[buffer.get(at)];
+        StrategyResponse response = new StrategyResponse();
+        response.setRecommendedMove(recommended.getLabel());
+        response.setBasicStrategyMove(MOVES[buffer.get(at + 1)].getLabel());
+        response.setExplanation(text(buffer.getInt(at + 4)));
+        response.setBustPercentage(buffer.getDouble(at + 8));
+        response.setDealerBustPercentage(buffer.getDouble(at + 16));
+        response.setDealerMakesHandPercentage(buffer.getDouble(at + 24));
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (Move move : MOVES) {
+            double value = buffer.getDouble(at + 32 + 8 * move.ordinal());
+            if (!Double.isNaN(value)) {
+                values.put(move.getLabel(), value);
+            }
+        }
+        response.setActionExpectedValues(values);
+        response.setRulesProfile(rules.getName());
+        response.setExpectedValue(values.get(recommended.getLabel()));
+        return response;
+    }
+
+    /**
+     * Method to decode a length-prefixed UTF-8 text.
+     * @param at the position of the length
+     * @return the text
+     */
+    private String text(int at) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort(at))];
+        buffer.get(at + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
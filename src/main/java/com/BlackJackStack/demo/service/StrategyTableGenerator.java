@@ -0,0 +1,76 @@
+package com.BlackJackStack.demo.service;
+
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.BlackJackStack.demo.model.TableRules;
+
+/**
+ * Command-line runner that writes the strategy table files ahead of deployment, so no instance builds a
+ * table at startup. It is only active with the "generate-tables" profile, which also turns off the web server:
+ * <pre>
+ * java -jar demo.jar --spring.profiles.active=generate-tables --strategy.table.directory=/var/lib/blackjack/tables
+ * </pre>
+ * The default profile and every configured rules profile are generated, or only those listed in
+ * generate.rules. Instances started with the same strategy.table.directory map the files instead of
+ * building the tables.
+ */
+@Component
+@Profile("generate-tables")
+public class StrategyTableGenerator implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StrategyTableGenerator.class);
+
+    private final StrategyTable strategyTable;
+    private final TableRulesRegistry rulesRegistry;
+
+    @Value("${generate.rules:}")
+    private String[] profiles;
+
+    /**
+     * Constructs a StrategyTableGenerator.
+     * @param strategyTable the StrategyTable that builds and writes each table
+     * @param rulesRegistry the registry used to resolve the rules profiles to generate
+     */
+    public StrategyTableGenerator(StrategyTable strategyTable, TableRulesRegistry rulesRegistry) {
+        this.strategyTable = strategyTable;
+        this.rulesRegistry = rulesRegistry;
+    }
+
+    /**
+     * Method to build and write the table of each requested rules profile.
+     * @param args the command-line arguments, unused beyond the Spring properties they set
+     * @throws IllegalStateException if no table directory is configured
+     * @throws IllegalArgumentException if a requested profile is unknown
+     */
+    @Override
+    public void run(String... args) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String profile : profiles) {
+            if (!profile.isBlank()) {
+                names.add(profile.trim());
+            }
+        }
+        if (names.isEmpty()) {
+            names.add(rulesRegistry.getDefaultProfile());
+            names.addAll(rulesRegistry.getProfileNames());
+        }
+        for (String name : names) {
+            TableRules rules = rulesRegistry.resolve(name);
+            long start = System.nanoTime();
+            Path file = strategyTable.generate(rules);
+            if (file == null) {
+                throw new IllegalStateException("Set strategy.table.directory to generate table files");
+            }
+            log.info("Strategy table for {} written to {} in {} ms", rules, file, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.BlackJackStack.demo.service;
+
+import com.BlackJackStack.demo.model.TableRules;
+
+/**
+ * Class representing the event published by TableRulesRegistry when the rule values of a profile change
+ * while the application runs.
+ */
+public class TableRulesChangedEvent {
+    private final TableRules previous;
+    private final TableRules rules;
+
+    /**
+     * Constructs a TableRulesChangedEvent.
+     * @param previous the rules the profile was resolved to before the change
+     * @param rules the rules the profile resolves to now
+     */
+    public TableRulesChangedEvent(TableRules previous, TableRules rules) {
+        this.previous = previous;
+        this.rules = rules;
+    }
+
+    /**
+     * Method to get the rules the profile was resolved to before the change.
+     * @return the previous TableRules
+     */
+    public TableRules getPrevious() {
+        return previous;
+    }
+
+    /**
+     * Method to get the rules the profile resolves to now.
+     * @return the new TableRules
+     */
+    public TableRules getRules() {
+        return rules;
+    }
+}
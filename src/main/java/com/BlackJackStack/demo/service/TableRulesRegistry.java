@@ -0,0 +1,281 @@
+package com.BlackJackStack.demo.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.BlackJackStack.demo.model.TableRules;
+
+/**
+ * Component that holds the named table-rules profiles configured under strategy.rules.profiles.
+ * A request picks a profile by name, or gets the default profile if it does not name one.
+ * Profiles are bound at startup and each one is resolved to a single TableRules, which caches and tables
+ * are keyed on. A profile can be replaced while the application runs with update; when its rule values change,
+ * a TableRulesChangedEvent is published so the tables built for the previous rules are rebuilt.
+ */
+@Component
+@ConfigurationProperties(prefix = "strategy.rules")
+public class TableRulesRegistry {
+
+    private String defaultProfile = TableRules.DEFAULT_PROFILE;
+    private final Map<String, Profile> profiles = new LinkedHashMap<>();
+    /** The rules of each profile name resolved so far */
+    private final Map<String, TableRules> resolved = new ConcurrentHashMap<>();
+    private ApplicationEventPublisher eventPublisher = event -> { };
+
+    /**
+     * Method to set the publisher that rules changes are announced through.
+     * @param eventPublisher the ApplicationEventPublisher to publish TableRulesChangedEvents with
+     */
+    @Autowired
+    public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Method to get the rules for a profile name.
+     * @param name the profile name, or null or blank for the default profile
+     * @return the TableRules of the profile
+     * @throws IllegalArgumentException if no profile has that name
+     */
+    public TableRules resolve(String name) {
+        String key = name == null || name.isBlank() ? defaultProfile : name.trim();
+        return resolved.computeIfAbsent(key, profileName -> {
+            Profile profile;
+            synchronized (profiles) {
+                profile = profiles.get(profileName);
+            }
+            if (profile == null) {
+                if (TableRules.DEFAULT_PROFILE.equals(profileName)) {
+                    return TableRules.DEFAULT;
+                }
+                throw new IllegalArgumentException("Unknown rules profile: " + profileName);
+            }
+            return profile.toRules(profileName);
+        });
+    }
+
+    /**
+     * Method to replace the values of a profile, or add a profile, while the application runs. If the profile
+     * was already resolved to rules with other values, a TableRulesChangedEvent is published.
+     * @param name the profile name
+     * @param profile the new values of the profile
+     * @return the new TableRules of the profile
+     * @throws IllegalArgumentException if a value of the profile is out of range
+     */
+    public TableRules update(String name, Profile profile) {
+        TableRules rules = profile.toRules(name);
+        TableRules previous;
+        synchronized (profiles) {
+            profiles.put(name, profile);
+            previous = resolved.get(name);
+            if (previous != null && previous.hasSameRulesAs(rules)) {
+                // Requests keep sharing the tables and cached responses of unchanged rules
+                return previous;
+            }
+            resolved.put(name, rules);
+        }
+        if (previous != null) {
+            eventPublisher.publishEvent(new TableRulesChangedEvent(previous, rules));
+        }
+        return rules;
+    }
+
+    /**
+     * Method to get the rules of the default profile.
+     * @return the default TableRules
+     */
+    public TableRules getDefaultRules() {
+        return resolve(null);
+    }
+
+    /**
+     * Method to get the names of the configured profiles.
+     * @return the profile names
+     */
+    public Set<String> getProfileNames() {
+        return profiles.keySet();
+    }
+
+    /**
+     * Method to get the name of the profile used when a request does not name one.
+     * @return the default profile name
+     */
+    public String getDefaultProfile() {
+        return defaultProfile;
+    }
+
+    /**
+     * Method to set the name of the profile used when a request does not name one.
+     * @param defaultProfile the default profile name
+     */
+    public void setDefaultProfile(String defaultProfile) {
+        this.defaultProfile = defaultProfile;
+    }
+
+    /**
+     * Method to get the configured profiles, bound from strategy.rules.profiles.
+     * @return the profiles by name
+     */
+    public Map<String, Profile> getProfiles() {
+        return profiles;
+    }
+
+    /**
+     * Class holding the configurable values of one rules profile. Unset values fall back to TableRules.DEFAULT.
+     */
+    public static class Profile {
+        private int decks = TableRules.DEFAULT.getDecks();
+        private double penetration = TableRules.DEFAULT.getPenetration();
+        private boolean hitSoft17 = TableRules.DEFAULT.isHitSoft17();
+        private boolean doubleAfterSplit = TableRules.DEFAULT.isDoubleAfterSplit();
+        private int maxSplitHands = TableRules.DEFAULT.getMaxSplitHands();
+        private boolean lateSurrender = TableRules.DEFAULT.isLateSurrender();
+        private double blackjackPayout = TableRules.DEFAULT.getBlackjackPayout();
+
+        /**
+         * Method to create a profile holding the values of a set of rules.
+         * @param rules the TableRules to copy
+         * @return the new Profile
+         */
+        public static Profile of(TableRules rules) {
+            Profile profile = new Profile();
+            profile.setDecks(rules.getDecks());
+            profile.setPenetration(rules.getPenetration());
+            profile.setHitSoft17(rules.isHitSoft17());
+            profile.setDoubleAfterSplit(rules.isDoubleAfterSplit());
+            profile.setMaxSplitHands(rules.getMaxSplitHands());
+            profile.setLateSurrender(rules.isLateSurrender());
+            profile.setBlackjackPayout(rules.getBlackjackPayout());
+            return profile;
+        }
+
+        /**
+         * Method to convert the profile into immutable TableRules.
+         * @param name the profile name
+         * @return the TableRules for this profile
+         */
+        public TableRules toRules(String name) {
+            return new TableRules(name, decks, penetration, hitSoft17, doubleAfterSplit, maxSplitHands,
+                    lateSurrender, blackjackPayout);
+        }
+
+        /**
+         * Method to get the number of decks in the shoe.
+         * @return the deck count, 0 for an infinite deck
+         */
+        public int getDecks() {
+            return decks;
+        }
+
+        /**
+         * Method to set the number of decks in the shoe.
+         * @param decks the deck count, 0 for an infinite deck
+         */
+        public void setDecks(int decks) {
+            this.decks = decks;
+        }
+
+        /**
+         * Method to get the fraction of the shoe dealt before reshuffling.
+         * @return the penetration (0.0 to 1.0)
+         */
+        public double getPenetration() {
+            return penetration;
+        }
+
+        /**
+         * Method to set the fraction of the shoe dealt before reshuffling.
+         * @param penetration the penetration (0.0 to 1.0)
+         */
+        public void setPenetration(double penetration) {
+            this.penetration = penetration;
+        }
+
+        /**
+         * Method to check if the dealer hits soft 17.
+         * @return true for H17, false for S17
+         */
+        public boolean isHitSoft17() {
+            return hitSoft17;
+        }
+
+        /**
+         * Method to set whether the dealer hits soft 17.
+         * @param hitSoft17 true for H17, false for S17
+         */
+        public void setHitSoft17(boolean hitSoft17) {
+            this.hitSoft17 = hitSoft17;
+        }
+
+        /**
+         * Method to check if doubling down is allowed after a split.
+         * @return true if DAS is allowed
+         */
+        public boolean isDoubleAfterSplit() {
+            return doubleAfterSplit;
+        }
+
+        /**
+         * Method to set whether doubling down is allowed after a split.
+         * @param doubleAfterSplit true if DAS is allowed
+         */
+        public void setDoubleAfterSplit(boolean doubleAfterSplit) {
+            this.doubleAfterSplit = doubleAfterSplit;
+        }
+
+        /**
+         * Method to get the largest number of hands a player may split into.
+         * @return the maximum split hands (2 means no resplit)
+         */
+        public int getMaxSplitHands() {
+            return maxSplitHands;
+        }
+
+        /**
+         * Method to set the largest number of hands a player may split into.
+         * @param maxSplitHands the maximum split hands (2 means no resplit)
+         */
+        public void setMaxSplitHands(int maxSplitHands) {
+            this.maxSplitHands = maxSplitHands;
+        }
+
+        /**
+         * Method to check if late surrender is offered.
+         * @return true if the player may surrender for half the bet
+         */
+        public boolean isLateSurrender() {
+            return lateSurrender;
+        }
+
+        /**
+         * Method to set whether late surrender is offered.
+         * @param lateSurrender true if the player may surrender for half the bet
+         */
+        public void setLateSurrender(boolean lateSurrender) {
+            this.lateSurrender = lateSurrender;
+        }
+
+        /**
+         * Method to get the amount a blackjack wins per unit bet.
+         * @return the blackjack payout (e.g. 1.5 for 3:2)
+         */
+        public double getBlackjackPayout() {
+            return blackjackPayout;
+        }
+
+        /**
+         * Method to set the amount a blackjack wins per unit bet.
+         * @param blackjackPayout the blackjack payout (e.g. 1.5 for 3:2)
+         */
+        public void setBlackjackPayout(double blackjackPayout) {
+            this.blackjackPayout = blackjackPayout;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.BlackJackStack.demo.service;
+
+/**
+ * Class that accumulates the outcomes of simulated rounds: how many were played, their sum and sum of squares.
+ * A Tally is not thread-safe; each simulation worker fills its own and they are merged afterwards.
+ * It is used by the offline simulations only, requests are answered with exact values.
+ */
+public class Tally {
+    /** Two-sided z-score for a 95% confidence interval */
+    private static final double Z_95 = 1.96;
+
+    private long count;
+    private double sum;
+    private double sumOfSquares;
+
+    /**
+     * Constructs an empty Tally.
+     */
+    public Tally() {
+    }
+
+    /**
+     * Constructs a Tally holding totals saved earlier, for example from a checkpoint.
+     * @param count the number of rounds
+     * @param sum the sum of the outcomes
+     * @param sumOfSquares the sum of the squared outcomes
+     */
+    public Tally(long count, double sum, double sumOfSquares) {
+        this.count = count;
+        this.sum = sum;
+        this.sumOfSquares = sumOfSquares;
+    }
+
+    /**
+     * Method to record the outcome of one simulated round.
+     * @param outcome the outcome, e.g. the amount won or 1.0/0.0 for an event that did or did not happen
+     */
+    public void add(double outcome) {
+        count++;
+        sum += outcome;
+        sumOfSquares += outcome * outcome;
+    }
+
+    /**
+     * Method to add another Tally's rounds into this one.
+     * @param other the Tally to merge
+     * @return this Tally
+     */
+    public Tally merge(Tally other) {
+        count += other.count;
+        sum += other.sum;
+        sumOfSquares += other.sumOfSquares;
+        return this;
+    }
+
+    /**
+     * Method to get the number of rounds recorded.
+     * @return the number of rounds
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Method to get the sum of the recorded outcomes.
+     * @return the sum
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Method to get the sum of the squared outcomes.
+     * @return the sum of squares
+     */
+    public double getSumOfSquares() {
+        return sumOfSquares;
+    }
+
+    /**
+     * Method to get the mean outcome.
+     * @return the mean outcome, or 0.0 if no rounds were recorded
+     */
+    public double getMean() {
+        return count == 0 ? 0.0 : sum / count;
+    }
+
+    /**
+     * Method to get the standard error of the mean outcome.
+     * @return the standard error, or positive infinity if fewer than two rounds were recorded
+     */
+    public double getStandardError() {
+        if (count < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double mean = sum / count;
+        double variance = Math.max(0.0, (sumOfSquares - count * mean * mean) / (count - 1));
+        return Math.sqrt(variance / count);
+    }
+
+    /**
+     * Method to get the half-width of the 95% confidence interval around the mean outcome.
+     * @return the margin of error, or positive infinity if fewer than two rounds were recorded
+     */
+    public double getMarginOfError() {
+        return Z_95 * getStandardError();
+    }
+}
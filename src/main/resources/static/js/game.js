@@ -1,348 +1,141 @@
-/* Blackjack Game Logic with Split and Double Down */
+/* Blackjack game, played against the server-side game engine (/api/v1/games) */
 document.addEventListener("DOMContentLoaded", () => {
-    const values = ["2","3","4","5","6","7","8","9","10","J","Q","K","A"];
-    let deck, playerHand, dealerHand;
-	let playerHand1 = null, playerHand2 = null;
-	let originalPlayerHand = null, originalDealerHand = null;
-	let hasSplit = false;
-	let currentHand = 1; // 1 or 2
-	let bet = 10, bet1 = 10, bet2 = 10;
-
-	/* Create and shuffle a new deck */
-    function createDeck() {
-        let d = [];
-        for (let v of values) {
-            // push just the value, no suit
-            d.push({ value: v });
-        }
-        return d.sort(() => Math.random() - 0.5);
-    }
-
-	/* Calculate the value of a card */
-    function cardValue(card) {
-        if (["J","Q","K"].includes(card.value)) return 10;
-        if (card.value === "A") return 11; // flexible, adjust later
-        return parseInt(card.value);
-    }
-
-	/* Calculate the total value of a hand */
-    function handValue(hand) {
-        let total = hand.reduce((sum, c) => sum + cardValue(c), 0);
-        let aces = hand.filter(c => c.value === "A").length;
-        while (total > 21 && aces > 0) {
-            total -= 10;
-            aces--;
-        }
-        return total;
-    }
-
-	/* Render hands to the UI */
-	function renderHands() {
-	    // Dealer hand
-	    const dealerHandDiv = document.getElementById("dealerHand");
-	    dealerHandDiv.innerHTML = "";
-	    dealerHand.forEach(card => {
-	        const span = document.createElement("span");
-	        span.className = "playing-card dealer-card";
-	        span.textContent = card.value;
-	        dealerHandDiv.appendChild(span);
-	    });
-	    document.getElementById("dealerTotal").textContent = handValue(dealerHand);
-
-	    // Player hands
-	    if (playerHand1 && playerHand2) {
-	        // Show both split hands
-	        document.getElementById("playerHand1Area").style.display = "block";
-	        document.getElementById("playerHand2Area").style.display = "block";
-			document.getElementById("playerHandArea").style.display = "none";
-	        renderPlayerHand(playerHand1, "playerHand1", "playerTotal1");
-	        renderPlayerHand(playerHand2, "playerHand2", "playerTotal2");
-	    } else {
-	        // Show single hand
-	        document.getElementById("playerHand1Area").style.display = "none";
-	        document.getElementById("playerHand2Area").style.display = "none";
-	        renderPlayerHand(playerHand, "playerHand", "playerTotal");
-	    }
+	const api = "/api/v1/games";
+	const bet = 10;
+	let session = null;
+
+	/* Buttons for each move label the engine reports as allowed */
+	const moveButtons = {
+		"hit": "hitBtn",
+		"stand": "standBtn",
+		"double down": "doubleBtn",
+		"split": "splitBtn",
+		"surrender": "surrenderBtn"
+	};
+
+	/* Post to the game API and return the table state, showing any error */
+	async function post(path, params) {
+		const query = params ? "?" + new URLSearchParams(params) : "";
+		const response = await fetch(api + path + query, { method: "POST" });
+		const body = await response.json();
+		if (!response.ok) {
+			const errors = body.errors ? Object.values(body.errors).join(" ") : body.detail;
+			throw new Error(errors || response.statusText);
+		}
+		return body;
 	}
 
-	/* Render a specific player hand */
-	function renderPlayerHand(hand, handDivId, totalSpanId) {
-	    const handDiv = document.getElementById(handDivId);
-	    handDiv.innerHTML = "";
-	    hand.forEach(card => {
-	        const span = document.createElement("span");
-	        span.className = "playing-card player-card";
-	        span.textContent = card.value;
-	        handDiv.appendChild(span);
-	    });
-	    document.getElementById(totalSpanId).textContent = handValue(hand);
+	/* Open a game session the first time a hand is played, again once it has expired, or to leave a hand unfinished */
+	async function ensureSession() {
+		if (session) {
+			const response = await fetch(`${api}/${session}`);
+			if (response.ok && (await response.json()).phase !== "PLAYER_TURN") {
+				return session;
+			}
+			fetch(`${api}/${session}`, { method: "DELETE" });
+		}
+		session = (await post("")).session;
+		return session;
 	}
 
-	/* End the game with a message */
-    function endGame(message) {
-        document.getElementById("actions").style.display = "none";
-        document.getElementById("result").innerHTML = `<h3>${message}</h3>`;
-    }
-
-	/* Check for blackjack */
-	function isBlackjack(hand) {
-	    return hand.length === 2 &&
-	        ((hand[0].value === "A" && cardValue(hand[1]) === 10) ||
-	         (hand[1].value === "A" && cardValue(hand[0]) === 10));
+	/* Render a row of cards */
+	function renderCards(div, cards, className) {
+		div.innerHTML = "";
+		cards.forEach(card => {
+			const span = document.createElement("span");
+			span.className = "playing-card " + className;
+			span.textContent = card;
+			div.appendChild(span);
+		});
 	}
 
-	/* Dealer's turn logic */
-	function dealerTurn() {
-	    // Always draw dealer's second card and render hands first
-	    if (dealerHand.length === 1) {
-	        dealerHand.push(deck.pop());
-	        renderHands();
-	    }
-
-	    // Check for player blackjack
-	    if (isBlackjack(playerHand)) {
-	        if (isBlackjack(dealerHand)) {
-	            endGame("🤝 Push. Bet returned.");
-	            return;
-	        } else {
-	            endGame(`✅ Blackjack! You win +$${(bet * 1.5).toFixed(2)}`);
-	            return;
-	        }
-	    }
-
-	    // Check for dealer blackjack
-	    if (isBlackjack(dealerHand)) {
-	        if (isBlackjack(playerHand)) {
-	            endGame("🤝 Push. Bet returned.");
-	            return;
-	        }
-	        if (handValue(playerHand) === 21 && playerHand.length > 2) {
-	            endGame(`❌ Dealer has blackjack. You lose -$${bet}`);
-	            return;
-	        }
-	        endGame(`❌ Dealer has blackjack. You lose -$${bet}`);
-	        return;
-	    }
-
-	    while (handValue(dealerHand) < 17) {
-	        dealerHand.push(deck.pop());
-	    }
-	    renderHands();
-
-	    let playerTotal = handValue(playerHand);
-	    let dealerTotal = handValue(dealerHand);
-
-	    if (dealerTotal > 21) {
-	        endGame(`✅ Dealer busts! You win +$${bet}`);
-	    } else if (playerTotal > dealerTotal) {
-	        endGame(`✅ You win, you beat the dealer! +$${bet}`);
-	    } else if (dealerTotal === playerTotal) {
-	        endGame("🤝 Push. Bet returned.");
-	    } else {
-	        endGame(`❌ Dealer wins. -$${bet}`);
-	    }
+	/* Render the table state returned by the engine */
+	function render(state) {
+		renderCards(document.getElementById("dealerHand"), state.dealerCards, "dealer-card");
+		document.getElementById("dealerTotal").textContent = state.dealerTotal;
+
+		const handsDiv = document.getElementById("playerHands");
+		handsDiv.innerHTML = "";
+		const split = state.hands.length > 1;
+		state.hands.forEach((hand, idx) => {
+			const area = document.createElement("div");
+			const heading = document.createElement("h4");
+			heading.textContent = (split ? `Your Hand ${idx + 1}` : "Your Hand") + (idx === state.activeHand && split ? " ▶" : "") + ": ";
+			const total = document.createElement("span");
+			total.className = "hand-total-number";
+			total.textContent = hand.total;
+			heading.appendChild(total);
+			const cards = document.createElement("div");
+			renderCards(cards, hand.cards, "player-card");
+			area.appendChild(heading);
+			area.appendChild(cards);
+			handsDiv.appendChild(area);
+		});
+
+		Object.entries(moveButtons).forEach(([move, id]) => {
+			document.getElementById(id).disabled = !state.moves.includes(move);
+		});
+		if (state.phase === "SETTLED") {
+			endGame(state);
+		} else {
+			document.getElementById("actions").style.display = "block";
+			document.getElementById("result").innerHTML = "";
+		}
 	}
 
+	/* Describe the result of a hand */
+	function describe(hand, state) {
+		const amount = Math.abs(hand.net).toFixed(hand.net % 1 === 0 ? 0 : 2);
+		if (hand.status === "surrendered") return `🏳️ Surrendered. -$${amount}`;
+		if (hand.status === "busted") return `💥 Bust! You lose -$${amount}`;
+		if (hand.status === "blackjack" && hand.net > 0) return `✅ Blackjack! You win +$${amount}`;
+		if (hand.net > 0) return state.dealerTotal > 21 ? `✅ Dealer busts! You win +$${amount}` : `✅ You win, you beat the dealer! +$${amount}`;
+		if (hand.net < 0) return `❌ Dealer wins. -$${amount}`;
+		return "🤝 Push. Bet returned.";
+	}
 
+	/* End the round with the result of every hand */
+	function endGame(state) {
+		document.getElementById("actions").style.display = "none";
+		const results = state.hands.map((hand, idx) =>
+			(state.hands.length > 1 ? `Hand ${idx + 1}: ` : "") + describe(hand, state));
+		document.getElementById("result").innerHTML = `<h3>${results.join("<br>")}</h3>`;
+	}
 
-	// Play button handler to start a new game
-	document.getElementById("playBtn").addEventListener("click", () => {
-	    const card1Value = document.getElementById("card1").value;
-	    const card2Value = document.getElementById("card2").value;
-	    const dealerValue = document.getElementById("dealer").value;
-
-	    // Check if all inputs are filled
-	    if (!card1Value || !card2Value || !dealerValue) {
-	        alert("Please enter all three card values before playing.");
-	        return;
-	    }
-
-	    hasSplit = false;
-	    document.getElementById("initialCards").style.display = "none";
-	    deck = createDeck(); // Always reset deck at the start of a round
-	    if (originalPlayerHand && originalDealerHand) {
-	        playerHand = [...originalPlayerHand];
-	        dealerHand = [...originalDealerHand];
-	        playerHand1 = null;
-	        playerHand2 = null;
-	        currentHand = 1;
-	        bet1 = bet2 = bet;
-	        originalPlayerHand = null;
-	        originalDealerHand = null;
-
-	        document.getElementById("playerHandArea").style.display = "block";
-	        document.getElementById("playerHand1Area").style.display = "none";
-	        document.getElementById("playerHand2Area").style.display = "none";
-
-	        renderHands();
-	        document.getElementById("gameArea").style.display = "block";
-	        document.getElementById("actions").style.display = "block";
-	        document.getElementById("result").innerHTML = "";
-	    } else {
-	        // Normal play logic
-	        playerHand = [{ value: card1Value }, { value: card2Value }];
-	        dealerHand = [{ value: dealerValue }];
-	        bet = 10;
-	        renderHands();
-	        document.getElementById("gameArea").style.display = "block";
-	        document.getElementById("actions").style.display = "block";
-	        document.getElementById("result").innerHTML = "";
-	    }
-	});
-
-
-
-	/* Hit button handler */
-	document.getElementById("hitBtn").addEventListener("click", () => {
-	    if (playerHand1 && playerHand2) {
-	        let hand = currentHand === 1 ? playerHand1 : playerHand2;
-	        hand.push(deck.pop());
-	        renderHands();
-	        if (handValue(hand) === 21) {
-	            if (currentHand === 1) {
-	                playerHand2.push(deck.pop());
-	                currentHand = 2;
-	                renderHands();
-	            } else {
-	                dealerTurnSplit();
-	            }
-	            return;
-	        }
-	        if (handValue(hand) > 21) {
-	            if (currentHand === 1) {
-	                playerHand2.push(deck.pop());
-	                currentHand = 2;
-	                renderHands();
-	            } else {
-	                dealerTurnSplit();
-	            }
-	        }
-	    } else {
-	        playerHand.push(deck.pop());
-	        renderHands();
-	        if (handValue(playerHand) === 21) {
-	            dealerTurn();
-	            return;
-	        }
-	        if (handValue(playerHand) > 21) {
-	            endGame(`💥 Bust! You lose -$${bet}`);
-	        }
-	    }
-	});
-
-	/* Stand button handler */
-	document.getElementById("standBtn").addEventListener("click", () => {
-	    if (playerHand1 && playerHand2) {
-	        if (currentHand === 1) {
-	            // Move to hand 2, deal second card
-	            playerHand2.push(deck.pop());
-	            currentHand = 2;
-	            renderHands();
-	        } else {
-	            dealerTurnSplit();
-	        }
-	    } else {
-	        dealerTurn();
-	    }
+	/* Play button handler to deal the chosen cards */
+	document.getElementById("playBtn").addEventListener("click", async () => {
+		const card1Value = document.getElementById("card1").value;
+		const card2Value = document.getElementById("card2").value;
+		const dealerValue = document.getElementById("dealer").value;
+
+		// Check if all inputs are filled
+		if (!card1Value || !card2Value || !dealerValue) {
+			alert("Please enter all three card values before playing.");
+			return;
+		}
+
+		try {
+			const id = await ensureSession();
+			const state = await post(`/${id}/deal`, { bet: bet, card1: card1Value, card2: card2Value, dealer: dealerValue });
+			document.getElementById("initialCards").style.display = "none";
+			document.getElementById("gameArea").style.display = "block";
+			render(state);
+		} catch (e) {
+			alert(e.message);
+		}
 	});
 
-	/* Double Down button handler */
-	document.getElementById("doubleBtn").addEventListener("click", () => {
-	    if (playerHand1 && playerHand2) {
-	        if (currentHand === 1 && playerHand1.length === 2) {
-	            bet1 *= 2;
-	            playerHand1.push(deck.pop());
-	            renderHands();
-	            if (handValue(playerHand1) > 21) {
-	                playerHand2.push(deck.pop());
-	                currentHand = 2;
-	                renderHands();
-	            } else {
-	                playerHand2.push(deck.pop());
-	                currentHand = 2;
-	                renderHands();
-	            }
-	        } else if (currentHand === 2 && playerHand2.length === 2) {
-	            bet2 *= 2;
-	            playerHand2.push(deck.pop());
-	            renderHands();
-	            dealerTurnSplit();
-	        } else {
-	            alert("You can only double down if you have 2 cards.");
-	        }
-	    } else if (playerHand.length === 2) {
-	        bet *= 2;
-	        playerHand.push(deck.pop());
-	        renderHands();
-	        if (handValue(playerHand) > 21) {
-	            endGame(`💥 Bust after double! You lose -$${bet}`);
-	        } else {
-	            dealerTurn();
-	        }
-	    } else {
-	        alert("You can only double down if you have 2 cards.");
-	    }
+	/* Move button handlers */
+	[["hitBtn", "hit"], ["standBtn", "stand"], ["doubleBtn", "double"], ["splitBtn", "split"], ["surrenderBtn", "surrender"]].forEach(([id, action]) => {
+		document.getElementById(id).addEventListener("click", async () => {
+			try {
+				render(await post(`/${session}/${action}`));
+			} catch (e) {
+				alert(e.message);
+			}
+		});
 	});
 
-	/* Split button handler */
-	document.getElementById("splitBtn").addEventListener("click", () => {
-	    if (hasSplit) {
-	        alert("This game only allows one split.");
-	        return;
-	    }
-	    if (playerHand.length === 2 && playerHand[0].value === playerHand[1].value) {
-	        hasSplit = true;
-	        originalPlayerHand = [...playerHand];
-	        originalDealerHand = [...dealerHand];
-
-	        // Check for split aces
-	        if (playerHand[0].value === "A") {
-	            playerHand1 = [playerHand[0], deck.pop()];
-	            playerHand2 = [playerHand[1], deck.pop()];
-	            currentHand = 1;
-	            renderHands();
-	            document.getElementById("actions").style.display = "none"; // Hide actions, auto stand
-	            dealerTurnSplit(); // Immediately resolve both hands
-	        } else {
-	            playerHand1 = [playerHand[0], deck.pop()];
-	            playerHand2 = [playerHand[1]];
-	            currentHand = 1;
-	            renderHands();
-	            document.getElementById("actions").style.display = "block";
-	        }
-	    } else {
-	        alert("Split only allowed with 2 matching cards!");
-	    }
-	});
-	
-	/* Dealer turn logic for split hands */
-	function dealerTurnSplit() {
-	    while (handValue(dealerHand) < 17) {
-	        dealerHand.push(deck.pop());
-	    }
-	    renderHands();
-	    let results = [];
-	    [playerHand1, playerHand2].forEach((hand, idx) => {
-	        let playerTotal = handValue(hand);
-	        let dealerTotal = handValue(dealerHand);
-	        let betAmt = idx === 0 ? bet1 : bet2;
-	        if (playerTotal > 21) {
-	            results.push(`Hand ${idx+1}: 💥 Bust! You lose -$${betAmt}`);
-	        } else if (dealerTotal > 21 || playerTotal > dealerTotal) {
-	            results.push(`Hand ${idx+1}: ✅ You win! +$${betAmt}`);
-	        } else if (dealerTotal === playerTotal) {
-	            results.push(`Hand ${idx+1}: 🤝 Push. Bet returned.`);
-	        } else {
-	            results.push(`Hand ${idx+1}: ❌ Dealer wins. -$${betAmt}`);
-	        }
-	    });
-	    endGame(results.join("<br>"));
-	}
-	
-	// Initial render
-	document.getElementById("playerTotal").textContent = handValue(playerHand);
-	document.getElementById("dealerTotal").textContent = handValue(dealerHand);
-	
 	/* Info icon toggle logic */
 	document.addEventListener('DOMContentLoaded', function() {
 	    const headerInfo = document.querySelector('.header-info');
@@ -360,4 +153,3 @@ document.addEventListener("DOMContentLoaded", () => {
 	    }
 	});
 });
-
@@ -0,0 +1,70 @@
+package com.BlackJackStack.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.DealerOutcome;
+import com.BlackJackStack.demo.service.DealerOutcomeCalculator;
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class DealerOutcomeCalculatorTest {
+
+	private final DealerOutcomeCalculator calculator = new DealerOutcomeCalculator();
+
+	/**
+     * Test to ensure that every dealer outcome distribution sums to one under both H17 and S17.
+     * This helps verify that no draw sequence is lost or counted twice.
+     */
+	@Test
+	void getOutcome_shouldSumToOne() {
+	    for (String rank : new String[] {"2", "3", "4", "5", "6", "7", "8", "9", "10", "K", "A"}) {
+	        for (boolean hitSoft17 : new boolean[] {true, false}) {
+	            double sum = 0;
+	            for (double p : calculator.getOutcome(new Card(rank), hitSoft17).getProbabilities()) {
+	                sum += p;
+	            }
+	            assertThat(sum).isCloseTo(1.0, within(1e-9));
+	        }
+	    }
+	}
+
+	/**
+     * Test to compare the exact bust chances with published infinite-deck values.
+     * This helps verify that the dealer's drawing rules are applied correctly.
+     */
+	@Test
+	void getOutcome_shouldMatchKnownBustChances() {
+	    assertThat(calculator.getOutcome(new Card("6"), false).getBustProbability()).isCloseTo(0.4232, within(0.0005));
+	    assertThat(calculator.getOutcome(new Card("2"), false).getBustProbability()).isCloseTo(0.3536, within(0.0005));
+	    assertThat(calculator.getOutcome(new Card("10"), false).getBustProbability()).isCloseTo(0.2121, within(0.0005));
+	}
+
+	/**
+     * Test to ensure that naturals are only possible with an Ace or ten-valued up card.
+     * This helps verify that two-card 21s are reported separately from other 21s.
+     */
+	@Test
+	void getOutcome_naturalOnlyWithAceOrTen() {
+	    DealerOutcome ace = calculator.getOutcome(new Card("A"), true);
+	    DealerOutcome king = calculator.getOutcome(new Card("K"), true);
+	    DealerOutcome five = calculator.getOutcome(new Card("5"), true);
+
+	    assertThat(ace.getNaturalProbability()).isCloseTo(4.0 / 13, within(1e-9));
+	    assertThat(king.getNaturalProbability()).isCloseTo(1.0 / 13, within(1e-9));
+	    assertThat(five.getNaturalProbability()).isZero();
+	}
+
+	/**
+     * Test to ensure that hitting soft 17 changes the distribution for an Ace up card.
+     * This helps verify that the H17 and S17 rules are handled separately.
+     */
+	@Test
+	void getOutcome_hitSoft17ShouldReduceSeventeens() {
+	    DealerOutcome h17 = calculator.getOutcome(new Card("A"), true);
+	    DealerOutcome s17 = calculator.getOutcome(new Card("A"), false);
+
+	    assertThat(h17.getTotalProbability(17)).isLessThan(s17.getTotalProbability(17));
+	    assertThat(h17.getBustProbability()).isGreaterThan(s17.getBustProbability());
+	}
+}
@@ -0,0 +1,84 @@
+package com.BlackJackStack.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.Hand;
+import com.BlackJackStack.demo.model.Move;
+import com.BlackJackStack.demo.service.DeviationChart;
+import com.BlackJackStack.demo.service.StrategyChart;
+import static org.assertj.core.api.Assertions.*;
+import java.io.StringReader;
+
+@SpringBootTest
+class DeviationChartTest {
+
+	private final StrategyChart h17 = StrategyChart.load("charts/basic-h17.chart");
+	private final StrategyChart s17 = StrategyChart.load("charts/basic-s17.chart");
+	private final DeviationChart h17Deviations = DeviationChart.load("charts/hilo-h17.deviations");
+	private final DeviationChart s17Deviations = DeviationChart.load("charts/hilo-s17.deviations");
+
+	/**
+     * Test to ensure that Illustrious 18 plays replace the basic play at or above their index only.
+     * This helps verify that the index, the play and the play below the index are each read correctly.
+     */
+	@Test
+	void move_shouldApplyIndexPlays() {
+	    assertThat(h17Deviations.move(h17, hand("10", "6"), 10, true, true, false, -0.5)).isEqualTo(Move.HIT);
+	    assertThat(h17Deviations.move(h17, hand("10", "6"), 10, true, true, false, 0.0)).isEqualTo(Move.STAND);
+	    assertThat(h17Deviations.move(h17, hand("10", "2"), 3, true, true, false, 2.0)).isEqualTo(Move.STAND);
+	    assertThat(h17Deviations.move(h17, hand("10", "2"), 4, true, true, false, -1.0)).isEqualTo(Move.HIT);
+	    assertThat(h17Deviations.move(h17, hand("K", "Q"), 6, true, true, false, 4.0)).isEqualTo(Move.SPLIT);
+	    assertThat(h17Deviations.move(h17, hand("K", "Q"), 6, true, true, false, 3.9)).isEqualTo(Move.STAND);
+	    assertThat(h17Deviations.move(h17, hand("K", "Q"), 6, false, true, false, 6.0)).isEqualTo(Move.STAND);
+	    assertThat(h17Deviations.move(h17, hand("6", "4"), 10, true, true, false, 4.0)).isEqualTo(Move.DOUBLE_DOWN);
+	    assertThat(h17Deviations.move(h17, hand("6", "4"), 10, true, false, false, 4.0)).isEqualTo(Move.HIT);
+	    assertThat(s17Deviations.move(s17, hand("6", "5"), 11, true, true, false, 1.0)).isEqualTo(Move.DOUBLE_DOWN);
+	    assertThat(s17Deviations.move(s17, hand("6", "5"), 11, true, true, false, 0.0)).isEqualTo(Move.HIT);
+	    assertThat(h17Deviations.move(h17, hand("8", "8"), 10, true, true, false, 0.0)).isEqualTo(Move.SPLIT);
+	}
+
+	/**
+     * Test to ensure that Fab 4 surrenders are made at their index, and that a hand basic strategy surrenders
+     * keeps surrendering unless one of its surrender rows says otherwise.
+     * This helps verify that surrender deviations and the other index plays for the same hand do not conflict.
+     */
+	@Test
+	void move_shouldApplySurrenderIndexes() {
+	    assertThat(h17Deviations.move(h17, hand("10", "4"), 10, true, true, true, 3.0)).isEqualTo(Move.SURRENDER);
+	    assertThat(h17Deviations.move(h17, hand("10", "4"), 10, true, true, true, 2.0)).isEqualTo(Move.HIT);
+	    assertThat(h17Deviations.move(h17, hand("10", "5"), 10, true, true, true, -1.0)).isEqualTo(Move.HIT);
+	    assertThat(h17Deviations.move(h17, hand("10", "5"), 10, true, true, false, 4.0)).isEqualTo(Move.STAND);
+	    assertThat(h17Deviations.move(h17, hand("10", "6"), 10, true, true, true, 2.0)).isEqualTo(Move.SURRENDER);
+	    assertThat(s17Deviations.move(s17, hand("10", "5"), 11, true, true, true, 1.0)).isEqualTo(Move.SURRENDER);
+	    assertThat(s17Deviations.move(s17, hand("10", "5"), 11, true, true, true, 0.0)).isEqualTo(Move.HIT);
+	}
+
+	/**
+     * Test to ensure that insurance is only taken against an Ace at or above its index, and that
+     * malformed rows are rejected with their line number.
+     * This helps verify that a swapped-in deviation chart cannot silently change the advice.
+     */
+	@Test
+	void parse_shouldReadInsuranceAndRejectMalformedRows() {
+	    assertThat(h17Deviations.takeInsurance(11, 3.0)).isTrue();
+	    assertThat(h17Deviations.takeInsurance(11, 2.9)).isFalse();
+	    assertThat(h17Deviations.takeInsurance(10, 5.0)).isFalse();
+
+	    assertThatThrownBy(() -> DeviationChart.parse("bad", new StringReader("hard 16 10 0 S\n")))
+	            .isInstanceOf(IllegalArgumentException.class)
+	            .hasMessageContaining("line 1");
+	    assertThatThrownBy(() -> DeviationChart.parse("bad", new StringReader("# ok\nhard 16 1 0 S H\n")))
+	            .isInstanceOf(IllegalArgumentException.class)
+	            .hasMessageContaining("line 2");
+	    assertThatThrownBy(() -> DeviationChart.load("charts/none.deviations"))
+	            .isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static int hand(String card1, String card2) {
+	    Hand hand = new Hand();
+	    hand.addCard(new Card(card1));
+	    hand.addCard(new Card(card2));
+	    return hand.getPacked();
+	}
+}
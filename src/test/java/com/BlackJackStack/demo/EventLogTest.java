@@ -0,0 +1,139 @@
+package com.BlackJackStack.demo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.util.unit.DataSize;
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.GameState;
+import com.BlackJackStack.demo.model.Move;
+import com.BlackJackStack.demo.model.PlayEvent;
+import com.BlackJackStack.demo.model.StrategyRequest;
+import com.BlackJackStack.demo.model.StrategyResponse;
+import com.BlackJackStack.demo.model.TableRules;
+import com.BlackJackStack.demo.service.EventLog;
+import com.BlackJackStack.demo.service.EventLogReader;
+import com.BlackJackStack.demo.service.GameSession;
+import com.BlackJackStack.demo.service.StrategyChart;
+import com.BlackJackStack.demo.service.StrategyMetrics;
+import static org.assertj.core.api.Assertions.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+@SpringBootTest
+class EventLogTest {
+
+	private static final StrategyChart CHART = StrategyChart.load("charts/basic-h17.chart");
+
+	/**
+     * Test to ensure that recorded events are read back in order with their values, across segments.
+     * This helps verify the record layout, segment rotation and replay from a sequence number.
+     */
+	@Test
+	void replay_shouldReadEventsAcrossSegments(@TempDir Path dir) throws Exception {
+	    EventLog events = open(dir);
+	    StrategyResponse response = new StrategyResponse();
+	    response.setRecommendedMove("double down");
+	    response.setBasicStrategyMove("double down");
+	    response.setExpectedValue(0.25);
+	    response.setRulesProfile("default");
+	    for (int i = 0; i < 10; i++) {
+	        events.recordRecommendation(new StrategyRequest("5", "6", "6"), response);
+	    }
+	    assertThat(events.flush(Duration.ofSeconds(5))).isTrue();
+	    events.close();
+
+	    try (Stream<Path> files = Files.list(dir)) {
+	        assertThat(files.count()).isEqualTo(3);
+	    }
+	    List<PlayEvent> replayed = new ArrayList<>();
+	    EventLogReader reader = new EventLogReader(dir);
+	    assertThat(reader.replay(replayed::add)).isEqualTo(10);
+	    assertThat(replayed).hasSize(10);
+	    PlayEvent event = replayed.get(0);
+	    assertThat(event.getType()).isEqualTo(PlayEvent.Type.RECOMMENDATION);
+	    assertThat(event.getRulesProfile()).isEqualTo("default");
+	    assertThat(event.getFirstCard()).isEqualTo(5);
+	    assertThat(event.getPlayerTotal()).isEqualTo(11);
+	    assertThat(event.getDealerCard()).isEqualTo(6);
+	    assertThat(event.getRecommendedMove()).isEqualTo(Move.DOUBLE_DOWN);
+	    assertThat(event.getMove()).isNull();
+	    assertThat(event.getExpectedValue()).isEqualTo(0.25);
+	    assertThat(event.getTime()).isPositive();
+
+	    List<PlayEvent> resumed = new ArrayList<>();
+	    assertThat(reader.replay(7, resumed::add)).isEqualTo(10);
+	    assertThat(resumed).hasSize(3);
+
+	    // A reopened log appends after the events already written
+	    EventLog reopened = open(dir);
+	    reopened.recordRecommendation(new StrategyRequest("10", "6", "9"), response);
+	    assertThat(reopened.flush(Duration.ofSeconds(5))).isTrue();
+	    reopened.close();
+	    assertThat(reader.replay(10, resumed::add)).isEqualTo(11);
+	    assertThat(resumed.get(3).getPlayerTotal()).isEqualTo(16);
+	}
+
+	/**
+     * Test to ensure that a game session records its decisions and its settled round.
+     * This helps verify that moves against the basic strategy chart are counted as deviations.
+     */
+	@Test
+	void gameSession_shouldRecordDecisionsAndRounds(@TempDir Path dir) throws Exception {
+	    EventLog events = open(dir);
+	    GameSession session = new GameSession("table", TableRules.DEFAULT, new SplittableRandom(42), CHART, null, events);
+	    session.deal(10, new int[] {Card.parseRank("10"), Card.parseRank("6")}, Card.parseRank("10"));
+	    GameState state = session.play(Move.STAND);
+	    assertThat(events.flush(Duration.ofSeconds(5))).isTrue();
+	    events.close();
+
+	    List<PlayEvent> replayed = new ArrayList<>();
+	    new EventLogReader(dir).replay(replayed::add);
+	    assertThat(replayed).extracting(PlayEvent::getType)
+	            .containsExactly(PlayEvent.Type.DECISION, PlayEvent.Type.ROUND);
+	    PlayEvent decision = replayed.get(0);
+	    assertThat(decision.getMove()).isEqualTo(Move.STAND);
+	    assertThat(decision.getBasicStrategyMove()).isEqualTo(Move.HIT);
+	    assertThat(decision.isDeviation()).isTrue();
+	    PlayEvent round = replayed.get(1);
+	    assertThat(round.getBet()).isEqualTo(10);
+	    assertThat(round.getNet()).isEqualTo(state.getNet());
+	    assertThat(round.getExpectedValue()).isNaN();
+
+	    EventLogReader.Summary summary = new EventLogReader(dir).summarize();
+	    assertThat(summary.getDecisions()).isEqualTo(1);
+	    assertThat(summary.getDeviationRate()).isEqualTo(1.0);
+	    assertThat(summary.getRounds()).isEqualTo(1);
+	    assertThat(summary.getTotalNet()).isEqualTo(state.getNet());
+	}
+
+	/**
+     * Test to ensure that a rules profile name too long for a record is cut between characters.
+     * This helps verify that a multi-byte character is never split into an invalid record.
+     */
+	@Test
+	void replay_shouldTruncateProfileOnCharacter(@TempDir Path dir) throws Exception {
+	    EventLog events = open(dir);
+	    StrategyResponse response = new StrategyResponse();
+	    response.setRecommendedMove("stand");
+	    // Twelve two-byte characters, one byte more than a record keeps
+	    response.setRulesProfile("\u00e4".repeat(12));
+	    events.recordRecommendation(new StrategyRequest("10", "7", "9"), response);
+	    assertThat(events.flush(Duration.ofSeconds(5))).isTrue();
+	    events.close();
+
+	    List<PlayEvent> replayed = new ArrayList<>();
+	    new EventLogReader(dir).replay(replayed::add);
+	    assertThat(replayed).hasSize(1);
+	    assertThat(replayed.get(0).getRulesProfile()).isEqualTo("\u00e4".repeat(11));
+	}
+
+	private static EventLog open(Path dir) {
+	    return new EventLog(true, dir, 1024, DataSize.ofBytes(16 + 80 * 4), Duration.ofMillis(10), new StrategyMetrics());
+	}
+}
@@ -0,0 +1,258 @@
+package com.BlackJackStack.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.DealerOutcome;
+import com.BlackJackStack.demo.model.GameState;
+import com.BlackJackStack.demo.model.Hand;
+import com.BlackJackStack.demo.model.Move;
+import com.BlackJackStack.demo.model.Shoe;
+import com.BlackJackStack.demo.model.TableRules;
+import com.BlackJackStack.demo.service.DealerOutcomeCalculator;
+import com.BlackJackStack.demo.service.ExpectedValueSolver;
+import com.BlackJackStack.demo.service.GameSession;
+import static org.assertj.core.api.Assertions.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+@SpringBootTest
+class ExpectedValueSolverTest {
+
+	private final ExpectedValueSolver solver = new ExpectedValueSolver(new DealerOutcomeCalculator());
+
+	/**
+     * Test to ensure that a blackjack can only stand and is paid unless the dealer also has a natural.
+     * This helps verify that the payout comes from the rules and that a 6 can never make a natural.
+     */
+	@Test
+	void solve_blackjackShouldOnlyStand() {
+	    TableRules sixToFive = new TableRules("6:5", 0, 1.0, true, false, 2, false, 1.2);
+	    Map<Move, Double> values = solver.solve(hand("A", "K"), new Card("6"), sixToFive.newShoe(), sixToFive);
+
+	    assertThat(values).containsOnlyKeys(Move.STAND);
+	    assertThat(values.get(Move.STAND)).isCloseTo(1.2, within(1e-12));
+	}
+
+	/**
+     * Test to ensure that the action values depend on the cards left in the shoe.
+     * This helps verify that the player's draws are removed from a finite shoe.
+     */
+	@Test
+	void solve_shouldDependOnShoeComposition() {
+	    TableRules infinite = new TableRules("infinite", 0, 1.0, true, false, 2, false, 1.5);
+	    TableRules singleDeck = new TableRules("single", 1, 1.0, true, false, 2, false, 1.5);
+	    Map<Move, Double> a = solve(infinite);
+	    Map<Move, Double> b = solve(singleDeck);
+
+	    assertThat(a.get(Move.HIT)).isGreaterThan(a.get(Move.STAND));
+	    assertThat(b.get(Move.HIT)).isNotCloseTo(a.get(Move.HIT), within(1e-4));
+	    assertThat(a.get(Move.DOUBLE_DOWN)).isLessThan(a.get(Move.HIT));
+	}
+
+	/**
+     * Test to ensure that a double that busts against a ten or an Ace loses only the original bet to a natural.
+     * This helps verify the double down value against one computed by hand from the dealer's distribution.
+     */
+	@Test
+	void solve_bustedDoubleShouldLoseOriginalBetToNatural() {
+	    TableRules infinite = new TableRules("infinite", 0, 1.0, true, false, 2, false, 1.5);
+	    DealerOutcomeCalculator calculator = new DealerOutcomeCalculator();
+	    for (String dealer : new String[] {"10", "A"}) {
+	        DealerOutcome outcome = calculator.getOutcome(new Card(dealer), true);
+	        double natural = outcome.getNaturalProbability();
+	        double expected = 0.0;
+	        for (int value = 1; value <= 10; value++) {
+	            double p = value == 10 ? 4.0 / 13 : 1.0 / 13;
+	            int total = 15 + (value == 1 ? 1 : value);
+	            if (total > 21) {
+	                expected += p * (-2.0 * (1.0 - natural) - natural);
+	                continue;
+	            }
+	            double ev = outcome.getBustProbability();
+	            for (int dealerTotal = 17; dealerTotal <= 21; dealerTotal++) {
+	                ev += Integer.signum(total - dealerTotal) * outcome.getTotalProbability(dealerTotal);
+	            }
+	            expected += p * (2.0 * ev - natural);
+	        }
+	        double solved = solver.solve(hand("10", "5"), new Card(dealer), infinite.newShoe(), infinite)
+	                .get(Move.DOUBLE_DOWN);
+	        assertThat(solved).as("double 10,5 against %s", dealer).isCloseTo(expected, within(1e-12));
+	    }
+	}
+
+	/**
+     * Test to ensure that a double that busts against a ten or an Ace is valued as GameSession settles it.
+     * This helps verify that the solver and the game engine share the dealer-natural rule.
+     */
+	@Test
+	void solve_doubleShouldMatchGameSettlement() {
+	    TableRules infinite = new TableRules("infinite", 0, 1.0, true, false, 2, false, 1.5);
+	    for (String dealer : new String[] {"10", "A"}) {
+	        double solved = solver.solve(hand("10", "5"), new Card(dealer), infinite.newShoe(), infinite)
+	                .get(Move.DOUBLE_DOWN);
+	        GameSession session = new GameSession("table", infinite, new SplittableRandom(42));
+	        int rounds = 200_000;
+	        double net = 0.0;
+	        for (int i = 0; i < rounds; i++) {
+	            session.deal(1, new int[] {Card.parseRank("10"), Card.parseRank("5")}, Card.parseRank(dealer));
+	            GameState state = session.play(Move.DOUBLE_DOWN);
+	            net += state.getNet();
+	        }
+	        assertThat(net / rounds).as("double 10,5 against %s", dealer).isCloseTo(solved, within(0.02));
+	    }
+	}
+
+	/**
+     * Test to ensure that a dealer distribution computed by the caller gives the same values as solving alone.
+     * This helps verify that the shared distribution is used for the starting shoe only.
+     */
+	@Test
+	void solve_shouldReuseDealerOutcome() {
+	    TableRules rules = TableRules.DEFAULT;
+	    Shoe shoe = rules.newShoe();
+	    shoe.remove(Card.of(8).getRankIndex());
+	    shoe.remove(Card.of(4).getRankIndex());
+	    shoe.remove(Card.of(8).getRankIndex());
+	    DealerOutcome outcome = new DealerOutcomeCalculator().getOutcome(Card.of(8), shoe, rules.isHitSoft17());
+
+	    assertThat(solver.solve(hand("10", "6"), Card.of(8), shoe, rules, outcome)).isEqualTo(solve(rules));
+	}
+
+	/**
+     * Test to ensure that resplitting and doubling after a split add value, and that split Aces are not resplit.
+     * This helps verify that the split value follows the table's split rules instead of a fixed two hands.
+     */
+	@Test
+	void solve_splitShouldFollowResplitRules() {
+	    TableRules twoHands = new TableRules("two", 0, 1.0, false, false, 2, false, 1.5);
+	    TableRules fourHands = new TableRules("four", 0, 1.0, false, false, 4, false, 1.5);
+	    TableRules fourHandsDas = new TableRules("four-das", 0, 1.0, false, true, 4, false, 1.5);
+	    double two = split("8", "6", twoHands);
+	    double four = split("8", "6", fourHands);
+	    double das = split("8", "6", fourHandsDas);
+
+	    assertThat(four).isGreaterThan(two);
+	    assertThat(das).isGreaterThan(four);
+	    assertThat(split("A", "6", fourHands)).isCloseTo(split("A", "6", twoHands), within(1e-12));
+
+	    // Without a chance of another pair card the value is two independent hands, whatever the maximum
+	    TableRules singleDeck = new TableRules("single", 1, 1.0, false, false, 2, false, 1.5);
+	    TableRules singleDeckFour = new TableRules("single-four", 1, 1.0, false, false, 4, false, 1.5);
+	    assertThat(split("7", "7", singleDeckFour, "7")).isCloseTo(split("7", "7", singleDeck, "7"), within(1e-12));
+	}
+
+	/**
+     * Test to ensure that splitting up to the most hands a table may allow is valued, and that more are rejected.
+     * This helps verify that resplit values keep growing by less and less as the maximum rises.
+     */
+	@Test
+	void solve_splitShouldBeBoundedByMaxSplitHands() {
+	    double four = split("8", "10", new TableRules("four", 0, 1.0, false, false, 4, false, 1.5));
+	    double eight = split("8", "10", new TableRules("eight", 0, 1.0, false, false, TableRules.MAX_SPLIT_HANDS,
+	            false, 1.5));
+
+	    assertThat(eight).isGreaterThanOrEqualTo(four).isCloseTo(four, within(0.01));
+	    assertThatThrownBy(() -> new TableRules("nine", 0, 1.0, false, false, TableRules.MAX_SPLIT_HANDS + 1, false, 1.5))
+	            .isInstanceOf(IllegalArgumentException.class);
+	}
+
+	/**
+     * Test to ensure that splitting 8s against an Ace is valued as GameSession settles it, playing each hand
+     * by the solver's split-hand values. This helps verify that a dealer natural takes the original bet once
+     * across the split hands, whether they bust or not.
+     */
+	@Test
+	void solve_splitShouldMatchGameSettlement() {
+	    TableRules infinite = new TableRules("infinite", 0, 1.0, false, false, 2, false, 1.5);
+	    Card ace = new Card("A");
+	    double solved = solver.solve(hand("8", "8"), ace, infinite.newShoe(), infinite).get(Move.SPLIT);
+	    Map<Integer, Move> moves = new HashMap<>();
+	    GameSession session = new GameSession("table", infinite, new SplittableRandom(42));
+	    int rounds = 200_000;
+	    double net = 0.0;
+	    for (int i = 0; i < rounds; i++) {
+	        session.deal(1, new int[] {Card.parseRank("8"), Card.parseRank("8")}, Card.ACE);
+	        GameState state = session.play(Move.SPLIT);
+	        while (state.getPhase() == GameState.Phase.PLAYER_TURN) {
+	            int packed = packed(state.getHands().get(state.getActiveHand()).getCards());
+	            state = session.play(moves.computeIfAbsent(packed, h -> {
+	                Map<Move, Double> values = solver.solve(h, ace, infinite.newShoe(), infinite, null, 2, false);
+	                return values.getOrDefault(Move.HIT, -2.0) > values.get(Move.STAND) ? Move.HIT : Move.STAND;
+	            }));
+	        }
+	        net += state.getNet();
+	    }
+	    assertThat(net / rounds).isCloseTo(solved, within(0.02));
+	}
+
+	/**
+     * Test to ensure that the hands of a pair resplit into three or four hands are each valued as GameSession
+     * settles them. This helps verify that the hands share the original bet lost to a dealer natural evenly.
+     */
+	@Test
+	void solve_resplitHandsShouldShareTheNaturalAsGameSettlement() {
+	    TableRules four = new TableRules("four", 0, 1.0, false, false, 4, false, 1.5);
+	    Card ace = new Card("A");
+	    Map<List<Integer>, Double> standValues = new HashMap<>();
+	    GameSession session = new GameSession("table", four, new SplittableRandom(42));
+	    double difference = 0.0;
+	    int hands = 0;
+	    for (int i = 0; i < 200_000; i++) {
+	        session.deal(1, new int[] {Card.parseRank("8"), Card.parseRank("8")}, Card.ACE);
+	        GameState state = session.play(Move.SPLIT);
+	        while (state.getPhase() == GameState.Phase.PLAYER_TURN) {
+	            state = session.play(state.getMoves().contains(Move.SPLIT.getLabel()) ? Move.SPLIT : Move.STAND);
+	        }
+	        int count = state.getHands().size();
+	        if (count < 3) {
+	            continue;
+	        }
+	        for (GameState.HandState hand : state.getHands()) {
+	            int packed = packed(hand.getCards());
+	            double solved = standValues.computeIfAbsent(List.of(packed, count), k ->
+	                    solver.solve(packed, ace, four.newShoe(), four, null, count, false).get(Move.STAND));
+	            difference += hand.getNet() - solved;
+	            hands++;
+	        }
+	    }
+	    assertThat(hands).isGreaterThan(50_000);
+	    assertThat(difference / hands).isCloseTo(0.0, within(0.02));
+	}
+
+	private double split(String card, String dealer, TableRules rules, String... removed) {
+	    Shoe shoe = rules.newShoe();
+	    shoe.remove(Card.parseRank(card));
+	    shoe.remove(Card.parseRank(card));
+	    shoe.remove(Card.parseRank(dealer));
+	    for (String extra : removed) {
+	        shoe.remove(Card.parseRank(extra));
+	    }
+	    return solver.solve(hand(card, card), new Card(dealer), shoe, rules).get(Move.SPLIT);
+	}
+
+	private Map<Move, Double> solve(TableRules rules) {
+	    Shoe shoe = rules.newShoe();
+	    shoe.remove(Card.of(8).getRankIndex());
+	    shoe.remove(Card.of(4).getRankIndex());
+	    shoe.remove(Card.of(8).getRankIndex());
+	    return solver.solve(hand("10", "6"), Card.of(8), shoe, rules);
+	}
+
+	private static int packed(List<String> cards) {
+	    Hand hand = new Hand();
+	    for (String card : cards) {
+	        hand.addCard(new Card(card));
+	    }
+	    return hand.getPacked();
+	}
+
+	private static int hand(String card1, String card2) {
+	    Hand hand = new Hand();
+	    hand.addCard(new Card(card1));
+	    hand.addCard(new Card(card2));
+	    return hand.getPacked();
+	}
+}
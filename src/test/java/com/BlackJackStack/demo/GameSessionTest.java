@@ -0,0 +1,175 @@
+package com.BlackJackStack.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.GameState;
+import com.BlackJackStack.demo.model.Move;
+import com.BlackJackStack.demo.model.TableRules;
+import com.BlackJackStack.demo.service.GameSession;
+import static org.assertj.core.api.Assertions.*;
+import java.util.SplittableRandom;
+
+@SpringBootTest
+class GameSessionTest {
+
+	private static final TableRules VEGAS = new TableRules("vegas-s17", 6, 0.75, false, true, 4, true, 1.5);
+
+	/**
+     * Test to ensure that a dealt natural is paid at once at the table's payout.
+     * This helps verify that a blackjack skips the player's turn and settles the round.
+     */
+	@Test
+	void deal_shouldPayBlackjack() {
+	    GameSession session = new GameSession("table", TableRules.DEFAULT, new SplittableRandom(42));
+	    GameState state = session.deal(10, ranks("A", "K"), Card.parseRank("5"));
+
+	    assertThat(state.getPhase()).isEqualTo(GameState.Phase.SETTLED);
+	    assertThat(state.getRound()).isEqualTo(1);
+	    assertThat(state.getHands()).hasSize(1);
+	    assertThat(state.getHands().get(0).getStatus()).isEqualTo("blackjack");
+	    assertThat(state.getDealerCards()).hasSize(2);
+	    assertThat(state.getNet()).isEqualTo(15.0);
+	    assertThat(state.getMoves()).isEmpty();
+	}
+
+	/**
+     * Test to ensure that a split pair is played as two hands in turn and both are settled against the dealer.
+     * This helps verify that the round moves from hand to hand and adds up every hand's result.
+     */
+	@Test
+	void play_shouldSplitIntoHandsPlayedInTurn() {
+	    GameSession session = new GameSession("table", VEGAS, new SplittableRandom(42));
+	    GameState state = session.deal(10, ranks("8", "8"), Card.parseRank("6"));
+	    assertThat(state.getMoves()).contains("split", "double down", "surrender");
+
+	    state = session.play(Move.SPLIT);
+	    assertThat(state.getHands()).hasSize(2);
+	    assertThat(state.getHands().get(0).getCards()).hasSize(2).first().isEqualTo("8");
+	    assertThat(state.getHands().get(1).getCards()).hasSize(2).first().isEqualTo("8");
+	    assertThat(state.getActiveHand()).isZero();
+	    assertThat(state.getMoves()).doesNotContain("surrender");
+
+	    while (state.getPhase() == GameState.Phase.PLAYER_TURN) {
+	        state = session.play(Move.STAND);
+	    }
+	    assertThat(state.getPhase()).isEqualTo(GameState.Phase.SETTLED);
+	    assertThat(state.getDealerTotal()).isGreaterThanOrEqualTo(17);
+	    double total = state.getHands().stream().mapToDouble(GameState.HandState::getNet).sum();
+	    assertThat(state.getNet()).isEqualTo(total);
+	    assertThat(state.getNet()).isBetween(-20.0, 20.0);
+	}
+
+	/**
+     * Test to ensure that a double down takes one card on twice the bet and finishes the hand.
+     * This helps verify that the doubled bet is the amount won or lost.
+     */
+	@Test
+	void play_shouldDoubleTheBet() {
+	    GameSession session = new GameSession("table", TableRules.DEFAULT, new SplittableRandom(7));
+	    session.deal(10, ranks("5", "6"), Card.parseRank("6"));
+	    GameState state = session.play(Move.DOUBLE_DOWN);
+
+	    assertThat(state.getPhase()).isEqualTo(GameState.Phase.SETTLED);
+	    assertThat(state.getHands().get(0).getCards()).hasSize(3);
+	    assertThat(state.getHands().get(0).getBet()).isEqualTo(20);
+	    assertThat(Math.abs(state.getNet())).isIn(0.0, 20.0);
+	}
+
+	/**
+     * Test to ensure that a surrendered hand loses the whole bet when the dealer turns over a natural.
+     * This helps verify that surrender is late, as in ExpectedValueSolver, and only saves half the bet otherwise.
+     */
+	@Test
+	void play_surrenderShouldLoseBetToDealerNatural() {
+	    // This seed deals the dealer a ten under the Ace
+	    GameSession session = new GameSession("table", VEGAS, new SplittableRandom(0));
+	    session.deal(10, ranks("10", "6"), Card.parseRank("A"));
+	    GameState state = session.play(Move.SURRENDER);
+
+	    assertThat(state.getPhase()).isEqualTo(GameState.Phase.SETTLED);
+	    assertThat(state.getDealerCards()).containsExactly("A", "10");
+	    assertThat(state.getHands().get(0).getStatus()).isEqualTo("surrendered");
+	    assertThat(state.getNet()).isEqualTo(-10.0);
+
+	    state = session.deal(10, ranks("10", "6"), Card.parseRank("10"));
+	    state = session.play(Move.SURRENDER);
+	    assertThat(state.getDealerCards()).hasSize(2).doesNotContain("A");
+	    assertThat(state.getNet()).isEqualTo(-5.0);
+	}
+
+	/**
+     * Test to ensure that a dealer natural takes only the original bet from doubled, split and busted hands.
+     * This helps verify the settlement rule ExpectedValueSolver values moves by: doubles and splits are returned.
+     */
+	@Test
+	void settle_dealerNaturalShouldTakeOnlyOriginalBet() {
+	    // This seed busts the double with a 10 and deals the dealer a K under the Ace
+	    GameSession session = new GameSession("table", VEGAS, new SplittableRandom(3));
+	    session.deal(10, ranks("10", "5"), Card.ACE);
+	    GameState state = session.play(Move.DOUBLE_DOWN);
+
+	    assertThat(state.getHands().get(0).getStatus()).isEqualTo("busted");
+	    assertThat(state.getHands().get(0).getBet()).isEqualTo(20);
+	    assertThat(state.getDealerCards()).containsExactly("A", "K");
+	    assertThat(state.getNet()).isEqualTo(-10.0);
+
+	    // This seed busts both doubled split hands and deals the dealer a Q under the Ace
+	    session = new GameSession("table", VEGAS, new SplittableRandom(11));
+	    session.deal(10, ranks("8", "8"), Card.ACE);
+	    session.play(Move.SPLIT);
+	    session.play(Move.DOUBLE_DOWN);
+	    state = session.play(Move.DOUBLE_DOWN);
+
+	    assertThat(state.getHands()).extracting(GameState.HandState::getStatus).containsExactly("busted", "busted");
+	    assertThat(state.getHands()).extracting(GameState.HandState::getBet).containsExactly(20, 20);
+	    assertThat(state.getDealerCards()).containsExactly("A", "Q");
+	    assertThat(state.getNet()).isEqualTo(-10.0);
+	}
+
+	/**
+     * Test to ensure that moves that are not allowed are refused without changing the round.
+     * This helps verify that clients cannot split unpaired hands, surrender where the rules forbid it,
+     * or act before a round is dealt.
+     */
+	@Test
+	void play_shouldRefuseIllegalMoves() {
+	    GameSession session = new GameSession("table", TableRules.DEFAULT, new SplittableRandom(42));
+	    assertThatThrownBy(() -> session.play(Move.HIT)).isInstanceOf(IllegalStateException.class);
+
+	    session.deal(10, ranks("10", "6"), Card.parseRank("9"));
+	    assertThatThrownBy(() -> session.play(Move.SPLIT)).isInstanceOf(IllegalStateException.class);
+	    assertThatThrownBy(() -> session.play(Move.SURRENDER)).isInstanceOf(IllegalStateException.class);
+	    assertThatThrownBy(() -> session.deal(10, null, -1)).isInstanceOf(IllegalStateException.class);
+	    assertThat(session.getState().getHands().get(0).getCards()).containsExactly("10", "6");
+	    assertThat(session.getState().getDealerCards()).containsExactly("9");
+	}
+
+	/**
+     * Test to ensure that choosing more cards of a rank than are left refuses the deal without taking any card.
+     * This helps verify that the 2 of a refused deal is still in the shoe for the next one.
+     */
+	@Test
+	void deal_shouldLeaveShoeUnchangedWhenRankIsShort() {
+	    GameSession session = new GameSession("table", new TableRules("single", 1, 1.0, true, false, 2, false, 1.5),
+	            new SplittableRandom(17));
+	    GameState state = session.deal(10, ranks("A", "A"), Card.parseRank("A"));
+	    while (state.getPhase() == GameState.Phase.PLAYER_TURN) {
+	        state = session.play(Move.STAND);
+	    }
+	    // This seed deals the dealer a single 2, leaving one Ace and three 2s in the deck
+	    assertThat(state.getDealerCards()).containsExactly("A", "5", "2");
+	    assertThat(state.getHands().get(0).getCards()).containsExactly("A", "A");
+
+	    // The 2 is checked first, but only one Ace is left for the two asked for
+	    assertThatThrownBy(() -> session.deal(10, ranks("2", "A"), Card.parseRank("A")))
+	            .isInstanceOf(IllegalStateException.class);
+	    state = session.deal(10, ranks("2", "2"), Card.parseRank("2"));
+	    assertThat(state.getHands().get(0).getCards()).startsWith("2", "2");
+	    assertThat(state.getDealerCards()).first().isEqualTo("2");
+	}
+
+	private static int[] ranks(String first, String second) {
+	    return new int[] {Card.parseRank(first), Card.parseRank(second)};
+	}
+}
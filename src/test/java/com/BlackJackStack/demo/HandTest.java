@@ -0,0 +1,97 @@
+package com.BlackJackStack.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.Hand;
+import com.BlackJackStack.demo.model.PackedHand;
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class HandTest {
+
+	/**
+     * Test to ensure that Aces are counted as 11 or 1 as needed.
+     * This helps verify the packed total and soft flag against the Hand facade.
+     */
+	@Test
+	void getValue_shouldCountAcesAsOneOrEleven() {
+	    Hand hand = hand("A", "A");
+	    assertThat(hand.getValue()).isEqualTo(12);
+	    assertThat(hand.isSoft()).isTrue();
+
+	    hand.addCard(new Card("5"));
+	    assertThat(hand.getValue()).isEqualTo(17);
+	    assertThat(hand.isSoft()).isTrue();
+
+	    hand.addCard(new Card("K"));
+	    assertThat(hand.getValue()).isEqualTo(17);
+	    assertThat(hand.isSoft()).isFalse();
+	    assertThat(hand.isBusted()).isFalse();
+	}
+
+	/**
+     * Test to ensure that blackjack and bust checks work from the packed state.
+     * This helps verify the hit/stand/bust checks used by the simulation loops.
+     */
+	@Test
+	void packedHand_shouldDetectBlackjackAndBust() {
+	    assertThat(hand("A", "Q").isBlackjack()).isTrue();
+	    assertThat(hand("7", "7", "7").isBlackjack()).isFalse();
+
+	    int packed = hand("10", "6").getPacked();
+	    assertThat(PackedHand.isBusted(PackedHand.addRank(packed, Card.parseRank("6")))).isTrue();
+	    assertThat(PackedHand.isBusted(PackedHand.addRank(packed, Card.parseRank("5")))).isFalse();
+	}
+
+	/**
+     * Test to ensure that only two cards of the same rank can be split.
+     * This helps verify that mixed ten-valued ranks do not pair and three-card hands never split.
+     */
+	@Test
+	void canSplit_shouldPairCardsOfSameRank() {
+	    assertThat(hand("8", "8").canSplit()).isTrue();
+	    assertThat(hand("K", "K").canSplit()).isTrue();
+	    assertThat(hand("K", "Q").canSplit()).isFalse();
+	    assertThat(hand("8", "9").canSplit()).isFalse();
+	    assertThat(hand("4", "4", "4").canSplit()).isFalse();
+	    assertThat(PackedHand.pairValue(hand("A", "A").getPacked())).isEqualTo(1);
+	}
+
+	/**
+     * Test to ensure that the copy constructor produces an equal but independent hand.
+     * This helps verify that copying does not re-parse or share the card list.
+     */
+	@Test
+	void copyConstructor_shouldBeIndependent() {
+	    Hand original = hand("9", "2");
+	    Hand copy = new Hand(original);
+	    copy.addCard(new Card("J"));
+
+	    assertThat(original.getValue()).isEqualTo(11);
+	    assertThat(copy.getValue()).isEqualTo(21);
+	    assertThat(copy.getCards()).hasSize(3);
+	    assertThatThrownBy(() -> copy.getCards().add(new Card("2")))
+	            .isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	/**
+     * Test to ensure that invalid card strings are still rejected.
+     * This helps verify the validation that replaced the regular expression check.
+     */
+	@Test
+	void card_shouldRejectInvalidRanks() {
+	    assertThat(new Card(" q ").getRank()).isEqualTo("Q");
+	    assertThatThrownBy(() -> new Card("1")).isInstanceOf(IllegalArgumentException.class);
+	    assertThatThrownBy(() -> new Card("11")).isInstanceOf(IllegalArgumentException.class);
+	    assertThatThrownBy(() -> new Card("")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static Hand hand(String... ranks) {
+	    Hand hand = new Hand();
+	    for (String rank : ranks) {
+	        hand.addCard(new Card(rank));
+	    }
+	    return hand;
+	}
+}
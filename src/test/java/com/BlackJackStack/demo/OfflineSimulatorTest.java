@@ -0,0 +1,70 @@
+package com.BlackJackStack.demo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.BlackJackStack.demo.model.TableRules;
+import com.BlackJackStack.demo.service.OfflineSimulator;
+import com.BlackJackStack.demo.service.StrategyService;
+import com.BlackJackStack.demo.service.Tally;
+import com.BlackJackStack.demo.service.TableRulesRegistry;
+import static org.assertj.core.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+@SpringBootTest
+class OfflineSimulatorTest {
+
+	private final OfflineSimulator simulator =
+	        new OfflineSimulator(new StrategyService(), new TableRulesRegistry());
+
+	/**
+     * Test to ensure that a run resumed from a checkpoint gives exactly the result of an uninterrupted run.
+     * This helps verify that the totals and the batch generators are restored, and only for the same settings.
+     */
+	@Test
+	void simulate_shouldResumeFromCheckpoint(@TempDir Path dir) throws IOException {
+	    ForkJoinPool pool = new ForkJoinPool(4);
+	    try {
+	        Path interrupted = dir.resolve("interrupted.checkpoint");
+	        simulator.simulate(TableRules.DEFAULT, 20_000, 7, 10_000, interrupted, pool);
+	        Tally resumed = simulator.simulate(TableRules.DEFAULT, 40_000, 7, 10_000, interrupted, pool).getTally();
+	        Tally straight = simulator.simulate(TableRules.DEFAULT, 40_000, 7, 10_000, dir.resolve("straight.checkpoint"),
+	                pool).getTally();
+
+	        assertThat(resumed.getCount()).isEqualTo(40_000);
+	        assertThat(resumed.getSum()).isEqualTo(straight.getSum());
+	        assertThat(resumed.getSumOfSquares()).isEqualTo(straight.getSumOfSquares());
+	        assertThatThrownBy(() -> simulator.simulate(TableRules.DEFAULT, 50_000, 8, 10_000, interrupted, pool))
+	                .isInstanceOf(IllegalStateException.class)
+	                .hasMessageContaining("seed");
+
+	        // A checkpoint written while following another chart is not resumed either
+	        Files.writeString(interrupted, Files.readString(interrupted).replaceAll("(?m)^chart=.*$", "chart=0"));
+	        assertThatThrownBy(() -> simulator.simulate(TableRules.DEFAULT, 50_000, 7, 10_000, interrupted, pool))
+	                .isInstanceOf(IllegalStateException.class)
+	                .hasMessageContaining("chart");
+	    } finally {
+	        pool.shutdown();
+	    }
+	}
+
+	/**
+     * Test to ensure that full rounds played by basic strategy give a small house edge.
+     * This helps verify that blackjacks, doubles, splits and the dealer are settled correctly.
+     */
+	@Test
+	void simulate_shouldGiveSmallHouseEdge() {
+	    ForkJoinPool pool = new ForkJoinPool(4);
+	    try {
+	        Tally tally = simulator.simulate(TableRules.DEFAULT, 400_000, 1, 100_000, null, pool).getTally();
+
+	        assertThat(tally.getMean()).isBetween(-0.02, 0.005);
+	        assertThat(tally.getStandardError() * Math.sqrt(tally.getCount())).isBetween(1.0, 1.3);
+	    } finally {
+	        pool.shutdown();
+	    }
+	}
+}
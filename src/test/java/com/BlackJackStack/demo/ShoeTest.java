@@ -0,0 +1,141 @@
+package com.BlackJackStack.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.Shoe;
+import com.BlackJackStack.demo.service.DealerOutcomeCalculator;
+import static org.assertj.core.api.Assertions.*;
+import java.util.SplittableRandom;
+
+@SpringBootTest
+class ShoeTest {
+
+	/**
+     * Test to ensure that a single deck deals every card exactly once.
+     * This helps verify that draws are without replacement.
+     */
+	@Test
+	void draw_shouldDealEachCardOnce() {
+	    Shoe shoe = new Shoe(1, 1.0);
+	    int[] dealt = new int[Card.RANKS];
+	    SplittableRandom random = new SplittableRandom(42);
+	    for (int i = 0; i < 52; i++) {
+	        dealt[shoe.draw(random)]++;
+	    }
+
+	    assertThat(dealt).containsOnly(4);
+	    assertThat(shoe.remaining()).isZero();
+	    assertThatThrownBy(() -> shoe.draw(random)).isInstanceOf(IllegalStateException.class);
+	}
+
+	/**
+     * Test to ensure that drawing random cards is deterministic when using the same seed.
+     * This helps verify that the random number generation is functioning as expected.
+     */
+	@Test
+	void draw_shouldBeDeterministicWithSeed() {
+	    Shoe shoe1 = new Shoe(6, 1.0);
+	    Shoe shoe2 = new Shoe(6, 1.0);
+	    SplittableRandom random1 = new SplittableRandom(42);
+	    SplittableRandom random2 = new SplittableRandom(42);
+
+	    assertThat(shoe1.draw(random1)).isEqualTo(shoe2.draw(random2));
+	    assertThat(shoe1.draw(random1)).isEqualTo(shoe2.draw(random2));
+	}
+
+	/**
+     * Test to ensure that drawing random cards produces different results with different seeds.
+     * This helps verify that the random number generation is sensitive to the seed value.
+     */
+	@Test
+	void draw_shouldProduceDifferentCardsWithDifferentSeeds() {
+	    int[] cards1 = new int[5];
+	    int[] cards2 = new int[5];
+	    Shoe shoe1 = new Shoe(6, 1.0);
+	    Shoe shoe2 = new Shoe(6, 1.0);
+	    SplittableRandom random1 = new SplittableRandom(42);
+	    SplittableRandom random2 = new SplittableRandom(132);
+	    for (int i = 0; i < cards1.length; i++) {
+	        cards1[i] = shoe1.draw(random1);
+	        cards2[i] = shoe2.draw(random2);
+	    }
+
+	    // There's a small chance a few draws could be the same, but very unlikely
+	    assertThat(cards1).isNotEqualTo(cards2);
+	}
+
+	/**
+     * Test to ensure that multiple draws of random cards return valid card objects.
+     * This helps verify that the card drawing functionality is consistent and reliable.
+     */
+	@Test
+	void draw_multipleDrawsShouldBeValid() {
+	    Shoe shoe = new Shoe(6, 1.0);
+	    SplittableRandom random = new SplittableRandom(42);
+	    for (int i = 0; i < 100; i++) {
+	        Card card = Card.of(shoe.draw(random));
+	        assertThat(card).isNotNull();
+	        assertThat(card.getRank()).isIn("2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A");
+	    }
+	}
+
+	/**
+     * Test to ensure that removed cards are no longer dealt and that reset restores the marked composition.
+     * This helps verify the card removal and per-round rewind used by the simulations.
+     */
+	@Test
+	void removeAndReset_shouldTrackComposition() {
+	    Shoe shoe = new Shoe(1, 1.0);
+	    for (int i = 0; i < 4; i++) {
+	        shoe.remove(Card.ACE);
+	    }
+	    shoe.mark();
+
+	    SplittableRandom random = new SplittableRandom(7);
+	    for (int i = 0; i < 48; i++) {
+	        assertThat(shoe.draw(random)).isNotEqualTo(Card.ACE);
+	    }
+	    shoe.reset();
+	    assertThat(shoe.remaining()).isEqualTo(48);
+	    assertThatThrownBy(() -> shoe.remove(Card.ACE)).isInstanceOf(IllegalStateException.class);
+	}
+
+	/**
+     * Test to ensure that the shoe asks for a reshuffle once the penetration is reached.
+     * This helps verify the cut card position.
+     */
+	@Test
+	void needsShuffle_shouldFollowPenetration() {
+	    Shoe shoe = new Shoe(2, 0.5);
+	    SplittableRandom random = new SplittableRandom(1);
+	    for (int i = 0; i < 51; i++) {
+	        shoe.draw(random);
+	    }
+	    assertThat(shoe.needsShuffle()).isFalse();
+	    shoe.draw(random);
+	    assertThat(shoe.needsShuffle()).isTrue();
+	    shoe.shuffle();
+	    assertThat(shoe.remaining()).isEqualTo(104);
+	}
+
+	/**
+     * Test to ensure that the dealer's exact outcome depends on the cards left in a finite shoe.
+     * This helps verify that removing ten-valued cards lowers a 6's bust chance.
+     */
+	@Test
+	void dealerOutcome_shouldUseShoeComposition() {
+	    DealerOutcomeCalculator calculator = new DealerOutcomeCalculator();
+	    Shoe full = new Shoe(1, 1.0);
+	    full.remove(Card.parseRank("6"));
+	    Shoe tensGone = new Shoe(full);
+	    for (int i = 0; i < 8; i++) {
+	        tensGone.remove(Card.parseRank(i % 2 == 0 ? "K" : "Q"));
+	    }
+
+	    double fullBust = calculator.getOutcome(new Card("6"), full, false).getBustProbability();
+	    double tensGoneBust = calculator.getOutcome(new Card("6"), tensGone, false).getBustProbability();
+	    assertThat(fullBust).isCloseTo(calculator.getOutcome(new Card("6"), false).getBustProbability(), within(0.01));
+	    assertThat(tensGoneBust).isLessThan(fullBust);
+	}
+}
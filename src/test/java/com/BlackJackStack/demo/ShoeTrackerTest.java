@@ -0,0 +1,81 @@
+package com.BlackJackStack.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.ShoeCount;
+import com.BlackJackStack.demo.model.TableRules;
+import com.BlackJackStack.demo.service.ShoeTracker;
+import static org.assertj.core.api.Assertions.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@SpringBootTest
+class ShoeTrackerTest {
+
+	/**
+     * Test to ensure that cards are tagged with their Hi-Lo values and the true count divides by the decks left.
+     * This helps verify that the running and true counts match a count kept by hand.
+     */
+	@Test
+	void see_shouldKeepHiLoCount() {
+	    ShoeTracker tracker = new ShoeTracker("table", TableRules.DEFAULT);
+	    tracker.see(Card.parseRank("2"));
+	    tracker.see(Card.parseRank("6"));
+	    tracker.see(Card.parseRank("8"));
+	    ShoeCount count = tracker.see(new int[] {Card.parseRank("K"), Card.parseRank("A"), Card.parseRank("5")});
+
+	    assertThat(count.getRunningCount()).isEqualTo(1);
+	    assertThat(count.getCardsSeen()).isEqualTo(6);
+	    assertThat(count.getDecksRemaining()).isCloseTo((6 * 52 - 6) / 52.0, within(1e-12));
+	    assertThat(count.getTrueCount()).isCloseTo(1 / count.getDecksRemaining(), within(1e-12));
+
+	    for (int i = 0; i < 26; i++) {
+	        tracker.see(Card.parseRank("3"));
+	    }
+	    assertThat(tracker.getCount().getRunningCount()).isEqualTo(27);
+	    assertThat(tracker.shuffle().getRunningCount()).isZero();
+	    assertThat(tracker.getCount().getCardsSeen()).isZero();
+	}
+
+	/**
+     * Test to ensure that a negative running count survives packing and that an infinite deck is refused.
+     * This helps verify that the packed state keeps the count's sign and the cards seen apart.
+     */
+	@Test
+	void see_shouldKeepNegativeCount() {
+	    ShoeTracker tracker = new ShoeTracker("table", TableRules.DEFAULT);
+	    for (int i = 0; i < 10; i++) {
+	        tracker.see(Card.ACE);
+	    }
+	    assertThat(tracker.getCount().getRunningCount()).isEqualTo(-10);
+	    assertThat(tracker.getCount().getCardsSeen()).isEqualTo(10);
+
+	    TableRules infinite = new TableRules("infinite", 0, 0.75, true, false, 2, false, 1.5);
+	    assertThatThrownBy(() -> new ShoeTracker("table", infinite)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	/**
+     * Test to ensure that cards reported from many threads at once are all counted.
+     * This helps verify that one session can be updated concurrently without locking or lost updates.
+     */
+	@Test
+	void see_shouldCountConcurrentUpdates() throws InterruptedException {
+	    ShoeTracker tracker = new ShoeTracker("table", TableRules.DEFAULT);
+	    ExecutorService pool = Executors.newFixedThreadPool(8);
+	    for (int t = 0; t < 8; t++) {
+	        int rank = t % 2 == 0 ? Card.parseRank("4") : Card.parseRank("Q");
+	        pool.execute(() -> {
+	            for (int i = 0; i < 10_000; i++) {
+	                tracker.see(rank);
+	            }
+	        });
+	    }
+	    pool.shutdown();
+	    assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+	    assertThat(tracker.getCount().getRunningCount()).isZero();
+	    assertThat(tracker.getCount().getCardsSeen()).isEqualTo(80_000);
+	}
+}
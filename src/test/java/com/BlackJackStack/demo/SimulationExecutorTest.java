@@ -0,0 +1,119 @@
+package com.BlackJackStack.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.BlackJackStack.demo.service.SimulationExecutor;
+import com.BlackJackStack.demo.service.Tally;
+import static org.assertj.core.api.Assertions.*;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@SpringBootTest
+class SimulationExecutorTest {
+
+	/**
+     * Test to ensure that a seeded run gives the same result regardless of the pool's parallelism.
+     * This helps verify that chunking and merging do not depend on the number of cores.
+     */
+	@Test
+	void run_shouldBeDeterministicAcrossPoolSizes() {
+	    ForkJoinPool single = new ForkJoinPool(1);
+	    ForkJoinPool quad = new ForkJoinPool(4);
+	    try {
+	        Tally a = new SimulationExecutor(single).run(new SplittableRandom(7), 25_000, Tally::new,
+	                () -> (random, tally) -> tally.add(random.nextDouble()), Tally::merge);
+	        Tally b = new SimulationExecutor(quad).run(new SplittableRandom(7), 25_000, Tally::new,
+	                () -> (random, tally) -> tally.add(random.nextDouble()), Tally::merge);
+
+	        assertThat(a.getCount()).isEqualTo(25_000);
+	        assertThat(a.getMean()).isEqualTo(b.getMean());
+	        assertThat(a.getMean()).isCloseTo(0.5, within(0.01));
+	    } finally {
+	        single.shutdown();
+	        quad.shutdown();
+	    }
+	}
+
+	/**
+     * Test to ensure that small budgets still play exactly the requested number of rounds.
+     * This helps verify the single-chunk path that is not split across workers.
+     */
+	@Test
+	void run_smallBudgetShouldPlayEveryRound() {
+	    Tally tally = new SimulationExecutor().run(new SplittableRandom(1), 10, Tally::new,
+	            () -> (random, t) -> t.add(1.0), Tally::merge);
+
+	    assertThat(tally.getCount()).isEqualTo(10);
+	    assertThat(tally.getMean()).isEqualTo(1.0);
+	}
+
+	/**
+     * Test to ensure that computations run on the pool, that computations beyond the admission limit are
+     * rejected while one is queued or running, and that finished computations make room again.
+     * This helps verify that a burst of requests cannot queue an unbounded amount of work.
+     */
+	@Test
+	void submit_shouldRejectBeyondLimit() throws Exception {
+	    SimulationExecutor executor = new SimulationExecutor(2, 1);
+	    CountDownLatch release = new CountDownLatch(1);
+	    try {
+	        CompletableFuture<Tally> running = executor.submit(() -> {
+	            assertThat(Thread.currentThread().getName()).startsWith("simulation-");
+	            try {
+	                release.await();
+	            } catch (InterruptedException e) {
+	                Thread.currentThread().interrupt();
+	            }
+	            return executor.run(new SplittableRandom(3), 5_000, Tally::new,
+	                    () -> (random, t) -> t.add(1.0), Tally::merge);
+	        });
+	        assertThatThrownBy(() -> executor.submit(() -> 0)).isInstanceOf(RejectedExecutionException.class);
+	        release.countDown();
+
+	        assertThat(running.get(10, TimeUnit.SECONDS).getCount()).isEqualTo(5_000);
+	        assertThat(executor.submit(() -> 1).get(10, TimeUnit.SECONDS)).isEqualTo(1);
+	    } finally {
+	        executor.shutdown();
+	    }
+	}
+
+	/**
+     * Test to ensure that a computation cancelled while it waits for a worker never runs and gives its
+     * admission back. This helps verify that cancelled requests do not use up the admission limit.
+     */
+	@Test
+	void submit_cancelShouldReleaseAdmission() throws Exception {
+	    SimulationExecutor executor = new SimulationExecutor(1, 2);
+	    CountDownLatch release = new CountDownLatch(1);
+	    AtomicBoolean ran = new AtomicBoolean();
+	    try {
+	        CompletableFuture<Integer> running = executor.submit(() -> {
+	            try {
+	                release.await();
+	            } catch (InterruptedException e) {
+	                Thread.currentThread().interrupt();
+	            }
+	            return 1;
+	        });
+	        CompletableFuture<Integer> queued = executor.submit(() -> {
+	            ran.set(true);
+	            return 2;
+	        });
+	        assertThat(executor.getAvailableAdmissions()).isZero();
+
+	        queued.cancel(false);
+	        assertThat(executor.getAvailableAdmissions()).isEqualTo(1);
+	        release.countDown();
+	        assertThat(running.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+	        assertThat(executor.getAvailableAdmissions()).isEqualTo(2);
+	        assertThat(ran).isFalse();
+	    } finally {
+	        executor.shutdown();
+	    }
+	}
+}
@@ -0,0 +1,220 @@
+package com.BlackJackStack.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.assertj.core.api.Assertions.*;
+import static org.hamcrest.Matchers.hasItems;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StrategyApiControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	/**
+     * Test to ensure that a strategy lookup returns the response as JSON from both GET and POST.
+     * This helps verify that machine clients get the same data as the form without the HTML page.
+     */
+	@Test
+	void strategy_shouldReturnJson() throws Exception {
+	    mockMvc.perform(get("/api/v1/strategy").param("card1", "8").param("card2", "8").param("dealer", "10"))
+	            .andExpect(status().isOk())
+	            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+	            .andExpect(jsonPath("$.recommendedMove").value("split"))
+	            .andExpect(jsonPath("$.actionExpectedValues.split").isNumber());
+
+	    mockMvc.perform(post("/api/v1/strategy").contentType(MediaType.APPLICATION_JSON)
+	            .content("{\"card1\":\"A\",\"card2\":\"K\",\"dealerCard\":\"6\"}"))
+	            .andExpect(status().isOk())
+	            .andExpect(jsonPath("$.recommendedMove").value("stand"));
+	}
+
+	/**
+     * Test to ensure that invalid cards and rules profiles are reported as a 400 problem response.
+     * This helps verify that clients see which fields are wrong instead of a server error.
+     */
+	@Test
+	void strategy_shouldReportInvalidFields() throws Exception {
+	    mockMvc.perform(get("/api/v1/strategy").param("card1", "Z").param("card2", "8").param("dealer", "1")
+	            .param("rules", "missing"))
+	            .andExpect(status().isBadRequest())
+	            .andExpect(jsonPath("$.title").value("Invalid strategy request"))
+	            .andExpect(jsonPath("$.errors.card1").exists())
+	            .andExpect(jsonPath("$.errors.dealerCard").exists())
+	            .andExpect(jsonPath("$.errors.rules").value("Unknown rules profile: missing"))
+	            .andExpect(jsonPath("$.errors.card2").doesNotExist());
+
+	    mockMvc.perform(get("/api/v1/strategy").param("card1", "8"))
+	            .andExpect(status().isBadRequest());
+	}
+
+	/**
+     * Test to ensure that a hand can be given as a list of any number of cards, and that a busted hand or more
+     * split hands than the rules allow are rejected. This helps verify that decisions after hitting can be looked up through the API.
+     */
+	@Test
+	void strategy_shouldAcceptCardList() throws Exception {
+	    mockMvc.perform(get("/api/v1/strategy").param("cards", "A", "2", "3").param("dealer", "10"))
+	            .andExpect(status().isOk())
+	            .andExpect(jsonPath("$.recommendedMove").value("hit"))
+	            .andExpect(jsonPath("$.actionExpectedValues.split").doesNotExist());
+
+	    mockMvc.perform(post("/api/v1/strategy").contentType(MediaType.APPLICATION_JSON)
+	            .content("{\"cards\":[\"10\",\"6\",\"K\"],\"dealerCard\":\"9\"}"))
+	            .andExpect(status().isBadRequest())
+	            .andExpect(jsonPath("$.errors.cards").exists());
+
+	    mockMvc.perform(get("/api/v1/strategy").param("cards", "8", "3").param("dealer", "A")
+	            .param("rules", "vegas-s17").param("afterSplit", "true").param("splitHands", "3"))
+	            .andExpect(status().isOk());
+	    mockMvc.perform(get("/api/v1/strategy").param("cards", "8", "3").param("dealer", "A")
+	            .param("afterSplit", "true").param("splitHands", "3"))
+	            .andExpect(status().isBadRequest())
+	            .andExpect(jsonPath("$.errors.splitHands").exists());
+	}
+
+	/**
+     * Test to ensure that a batch returns one NDJSON line per request, from either a JSON array or NDJSON.
+     * This helps verify that results are tagged with their request index and invalid entries do not fail the batch.
+     */
+	@Test
+	void batch_shouldStreamOneLinePerRequest() throws Exception {
+	    String array = "[{\"card1\":\"10\",\"card2\":\"6\",\"dealerCard\":\"10\"},"
+	            + "{\"card1\":\"6\",\"card2\":\"K\",\"dealerCard\":\"Q\"},"
+	            + "{\"card1\":\"X\",\"card2\":\"6\",\"dealerCard\":\"10\"}]";
+	    MvcResult started = mockMvc.perform(post("/api/v1/strategy/batch")
+	            .contentType(MediaType.APPLICATION_JSON).content(array))
+	            .andExpect(request().asyncStarted())
+	            .andReturn();
+	    String[] lines = mockMvc.perform(asyncDispatch(started))
+	            .andExpect(status().isOk())
+	            .andReturn().getResponse().getContentAsString().trim().split("\n");
+
+	    assertThat(lines).hasSize(3);
+	    assertThat(lines).anySatisfy(line -> assertThat(line).contains("\"index\":2").contains("\"card1\""));
+	    assertThat(lines).filteredOn(line -> line.contains("\"recommendedMove\":\"hit\"")).hasSize(2);
+
+	    String ndjson = "{\"card1\":\"A\",\"card2\":\"K\",\"dealerCard\":\"6\"}\n"
+	            + "{\"card1\":\"8\",\"card2\":\"8\",\"dealerCard\":\"10\"}\n";
+	    started = mockMvc.perform(post("/api/v1/strategy/batch")
+	            .contentType(MediaType.APPLICATION_NDJSON).content(ndjson))
+	            .andReturn();
+	    lines = mockMvc.perform(asyncDispatch(started))
+	            .andReturn().getResponse().getContentAsString().trim().split("\n");
+
+	    assertThat(lines).hasSize(2);
+	    assertThat(lines).anySatisfy(line -> assertThat(line).contains("\"index\":1").contains("\"split\""));
+	}
+
+	/**
+     * Test to ensure that a streamed lookup ends with the final response in both SSE and NDJSON form.
+     * This helps verify that interactive clients can read snapshots until the result arrives.
+     */
+	@Test
+	void stream_shouldEndWithResult() throws Exception {
+	    MvcResult started = mockMvc.perform(get("/api/v1/strategy/stream").accept(MediaType.TEXT_EVENT_STREAM)
+	            .param("card1", "10").param("card2", "6").param("dealer", "9"))
+	            .andExpect(request().asyncStarted())
+	            .andReturn();
+	    String events = mockMvc.perform(asyncDispatch(started))
+	            .andExpect(status().isOk())
+	            .andReturn().getResponse().getContentAsString();
+
+	    assertThat(events).contains("event: result\ndata: {");
+	    assertThat(events.substring(events.lastIndexOf("event: "))).startsWith("event: result");
+
+	    started = mockMvc.perform(get("/api/v1/strategy/stream").accept(MediaType.APPLICATION_NDJSON)
+	            .param("card1", "10").param("card2", "6").param("dealer", "9"))
+	            .andReturn();
+	    String[] lines = mockMvc.perform(asyncDispatch(started))
+	            .andReturn().getResponse().getContentAsString().trim().split("\n");
+
+	    assertThat(lines[lines.length - 1]).contains("\"recommendedMove\":\"hit\"");
+	}
+
+	/**
+     * Test to ensure that a counting session follows the cards reported to it and adjusts the advice of
+     * lookups that name it, and that unknown sessions are reported.
+     * This helps verify that a table's count turns into index plays through the API.
+     */
+	@Test
+	void countSession_shouldAdjustAdvice() throws Exception {
+	    String created = mockMvc.perform(post("/api/v1/count-sessions"))
+	            .andExpect(status().isCreated())
+	            .andExpect(jsonPath("$.runningCount").value(0))
+	            .andReturn().getResponse().getContentAsString();
+	    String id = created.replaceAll(".*\"session\":\"([^\"]+)\".*", "$1");
+
+	    mockMvc.perform(post("/api/v1/count-sessions/" + id + "/cards").contentType(MediaType.APPLICATION_JSON)
+	            .content("[\"2\",\"3\",\"4\",\"5\",\"6\",\"2\",\"3\",\"4\",\"5\",\"6\",\"2\",\"3\",\"4\",\"5\",\"6\",\"2\",\"3\",\"4\",\"5\",\"6\",\"2\",\"3\",\"4\",\"5\"]"))
+	            .andExpect(status().isOk())
+	            .andExpect(jsonPath("$.runningCount").value(24))
+	            .andExpect(jsonPath("$.cardsSeen").value(24));
+
+	    mockMvc.perform(get("/api/v1/strategy").param("card1", "10").param("card2", "6").param("dealer", "10")
+	            .param("countSession", id))
+	            .andExpect(status().isOk())
+	            .andExpect(jsonPath("$.basicStrategyMove").value("hit"))
+	            .andExpect(jsonPath("$.countedMove").value("stand"))
+	            .andExpect(jsonPath("$.runningCount").value(24));
+	    mockMvc.perform(get("/api/v1/strategy").param("card1", "10").param("card2", "6").param("dealer", "10"))
+	            .andExpect(jsonPath("$.countedMove").doesNotExist());
+
+	    mockMvc.perform(post("/api/v1/count-sessions/" + id + "/cards").contentType(MediaType.APPLICATION_JSON)
+	            .content("[\"Z\"]"))
+	            .andExpect(status().isBadRequest())
+	            .andExpect(jsonPath("$.errors['cards[0]']").exists());
+	    mockMvc.perform(delete("/api/v1/count-sessions/" + id)).andExpect(status().isNoContent());
+	    mockMvc.perform(get("/api/v1/count-sessions/" + id)).andExpect(status().isNotFound());
+	    mockMvc.perform(get("/api/v1/strategy").param("card1", "10").param("card2", "6").param("dealer", "10")
+	            .param("countSession", id))
+	            .andExpect(status().isBadRequest())
+	            .andExpect(jsonPath("$.errors.countSession").exists());
+	}
+
+	/**
+     * Test to ensure that a game is dealt, played and settled through the game API, and that illegal moves,
+     * invalid cards and unknown sessions are reported.
+     * This helps verify that the server-side engine drives the round for thin clients.
+     */
+	@Test
+	void gameSession_shouldPlayRound() throws Exception {
+	    String created = mockMvc.perform(post("/api/v1/games"))
+	            .andExpect(status().isCreated())
+	            .andExpect(jsonPath("$.phase").value("READY"))
+	            .andReturn().getResponse().getContentAsString();
+	    String id = created.replaceAll(".*\"session\":\"([^\"]+)\".*", "$1");
+
+	    mockMvc.perform(post("/api/v1/games/" + id + "/stand"))
+	            .andExpect(status().isConflict());
+	    mockMvc.perform(post("/api/v1/games/" + id + "/deal").param("card1", "Z").param("card2", "6"))
+	            .andExpect(status().isBadRequest())
+	            .andExpect(jsonPath("$.errors.card1").exists());
+	    mockMvc.perform(post("/api/v1/games/" + id + "/deal").param("card1", "10").param("card2", "6")
+	            .param("dealer", "9"))
+	            .andExpect(status().isOk())
+	            .andExpect(jsonPath("$.phase").value("PLAYER_TURN"))
+	            .andExpect(jsonPath("$.hands[0].cards[0]").value("10"))
+	            .andExpect(jsonPath("$.hands[0].total").value(16))
+	            .andExpect(jsonPath("$.dealerCards.length()").value(1))
+	            .andExpect(jsonPath("$.moves").value(hasItems("hit", "stand", "double down")));
+	    mockMvc.perform(post("/api/v1/games/" + id + "/split"))
+	            .andExpect(status().isConflict());
+	    mockMvc.perform(post("/api/v1/games/" + id + "/stand"))
+	            .andExpect(status().isOk())
+	            .andExpect(jsonPath("$.phase").value("SETTLED"))
+	            .andExpect(jsonPath("$.net").exists())
+	            .andExpect(jsonPath("$.hands[0].net").exists());
+
+	    mockMvc.perform(delete("/api/v1/games/" + id)).andExpect(status().isNoContent());
+	    mockMvc.perform(get("/api/v1/games/" + id)).andExpect(status().isNotFound());
+	}
+}
@@ -0,0 +1,198 @@
+package com.BlackJackStack.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.BlackJackStack.demo.model.StrategyRequest;
+import com.BlackJackStack.demo.model.StrategyResponse;
+import com.BlackJackStack.demo.model.TableRules;
+import com.BlackJackStack.demo.service.LoadMonitor;
+import com.BlackJackStack.demo.service.SimulationExecutor;
+import com.BlackJackStack.demo.service.StrategyCache;
+import com.BlackJackStack.demo.service.StrategyMetrics;
+import com.BlackJackStack.demo.service.StrategyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+class StrategyCacheTest {
+
+	/**
+     * Test to ensure that equivalent spots are computed once and then served from the cache.
+     * This helps verify that ten-valued ranks and card order are normalized in the key.
+     */
+	@Test
+	void get_shouldShareEquivalentSpots() {
+	    StrategyCache cache = new StrategyCache(new StrategyService(), new StrategyMetrics());
+	    StrategyResponse first = cache.get(new StrategyRequest("K", "6", "Q"), TableRules.DEFAULT, snapshot -> { });
+	    StrategyResponse second = cache.get(new StrategyRequest("6", "10", "J"), TableRules.DEFAULT,
+	            snapshot -> fail("a cached response should not report snapshots"));
+
+	    assertThat(second).isSameAs(first);
+	    assertThat(cache.getStats().hitCount()).isEqualTo(1);
+	    assertThat(cache.getStats().missCount()).isEqualTo(1);
+	}
+
+	/**
+     * Test to ensure that the same hand under different rules is not shared.
+     * This helps verify that the rules are part of the key and that misses are published as metrics.
+     */
+	@Test
+	void get_shouldKeyOnRules() {
+	    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	    StrategyCache cache = new StrategyCache(new StrategyService(), new StrategyMetrics(registry),
+	            1, Duration.ofMinutes(1));
+	    TableRules s17 = new TableRules("s17", 6, 0.75, false, false, 2, false, 1.5);
+	    StrategyRequest request = new StrategyRequest("10", "7", "A");
+
+	    StrategyResponse h17 = cache.get(request, TableRules.DEFAULT, snapshot -> { });
+	    assertThat(cache.get(request, s17, snapshot -> { })).isNotSameAs(h17);
+	    assertThat(registry.get("cache.gets").tag("cache", "strategy.responses").tag("result", "miss")
+	            .functionCounter().count()).isEqualTo(2.0);
+	}
+
+	/**
+     * Test to ensure that profiles with the same rule values share one computation.
+     * This helps verify that the key ignores the profile name and each response still names its own profile.
+     */
+	@Test
+	void get_shouldShareProfilesWithSameRules() {
+	    StrategyCache cache = new StrategyCache(new StrategyService(), new StrategyMetrics());
+	    TableRules copy = new TableRules("house", 6, 0.75, true, false, 2, false, 1.5);
+	    StrategyRequest request = new StrategyRequest("10", "7", "A");
+
+	    StrategyResponse byDefault = cache.get(request, TableRules.DEFAULT, snapshot -> { });
+	    StrategyResponse byCopy = cache.get(request, copy,
+	            snapshot -> fail("a cached response should not report snapshots"));
+
+	    assertThat(cache.getStats().missCount()).isEqualTo(1);
+	    assertThat(byDefault.getRulesProfile()).isEqualTo(TableRules.DEFAULT_PROFILE);
+	    assertThat(byCopy.getRulesProfile()).isEqualTo("house");
+	    assertThat(byCopy.getActionExpectedValues()).isEqualTo(byDefault.getActionExpectedValues());
+	    assertThat(cache.get(request, TableRules.DEFAULT, snapshot -> { })).isSameAs(byDefault);
+	}
+
+	/**
+     * Test to ensure that a snapshot consumer that throws does not fail the computation it was called from.
+     * This helps verify that a streaming client that goes away cannot break the response other requests share.
+     */
+	@Test
+	void get_shouldIgnoreFailingSnapshotConsumer() {
+	    StrategyCache cache = new StrategyCache(new StrategyService(), new StrategyMetrics());
+	    AtomicInteger snapshots = new AtomicInteger();
+	    StrategyResponse response = cache.get(new StrategyRequest("10", "2", "4"), TableRules.DEFAULT, snapshot -> {
+	        snapshots.incrementAndGet();
+	        throw new UncheckedIOException(new IOException("Broken pipe"));
+	    });
+
+	    assertThat(snapshots.get()).isEqualTo(1);
+	    assertThat(response.isApproximate()).isFalse();
+	    assertThat(response.getActionExpectedValues()).containsKeys("stand", "hit");
+	    assertThat(cache.get(new StrategyRequest("2", "10", "4"), TableRules.DEFAULT, snapshot -> { }))
+	            .isSameAs(response);
+	}
+
+	/**
+     * Test to ensure that a miss that overruns its latency budget is answered with the basic strategy move,
+     * flagged approximate, and that the exact response is cached once it is ready.
+     * This helps verify that tail latency is bounded without approximations ever being cached.
+     */
+	@Test
+	void get_shouldDegradeWhenBudgetIsExhausted() throws Exception {
+	    StrategyService service = new StrategyService();
+	    ForkJoinPool pool = new ForkJoinPool(1);
+	    service.setExecutor(new SimulationExecutor(pool));
+	    StrategyCache cache = new StrategyCache(service, new StrategyMetrics(),
+	            new LoadMonitor(true, Duration.ZERO, 2.0), 100, Duration.ofMinutes(1));
+	    StrategyRequest request = new StrategyRequest("10", "6", "10");
+	    service.prepareApproximateStrategy(TableRules.DEFAULT);
+	    // Keep the only worker busy, so the exact computations cannot finish within the budget
+	    CountDownLatch busy = new CountDownLatch(1);
+	    pool.submit(() -> {
+	        try {
+	            return busy.await(1, TimeUnit.MINUTES);
+	        } catch (InterruptedException e) {
+	            return false;
+	        }
+	    });
+
+	    StrategyResponse approximate = cache.get(request, TableRules.DEFAULT, snapshot -> { });
+	    assertThat(approximate.isApproximate()).isTrue();
+	    assertThat(approximate.getRecommendedMove()).isEqualTo(approximate.getBasicStrategyMove());
+	    assertThat(approximate.getActionExpectedValues()).containsKeys("stand", "hit");
+	    assertThat(approximate.getExpectedValue()).isEqualTo(approximate.getActionExpectedValues().get("hit"));
+	    assertThat(approximate.getBustPercentage()).isCloseTo(8.0 / 13, within(1e-12));
+
+	    // A later decision is not in the infinite-deck table, so it skips the expected values
+	    StrategyRequest threeCards = new StrategyRequest();
+	    threeCards.setCards(List.of("10", "2", "4"));
+	    threeCards.setDealerCard("10");
+	    StrategyResponse later = cache.get(threeCards, TableRules.DEFAULT, snapshot -> { });
+	    assertThat(later.isApproximate()).isTrue();
+	    assertThat(later.getRecommendedMove()).isEqualTo("hit");
+	    assertThat(later.getActionExpectedValues()).isNull();
+	    assertThat(later.getExpectedValue()).isNaN();
+
+	    busy.countDown();
+	    StrategyResponse exact = null;
+	    for (int attempt = 0; attempt < 200 && (exact == null || exact.isApproximate()); attempt++) {
+	        Thread.sleep(50);
+	        exact = cache.get(request, TableRules.DEFAULT, snapshot -> { });
+	    }
+	    assertThat(exact.isApproximate()).isFalse();
+	    assertThat(exact.getActionExpectedValues()).containsKeys("stand", "hit");
+	    pool.shutdown();
+	}
+
+	/**
+     * Test to ensure that a miss whose simulation is not admitted is answered approximately instead of rejected.
+     * This helps verify that a full simulation queue degrades requests and is counted as such.
+     */
+	@Test
+	void get_shouldDegradeWhenQueueIsFull() {
+	    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	    StrategyService service = new StrategyService();
+	    SimulationExecutor executor = new SimulationExecutor(1, 0);
+	    service.setExecutor(executor);
+	    try {
+	        StrategyCache cache = new StrategyCache(service, new StrategyMetrics(registry),
+	                new LoadMonitor(true, Duration.ofMinutes(1), 2.0), 100, Duration.ofMinutes(1));
+
+	        assertThat(cache.get(new StrategyRequest("9", "2", "6"), TableRules.DEFAULT, snapshot -> { })
+	                .isApproximate()).isTrue();
+	        assertThat(registry.get("strategy.degraded").tag("reason", "queue").counter().count()).isEqualTo(1.0);
+	    } finally {
+	        executor.shutdown();
+	    }
+	}
+
+	/**
+     * Test to ensure that a miss while the CPU is too busy is answered approximately without starting a computation.
+     * This helps verify that each request gets its own approximation and that none is ever served from the cache.
+     */
+	@Test
+	void get_shouldNotCacheApproximationUnderCpuPressure() {
+	    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	    StrategyService service = new StrategyService();
+	    service.prepareApproximateStrategy(TableRules.DEFAULT);
+	    // Any sampled load is at or above the threshold
+	    StrategyCache cache = new StrategyCache(service, new StrategyMetrics(registry),
+	            new LoadMonitor(true, Duration.ofMinutes(1), Double.NEGATIVE_INFINITY), 100, Duration.ofMinutes(1));
+	    StrategyRequest request = new StrategyRequest("10", "6", "10");
+
+	    StrategyResponse first = cache.get(request, TableRules.DEFAULT, snapshot -> fail("nothing should be computed"));
+	    StrategyResponse second = cache.get(request, TableRules.DEFAULT, snapshot -> fail("nothing should be computed"));
+	    assertThat(first.isApproximate()).isTrue();
+	    assertThat(second.isApproximate()).isTrue();
+	    assertThat(second).isNotSameAs(first);
+	    assertThat(cache.getStats().hitCount()).isZero();
+	    assertThat(registry.get("strategy.degraded").tag("reason", "cpu").counter().count()).isEqualTo(2.0);
+	}
+}
@@ -0,0 +1,59 @@
+package com.BlackJackStack.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.BlackJackStack.demo.model.Card;
+import com.BlackJackStack.demo.model.Hand;
+import com.BlackJackStack.demo.model.Move;
+import com.BlackJackStack.demo.service.StrategyChart;
+import static org.assertj.core.api.Assertions.*;
+import java.io.StringReader;
+
+@SpringBootTest
+class StrategyChartTest {
+
+	private final StrategyChart h17 = StrategyChart.load("charts/basic-h17.chart");
+	private final StrategyChart s17 = StrategyChart.load("charts/basic-s17.chart");
+
+	/**
+     * Test to ensure that the bundled charts give the expected plays, including the fallbacks when a
+     * double, split or surrender is not allowed.
+     * This helps verify that rows and dealer columns are indexed correctly.
+     */
+	@Test
+	void move_shouldFollowChart() {
+	    assertThat(h17.move(hand("8", "8"), 10, true, true, false)).isEqualTo(Move.SPLIT);
+	    assertThat(h17.move(hand("8", "8"), 10, false, true, false)).isEqualTo(Move.HIT);
+	    assertThat(h17.move(hand("5", "5"), 9, true, true, false)).isEqualTo(Move.DOUBLE_DOWN);
+	    assertThat(h17.move(hand("A", "7"), 3, true, true, false)).isEqualTo(Move.DOUBLE_DOWN);
+	    assertThat(h17.move(hand("A", "7"), 3, true, false, false)).isEqualTo(Move.STAND);
+	    assertThat(h17.move(hand("10", "6"), 11, true, true, true)).isEqualTo(Move.SURRENDER);
+	    assertThat(h17.move(hand("10", "6"), 11, true, true, false)).isEqualTo(Move.HIT);
+	    assertThat(h17.move(hand("10", "7"), 11, true, true, true)).isEqualTo(Move.SURRENDER);
+	    assertThat(s17.move(hand("10", "7"), 11, true, true, true)).isEqualTo(Move.STAND);
+	    assertThat(h17.move(hand("10", "K"), 6, true, true, true)).isEqualTo(Move.STAND);
+	}
+
+	/**
+     * Test to ensure that a chart with a bad entry or a missing row is rejected.
+     * This helps verify that a swapped-in chart cannot silently leave hands unplayed.
+     */
+	@Test
+	void parse_shouldRejectMalformedChart() {
+	    assertThatThrownBy(() -> StrategyChart.parse("bad", new StringReader("[hard]\n4 H H H H H H H H H X\n")))
+	            .isInstanceOf(IllegalArgumentException.class)
+	            .hasMessageContaining("line 2");
+	    assertThatThrownBy(() -> StrategyChart.parse("short", new StringReader("[hard]\n4 H H H H H H H H H H\n")))
+	            .isInstanceOf(IllegalArgumentException.class)
+	            .hasMessageContaining("missing row hard 5");
+	    assertThatThrownBy(() -> StrategyChart.load("charts/none.chart"))
+	            .isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static int hand(String card1, String card2) {
+	    Hand hand = new Hand();
+	    hand.addCard(new Card(card1));
+	    hand.addCard(new Card(card2));
+	    return hand.getPacked();
+	}
+}
@@ -0,0 +1,37 @@
+package com.BlackJackStack.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StrategyControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	/**
+     * Test to ensure that the form is shown again with an error when it names an unknown rules profile.
+     * This helps verify that a bad rules parameter is a 400 with a message instead of a server error.
+     */
+	@Test
+	void recommend_shouldRerenderFormForUnknownRules() throws Exception {
+	    mockMvc.perform(post("/recommend").param("card1", "8").param("card2", "8").param("dealer", "10")
+	            .param("rules", "missing"))
+	            .andExpect(status().isBadRequest())
+	            .andExpect(view().name("index"))
+	            .andExpect(model().attributeDoesNotExist("move"))
+	            .andExpect(content().string(containsString("Unknown rules profile: missing")));
+
+	    mockMvc.perform(post("/recommend").param("card1", "8").param("card2", "8").param("dealer", "10")
+	            .param("rules", "vegas-s17"))
+	            .andExpect(status().isOk())
+	            .andExpect(model().attribute("move", "split"));
+	}
+}
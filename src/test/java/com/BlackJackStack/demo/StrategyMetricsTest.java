@@ -0,0 +1,53 @@
+package com.BlackJackStack.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.BlackJackStack.demo.model.StrategyRequest;
+import com.BlackJackStack.demo.service.StrategyMetrics;
+import com.BlackJackStack.demo.service.StrategyService;
+import com.BlackJackStack.demo.service.StrategyTable;
+import com.BlackJackStack.demo.service.TableRulesRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class StrategyMetricsTest {
+
+	/**
+     * Test to ensure that a strategy request records its latency and each estimator.
+     * This helps verify that the timers are tagged with the dealer card and rules profile.
+     */
+	@Test
+	void getStrategy_shouldRecordTimers() {
+	    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	    StrategyService service = new StrategyService();
+	    service.setMetrics(new StrategyMetrics(registry));
+
+	    service.getStrategy(new StrategyRequest("10", "6", "A"));
+
+	    assertThat(registry.get("strategy.request").tag("dealer", "A").tag("rules", "default").timer().count())
+	            .isEqualTo(1);
+	    assertThat(registry.get("strategy.estimator").tag("estimator", "expected-value").tag("dealer", "A")
+	            .timer().count()).isEqualTo(1);
+	    assertThat(registry.get("strategy.estimator").tag("estimator", "dealer-outcome").tag("dealer", "A")
+	            .timer().count()).isEqualTo(1);
+	    assertThat(registry.get("strategy.estimator").tag("estimator", "expected-value").tag("dealer", "5")
+	            .timer().count()).isZero();
+	}
+
+	/**
+     * Test to ensure that table lookups are counted as hits or misses.
+     * This helps verify the hit ratio gauge before the table has been built.
+     */
+	@Test
+	void lookup_shouldCountTableMisses() {
+	    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	    StrategyMetrics metrics = new StrategyMetrics(registry);
+	    StrategyTable table = new StrategyTable(new StrategyService(), new TableRulesRegistry(), metrics);
+
+	    table.lookup(new StrategyRequest("10", "6", "9"));
+
+	    assertThat(registry.get("strategy.table.lookups").tag("result", "miss").counter().count()).isEqualTo(1.0);
+	    assertThat(registry.get("strategy.table.hit.ratio").gauge().value()).isZero();
+	}
+}
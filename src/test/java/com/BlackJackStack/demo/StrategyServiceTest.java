@@ -2,84 +2,26 @@ package com.BlackJackStack.demo;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
-import com.BlackJackStack.demo.model.Card;
 import com.BlackJackStack.demo.model.StrategyRequest;
 import com.BlackJackStack.demo.model.StrategyResponse;
+import com.BlackJackStack.demo.model.TableRules;
 import com.BlackJackStack.demo.service.StrategyService;
 import static org.assertj.core.api.Assertions.*;
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 @SpringBootTest
 class StrategyServiceTest {
 
-    /**
-     * Test to ensure that drawing random cards is deterministic when using the same seed.
-     * This helps verify that the random number generation is functioning as expected.
-     */
-	@Test
-	void drawRandomCard_shouldBeDeterministicWithSeed() {
-	    StrategyService strategyService1 = new StrategyService(new Random(42));
-	    StrategyService strategyService2 = new StrategyService(new Random(42));
-	    
-	    Card card1a = strategyService1.drawRandomCard();
-	    Card card2a = strategyService1.drawRandomCard();
-	    
-	    Card card1b = strategyService2.drawRandomCard();
-	    Card card2b = strategyService2.drawRandomCard();
-	    
-	    assertThat(card1a.getRank()).isEqualTo(card1b.getRank());
-	    assertThat(card2a.getRank()).isEqualTo(card2b.getRank());
-	}
-	
-	/**
-     * Test to ensure that drawing random cards produces different results with different seeds.
-     * This helps verify that the random number generation is sensitive to the seed value.
-     */
-	@Test
-	void drawRandomCard_shouldProduceDifferentCardsWithDifferentSeeds() {
-        StrategyService strategyService1 = new StrategyService(new Random(42));
-        StrategyService strategyService2 = new StrategyService(new Random(132));
-        
-        Card card1 = strategyService1.drawRandomCard();
-        Card card2 = strategyService2.drawRandomCard();
-        
-        // There's a small chance they could be the same, but very unlikely
-        assertThat(card1.getRank()).isNotEqualTo(card2.getRank());
-    }
-	
-	/**
-     * Test to ensure that drawing a random card returns a valid card object.
-     * This helps verify that the card drawing functionality is working correctly.
-     */
-	@Test
-	void drawRandomCard_shouldReturnValidCard() {
-        StrategyService service = new StrategyService(new Random(42));
-        Card card = service.drawRandomCard();
-        assertThat(card).isNotNull();
-        assertThat(card.getRank()).isIn("2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A");
-    }
-	
-	/**
-     * Test to ensure that multiple draws of random cards return valid card objects.
-     * This helps verify that the card drawing functionality is consistent and reliable.
-     */
-	@Test
-	void drawRandomCard_multipleDrawsShouldBeValid() {
-        StrategyService service = new StrategyService(new Random(42));
-        for (int i = 0; i < 100; i++) {
-            Card card = service.drawRandomCard();
-            assertThat(card).isNotNull();
-            assertThat(card.getRank()).isIn("2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A");
-        }
-    }
-	
 	/**
      * Test to verify that the strategy calculation returns valid probabilities and recommendations.
      * This ensures that the strategy service is functioning correctly and providing reasonable outputs.
      */
 	@Test
 	void calculateStrategy_shouldReturnValidProbabilities() {
-	    StrategyService service = new StrategyService(new Random(42));
+	    StrategyService service = new StrategyService();
 	    StrategyRequest req = new StrategyRequest("10", "6", "9");
 	    StrategyResponse resp = service.getStrategy(req);
 	    
@@ -91,13 +33,13 @@ class StrategyServiceTest {
 	}
 	
 	/**
-     * Test to ensure that using the same random seed produces consistent strategy results.
+     * Test to ensure that two services produce the same strategy results.
      * This helps verify that the strategy calculations are reproducible and reliable.
      */
 	@Test
-	void calculateStrategy_sameSeedShouldGiveSameResults() {
-	    StrategyService service1 = new StrategyService(new Random(123));
-	    StrategyService service2 = new StrategyService(new Random(123));
+	void calculateStrategy_shouldGiveSameResults() {
+	    StrategyService service1 = new StrategyService();
+	    StrategyService service2 = new StrategyService();
 	    StrategyRequest req = new StrategyRequest("A", "10", "6");
 	    StrategyResponse resp1 = service1.getStrategy(req);
 	    StrategyResponse resp2 = service2.getStrategy(req);
@@ -106,18 +48,16 @@ class StrategyServiceTest {
 	}
 	
 	/**
-     * Test to ensure that using different random seeds produces different strategy results.
-     * This helps verify that the strategy calculations are sensitive to the randomness introduced by different seeds.
+     * Test to ensure that the bust chance is the exact share of the remaining cards that bust the hand.
+     * This helps verify that the visible cards are taken out of the shoe and that no draws are simulated.
      */
 	@Test
-	void calculateStrategy_differentSeedsShouldGiveDifferentResults() {
-        StrategyService service1 = new StrategyService(new Random(123));
-        StrategyService service2 = new StrategyService(new Random(456));
-        StrategyRequest req = new StrategyRequest("5", "10", "6");
-        StrategyResponse resp1 = service1.getStrategy(req);
-        StrategyResponse resp2 = service2.getStrategy(req);
-        // There's a small chance they could be the same, but very unlikely
-        assertThat(resp1.getExpectedValue()).isNotEqualTo(resp2.getExpectedValue());
+	void calculateStrategy_shouldCalculateExactBustChance() {
+        StrategyService service = new StrategyService();
+        StrategyResponse resp = service.getStrategy(new StrategyRequest("5", "10", "6"));
+
+        // Six decks less the 5, 10 and 6 leave 309 cards, 72 sevens to nines and 95 ten-valued cards bust 15
+        assertThat(resp.getBustPercentage()).isCloseTo(167.0 / 309, within(1e-12));
     }
 	
 	/**
@@ -126,7 +66,7 @@ class StrategyServiceTest {
      */
 	@Test
 	void calculateStrategy_edgeCaseBlackjack() {
-        StrategyService service = new StrategyService(new Random(42));
+        StrategyService service = new StrategyService();
         StrategyRequest req = new StrategyRequest("A", "K", "5");
         StrategyResponse resp = service.getStrategy(req);
         
@@ -140,7 +80,7 @@ class StrategyServiceTest {
      */
 	@Test
 	void calculateStrategy_edgeCaseBust() {
-        StrategyService service = new StrategyService(new Random(42));
+        StrategyService service = new StrategyService();
         StrategyRequest req = new StrategyRequest("10", "8", "9");
         StrategyResponse resp = service.getStrategy(req);
         
@@ -154,7 +94,7 @@ class StrategyServiceTest {
      */
 	@Test
 	void calculateStrategy_edgeCasePairOfAces() {
-        StrategyService service = new StrategyService(new Random(42));
+        StrategyService service = new StrategyService();
         StrategyRequest req = new StrategyRequest("A", "A", "6");
         StrategyResponse resp = service.getStrategy(req);
         
@@ -168,11 +108,129 @@ class StrategyServiceTest {
      */
 	@Test
 	void calculateStrategy_edgeCasePairOfEights() {
-        StrategyService service = new StrategyService(new Random(42));
+        StrategyService service = new StrategyService();
         StrategyRequest req = new StrategyRequest("8", "8", "10");
         StrategyResponse resp = service.getStrategy(req);
         
         assertThat(resp.getRecommendedMove()).isEqualTo("split");
     }
 
+	/**
+     * Test to ensure that the recommended move is the action with the highest exact expected value.
+     * This helps verify that every legal action is valued and the expected value needs no simulation.
+     */
+	@Test
+	void calculateStrategy_shouldRecommendBestActionValue() {
+        StrategyService service = new StrategyService();
+        StrategyResponse resp = service.getStrategy(new StrategyRequest("9", "9", "7"));
+        Map<String, Double> values = resp.getActionExpectedValues();
+
+        assertThat(values).containsOnlyKeys("stand", "hit", "double down", "split");
+        assertThat(resp.getRecommendedMove()).isEqualTo("stand");
+        assertThat(resp.getExpectedValue()).isEqualTo(Collections.max(values.values()));
+        assertThat(service.getStrategy(new StrategyRequest("9", "9", "7")).getActionExpectedValues()).isEqualTo(values);
+    }
+
+	/**
+     * Test to ensure that the table rules change the recommendation and statistics.
+     * This helps verify that late surrender is only offered when the rules allow it, that it is valued against a
+     * dealer natural, and that S17 changes the dealer odds.
+     */
+	@Test
+	void calculateStrategy_shouldFollowTableRules() {
+        StrategyService service = new StrategyService();
+        TableRules s17Surrender = new TableRules("s17-surrender", 6, 0.75, false, true, 2, true, 1.5);
+        StrategyResponse standard = service.getStrategy(new StrategyRequest("10", "6", "10"));
+        StrategyResponse surrender = service.getStrategy(new StrategyRequest("10", "6", "10"), s17Surrender);
+        StrategyResponse h17 = service.getStrategy(new StrategyRequest("10", "7", "6"));
+        StrategyResponse s17 = service.getStrategy(new StrategyRequest("10", "7", "6"), s17Surrender);
+        StrategyResponse sixteenVsAce = service.getStrategy(new StrategyRequest("10", "6", "A"), s17Surrender);
+        StrategyResponse fourteenVsAce = service.getStrategy(new StrategyRequest("10", "4", "A"), s17Surrender);
+
+        assertThat(standard.getRecommendedMove()).isEqualTo("hit");
+        assertThat(surrender.getRecommendedMove()).isEqualTo("surrender");
+        assertThat(surrender.getRulesProfile()).isEqualTo("s17-surrender");
+        // Late surrender still loses the whole bet to a dealer natural
+        assertThat(sixteenVsAce.getRecommendedMove()).isEqualTo("surrender");
+        assertThat(sixteenVsAce.getExpectedValue()).isLessThan(-0.5);
+        assertThat(fourteenVsAce.getRecommendedMove()).isEqualTo("hit");
+        assertThat(fourteenVsAce.getActionExpectedValues().get("surrender"))
+                .isLessThan(fourteenVsAce.getActionExpectedValues().get("hit"));
+        assertThat(h17.getDealerBustPercentage()).isGreaterThan(s17.getDealerBustPercentage());
+    }
+
+	/**
+     * Test to ensure that a snapshot with the basic strategy move is reported before the expected values are solved,
+     * then one more as each action is solved.
+     * This helps verify that streaming clients get the exact statistics early and the solved values as they come.
+     */
+	@Test
+	void calculateStrategy_shouldReportSnapshotPerSolvedAction() {
+        StrategyService service = new StrategyService();
+        List<StrategyResponse> snapshots = new ArrayList<>();
+        StrategyResponse resp = service.getStrategy(new StrategyRequest("10", "6", "9"), TableRules.DEFAULT, snapshots::add);
+
+        assertThat(snapshots).hasSize(1 + resp.getActionExpectedValues().size());
+        StrategyResponse first = snapshots.get(0);
+        assertThat(first).isNotSameAs(resp);
+        assertThat(first.getRecommendedMove()).isEqualTo(resp.getBasicStrategyMove());
+        assertThat(first.getActionExpectedValues()).isNull();
+        assertThat(first.getBustPercentage()).isEqualTo(resp.getBustPercentage());
+        assertThat(first.getDealerBustPercentage()).isEqualTo(resp.getDealerBustPercentage());
+        for (int i = 1; i < snapshots.size(); i++) {
+            StrategyResponse snapshot = snapshots.get(i);
+            assertThat(snapshot.getRecommendedMove()).isEqualTo(resp.getBasicStrategyMove());
+            assertThat(snapshot.getActionExpectedValues()).hasSize(i);
+            snapshot.getActionExpectedValues().forEach((action, value) ->
+                    assertThat(resp.getActionExpectedValues()).containsEntry(action, value));
+        }
+        assertThat(snapshots.get(snapshots.size() - 1).getActionExpectedValues())
+                .isEqualTo(resp.getActionExpectedValues());
+        assertThat(resp.getActionExpectedValues()).containsKey(resp.getRecommendedMove());
+    }
+
+	/**
+     * Test to ensure that a hand of more than two cards is valued from its exact composition.
+     * This helps verify that a hard 16 of three cards differs from 10-6 and that only hit and stand are offered.
+     */
+	@Test
+	void calculateStrategy_shouldValueMultiCardHands() {
+        StrategyService service = new StrategyService();
+        StrategyRequest threeCards = new StrategyRequest();
+        threeCards.setCards(List.of("10", "2", "4"));
+        threeCards.setDealerCard("10");
+        StrategyRequest softSixteen = new StrategyRequest();
+        softSixteen.setCards(List.of("A", "2", "3"));
+        softSixteen.setDealerCard("10");
+
+        StrategyResponse hard = service.getStrategy(threeCards);
+        StrategyResponse twoCards = service.getStrategy(new StrategyRequest("10", "6", "10"));
+        StrategyResponse soft = service.getStrategy(softSixteen);
+
+        assertThat(hard.getActionExpectedValues()).containsOnlyKeys("stand", "hit");
+        assertThat(hard.getActionExpectedValues().get("hit"))
+                .isNotEqualTo(twoCards.getActionExpectedValues().get("hit"));
+        assertThat(soft.getRecommendedMove()).isEqualTo("hit");
+        assertThat(soft.getBasicStrategyMove()).isEqualTo("hit");
+    }
+
+	/**
+     * Test to ensure that a split hand is not paid as a blackjack and follows the double after split rule.
+     * This helps verify the afterSplit and canDouble flags.
+     */
+	@Test
+	void calculateStrategy_shouldFollowSplitAndDoubleFlags() {
+        StrategyService service = new StrategyService();
+        StrategyRequest splitAce = new StrategyRequest("A", "K", "6");
+        splitAce.setAfterSplit(true);
+        StrategyRequest splitEleven = new StrategyRequest("5", "6", "6");
+        splitEleven.setAfterSplit(true);
+        StrategyRequest noDouble = new StrategyRequest("5", "6", "6");
+        noDouble.setCanDouble(false);
+
+        assertThat(service.getStrategy(splitAce).getExpectedValue()).isLessThan(1.0);
+        assertThat(service.getStrategy(splitEleven).getActionExpectedValues()).doesNotContainKey("double down");
+        assertThat(service.getStrategy(noDouble).getRecommendedMove()).isEqualTo("hit");
+        assertThat(service.getStrategy(noDouble).getBasicStrategyMove()).isEqualTo("hit");
+    }
 }
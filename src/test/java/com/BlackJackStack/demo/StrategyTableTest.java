@@ -0,0 +1,158 @@
+package com.BlackJackStack.demo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.BlackJackStack.demo.model.StrategyRequest;
+import com.BlackJackStack.demo.model.StrategyResponse;
+import com.BlackJackStack.demo.model.TableRules;
+import com.BlackJackStack.demo.service.StrategyService;
+import com.BlackJackStack.demo.service.StrategyTable;
+import com.BlackJackStack.demo.service.StrategyTableFile;
+import com.BlackJackStack.demo.service.TableRulesChangedEvent;
+import com.BlackJackStack.demo.service.TableRulesRegistry;
+import static org.assertj.core.api.Assertions.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@SpringBootTest
+class StrategyTableTest {
+
+	@Autowired
+	private StrategyTable startupTable;
+
+	@Autowired
+	private TableRulesRegistry rulesRegistry;
+
+	/**
+     * Test to ensure that lookups are computed directly while the table has not been built.
+     * This helps verify that requests are served before the background build completes.
+     */
+	@Test
+	void lookup_shouldFallBackBeforeBuild() {
+	    StrategyTable table = new StrategyTable(new StrategyService(), new TableRulesRegistry());
+	    StrategyResponse resp = table.lookup(new StrategyRequest("10", "6", "9"));
+
+	    assertThat(table.isReady()).isFalse();
+	    assertThat(resp.getRecommendedMove()).isEqualTo("hit");
+	}
+
+	/**
+     * Test to ensure that a built table serves equivalent hands from the same entry.
+     * This helps verify that card order and ten-valued ranks map to one table slot.
+     */
+	@Test
+	void lookup_shouldShareEntriesForEquivalentHands() throws InterruptedException {
+	    StrategyTable table = new StrategyTable(new StrategyService(), new TableRulesRegistry());
+	    table.load(TableRules.DEFAULT);
+	    for (int i = 0; i < 600 && !table.isReady(); i++) {
+	        Thread.sleep(100);
+	    }
+
+	    assertThat(table.isReady()).isTrue();
+	    StrategyResponse resp1 = table.lookup(new StrategyRequest("K", "7", "5"));
+	    StrategyResponse resp2 = table.lookup(new StrategyRequest("7", "10", "5"));
+	    assertThat(resp1).isSameAs(resp2);
+	    assertThat(resp1.getRecommendedMove()).isEqualTo("stand");
+	    table.shutdown();
+	}
+
+	/**
+     * Test to ensure that the application loads the table of the default profile once it has started.
+     * This helps verify that the startup load is wired.
+     */
+	@Test
+	void onApplicationReady_shouldLoadDefaultTable() throws InterruptedException {
+	    for (int i = 0; i < 600 && !startupTable.isReady(); i++) {
+	        Thread.sleep(100);
+	    }
+
+	    assertThat(startupTable.isReady(rulesRegistry.getDefaultRules())).isTrue();
+	    StrategyRequest request = new StrategyRequest("K", "7", "5");
+	    assertThat(startupTable.lookup(request)).isSameAs(startupTable.lookup(request));
+	}
+
+	/**
+     * Test to ensure that a table written to its file is mapped by a later table with the same directory.
+     * This helps verify that the file keeps every value of the table and is refused for other rules or another chart.
+     */
+	@Test
+	void load_shouldMapTableWrittenByEarlierBuild(@TempDir Path dir) throws InterruptedException, IOException {
+	    TableRulesRegistry registry = new TableRulesRegistry();
+	    TableRulesRegistry.Profile profile = new TableRulesRegistry.Profile();
+	    profile.setDecks(0);
+	    registry.getProfiles().put("infinite", profile);
+	    TableRules rules = registry.resolve("infinite");
+	    StrategyRequest request = new StrategyRequest("A", "7", "9");
+	    request.setRules("infinite");
+
+	    StrategyTable builder = new StrategyTable(new StrategyService(), registry);
+	    builder.setDirectory(dir.toString());
+	    Path file = builder.generate(rules);
+	    assertThat(file).isEqualTo(dir.resolve("infinite-0d.table"));
+	    assertThat(Files.exists(file)).isTrue();
+
+	    StrategyTable loader = new StrategyTable(new StrategyService(), registry);
+	    loader.setDirectory(dir.toString());
+	    loader.load(rules);
+	    for (int i = 0; i < 100 && !loader.isReady(rules); i++) {
+	        Thread.sleep(10);
+	    }
+
+	    assertThat(loader.isReady(rules)).isTrue();
+	    StrategyResponse built = builder.lookup(request);
+	    StrategyResponse mapped = loader.lookup(request);
+	    assertThat(mapped).usingRecursiveComparison().isEqualTo(built);
+	    assertThat(mapped.getRecommendedMove()).isEqualTo("hit");
+	    assertThat(mapped.getActionExpectedValues()).containsOnlyKeys("stand", "hit", "double down");
+	    long chart = new StrategyService().getChart(rules).getFingerprint();
+	    assertThat(StrategyTableFile.open(file, rules, chart).size()).isEqualTo(1000);
+	    assertThatThrownBy(() -> StrategyTableFile.open(file, TableRules.DEFAULT, chart))
+	            .isInstanceOf(IllegalStateException.class);
+	    // The stand-on-soft-17 chart stands in for an edited chart
+	    long otherChart = new StrategyService().getChart(new TableRules("s17", 0, 1.0, false, false, 2, false, 1.5))
+	            .getFingerprint();
+	    assertThat(otherChart).isNotEqualTo(chart);
+	    assertThatThrownBy(() -> StrategyTableFile.open(file, rules, otherChart))
+	            .isInstanceOf(IllegalStateException.class);
+	    builder.shutdown();
+	    loader.shutdown();
+	}
+
+	/**
+     * Test to ensure that a loaded table is rebuilt in the background when the rule values of its profile change.
+     * This helps verify that requests are served for the new rules and an unchanged update keeps the table.
+     */
+	@Test
+	void onRulesChanged_shouldRebuildTable() throws InterruptedException {
+	    TableRulesRegistry registry = new TableRulesRegistry();
+	    TableRulesRegistry.Profile profile = new TableRulesRegistry.Profile();
+	    profile.setDecks(0);
+	    registry.getProfiles().put("infinite", profile);
+	    StrategyTable table = new StrategyTable(new StrategyService(), registry);
+	    registry.setEventPublisher(event -> table.onRulesChanged((TableRulesChangedEvent) event));
+	    TableRules rules = registry.resolve("infinite");
+	    table.load(rules);
+	    for (int i = 0; i < 600 && !table.isReady(rules); i++) {
+	        Thread.sleep(100);
+	    }
+	    assertThat(table.isReady(rules)).isTrue();
+
+	    TableRulesRegistry.Profile standSoft17 = TableRulesRegistry.Profile.of(rules);
+	    standSoft17.setHitSoft17(false);
+	    TableRules changed = registry.update("infinite", standSoft17);
+	    assertThat(table.isReady(rules)).isFalse();
+	    for (int i = 0; i < 600 && !table.isReady(changed); i++) {
+	        Thread.sleep(100);
+	    }
+
+	    assertThat(table.isReady(changed)).isTrue();
+	    assertThat(registry.update("infinite", TableRulesRegistry.Profile.of(changed))).isSameAs(changed);
+	    StrategyRequest request = new StrategyRequest("A", "7", "2");
+	    request.setRules("infinite");
+	    assertThat(table.lookup(request)).isSameAs(table.lookup(request));
+	    table.shutdown();
+	}
+}
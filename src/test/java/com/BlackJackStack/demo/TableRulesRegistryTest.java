@@ -0,0 +1,108 @@
+package com.BlackJackStack.demo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.BlackJackStack.demo.model.TableRules;
+import com.BlackJackStack.demo.service.TableRulesChangedEvent;
+import com.BlackJackStack.demo.service.TableRulesRegistry;
+import static org.assertj.core.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest
+class TableRulesRegistryTest {
+
+	/**
+     * Test to ensure that requests without a profile get the default rules.
+     * This helps verify that existing clients keep their behavior when no profile is configured.
+     */
+	@Test
+	void resolve_shouldReturnDefaultRulesWithoutProfile() {
+	    TableRulesRegistry registry = new TableRulesRegistry();
+
+	    assertThat(registry.resolve(null)).isSameAs(TableRules.DEFAULT);
+	    assertThat(registry.resolve(" ")).isSameAs(TableRules.DEFAULT);
+	}
+
+	/**
+     * Test to ensure that configured profiles are resolved by name and unknown names are rejected.
+     * This helps verify that unset profile values fall back to the default rules.
+     */
+	@Test
+	void resolve_shouldBuildConfiguredProfiles() {
+	    TableRulesRegistry registry = new TableRulesRegistry();
+	    TableRulesRegistry.Profile profile = new TableRulesRegistry.Profile();
+	    profile.setHitSoft17(false);
+	    profile.setLateSurrender(true);
+	    registry.getProfiles().put("s17", profile);
+
+	    TableRules rules = registry.resolve("s17");
+	    assertThat(rules.getName()).isEqualTo("s17");
+	    assertThat(rules.isHitSoft17()).isFalse();
+	    assertThat(rules.isLateSurrender()).isTrue();
+	    assertThat(rules.getDecks()).isEqualTo(TableRules.DEFAULT.getDecks());
+	    assertThat(registry.resolve("s17")).isSameAs(rules);
+	    assertThatThrownBy(() -> registry.resolve("missing"))
+	            .isInstanceOf(IllegalArgumentException.class)
+	            .hasMessageContaining("missing");
+	}
+
+	/**
+     * Test to ensure that requests without a profile follow the configured default profile.
+     * This helps verify that the default and the named profile share one TableRules, so they share tables.
+     */
+	@Test
+	void resolve_shouldFollowDefaultProfile() {
+	    TableRulesRegistry registry = new TableRulesRegistry();
+	    registry.getProfiles().put("s17", new TableRulesRegistry.Profile());
+	    assertThat(registry.resolve(null)).isSameAs(TableRules.DEFAULT);
+
+	    registry.setDefaultProfile("s17");
+	    assertThat(registry.resolve(null)).isSameAs(registry.resolve("s17"));
+	    assertThat(registry.getDefaultRules().getName()).isEqualTo("s17");
+	}
+
+	/**
+     * Test to ensure that two profiles with the same rule values are still different rules.
+     * This helps verify that caches and tables keyed by TableRules keep each profile's responses apart.
+     */
+	@Test
+	void resolve_shouldKeepProfilesWithSameValuesApart() {
+	    TableRulesRegistry registry = new TableRulesRegistry();
+	    registry.getProfiles().put("main-floor", new TableRulesRegistry.Profile());
+
+	    TableRules rules = registry.resolve("main-floor");
+	    assertThat(rules.hasSameRulesAs(TableRules.DEFAULT)).isTrue();
+	    assertThat(rules).isNotEqualTo(TableRules.DEFAULT);
+	}
+
+	/**
+     * Test to ensure that updating a profile publishes a change only when its rule values differ.
+     * This helps verify that tables are rebuilt after a rules change and kept when nothing changed.
+     */
+	@Test
+	void update_shouldPublishChangedRules() {
+	    TableRulesRegistry registry = new TableRulesRegistry();
+	    List<Object> events = new ArrayList<>();
+	    registry.setEventPublisher(events::add);
+	    registry.getProfiles().put("s17", new TableRulesRegistry.Profile());
+	    TableRules rules = registry.resolve("s17");
+
+	    assertThat(registry.update("s17", TableRulesRegistry.Profile.of(rules))).isSameAs(rules);
+	    assertThat(events).isEmpty();
+
+	    TableRulesRegistry.Profile profile = TableRulesRegistry.Profile.of(rules);
+	    profile.setHitSoft17(false);
+	    TableRules changed = registry.update("s17", profile);
+	    assertThat(changed.isHitSoft17()).isFalse();
+	    assertThat(registry.resolve("s17")).isSameAs(changed);
+	    assertThat(events).singleElement().isInstanceOfSatisfying(TableRulesChangedEvent.class, event -> {
+	        assertThat(event.getPrevious()).isSameAs(rules);
+	        assertThat(event.getRules()).isSameAs(changed);
+	    });
+	    TableRulesRegistry.Profile invalid = TableRulesRegistry.Profile.of(changed);
+	    invalid.setDecks(-1);
+	    assertThatThrownBy(() -> registry.update("s17", invalid)).isInstanceOf(IllegalArgumentException.class);
+	    assertThat(registry.resolve("s17")).isSameAs(changed);
+	}
+}